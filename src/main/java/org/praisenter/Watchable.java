@@ -15,4 +15,12 @@ import java.lang.annotation.Target;
 @Target({ ElementType.METHOD })
 public @interface Watchable {
 	public String name() default "";
+	
+	/**
+	 * True if the items of a collection should only be watched when requested.
+	 * <p>
+	 * Use this for collections that can be very large, like the books of a bible.
+	 * @return boolean
+	 */
+	public boolean lazy() default false;
 }
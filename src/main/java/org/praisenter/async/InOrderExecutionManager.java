@@ -18,7 +18,9 @@ public final class InOrderExecutionManager {
 		this.nextOperation = operation;
 		if (nextOperation == null) {
 			//System.out.println("Updating the future to include a run of the next operation");
-			this.lastOperation = this.lastOperation.thenComposeAsync((o) -> {
+			// NOTE: the operations only start asynchronous work so they're started
+			// on whichever thread completes the previous operation
+			this.lastOperation = this.lastOperation.thenCompose((o) -> {
 				//System.out.println("Next operation is about to be called, so clearing it");
 				final Supplier<CompletableFuture<Void>> toExecute = this.nextOperation;
 				this.nextOperation = null;
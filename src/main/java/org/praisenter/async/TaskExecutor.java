@@ -0,0 +1,194 @@
+package org.praisenter.async;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A named, fixed size pool of daemon threads for one kind of background work.
+ * <p>
+ * The threads are created with the given priority and are stopped after being idle
+ * for a while. The number of queued tasks and how long tasks waited in the queue
+ * before they started are tracked so that a busy pool can be spotted in the logs.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public final class TaskExecutor implements Executor {
+	/** How long an idle thread is kept */
+	private static final long KEEP_ALIVE_SECONDS = 30;
+
+	private final String name;
+	private final int threads;
+	private final ThreadPoolExecutor executor;
+
+	// metrics
+
+	/** The number of tasks that have been submitted but not finished */
+	private final AtomicInteger pending;
+	private final AtomicLong started;
+	private final AtomicLong totalWaitNanos;
+	private final AtomicLong maxWaitNanos;
+
+	/**
+	 * Minimal constructor.
+	 * @param name the name; used to name the threads
+	 * @param threads the maximum number of threads
+	 * @param priority the thread priority
+	 */
+	public TaskExecutor(String name, int threads, int priority) {
+		this.name = name;
+		this.threads = threads;
+		this.pending = new AtomicInteger();
+		this.started = new AtomicLong();
+		this.totalWaitNanos = new AtomicLong();
+		this.maxWaitNanos = new AtomicLong();
+
+		final AtomicInteger count = new AtomicInteger();
+		ThreadFactory factory = (r) -> {
+			Thread thread = new Thread(r, "praisenter-" + name + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			thread.setPriority(priority);
+			return thread;
+		};
+
+		this.executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[threads=%d, queued=%d, active=%d, completed=%d, averageWait=%dms, maxWait=%dms]",
+				this.name,
+				this.threads,
+				this.getQueueDepth(),
+				this.getActiveCount(),
+				this.getCompletedCount(),
+				this.getAverageWaitTime(),
+				this.getMaxWaitTime());
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		final long queued = System.nanoTime();
+		this.pending.incrementAndGet();
+		try {
+			this.executor.execute(() -> {
+				long wait = System.nanoTime() - queued;
+				this.started.incrementAndGet();
+				this.totalWaitNanos.addAndGet(wait);
+				this.maxWaitNanos.accumulateAndGet(wait, Math::max);
+				try {
+					command.run();
+				} finally {
+					this.finished();
+				}
+			});
+		} catch (RuntimeException ex) {
+			// rejected
+			this.finished();
+			throw ex;
+		}
+	}
+
+	private void finished() {
+		if (this.pending.decrementAndGet() == 0) {
+			synchronized (this.pending) {
+				this.pending.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Waits for all submitted tasks to finish.
+	 * <p>
+	 * Tasks submitted while waiting are waited on as well.
+	 * @param timeout the maximum time to wait
+	 * @param unit the time unit
+	 * @return boolean true if all tasks finished
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		synchronized (this.pending) {
+			while (this.pending.get() > 0) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					return false;
+				}
+				TimeUnit.NANOSECONDS.timedWait(this.pending, remaining);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Stops accepting tasks and waits for the submitted tasks to finish. If they
+	 * don't finish in the given time they are interrupted.
+	 * @param timeout the maximum time to wait
+	 * @param unit the time unit
+	 * @return boolean true if all tasks finished
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+		this.executor.shutdown();
+		if (this.executor.awaitTermination(timeout, unit)) {
+			return true;
+		}
+		this.executor.shutdownNow();
+		return false;
+	}
+
+	/**
+	 * Returns the name of this executor.
+	 * @return String
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns the number of tasks waiting for a thread.
+	 * @return int
+	 */
+	public int getQueueDepth() {
+		return this.executor.getQueue().size();
+	}
+
+	/**
+	 * Returns the approximate number of tasks currently running.
+	 * @return int
+	 */
+	public int getActiveCount() {
+		return this.executor.getActiveCount();
+	}
+
+	/**
+	 * Returns the approximate number of tasks that have finished.
+	 * @return long
+	 */
+	public long getCompletedCount() {
+		return this.executor.getCompletedTaskCount();
+	}
+
+	/**
+	 * Returns the average time tasks waited in the queue before they started in milliseconds.
+	 * @return long
+	 */
+	public long getAverageWaitTime() {
+		long started = this.started.get();
+		if (started == 0) return 0;
+		return TimeUnit.NANOSECONDS.toMillis(this.totalWaitNanos.get() / started);
+	}
+
+	/**
+	 * Returns the longest time a task waited in the queue before it started in milliseconds.
+	 * @return long
+	 */
+	public long getMaxWaitTime() {
+		return TimeUnit.NANOSECONDS.toMillis(this.maxWaitNanos.get());
+	}
+}
@@ -0,0 +1,164 @@
+package org.praisenter.async;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The executors for the application's background work.
+ * <p>
+ * Work is split by what it waits on so that one kind of work can't starve another:
+ * <ul>
+ * <li>I/O - reading and writing the workspace files, including loading the images of slides to show</li>
+ * <li>CPU - parsing, sorting and other computation for the UI</li>
+ * <li>media - importing media, which can wait on FFmpeg</li>
+ * <li>media-process - transcoding media in the background, one job at a time</li>
+ * <li>search - searching and rebuilding the search index</li>
+ * </ul>
+ * The search and I/O threads have normal priority since the user is usually waiting on
+ * them. The CPU and media threads have a lower priority so that long running work doesn't
+ * take time away from the UI.
+ * <p>
+ * Delayed work is scheduled with {@link #schedule(Runnable, long, TimeUnit, Executor)}. A
+ * single scheduler thread hands the work to an executor when it's due so that it's run
+ * and measured like any other task.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public final class TaskExecutors {
+	/** The class-level logger */
+	private static final Logger LOGGER = LogManager.getLogger();
+
+	private final TaskExecutor io;
+	private final TaskExecutor cpu;
+	private final TaskExecutor media;
+	private final TaskExecutor mediaProcess;
+	private final TaskExecutor search;
+
+	/** Hands delayed work to the executors when it's due */
+	private final ScheduledThreadPoolExecutor scheduler;
+
+	public TaskExecutors() {
+		int processors = Runtime.getRuntime().availableProcessors();
+		this.io = new TaskExecutor("io", 4, Thread.NORM_PRIORITY);
+		this.cpu = new TaskExecutor("cpu", Math.max(1, processors - 1), Thread.NORM_PRIORITY - 1);
+		this.media = new TaskExecutor("media", 2, Thread.NORM_PRIORITY - 2);
+		this.mediaProcess = new TaskExecutor("media-process", 1, Thread.NORM_PRIORITY - 2);
+		this.search = new TaskExecutor("search", 2, Thread.NORM_PRIORITY);
+
+		this.scheduler = new ScheduledThreadPoolExecutor(1, (r) -> {
+			Thread thread = new Thread(r, "praisenter-scheduler");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.scheduler.setRemoveOnCancelPolicy(true);
+	}
+
+	@Override
+	public String toString() {
+		return this.io + ", " + this.cpu + ", " + this.media + ", " + this.mediaProcess + ", " + this.search;
+	}
+
+	/**
+	 * Runs the given task on the given executor after the given delay.
+	 * <p>
+	 * Scheduled tasks aren't waited on by {@link #awaitIdle(long, TimeUnit)} until they're
+	 * due and tasks that aren't due yet are dropped by {@link #shutdown(long, TimeUnit)}.
+	 * @param task the task
+	 * @param delay the delay
+	 * @param unit the time unit
+	 * @param executor the executor to run the task on
+	 * @return ScheduledFuture&lt;?&gt; for cancelling the task before it's due
+	 * @throws java.util.concurrent.RejectedExecutionException if the executors have been shut down
+	 */
+	public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit, Executor executor) {
+		return this.scheduler.schedule(() -> executor.execute(task), delay, unit);
+	}
+
+	/**
+	 * Waits for all submitted tasks to finish.
+	 * @param timeout the maximum time to wait
+	 * @param unit the time unit
+	 * @return boolean true if all tasks finished
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		for (TaskExecutor executor : this.getAll()) {
+			if (!executor.awaitIdle(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Shuts down all the executors, interrupting any tasks that are still
+	 * running after the given time.
+	 * @param timeout the maximum time to wait
+	 * @param unit the time unit
+	 * @return boolean true if all tasks finished
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+		LOGGER.info("Shutting down executors: {}", this);
+		this.scheduler.shutdownNow();
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		boolean finished = true;
+		for (TaskExecutor executor : this.getAll()) {
+			if (!executor.shutdown(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+				LOGGER.warn("The executor '{}' didn't finish in time", executor.getName());
+				finished = false;
+			}
+		}
+		return finished;
+	}
+
+	private TaskExecutor[] getAll() {
+		return new TaskExecutor[] { this.io, this.cpu, this.media, this.mediaProcess, this.search };
+	}
+
+	/**
+	 * Returns the executor for reading and writing files.
+	 * @return {@link TaskExecutor}
+	 */
+	public TaskExecutor getIOExecutor() {
+		return this.io;
+	}
+
+	/**
+	 * Returns the executor for computation.
+	 * @return {@link TaskExecutor}
+	 */
+	public TaskExecutor getCPUExecutor() {
+		return this.cpu;
+	}
+
+	/**
+	 * Returns the executor for importing media.
+	 * @return {@link TaskExecutor}
+	 */
+	public TaskExecutor getMediaExecutor() {
+		return this.media;
+	}
+
+	/**
+	 * Returns the executor for transcoding media.
+	 * @return {@link TaskExecutor}
+	 */
+	public TaskExecutor getMediaProcessExecutor() {
+		return this.mediaProcess;
+	}
+
+	/**
+	 * Returns the executor for searching.
+	 * @return {@link TaskExecutor}
+	 */
+	public TaskExecutor getSearchExecutor() {
+		return this.search;
+	}
+}
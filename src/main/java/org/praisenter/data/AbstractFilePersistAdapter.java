@@ -9,6 +9,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -70,11 +71,12 @@ public abstract class AbstractFilePersistAdapter<T extends Persistable, E extend
 	}
 
 	@Override
-	public void update(T item) throws IOException {
+	public CompletableFuture<Void> update(T item) throws IOException {
 		Path path = this.pathResolver.getPath(item);
 		synchronized (this.getItemLock(item)) {
 			this.write(path, item);
 		}
+		return CompletableFuture.completedFuture(null);
 	}
 
 	@Override
@@ -84,4 +86,9 @@ public abstract class AbstractFilePersistAdapter<T extends Persistable, E extend
 			Files.deleteIfExists(path);
 		}
 	}
+	
+	@Override
+	public void flush() throws IOException {
+		// all writes are synchronous, nothing to flush
+	}
 }
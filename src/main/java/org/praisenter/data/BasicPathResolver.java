@@ -51,6 +51,10 @@ public class BasicPathResolver<T extends Identifiable> implements PathResolver<T
 		return this.basePath.resolve(this.getFileName(item, this.extension));
 	}
 	
+	public Path getPath(UUID id) {
+		return this.basePath.resolve(this.getFileName(id, this.extension));
+	}
+	
 	@Override
 	public Path getRelativePath(T item) {
 		return this.getFileName(item);
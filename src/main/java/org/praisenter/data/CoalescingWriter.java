@@ -0,0 +1,211 @@
+package org.praisenter.data;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.praisenter.LockMap;
+import org.praisenter.ThrowableConsumer;
+import org.praisenter.async.TaskExecutors;
+
+/**
+ * Write-behind helper that coalesces multiple pending writes of the same key
+ * into a single write of the most recent value.
+ * <p>
+ * The first write of a key schedules the actual write after the configured delay.
+ * Writes that arrive while it's pending simply replace the value. Writes that arrive
+ * while a write is in progress schedule a new write that runs after the current one
+ * finishes. No thread waits out the delay; the writes are handed to the I/O executor
+ * when they're due.
+ * <p>
+ * Use {@link #flush()} to skip the delay and wait for all outstanding writes (before
+ * an export or during shutdown for example).
+ * @author William Bittle
+ * @version 3.0.0
+ * @param <K> the key type
+ * @param <T> the value type
+ */
+public final class CoalescingWriter<K, T> {
+	/** The executors that run the writes when they're due */
+	private final TaskExecutors executors;
+	
+	/** The write operation */
+	private final ThrowableConsumer<T> writer;
+
+	/** The time to wait for more writes before writing */
+	private final long delay;
+
+	/** The per-key locks to serialize writes of the same key */
+	private final LockMap<K> locks;
+
+	/** The pending (not started) writes by key */
+	private final Map<K, PendingWrite<T>> pending;
+
+	/** All writes that have not completed yet */
+	private final Set<PendingWrite<T>> outstanding;
+
+	/**
+	 * Full constructor.
+	 * @param writer the write operation
+	 * @param delay the time in milliseconds to wait for more writes of the same key
+	 * @param executors the executors to run the writes on
+	 */
+	public CoalescingWriter(ThrowableConsumer<T> writer, long delay, TaskExecutors executors) {
+		this.executors = executors;
+		this.writer = writer;
+		this.delay = delay;
+		this.locks = new LockMap<>();
+		this.pending = new HashMap<>();
+		this.outstanding = new LinkedHashSet<>();
+	}
+
+	/**
+	 * Schedules a write of the given value.
+	 * <p>
+	 * The returned future completes when the value (or a newer value for
+	 * the same key) has been written.
+	 * @param key the key
+	 * @param value the value
+	 * @return CompletableFuture&lt;Void&gt;
+	 */
+	public CompletableFuture<Void> write(K key, T value) {
+		synchronized (this) {
+			PendingWrite<T> write = this.pending.get(key);
+			if (write != null) {
+				// coalesce with the pending write
+				write.value = value;
+				return write.future;
+			}
+			
+			final PendingWrite<T> next = new PendingWrite<T>(value);
+			this.pending.put(key, next);
+			this.outstanding.add(next);
+			next.task = this.executors.schedule(() -> this.execute(key, next), this.delay, TimeUnit.MILLISECONDS, this.executors.getIOExecutor());
+			return next.future;
+		}
+	}
+
+	/**
+	 * Waits for all outstanding writes to complete, skipping any delay.
+	 * <p>
+	 * The writes that haven't started yet are run on the calling thread.
+	 * @throws IOException if any of the writes failed
+	 */
+	public void flush() throws IOException {
+		List<Map.Entry<K, PendingWrite<T>>> due = null;
+		List<PendingWrite<T>> writes = null;
+		synchronized (this) {
+			due = new ArrayList<>(this.pending.entrySet());
+			writes = new ArrayList<>(this.outstanding);
+		}
+
+		for (Map.Entry<K, PendingWrite<T>> entry : due) {
+			PendingWrite<T> write = entry.getValue();
+			if (write.task != null) {
+				write.task.cancel(false);
+			}
+			this.execute(entry.getKey(), write);
+		}
+
+		IOException exception = null;
+		for (PendingWrite<T> write : writes) {
+			try {
+				write.await();
+			} catch (IOException ex) {
+				if (exception == null) {
+					exception = ex;
+				}
+			}
+		}
+
+		if (exception != null) {
+			throw exception;
+		}
+	}
+
+	/**
+	 * Performs the given pending write unless it's already been started.
+	 * @param key the key
+	 * @param write the pending write
+	 */
+	private void execute(K key, PendingWrite<T> write) {
+		if (!write.started.compareAndSet(false, true)) {
+			return;
+		}
+		
+		// NOTE: the pending write is removed while holding the key's lock so that
+		// any subsequent write of the same key will wait for this one to finish
+		synchronized (this.locks.get(key)) {
+			T value = null;
+			synchronized (this) {
+				this.pending.remove(key, write);
+				value = write.value;
+			}
+
+			try {
+				this.writer.accept(value);
+				write.future.complete(null);
+			} catch (Throwable t) {
+				write.future.completeExceptionally(t);
+			} finally {
+				synchronized (this) {
+					this.outstanding.remove(write);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Represents a single write that one or more callers are waiting on.
+	 * @author William Bittle
+	 * @version 3.0.0
+	 * @param <T> the value type
+	 */
+	private static final class PendingWrite<T> {
+		/** True once the write has been started */
+		private final AtomicBoolean started;
+
+		/** The future completed when the write is complete */
+		private final CompletableFuture<Void> future;
+
+		/** The latest value to write */
+		private T value;
+
+		/** The scheduled write */
+		private ScheduledFuture<?> task;
+
+		/**
+		 * Minimal constructor.
+		 * @param value the value to write
+		 */
+		public PendingWrite(T value) {
+			this.started = new AtomicBoolean();
+			this.future = new CompletableFuture<Void>();
+			this.value = value;
+		}
+
+		/**
+		 * Waits for the write to complete.
+		 * @throws IOException if the write failed
+		 */
+		public void await() throws IOException {
+			try {
+				this.future.join();
+			} catch (Exception ex) {
+				Throwable t = ex.getCause() != null ? ex.getCause() : ex;
+				if (t instanceof IOException) {
+					throw (IOException)t;
+				}
+				throw new IOException(t);
+			}
+		}
+	}
+}
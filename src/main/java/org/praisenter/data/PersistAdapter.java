@@ -3,14 +3,28 @@ package org.praisenter.data;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.zip.ZipOutputStream;
 
 public interface PersistAdapter<T extends Persistable> {
 	public void initialize() throws IOException;
 	public List<T> load() throws IOException;
 	public void create(T item) throws IOException;
-	public void update(T item) throws IOException;
+	
+	/**
+	 * Saves the given item.
+	 * <p>
+	 * The write may be done in the background (to coalesce successive updates for
+	 * example), so the returned future completes when the item has actually been
+	 * written, or completes exceptionally if it couldn't be.
+	 * @param item the item
+	 * @return CompletableFuture&lt;Void&gt;
+	 * @throws IOException if an IO error occurs
+	 */
+	public CompletableFuture<Void> update(T item) throws IOException;
+	
 	public void delete(T item) throws IOException;
+	public void flush() throws IOException;
 	public DataImportResult<T> importData(Path path) throws IOException;
 	public void exportData(KnownFormat format, ZipOutputStream destination, List<T> items) throws IOException;
 	public void exportData(KnownFormat format, Path path, T item) throws IOException;
@@ -0,0 +1,156 @@
+package org.praisenter.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javafx.collections.ModifiableObservableListBase;
+
+/**
+ * An observable list of {@link Persistable}s that can find an item by its id in constant time.
+ * <p>
+ * A map of id to index is kept along side the list. Appending or replacing items keeps
+ * the map up to date, anything else (inserting or removing) marks it as stale and it's
+ * rebuilt on the next lookup.
+ * <p>
+ * Use {@link #putAll(Collection)} to add or replace many items at once; listeners are
+ * notified with a single change.
+ * @author William Bittle
+ * @version 3.0.0
+ * @param <T> the item type
+ */
+public final class PersistableList<T extends Persistable> extends ModifiableObservableListBase<T> {
+	private final List<T> items;
+	private final Map<UUID, Integer> indices;
+
+	/** True if the indices need to be rebuilt */
+	private boolean stale;
+
+	public PersistableList() {
+		this.items = new ArrayList<>();
+		this.indices = new HashMap<>();
+		this.stale = false;
+	}
+
+	@Override
+	public T get(int index) {
+		return this.items.get(index);
+	}
+
+	@Override
+	public int size() {
+		return this.items.size();
+	}
+
+	@Override
+	protected void doAdd(int index, T element) {
+		this.items.add(index, element);
+		if (index == this.items.size() - 1) {
+			this.indices.put(element.getId(), index);
+		} else {
+			this.stale = true;
+		}
+	}
+
+	@Override
+	protected T doSet(int index, T element) {
+		T old = this.items.set(index, element);
+		if (!old.getId().equals(element.getId())) {
+			// the old id may still be in the list at another index
+			this.stale = true;
+		} else {
+			this.indices.put(element.getId(), index);
+		}
+		return old;
+	}
+
+	@Override
+	protected T doRemove(int index) {
+		this.stale = true;
+		return this.items.remove(index);
+	}
+
+	/**
+	 * Returns the index of the item with the given id or -1 if it's not in the list.
+	 * <p>
+	 * If there's more than one item with the id, the index of the last is returned.
+	 * @param id the id
+	 * @return int
+	 */
+	public int indexOfId(UUID id) {
+		if (id == null) return -1;
+		if (this.stale) {
+			this.indices.clear();
+			for (int i = 0; i < this.items.size(); i++) {
+				this.indices.put(this.items.get(i).getId(), i);
+			}
+			this.stale = false;
+		}
+		Integer index = this.indices.get(id);
+		return index != null ? index : -1;
+	}
+
+	/**
+	 * Returns the item with the given id or null if it's not in the list.
+	 * @param id the id
+	 * @return T
+	 */
+	public T getById(UUID id) {
+		int index = this.indexOfId(id);
+		return index >= 0 ? this.items.get(index) : null;
+	}
+
+	/**
+	 * Replaces the item with the same id as the given item or adds
+	 * it to the end of the list if there isn't one.
+	 * @param item the item
+	 */
+	public void put(T item) {
+		int index = this.indexOfId(item.getId());
+		if (index >= 0) {
+			this.set(index, item);
+		} else {
+			this.add(item);
+		}
+	}
+
+	/**
+	 * Calls {@link #put(Persistable)} for each of the given items, notifying
+	 * listeners with a single change.
+	 * @param items the items
+	 */
+	public void putAll(Collection<? extends T> items) {
+		if (items == null || items.isEmpty()) return;
+		this.beginChange();
+		try {
+			for (T item : items) {
+				this.put(item);
+			}
+		} finally {
+			this.endChange();
+		}
+	}
+
+	/**
+	 * Removes all items with the given id.
+	 * @param id the id
+	 * @return boolean true if an item was removed
+	 */
+	public boolean removeById(UUID id) {
+		boolean removed = false;
+		this.beginChange();
+		try {
+			int index;
+			while ((index = this.indexOfId(id)) >= 0) {
+				this.remove(index);
+				removed = true;
+			}
+		} finally {
+			this.endChange();
+		}
+		return removed;
+	}
+}
@@ -2,10 +2,12 @@ package org.praisenter.data;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.zip.ZipOutputStream;
 
 import org.praisenter.async.AsyncHelper;
@@ -18,15 +20,17 @@ import javafx.collections.ObservableList;
 public final class PersistentStore<T extends Persistable> {
 	private final PersistAdapter<T> adapter;
 	private final SearchIndex index;
+	private final Executor executor;
 	
-	private final ObservableList<T> items;
+	private final PersistableList<T> items;
 	private final ObservableList<T> itemsReadOnly;
 	
-	public PersistentStore(PersistAdapter<T> adapter, SearchIndex index) {
+	public PersistentStore(PersistAdapter<T> adapter, SearchIndex index, Executor executor) {
 		this.adapter = adapter;
 		this.index = index;
+		this.executor = executor;
 		
-		this.items = FXCollections.observableArrayList();
+		this.items = new PersistableList<>();
 		this.itemsReadOnly = FXCollections.unmodifiableObservableList(this.items);
 	}
 	
@@ -38,7 +42,7 @@ public final class PersistentStore<T extends Persistable> {
 			} catch (Exception ex) {
 				throw new CompletionException(ex);
 			}
-		}).thenCompose(AsyncHelper.onJavaFXThreadAndWait((items) -> {
+		}, this.executor).thenCompose(AsyncHelper.onJavaFXThreadAndWait((items) -> {
 			this.items.addAll(items);
 			return items;
 		}));
@@ -57,13 +61,7 @@ public final class PersistentStore<T extends Persistable> {
 	
 	public T getItem(UUID id) {
 		this.throwIfNotJavaFXThread();
-		for (int i = 0; i < this.items.size(); i++) {
-			T item = this.items.get(i);
-			if (id.equals(item.getId())) {
-				return item;
-			}
-		}
-		return null;
+		return this.items.getById(id);
 	}
 	
 	public CompletableFuture<Void> create(T item) {
@@ -74,28 +72,50 @@ public final class PersistentStore<T extends Persistable> {
 			} catch (Exception ex) {
 				throw new CompletionException(ex);
 			}
-		}).thenCompose(AsyncHelper.onJavaFXThreadAndWait(() -> {
+		}, this.executor).thenCompose(AsyncHelper.onJavaFXThreadAndWait(() -> {
 			this.items.add(item);
 		}));
 	}
 	
 	public CompletableFuture<Void> update(T item) {
-		return CompletableFuture.runAsync(() -> {
+		return CompletableFuture.supplyAsync(() -> {
 			try {
-				this.adapter.update(item);
-				this.index.update(item);
+				return this.adapter.update(item);
 			} catch (Exception ex) {
 				throw new CompletionException(ex);
 			}
-		}).thenCompose(AsyncHelper.onJavaFXThreadAndWait(() -> {
-			int index = -1;
-			for (int i = 0; i < this.items.size(); i++) {
-				T test = this.items.get(i);
-				if (test.getId().equals(item.getId())) {
-					index = i;
+		}, this.executor).thenCompose((written) -> {
+			// only index the item once it's actually been written
+			return written.thenRunAsync(() -> {
+				try {
+					this.index.update(item);
+				} catch (Exception ex) {
+					throw new CompletionException(ex);
 				}
+			}, this.executor);
+		}).thenCompose(AsyncHelper.onJavaFXThreadAndWait(() -> {
+			int index = this.items.indexOfId(item.getId());
+			if (index >= 0) {
+				this.items.set(index, item);
 			}
-			if (index >= 0 && index < this.items.size()) {
+		}));
+	}
+	
+	/**
+	 * Updates the search index and the list with an item that was already saved.
+	 * @param item the saved item
+	 * @return CompletableFuture&lt;Void&gt;
+	 */
+	public CompletableFuture<Void> refresh(T item) {
+		return CompletableFuture.runAsync(() -> {
+			try {
+				this.index.update(item);
+			} catch (Exception ex) {
+				throw new CompletionException(ex);
+			}
+		}, this.executor).thenCompose(AsyncHelper.onJavaFXThreadAndWait(() -> {
+			int index = this.items.indexOfId(item.getId());
+			if (index >= 0) {
 				this.items.set(index, item);
 			}
 		}));
@@ -109,11 +129,21 @@ public final class PersistentStore<T extends Persistable> {
 			} catch (Exception ex) {
 				throw new CompletionException(ex);
 			}
-		}).thenCompose(AsyncHelper.onJavaFXThreadAndWait(() -> {
-			this.items.removeIf(i -> i.getId().equals(item.getId()));
+		}, this.executor).thenCompose(AsyncHelper.onJavaFXThreadAndWait(() -> {
+			this.items.removeById(item.getId());
 		}));
 	}
 	
+	public CompletableFuture<Void> flush() {
+		return CompletableFuture.runAsync(() -> {
+			try {
+				this.adapter.flush();
+			} catch (Exception ex) {
+				throw new CompletionException(ex);
+			}
+		}, this.executor);
+	}
+	
 	public CompletableFuture<DataImportResult<T>> importData(Path path, boolean isTypeKnown) {
 		return CompletableFuture.supplyAsync(() -> {
 			try {
@@ -134,17 +164,12 @@ public final class PersistentStore<T extends Persistable> {
 					return null;
 				}
 			}
-		}).thenCompose(AsyncHelper.onJavaFXThreadAndWait((result) -> {
+		}, this.executor).thenCompose(AsyncHelper.onJavaFXThreadAndWait((result) -> {
 			if (result != null) {
-				for (T item : result.getUpdated()) {
-					int index = this.items.indexOf(item);
-					if (index < 0 || index >= this.items.size()) {
-						this.items.add(item);
-					} else {
-						this.items.set(index, item);
-					}
-				}
-				this.items.addAll(result.getCreated());
+				// replace the updated and add the created in one change
+				List<T> items = new ArrayList<>(result.getUpdated());
+				items.addAll(result.getCreated());
+				this.items.putAll(items);
 			}
 			return result;
 		}));
@@ -161,7 +186,7 @@ public final class PersistentStore<T extends Persistable> {
 			} catch (Exception ex) {
 				throw new CompletionException(ex);
 			}
-		});
+		}, this.executor);
 	}
 	
 	public Path getFilePath(T item) {
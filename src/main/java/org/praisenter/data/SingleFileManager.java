@@ -5,6 +5,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -15,16 +16,19 @@ public final class SingleFileManager<T> {
 	
 	private final Path path;
 	private final T data;
+	private final Executor executor;
 	
-	private SingleFileManager(Path path, T data) {
+	private SingleFileManager(Path path, T data, Executor executor) {
 		this.path = path;
 		this.data = data;
+		this.executor = executor;
 	}
 	
 	public static <T> SingleFileManager<T> open(
 			Path path, 
 			Class<T> clazz,
-			T defaultValue) throws IOException {
+			T defaultValue,
+			Executor executor) throws IOException {
 		// setup the configuration
 		LOGGER.info("Loading workspaces file...");
 		T data = null;
@@ -42,7 +46,7 @@ public final class SingleFileManager<T> {
 			JsonIO.write(path, data);
 		}
 		
-		return new SingleFileManager<T>(path, data);
+		return new SingleFileManager<T>(path, data, executor);
 	}
 	
 	public T getData() {
@@ -56,6 +60,6 @@ public final class SingleFileManager<T> {
 			} catch (Exception e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, this.executor);
 	}
 }
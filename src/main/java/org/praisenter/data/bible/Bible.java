@@ -758,7 +758,7 @@ public final class Bible implements ReadOnlyBible, Indexable, Persistable, Copya
 	}
 	
 	@JsonProperty
-	@Watchable(name = "books")
+	@Watchable(name = "books", lazy = true)
 	public ObservableList<Book> getBooks() {
 		return this.books;
 	}
@@ -17,6 +17,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -98,13 +99,14 @@ public final class BiblePersistAdapter implements PersistAdapter<Bible> {
 	}
 	
 	@Override
-	public void update(Bible item) throws IOException {
+	public CompletableFuture<Void> update(Bible item) throws IOException {
 		synchronized (this.exportLock) {
 			Path path = this.pathResolver.getPath(item);
 			synchronized (this.locks.get(item.getId())) {
 				JsonIO.write(path, item);
 			}
 		}
+		return CompletableFuture.completedFuture(null);
 	}
 	
 	@Override
@@ -117,6 +119,11 @@ public final class BiblePersistAdapter implements PersistAdapter<Bible> {
 		}
 	}
 	
+	@Override
+	public void flush() throws IOException {
+		// all writes are synchronous, nothing to flush
+	}
+	
 	@Override
 	public void exportData(KnownFormat format, Path path, Bible item) throws IOException {
 		synchronized (this.exportLock) {
@@ -162,7 +162,7 @@ public final class Book implements ReadOnlyBook, Copyable, Comparable<Book> {
 	}
 	
 	@JsonProperty
-	@Watchable(name = "chapters")
+	@Watchable(name = "chapters", lazy = true)
 	public ObservableList<Chapter> getChapters() {
 		return this.chapters;
 	}
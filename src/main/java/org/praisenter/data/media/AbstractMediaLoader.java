@@ -39,7 +39,6 @@ import org.apache.commons.io.FilenameUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.praisenter.data.media.tools.MediaTools;
-import org.praisenter.data.media.tools.TranscodeSettings;
 import org.praisenter.utility.ImageManipulator;
 import org.praisenter.utility.StringManipulator;
 
@@ -61,6 +60,7 @@ abstract class AbstractMediaLoader implements MediaLoader {
 	protected final MediaPathResolver pathResolver;
 	protected final MediaConfiguration configuration;
 	protected final MediaTools tools;
+	protected final MediaTranscodeQueue transcodeQueue;
 	
 	/**
 	 * Minimal constructor.
@@ -69,10 +69,12 @@ abstract class AbstractMediaLoader implements MediaLoader {
 	public AbstractMediaLoader(
 			MediaPathResolver pathResolver, 
 			MediaConfiguration configuration,
-			MediaTools tools) {
+			MediaTools tools,
+			MediaTranscodeQueue transcodeQueue) {
 		this.pathResolver = pathResolver;
 		this.configuration = configuration;
 		this.tools = tools;
+		this.transcodeQueue = transcodeQueue;
 	}
 	
 	/**
@@ -184,40 +186,38 @@ abstract class AbstractMediaLoader implements MediaLoader {
 	 * @return boolean
 	 */
 	protected final boolean isValidTranscodeCommand(MediaType type) {
-		// split the command by whitespace
-		String command = (type == MediaType.VIDEO 
-				 ? this.configuration.getVideoTranscodeCommand()
-				 : this.configuration.getAudioTranscodeCommand());
-		
+		String command = this.getTranscodePreset(type).getCommand(this.configuration, type);
 		return !StringManipulator.isNullOrEmpty(command);
 	}
 	
 	/**
-	 * Transcodes the given source file from its current format to a supported format using FFmpeg CLI.
-	 * <p>
-	 * This method blocks until transcoding is complete.
-	 * @param source the source file
-	 * @param target the target file
+	 * Returns the configured transcode preset for the given media type.
 	 * @param type the media type
-	 * @throws MediaImportException if an error occurs during transcoding
+	 * @return {@link TranscodePreset}
 	 */
-	protected final void transcode(Path source, Path target, MediaType type) throws MediaImportException {
-		// split the command by whitespace
-		String command = (type == MediaType.VIDEO 
-				 ? this.configuration.getVideoTranscodeCommand()
-				 : this.configuration.getAudioTranscodeCommand());
-
+	protected final TranscodePreset getTranscodePreset(MediaType type) {
+		TranscodePreset preset = (type == MediaType.VIDEO 
+				 ? this.configuration.getVideoTranscodePreset()
+				 : this.configuration.getAudioTranscodePreset());
+		if (preset == null || !preset.isSupported(type)) {
+			return TranscodePreset.CONFIGURED;
+		}
+		return preset;
+	}
+	
+	/**
+	 * Queues the given (already imported) media to be transcoded from its current format 
+	 * to a supported format using FFmpeg CLI.
+	 * <p>
+	 * The media uses the original file until transcoding is complete.
+	 * @param media the media
+	 */
+	protected final void enqueueTranscode(Media media) {
 		try {
-			TranscodeSettings settings = new TranscodeSettings();
-			// we can assume at this point that command is non-null and non-empty
-			settings.setCommandTemplate(command);
-			settings.setAdjustVolumeEnabled(this.configuration.isVolumeAdjustmentEnabled());
-			settings.setTargetMeanVolume(this.configuration.getTargetMeanVolume());
-			this.tools.ffmpegTranscode(settings, source, target);
-		} catch (IOException ex) {
-			throw new MediaImportException("Failed to transcode media '" + source.toAbsolutePath().toString() + "'.", ex);
-		} catch (InterruptedException ex) {
-			throw new MediaImportException("Failed to transcode media '" + source.toAbsolutePath().toString() + "' due to the process being interrupted.", ex);
+			this.transcodeQueue.enqueue(media, this.getTranscodePreset(media.getMediaType()));
+		} catch (Exception ex) {
+			// the media was imported successfully, it just won't be transcoded
+			LOGGER.error("Failed to queue media '" + media.getName() + "' for transcoding.", ex);
 		}
 	}
 	
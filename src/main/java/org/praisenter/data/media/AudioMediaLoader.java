@@ -57,8 +57,9 @@ final class AudioMediaLoader extends AbstractMediaLoader implements MediaLoader
 	public AudioMediaLoader(
 			MediaPathResolver pathResolver, 
 			MediaConfiguration configuration,
-			MediaTools tools) {
-		super(pathResolver, configuration, tools);
+			MediaTools tools,
+			MediaTranscodeQueue transcodeQueue) {
+		super(pathResolver, configuration, tools, transcodeQueue);
 	}
 	
 	/* (non-Javadoc)
@@ -88,19 +89,11 @@ final class AudioMediaLoader extends AbstractMediaLoader implements MediaLoader
 		String extension = this.getExtension(path);
 		Path target = this.pathResolver.getMediaPath().resolve(this.pathResolver.getFileName(id, extension));
 		
-		// are we doing transcoding?
-		if (this.configuration.isAudioTranscodingEnabled() && this.isValidTranscodeCommand(MediaType.AUDIO)) {
-			extension = this.configuration.getAudioTranscodeExtension();
-			// get the proper target path
-			target = this.pathResolver.getMediaPath().resolve(this.pathResolver.getFileName(id, extension));
-			// transcode the file
-			this.transcode(path, target, MediaType.AUDIO);
-		} else {
-			// just copy the file
-			Files.copy(path, target, StandardCopyOption.REPLACE_EXISTING);
-		}
+		// copy the file as-is; if transcoding is enabled it's done in the
+		// background once the media is imported
+		Files.copy(path, target, StandardCopyOption.REPLACE_EXISTING);
 		
-		// now that the media is the proper location and in the proper format
+		// now that the media is the proper location
 		// we need to load the media metadata
 		
 		// get the metadata
@@ -166,6 +159,11 @@ final class AudioMediaLoader extends AbstractMediaLoader implements MediaLoader
 			throw new MediaImportException("Failed to store image for audio media from the classpath default.", ex);
 		}
 		
+		// are we doing transcoding?
+		if (this.configuration.isAudioTranscodingEnabled() && this.isValidTranscodeCommand(MediaType.AUDIO)) {
+			this.enqueueTranscode(media);
+		}
+		
 		LOGGER.debug("Audio media '{}' loaded", path);
 		return media;
 	}
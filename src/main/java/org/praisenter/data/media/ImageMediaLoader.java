@@ -57,8 +57,9 @@ final class ImageMediaLoader extends AbstractMediaLoader implements MediaLoader
 	public ImageMediaLoader(
 			MediaPathResolver pathResolver, 
 			MediaConfiguration configuration,
-			MediaTools tools) {
-		super(pathResolver, configuration, tools);
+			MediaTools tools,
+			MediaTranscodeQueue transcodeQueue) {
+		super(pathResolver, configuration, tools, transcodeQueue);
 	}
 	
 	/* (non-Javadoc)
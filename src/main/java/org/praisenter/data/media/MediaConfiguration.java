@@ -27,4 +27,6 @@ public interface MediaConfiguration {
 	public String getAudioTranscodeCommand();
 	public String getVideoTranscodeCommand();
 	public String getVideoFrameExtractCommand();
+	public TranscodePreset getAudioTranscodePreset();
+	public TranscodePreset getVideoTranscodePreset();
 }
@@ -13,6 +13,7 @@ final class MediaPathResolver extends BasicPathResolver<Media> implements PathRe
 	private static final String THUMB_PATH = "thumb";
 	private static final String IMAGE_PATH = "image";
 	private static final String IMPORT_PATH = "import";
+	private static final String TRANSCODE_PATH = "transcode";
 	
 	private static final String IMAGE_EXTENSION = "jpg";
 	private static final String THUMB_EXTENSION = "png";
@@ -21,6 +22,7 @@ final class MediaPathResolver extends BasicPathResolver<Media> implements PathRe
 	private final Path imagePath;
 	private final Path thumbPath;
 	private final Path importPath;
+	private final Path transcodePath;
 	
 	public MediaPathResolver(Path basePath, String extension) {
 		super(basePath, "media", extension);
@@ -28,6 +30,7 @@ final class MediaPathResolver extends BasicPathResolver<Media> implements PathRe
 		this.imagePath = this.basePath.resolve(IMAGE_PATH);
 		this.thumbPath = this.basePath.resolve(THUMB_PATH);
 		this.importPath = this.basePath.resolve(IMPORT_PATH);
+		this.transcodePath = this.basePath.resolve(TRANSCODE_PATH);
 	}
 
 	public void initialize() throws IOException {
@@ -35,6 +38,7 @@ final class MediaPathResolver extends BasicPathResolver<Media> implements PathRe
 		Files.createDirectories(this.imagePath);
 		Files.createDirectories(this.thumbPath);
 		Files.createDirectories(this.importPath);
+		Files.createDirectories(this.transcodePath);
 	}
 	
 	// media
@@ -117,6 +121,12 @@ final class MediaPathResolver extends BasicPathResolver<Media> implements PathRe
 		return this.importPath;
 	}
 	
+	// transcode
+	
+	public Path getTranscodePath() {
+		return this.transcodePath;
+	}
+	
 	// export
 	
 	public Path getExportImagePath(Media media) {
@@ -12,6 +12,8 @@ import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -38,29 +40,43 @@ public final class MediaPersistAdapter implements PersistAdapter<Media> {
 	private final MediaPathResolver pathResolver;
 	
 	private final MediaTools tools;
+	private final MediaTranscodeQueue transcodeQueue;
 	private final MediaLoader[] loaders;
 	
 	private final LockMap<UUID> locks;
 	private final Object exportLock;
 	
-	public MediaPersistAdapter(Path path, MediaConfiguration configuration) {
+	public MediaPersistAdapter(Path path, MediaConfiguration configuration, Executor transcodeExecutor) {
 		this.configuration = configuration;
 		this.pathResolver = new MediaPathResolver(path, EXTENSION);
 		this.tools = new MediaTools(this.pathResolver.getBasePath());
-		this.loaders = new MediaLoader[] {
-			new ImageMediaLoader(this.pathResolver, this.configuration, this.tools),
-			new VideoMediaLoader(this.pathResolver, this.configuration, this.tools),
-			new AudioMediaLoader(this.pathResolver, this.configuration, this.tools)
-		};
 		
 		this.locks = new LockMap<UUID>();
 		this.exportLock = new Object();
+		
+		this.transcodeQueue = new MediaTranscodeQueue(this.pathResolver, this.configuration, this.tools, this.locks, transcodeExecutor);
+		this.loaders = new MediaLoader[] {
+			new ImageMediaLoader(this.pathResolver, this.configuration, this.tools, this.transcodeQueue),
+			new VideoMediaLoader(this.pathResolver, this.configuration, this.tools, this.transcodeQueue),
+			new AudioMediaLoader(this.pathResolver, this.configuration, this.tools, this.transcodeQueue)
+		};
 	}
 	
 	@Override
 	public void initialize() throws IOException {
 		this.pathResolver.initialize();
 		this.tools.initialize();
+		this.transcodeQueue.initialize();
+	}
+	
+	/**
+	 * Returns the queue of background transcode jobs.
+	 * <p>
+	 * The queue must be started by the caller once the media has been loaded.
+	 * @return {@link MediaTranscodeQueue}
+	 */
+	public MediaTranscodeQueue getTranscodeQueue() {
+		return this.transcodeQueue;
 	}
 	
 	@Override
@@ -99,17 +115,21 @@ public final class MediaPersistAdapter implements PersistAdapter<Media> {
 	}
 
 	@Override
-	public void update(Media item) throws IOException {
+	public CompletableFuture<Void> update(Media item) throws IOException {
 		synchronized (this.exportLock) {
 			Path path = this.pathResolver.getPath(item);
 			synchronized (this.locks.get(item.getId())) {
 				JsonIO.write(path, item);
 			}
 		}
+		return CompletableFuture.completedFuture(null);
 	}
 
 	@Override
 	public void delete(Media item) throws IOException {
+		// stop any transcoding of the media
+		this.transcodeQueue.cancelForMedia(item.getId());
+		
 		synchronized (this.exportLock) {
 			Path path = this.pathResolver.getPath(item);
 			synchronized (this.locks.get(item.getId())) {
@@ -127,6 +147,11 @@ public final class MediaPersistAdapter implements PersistAdapter<Media> {
 		}
 	}
 	
+	@Override
+	public void flush() throws IOException {
+		// all writes are synchronous, nothing to flush
+	}
+	
 	private void deleteWithShutdownFallback(Path path) {
 		try {
 			Files.deleteIfExists(path);
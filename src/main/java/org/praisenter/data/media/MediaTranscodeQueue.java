@@ -0,0 +1,508 @@
+package org.praisenter.data.media;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.praisenter.LockMap;
+import org.praisenter.data.DeleteFilesShutdownHook;
+import org.praisenter.data.json.JsonIO;
+import org.praisenter.data.media.tools.FFProbeMediaMetadata;
+import org.praisenter.data.media.tools.MediaTools;
+import org.praisenter.data.media.tools.TranscodeSettings;
+import org.praisenter.utility.MimeType;
+import org.praisenter.utility.StringManipulator;
+
+/**
+ * A persistent queue of {@link TranscodeJob}s that are run one at a time in the background.
+ * <p>
+ * Media is imported as-is and registered immediately. A job is then queued to transcode the
+ * original file. When the job completes, the transcoded file replaces the original and the
+ * media's metadata is updated. Callers are notified through the listener set with
+ * {@link #setOnMediaTranscoded(Consumer)} so that they can refresh their copy of the media.
+ * <p>
+ * The queue is stored in the media library so that jobs that were queued or running when the
+ * application closed (or the queue was stopped) are resumed when the queue is started again.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public final class MediaTranscodeQueue {
+	private static final Logger LOGGER = LogManager.getLogger();
+	private static final String QUEUE_FILE_NAME = "queue.json";
+
+	private final MediaPathResolver pathResolver;
+	private final MediaConfiguration configuration;
+	private final MediaTools tools;
+	private final LockMap<UUID> locks;
+	private final Path queuePath;
+
+	/** The jobs in the order they were queued */
+	private final Map<UUID, TranscodeJob> jobs;
+
+	/** The executor the jobs are run on */
+	private final Executor executor;
+
+	/** True if the queue has been started */
+	private boolean started;
+
+	/** True if a task to run the queued jobs has been submitted */
+	private boolean draining;
+
+	/** The job that's currently running */
+	private TranscodeJob current;
+
+	/** The FFmpeg process of the job that's currently running */
+	private volatile Process process;
+
+	/** True if the job that's currently running has been cancelled */
+	private boolean cancelled;
+
+	/** Called (on the queue's thread) when the transcoded file has replaced the original */
+	private Consumer<Media> onMediaTranscoded;
+
+	MediaTranscodeQueue(
+			MediaPathResolver pathResolver,
+			MediaConfiguration configuration,
+			MediaTools tools,
+			LockMap<UUID> locks,
+			Executor executor) {
+		this.pathResolver = pathResolver;
+		this.configuration = configuration;
+		this.tools = tools;
+		this.locks = locks;
+		this.queuePath = pathResolver.getTranscodePath().resolve(QUEUE_FILE_NAME);
+
+		this.jobs = new LinkedHashMap<>();
+		this.executor = executor;
+	}
+
+	/**
+	 * Loads the persisted queue.
+	 * <p>
+	 * Jobs that were running when the application closed are queued again.
+	 * Completed jobs from previous sessions are dropped.
+	 * @throws IOException if the queue could not be read or written
+	 */
+	synchronized void initialize() throws IOException {
+		if (Files.exists(this.queuePath)) {
+			TranscodeJob[] jobs = null;
+			try {
+				jobs = JsonIO.read(this.queuePath, TranscodeJob[].class);
+			} catch (Exception ex) {
+				LOGGER.error("Failed to read the transcode queue '" + this.queuePath.toAbsolutePath() + "'; starting with an empty queue.", ex);
+			}
+
+			if (jobs != null) {
+				for (TranscodeJob job : jobs) {
+					if (job == null || job.getId() == null || job.getState() == TranscodeJobState.COMPLETE) {
+						continue;
+					}
+					if (job.getState() == TranscodeJobState.RUNNING) {
+						LOGGER.info("Resuming transcode of '{}'", job.getMediaName());
+						job.setState(TranscodeJobState.QUEUED);
+					}
+					this.jobs.put(job.getId(), job);
+				}
+			}
+		}
+
+		this.save();
+
+		// if the JVM exits while a job is running, stop FFmpeg; the job is
+		// still recorded as running so it will be resumed next time
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			Process process = this.process;
+			if (process != null) {
+				process.destroy();
+			}
+		}));
+	}
+
+	/**
+	 * Starts running the queued jobs in the background.
+	 */
+	public synchronized void start() {
+		this.started = true;
+		this.schedule();
+	}
+
+	/**
+	 * Stops running jobs.
+	 * <p>
+	 * The job that's currently running is stopped and queued again so that it's
+	 * resumed the next time the queue is started.
+	 */
+	public synchronized void stop() {
+		this.started = false;
+		if (this.process != null) {
+			this.process.destroy();
+		}
+	}
+
+	/**
+	 * Sets the listener called when a transcoded file has replaced the original.
+	 * <p>
+	 * The listener is called on the queue's thread.
+	 * @param listener the listener
+	 */
+	public synchronized void setOnMediaTranscoded(Consumer<Media> listener) {
+		this.onMediaTranscoded = listener;
+	}
+
+	/**
+	 * Returns a snapshot of the jobs in the queue.
+	 * @return List&lt;{@link TranscodeJob}&gt;
+	 */
+	public synchronized List<TranscodeJob> getJobs() {
+		List<TranscodeJob> jobs = new ArrayList<>();
+		for (TranscodeJob job : this.jobs.values()) {
+			jobs.add(job.copy());
+		}
+		return jobs;
+	}
+
+	/**
+	 * Queues a job to transcode the given media with the given preset.
+	 * @param media the media
+	 * @param preset the preset
+	 * @return {@link TranscodeJob}
+	 * @throws IOException if the queue could not be saved
+	 */
+	synchronized TranscodeJob enqueue(Media media, TranscodePreset preset) throws IOException {
+		TranscodeJob job = new TranscodeJob(media, preset);
+		this.jobs.put(job.getId(), job);
+		this.save();
+		this.schedule();
+		return job.copy();
+	}
+
+	/**
+	 * Queues the given failed or cancelled job to run again.
+	 * @param jobId the job id
+	 * @throws IOException if the queue could not be saved
+	 */
+	public synchronized void retry(UUID jobId) throws IOException {
+		TranscodeJob job = this.jobs.get(jobId);
+		if (job == null) return;
+		if (job.getState() != TranscodeJobState.FAILED && job.getState() != TranscodeJobState.CANCELLED) return;
+
+		job.setState(TranscodeJobState.QUEUED);
+		job.setMessage(null);
+		job.setModifiedDate(Instant.now());
+		this.save();
+		this.schedule();
+	}
+
+	/**
+	 * Cancels the given job if it's queued or running.
+	 * <p>
+	 * The media continues to use the original file.
+	 * @param jobId the job id
+	 * @throws IOException if the queue could not be saved
+	 */
+	public synchronized void cancel(UUID jobId) throws IOException {
+		TranscodeJob job = this.jobs.get(jobId);
+		if (job == null) return;
+
+		if (job.getState() == TranscodeJobState.QUEUED) {
+			this.setState(job, TranscodeJobState.CANCELLED, null);
+			this.save();
+		} else if (job.getState() == TranscodeJobState.RUNNING && job == this.current) {
+			// the job's state is updated by the queue's thread once FFmpeg exits
+			this.cancelled = true;
+			if (this.process != null) {
+				this.process.destroy();
+			}
+		}
+	}
+
+	/**
+	 * Cancels any queued or running jobs for the given media.
+	 * @param mediaId the media id
+	 * @throws IOException if the queue could not be saved
+	 */
+	synchronized void cancelForMedia(UUID mediaId) throws IOException {
+		for (TranscodeJob job : new ArrayList<>(this.jobs.values())) {
+			if (mediaId.equals(job.getMediaId())) {
+				this.cancel(job.getId());
+			}
+		}
+	}
+
+	/**
+	 * Submits a task to run the queued jobs if one isn't running already.
+	 */
+	private void schedule() {
+		if (!this.started || this.draining) return;
+
+		this.draining = true;
+		this.executor.execute(this::drain);
+	}
+
+	/**
+	 * Runs queued jobs until there are none left.
+	 */
+	private void drain() {
+		while (true) {
+			TranscodeJob job = null;
+			synchronized (this) {
+				job = this.started ? this.next() : null;
+				if (job == null) {
+					this.draining = false;
+					return;
+				}
+
+				this.current = job;
+				this.cancelled = false;
+				job.setAttempts(job.getAttempts() + 1);
+				this.setState(job, TranscodeJobState.RUNNING, null);
+				this.trySave();
+			}
+
+			Media media = null;
+			TranscodeJobState state = TranscodeJobState.COMPLETE;
+			String message = null;
+			try {
+				media = this.run(job);
+				if (media == null) {
+					state = TranscodeJobState.CANCELLED;
+					message = "The media no longer exists.";
+				}
+			} catch (Exception ex) {
+				synchronized (this) {
+					if (!this.started) {
+						// the queue was stopped; run it again next time
+						state = TranscodeJobState.QUEUED;
+					} else {
+						state = this.cancelled ? TranscodeJobState.CANCELLED : TranscodeJobState.FAILED;
+					}
+				}
+				if (state == TranscodeJobState.FAILED) {
+					LOGGER.error("Failed to transcode media '" + job.getMediaName() + "'.", ex);
+					message = ex.getMessage();
+				}
+			}
+
+			Consumer<Media> listener = null;
+			synchronized (this) {
+				this.current = null;
+				this.process = null;
+				this.setState(job, state, message);
+				this.trySave();
+				listener = this.onMediaTranscoded;
+			}
+
+			if (media != null && listener != null) {
+				try {
+					listener.accept(media);
+				} catch (Exception ex) {
+					LOGGER.warn("Failed to notify listener of transcoded media '" + job.getMediaName() + "'.", ex);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the next queued job or null if there aren't any.
+	 * @return {@link TranscodeJob}
+	 */
+	private TranscodeJob next() {
+		for (TranscodeJob job : this.jobs.values()) {
+			if (job.getState() == TranscodeJobState.QUEUED) {
+				return job;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Transcodes the media for the given job and swaps the transcoded file in for the original.
+	 * @param job the job
+	 * @return {@link Media} the updated media or null if the media no longer exists
+	 * @throws IOException if an IO error occurs
+	 * @throws InterruptedException if FFmpeg or FFprobe is interrupted
+	 */
+	private Media run(TranscodeJob job) throws IOException, InterruptedException {
+		UUID mediaId = job.getMediaId();
+		Path path = this.pathResolver.getPath(mediaId);
+
+		Media media = null;
+		synchronized (this.locks.get(mediaId)) {
+			if (!Files.exists(path)) {
+				return null;
+			}
+			media = JsonIO.read(path, Media.class);
+		}
+
+		MediaType type = media.getMediaType();
+		TranscodePreset preset = job.getPreset() != null ? job.getPreset() : TranscodePreset.CONFIGURED;
+		String command = preset.getCommand(this.configuration, type);
+		String extension = preset.getExtension(this.configuration, type);
+		if (StringManipulator.isNullOrEmpty(command) || StringManipulator.isNullOrEmpty(extension)) {
+			throw new MediaImportException("The transcode command or extension for '" + preset + "' is empty.");
+		}
+
+		// transcode to a temporary file first so that an incomplete
+		// file never replaces the original
+		Path source = this.pathResolver.getMediaPath(media);
+		Path target = this.pathResolver.getTranscodePath().resolve(this.pathResolver.getFileName(mediaId, extension));
+
+		TranscodeSettings settings = new TranscodeSettings();
+		settings.setCommandTemplate(command);
+		settings.setAdjustVolumeEnabled(preset.isVolumeAdjustmentEnabled(this.configuration));
+		settings.setTargetMeanVolume(this.configuration.getTargetMeanVolume());
+
+		LOGGER.info("Transcoding '{}' using '{}'", job.getMediaName(), preset);
+		try {
+			this.tools.ffmpegTranscode(settings, source, target, (p) -> {
+				synchronized (this) {
+					this.process = p;
+					if (this.cancelled) {
+						p.destroy();
+					}
+				}
+			});
+
+			FFProbeMediaMetadata metadata = this.tools.ffprobeExtractMetadata(target);
+			if (type == MediaType.VIDEO && !metadata.hasVideo()) {
+				throw new MediaImportException("No video stream was found in the transcoded file for '" + job.getMediaName() + "'.");
+			}
+			if (type == MediaType.AUDIO && !metadata.hasAudio()) {
+				throw new MediaImportException("No audio stream was found in the transcoded file for '" + job.getMediaName() + "'.");
+			}
+			
+			return this.swap(mediaId, path, extension, target, metadata);
+		} finally {
+			// the temporary file is gone if it was swapped in
+			this.delete(target);
+		}
+	}
+	
+	/**
+	 * Replaces the media file with the given transcoded file and saves the media.
+	 * @param mediaId the media id
+	 * @param path the path to the media's data
+	 * @param extension the extension of the transcoded file
+	 * @param target the transcoded file
+	 * @param metadata the metadata of the transcoded file
+	 * @return {@link Media} the updated media or null if the media no longer exists
+	 * @throws IOException if an IO error occurs
+	 */
+	private Media swap(UUID mediaId, Path path, String extension, Path target, FFProbeMediaMetadata metadata) throws IOException {
+		synchronized (this.locks.get(mediaId)) {
+			// re-read the media in case it was changed while transcoding
+			if (!Files.exists(path)) {
+				return null;
+			}
+			Media media = JsonIO.read(path, Media.class);
+			MediaType type = media.getMediaType();
+
+			Path original = this.pathResolver.getMediaPath(media);
+
+			media.setExtension(extension);
+			Path transcoded = this.pathResolver.getMediaPath(media);
+			this.move(target, transcoded);
+
+			media.setMimeType(MimeType.get(transcoded));
+			media.setMediaFormat(metadata.getFormat());
+			media.setLength(metadata.getLength());
+			media.setSize(Files.size(transcoded));
+			if (type == MediaType.VIDEO) {
+				media.setWidth(metadata.getWidth());
+				media.setHeight(metadata.getHeight());
+				media.setAudioAvailable(metadata.hasAudio());
+			}
+			media.setModifiedDate(Instant.now());
+			media.setMediaPath(transcoded);
+			media.setMediaImagePath(type == MediaType.AUDIO ? this.pathResolver.getThumbPath(media) : this.pathResolver.getImagePath(media));
+			media.setMediaThumbnailPath(this.pathResolver.getThumbPath(media));
+
+			JsonIO.write(path, media);
+
+			// the original could still be playing, so fall back to deleting it at shutdown
+			if (!original.equals(transcoded)) {
+				try {
+					Files.deleteIfExists(original);
+				} catch (Exception ex) {
+					LOGGER.warn("Failed to delete original media '" + original.toAbsolutePath() + "' due to: " + ex.getMessage() + ". Will try again at shutdown.");
+					DeleteFilesShutdownHook.deleteOnShutdown(original);
+				}
+			}
+
+			LOGGER.info("Transcode of '{}' complete", media.getName());
+			return media;
+		}
+	}
+	
+	/**
+	 * Moves the given file to the given path, replacing it if it exists.
+	 * <p>
+	 * Falls back to copying when the file can't be moved (the target is on another
+	 * file store for example). The source file is left for the caller to delete.
+	 * @param source the file to move
+	 * @param target the path to move it to
+	 * @throws IOException if the file can't be moved or copied
+	 */
+	private void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException ex) {
+			LOGGER.debug("Failed to move '{}' to '{}' ({}); copying instead.", source, target, ex.getMessage());
+			Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Updates the state of the given job.
+	 * @param job the job
+	 * @param state the new state
+	 * @param message the message; can be null
+	 */
+	private void setState(TranscodeJob job, TranscodeJobState state, String message) {
+		job.setState(state);
+		job.setMessage(message);
+		job.setModifiedDate(Instant.now());
+	}
+
+	/**
+	 * Writes the queue to the media library.
+	 * @throws IOException if an IO error occurs
+	 */
+	private void save() throws IOException {
+		JsonIO.write(this.queuePath, this.jobs.values().toArray(new TranscodeJob[0]));
+	}
+
+	/**
+	 * Writes the queue to the media library, logging any error.
+	 */
+	private void trySave() {
+		try {
+			this.save();
+		} catch (Exception ex) {
+			LOGGER.error("Failed to save the transcode queue '" + this.queuePath.toAbsolutePath() + "'.", ex);
+		}
+	}
+
+	/**
+	 * Deletes the given path, logging any error.
+	 * @param path the path
+	 */
+	private void delete(Path path) {
+		try {
+			Files.deleteIfExists(path);
+		} catch (Exception ex) {
+			LOGGER.warn("Failed to delete the temporary transcode file '" + path.toAbsolutePath() + "'.", ex);
+		}
+	}
+}
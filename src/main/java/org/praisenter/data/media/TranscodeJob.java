@@ -0,0 +1,183 @@
+package org.praisenter.data.media;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.praisenter.data.Copyable;
+import org.praisenter.data.json.InstantJsonDeserializer;
+import org.praisenter.data.json.InstantJsonSerializer;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Represents a request to transcode an imported audio or video file in the background.
+ * <p>
+ * Jobs are persisted with the media library so that any job that was queued or running
+ * when the application closed is resumed the next time the workspace is opened.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public final class TranscodeJob implements Copyable {
+	private UUID id;
+	private UUID mediaId;
+	private String mediaName;
+	private MediaType mediaType;
+	private TranscodePreset preset;
+	private TranscodeJobState state;
+	private int attempts;
+	private String message;
+	private Instant createdDate;
+	private Instant modifiedDate;
+
+	public TranscodeJob() {
+		this.state = TranscodeJobState.QUEUED;
+		this.preset = TranscodePreset.CONFIGURED;
+	}
+
+	/**
+	 * Creates a new queued job for the given media.
+	 * @param media the media
+	 * @param preset the preset
+	 */
+	public TranscodeJob(Media media, TranscodePreset preset) {
+		this.id = UUID.randomUUID();
+		this.mediaId = media.getId();
+		this.mediaName = media.getName();
+		this.mediaType = media.getMediaType();
+		this.preset = preset;
+		this.state = TranscodeJobState.QUEUED;
+		this.attempts = 0;
+		this.createdDate = Instant.now();
+		this.modifiedDate = this.createdDate;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.praisenter.data.Copyable#copy()
+	 */
+	@Override
+	public TranscodeJob copy() {
+		TranscodeJob job = new TranscodeJob();
+		job.id = this.id;
+		job.mediaId = this.mediaId;
+		job.mediaName = this.mediaName;
+		job.mediaType = this.mediaType;
+		job.preset = this.preset;
+		job.state = this.state;
+		job.attempts = this.attempts;
+		job.message = this.message;
+		job.createdDate = this.createdDate;
+		job.modifiedDate = this.modifiedDate;
+		return job;
+	}
+
+	@Override
+	public String toString() {
+		return this.mediaName + " [" + this.preset + "|" + this.state + "]";
+	}
+
+	@JsonProperty
+	public UUID getId() {
+		return this.id;
+	}
+
+	@JsonProperty
+	void setId(UUID id) {
+		this.id = id;
+	}
+
+	@JsonProperty
+	public UUID getMediaId() {
+		return this.mediaId;
+	}
+
+	@JsonProperty
+	void setMediaId(UUID mediaId) {
+		this.mediaId = mediaId;
+	}
+
+	@JsonProperty
+	public String getMediaName() {
+		return this.mediaName;
+	}
+
+	@JsonProperty
+	void setMediaName(String mediaName) {
+		this.mediaName = mediaName;
+	}
+
+	@JsonProperty
+	public MediaType getMediaType() {
+		return this.mediaType;
+	}
+
+	@JsonProperty
+	void setMediaType(MediaType mediaType) {
+		this.mediaType = mediaType;
+	}
+
+	@JsonProperty
+	public TranscodePreset getPreset() {
+		return this.preset;
+	}
+
+	@JsonProperty
+	void setPreset(TranscodePreset preset) {
+		this.preset = preset;
+	}
+
+	@JsonProperty
+	public TranscodeJobState getState() {
+		return this.state;
+	}
+
+	@JsonProperty
+	void setState(TranscodeJobState state) {
+		this.state = state;
+	}
+
+	@JsonProperty
+	public int getAttempts() {
+		return this.attempts;
+	}
+
+	@JsonProperty
+	void setAttempts(int attempts) {
+		this.attempts = attempts;
+	}
+
+	@JsonProperty
+	public String getMessage() {
+		return this.message;
+	}
+
+	@JsonProperty
+	void setMessage(String message) {
+		this.message = message;
+	}
+
+	@JsonProperty
+	@JsonSerialize(using = InstantJsonSerializer.class)
+	public Instant getCreatedDate() {
+		return this.createdDate;
+	}
+
+	@JsonProperty
+	@JsonDeserialize(using = InstantJsonDeserializer.class)
+	void setCreatedDate(Instant createdDate) {
+		this.createdDate = createdDate;
+	}
+
+	@JsonProperty
+	@JsonSerialize(using = InstantJsonSerializer.class)
+	public Instant getModifiedDate() {
+		return this.modifiedDate;
+	}
+
+	@JsonProperty
+	@JsonDeserialize(using = InstantJsonDeserializer.class)
+	void setModifiedDate(Instant modifiedDate) {
+		this.modifiedDate = modifiedDate;
+	}
+}
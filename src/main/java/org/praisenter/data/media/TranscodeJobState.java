@@ -0,0 +1,23 @@
+package org.praisenter.data.media;
+
+/**
+ * The states of a {@link TranscodeJob}.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public enum TranscodeJobState {
+	/** Waiting to be run */
+	QUEUED,
+
+	/** Currently running */
+	RUNNING,
+
+	/** Completed successfully; the transcoded file is in use */
+	COMPLETE,
+
+	/** Failed; can be retried */
+	FAILED,
+
+	/** Cancelled by the user or because the media was deleted; can be retried */
+	CANCELLED
+}
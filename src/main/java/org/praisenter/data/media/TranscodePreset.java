@@ -0,0 +1,109 @@
+package org.praisenter.data.media;
+
+/**
+ * Predefined transcode profiles.
+ * <p>
+ * All presets use software encoders that ship with every build of FFmpeg so that
+ * the output is the same regardless of the hardware of the machine.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public enum TranscodePreset {
+	/** Use the command and extension from the media configuration */
+	CONFIGURED(null, null, null, false),
+
+	/** H.264 video at most 1080 lines high, constant quality 20, AAC audio */
+	H264_1080P_CRF20(
+			MediaType.VIDEO,
+			"{ffmpeg} -v fatal -i {source} -y -ignore_unknown -vf scale=-2:'min(1080,ih)' -c:v libx264 -preset medium -crf 20 -pix_fmt yuv420p -c:a aac -b:a 192k {volumeadjust} -movflags +faststart {target}",
+			"mp4",
+			false),
+
+	/** H.264 video at most 720 lines high, constant quality 23, AAC audio */
+	H264_720P_CRF23(
+			MediaType.VIDEO,
+			"{ffmpeg} -v fatal -i {source} -y -ignore_unknown -vf scale=-2:'min(720,ih)' -c:v libx264 -preset medium -crf 23 -pix_fmt yuv420p -c:a aac -b:a 160k {volumeadjust} -movflags +faststart {target}",
+			"mp4",
+			false),
+
+	/** AAC audio with the volume normalized to the target mean volume */
+	AAC_NORMALIZE(
+			MediaType.AUDIO,
+			"{ffmpeg} -v fatal -i {source} -y -ignore_unknown -vn -c:a aac -b:a 192k {volumeadjust} {target}",
+			"m4a",
+			true);
+
+	/** The media type this preset applies to; null for all */
+	private final MediaType mediaType;
+
+	/** The FFmpeg command template */
+	private final String command;
+
+	/** The target extension */
+	private final String extension;
+
+	/** True if the volume should always be adjusted */
+	private final boolean volumeAdjustmentRequired;
+
+	/**
+	 * Full constructor.
+	 * @param mediaType the media type; null for all
+	 * @param command the FFmpeg command template
+	 * @param extension the target extension
+	 * @param volumeAdjustmentRequired true if the volume should always be adjusted
+	 */
+	private TranscodePreset(MediaType mediaType, String command, String extension, boolean volumeAdjustmentRequired) {
+		this.mediaType = mediaType;
+		this.command = command;
+		this.extension = extension;
+		this.volumeAdjustmentRequired = volumeAdjustmentRequired;
+	}
+
+	/**
+	 * Returns true if this preset can be used for the given media type.
+	 * @param type the media type
+	 * @return boolean
+	 */
+	public boolean isSupported(MediaType type) {
+		return this.mediaType == null || this.mediaType == type;
+	}
+
+	/**
+	 * Returns the FFmpeg command template for the given media type.
+	 * @param configuration the media configuration
+	 * @param type the media type
+	 * @return String
+	 */
+	public String getCommand(MediaConfiguration configuration, MediaType type) {
+		if (this.command != null) {
+			return this.command;
+		}
+		return type == MediaType.VIDEO
+			 ? configuration.getVideoTranscodeCommand()
+			 : configuration.getAudioTranscodeCommand();
+	}
+
+	/**
+	 * Returns the target extension for the given media type.
+	 * @param configuration the media configuration
+	 * @param type the media type
+	 * @return String
+	 */
+	public String getExtension(MediaConfiguration configuration, MediaType type) {
+		if (this.extension != null) {
+			return this.extension;
+		}
+		return type == MediaType.VIDEO
+			 ? configuration.getVideoTranscodeExtension()
+			 : configuration.getAudioTranscodeExtension();
+	}
+
+	/**
+	 * Returns true if the volume should be adjusted for the given configuration.
+	 * @param configuration the media configuration
+	 * @return boolean
+	 */
+	public boolean isVolumeAdjustmentEnabled(MediaConfiguration configuration) {
+		return this.volumeAdjustmentRequired || configuration.isVolumeAdjustmentEnabled();
+	}
+}
@@ -58,8 +58,9 @@ final class VideoMediaLoader extends AbstractMediaLoader implements MediaLoader
 	public VideoMediaLoader(
 			MediaPathResolver pathResolver, 
 			MediaConfiguration configuration,
-			MediaTools tools) {
-		super(pathResolver, configuration, tools);
+			MediaTools tools,
+			MediaTranscodeQueue transcodeQueue) {
+		super(pathResolver, configuration, tools, transcodeQueue);
 	}
 	
 	/* (non-Javadoc)
@@ -85,19 +86,11 @@ final class VideoMediaLoader extends AbstractMediaLoader implements MediaLoader
 		String extension = this.getExtension(path);
 		Path target = this.pathResolver.getMediaPath().resolve(this.pathResolver.getFileName(id, extension));
 		
-		// are we doing transcoding?
-		if (this.configuration.isVideoTranscodingEnabled() && this.isValidTranscodeCommand(MediaType.VIDEO)) {
-			extension = this.configuration.getVideoTranscodeExtension();
-			// get the proper target path
-			target = this.pathResolver.getMediaPath().resolve(this.pathResolver.getFileName(id, extension));
-			// transcode the file
-			this.transcode(path, target, MediaType.VIDEO);
-		} else {
-			// just copy the file
-			Files.copy(path, target, StandardCopyOption.REPLACE_EXISTING);
-		}
+		// copy the file as-is; if transcoding is enabled it's done in the
+		// background once the media is imported
+		Files.copy(path, target, StandardCopyOption.REPLACE_EXISTING);
 		
-		// now that the media is the proper location and in the proper format
+		// now that the media is the proper location
 		// we need to load the media metadata
 		
 		// get the metadata
@@ -176,6 +169,11 @@ final class VideoMediaLoader extends AbstractMediaLoader implements MediaLoader
 			throw new MediaImportException("Failed to store thumbnail for media '" + media.getName() + "'.", ex);
 		}
 		
+		// are we doing transcoding?
+		if (this.configuration.isVideoTranscodingEnabled() && this.isValidTranscodeCommand(MediaType.VIDEO)) {
+			this.enqueueTranscode(media);
+		}
+		
 		return media;
 	}
 	
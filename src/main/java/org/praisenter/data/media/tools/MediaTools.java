@@ -36,6 +36,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -176,6 +177,31 @@ public final class MediaTools {
 	 * @throws MediaToolExecutionException if the tools fails to perform its action
 	 */
 	public void ffmpegTranscode(TranscodeSettings settings, Path source, Path target) throws IOException, InterruptedException {
+		this.ffmpegTranscode(settings, source, target, null, true);
+	}
+	
+	/**
+	 * Uses the FFmpeg tool to transcode the given source file to the given target file using the given command template.
+	 * <p>
+	 * The given consumer is called with the FFmpeg process once it has started so that the
+	 * transcode can be cancelled by destroying the process.
+	 * <p>
+	 * Unlike {@link #ffmpegTranscode(TranscodeSettings, Path, Path)} this does not hold the FFmpeg
+	 * lock while transcoding so that a long running background transcode doesn't block imports.
+	 * The caller is responsible for not running too many of these at once.
+	 * @param settings the transcode settings
+	 * @param source the source file
+	 * @param target the target file
+	 * @param started called when the FFmpeg process has started; can be null
+	 * @throws IOException if an IO error occurs
+	 * @throws InterruptedException if the process is interrupted while waiting for it to complete
+	 * @throws MediaToolExecutionException if the tools fails to perform its action
+	 */
+	public void ffmpegTranscode(TranscodeSettings settings, Path source, Path target, Consumer<Process> started) throws IOException, InterruptedException {
+		this.ffmpegTranscode(settings, source, target, started, false);
+	}
+	
+	private void ffmpegTranscode(TranscodeSettings settings, Path source, Path target, Consumer<Process> started, boolean exclusive) throws IOException, InterruptedException {
 		Map<String, String> parameters = new HashMap<String, String>();
 		parameters.put("{ffmpeg}", this.ffmpeg.toAbsolutePath().toString());
 		parameters.put("{source}", source.toAbsolutePath().toString());
@@ -206,8 +232,13 @@ public final class MediaTools {
 			}
 		}
 		
-		synchronized (this.getFFmpegLock()) {
-			CommandLine.execute(this.parseCommand(template, parameters));
+		List<String> command = this.parseCommand(template, parameters);
+		if (exclusive) {
+			synchronized (this.getFFmpegLock()) {
+				CommandLine.execute(command, started);
+			}
+		} else {
+			CommandLine.execute(command, started);
 		}
 	}
 	
@@ -29,6 +29,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -384,6 +385,29 @@ public final class Slide extends SlideRegion implements ReadOnlySlide, ReadOnlyS
 		return false;
 	}
 	
+	/**
+	 * Returns the placeholder components of this slide that would show different text
+	 * (or a different font size) if the given placeholder data was set.
+	 * <p>
+	 * This can be used to only update the placeholders that change, for example, when
+	 * going to the next verse the title may stay the same.
+	 * @param data the new placeholder data
+	 * @return List&lt;{@link TextPlaceholderComponent}&gt;
+	 */
+	public List<TextPlaceholderComponent> getChangedPlaceholders(TextStore data) {
+		List<TextPlaceholderComponent> changed = new ArrayList<>();
+		for (TextPlaceholderComponent tpc : this.getComponents(TextPlaceholderComponent.class)) {
+			if (tpc.isTextLocked()) continue;
+			TextItem item = data != null ? data.get(tpc.getPlaceholderVariant(), tpc.getPlaceholderType()) : null;
+			String text = item != null ? item.getText() : null;
+			if (!Objects.equals(tpc.getText(), text) || 
+				(item != null && item.getFontSize() > 0 && item.getFontSize() != tpc.getFont().getSize())) {
+				changed.add(tpc);
+			}
+		}
+		return changed;
+	}
+	
 	private void updatePlaceholders() {
 		// iterate all the placeholders
 		for (TextPlaceholderComponent tpc : this.getComponents(TextPlaceholderComponent.class)) {
@@ -18,6 +18,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -28,6 +29,8 @@ import org.apache.commons.io.FilenameUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.praisenter.LockMap;
+import org.praisenter.async.TaskExecutors;
+import org.praisenter.data.CoalescingWriter;
 import org.praisenter.data.DataFormatProvider;
 import org.praisenter.data.DataImportResult;
 import org.praisenter.data.DataReadResult;
@@ -43,22 +46,27 @@ public final class SlidePersistAdapter implements PersistAdapter<Slide> {
 	private static final Logger LOGGER = LogManager.getLogger();
 	private static final String EXTENSION = "json";
 	
+	/** The time in milliseconds to wait for more updates of the same slide before writing */
+	private static final long UPDATE_COALESCE_DELAY = 250;
+	
 	private final SlideConfiguration configuration;
 	private final SlidePathResolver pathResolver;
 	private final SlideRenderer renderer;
 
 	private final LockMap<UUID> locks;
 	private final Object exportLock;
+	private final CoalescingWriter<UUID, Slide> updateWriter;
 	
 	private final Map<KnownFormat, DataFormatProvider<Slide>> formatProviders;
 	
-	public SlidePersistAdapter(Path basePath, SlideRenderer renderer, SlideConfiguration configuration) {
+	public SlidePersistAdapter(Path basePath, SlideRenderer renderer, SlideConfiguration configuration, TaskExecutors executors) {
 		this.configuration = configuration;
 		this.pathResolver = new SlidePathResolver(basePath, EXTENSION);
 		this.renderer = renderer;
 		
 		this.locks = new LockMap<>();
 		this.exportLock = new Object();
+		this.updateWriter = new CoalescingWriter<>(this::write, UPDATE_COALESCE_DELAY, executors);
 		
 		this.formatProviders = new LinkedHashMap<>();
 		this.formatProviders.put(KnownFormat.PRAISENTER3, new PraisenterFormatProvider<>(Slide.class));
@@ -108,7 +116,19 @@ public final class SlidePersistAdapter implements PersistAdapter<Slide> {
 	}
 	
 	@Override
-	public void update(Slide item) throws IOException {
+	public CompletableFuture<Void> update(Slide item) throws IOException {
+		// NOTE: rapid successive updates of the same slide (undo/redo, autosave, etc.)
+		// are coalesced into a single thumbnail render and write of the latest version;
+		// the returned future completes when that write does
+		return this.updateWriter.write(item.getId(), item);
+	}
+	
+	@Override
+	public void flush() throws IOException {
+		this.updateWriter.flush();
+	}
+	
+	private void write(Slide item) throws IOException {
 		synchronized (this.exportLock) {
 			Path path = this.pathResolver.getPath(item);
 			synchronized (this.locks.get(item.getId())) {
@@ -126,6 +146,8 @@ public final class SlidePersistAdapter implements PersistAdapter<Slide> {
 	
 	@Override
 	public void delete(Slide item) throws IOException {
+		// make sure a pending update doesn't write the slide back after deleting it
+		this.updateWriter.flush();
 		synchronized (this.exportLock) {
 			Path path = this.pathResolver.getPath(item);
 			synchronized (this.locks.get(item.getId())) {
@@ -250,6 +272,7 @@ public final class SlidePersistAdapter implements PersistAdapter<Slide> {
 	
 	@Override
 	public void exportData(KnownFormat format, Path path, Slide item) throws IOException {
+		this.updateWriter.flush();
 		synchronized (this.exportLock) {
 			DataFormatProvider<Slide> provider = this.formatProviders.get(format);
 			if (provider == null) {
@@ -269,6 +292,7 @@ public final class SlidePersistAdapter implements PersistAdapter<Slide> {
 			throw new UnknownFormatException(format.name());
 		}
 		
+		this.updateWriter.flush();
 		synchronized (this.exportLock) {
 			for (Slide item : items) {
 				ZipEntry entry = new ZipEntry(FilenameUtils.separatorsToUnix(this.pathResolver.getExportPath(item).toString()));
@@ -43,7 +43,6 @@ import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
-import javafx.beans.binding.Bindings;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleBooleanProperty;
@@ -72,25 +71,45 @@ public final class CountdownComponent extends TimedTextComponent implements Read
 		this.countdownTimeOnly = new SimpleBooleanProperty(false);
 		this.countdownFormat = new SimpleStringProperty(DEFAULT_FORMAT);
 		
-		this.text.bind(Bindings.createStringBinding(() -> {
-			boolean timeOnly = this.countdownTimeOnly.get();
-			LocalDateTime target = this.countdownTarget.get();
-			LocalDateTime now = this.now.get();
-			String format = this.countdownFormat.get();
-			
-			if (target == null) target = LocalDateTime.now();
-			if (format == null) format = DEFAULT_FORMAT;
-			
-			if (timeOnly) {
-				// get the time of the target only
-				LocalTime time = target.toLocalTime();
-				target = time.atDate(LocalDate.now());
-				if (target.isBefore(now)) {
-					target = target.plusDays(1);
-				}
+		this.countdownTarget.addListener(this::updateText);
+		this.countdownFormat.addListener(this::updateText);
+		this.countdownTimeOnly.addListener(this::updateText);
+		this.updateText(null);
+	}
+	
+	/* (non-Javadoc)
+	 * @see org.praisenter.data.slide.text.TimedTextComponent#formatText()
+	 */
+	@Override
+	protected String formatText() {
+		boolean timeOnly = this.countdownTimeOnly.get();
+		LocalDateTime target = this.countdownTarget.get();
+		LocalDateTime now = this.now.get();
+		String format = this.countdownFormat.get();
+		
+		if (target == null) target = LocalDateTime.now();
+		if (format == null) format = DEFAULT_FORMAT;
+		
+		if (timeOnly) {
+			// get the time of the target only
+			LocalTime time = target.toLocalTime();
+			target = time.atDate(now.toLocalDate());
+			if (target.isBefore(now)) {
+				target = target.plusDays(1);
 			}
-			return formatCountdown(format, target, now);
-		}, this.countdownTarget, this.countdownFormat, this.countdownTimeOnly, this.now));
+		}
+		return formatCountdown(format, target, now);
+	}
+	
+	/* (non-Javadoc)
+	 * @see org.praisenter.data.slide.text.TimedTextComponent#getTimeResolution()
+	 */
+	@Override
+	public ChronoUnit getTimeResolution() {
+		// the remaining time changes relative to the target, not to the wall clock's
+		// minute/hour/day boundaries, so a coarser clock would show a stale value and
+		// never reach zero; the text is only changed when the formatted value changes
+		return ChronoUnit.SECONDS;
 	}
 	
 	@Override
@@ -27,6 +27,7 @@ package org.praisenter.data.slide.text;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.Date;
 
 import org.praisenter.Watchable;
@@ -43,7 +44,6 @@ import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
-import javafx.beans.binding.Bindings;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 
@@ -62,14 +62,51 @@ public final class DateTimeComponent extends TimedTextComponent implements ReadO
 	public DateTimeComponent() {
 		this.dateTimeFormat = new SimpleObjectProperty<>();
 		
-		this.text.bind(Bindings.createStringBinding(() -> {
-			DateFormat format = this.dateTimeFormat.get();
-			
-			if (format == null) format = SimpleDateFormat.getDateInstance();
-			
-			return format.format(Date.from(this.now.get().atZone(ZoneId.systemDefault()).toInstant()));
-			
-		}, this.dateTimeFormat, this.now));
+		this.dateTimeFormat.addListener(this::updateText);
+		this.updateText(null);
+	}
+	
+	/* (non-Javadoc)
+	 * @see org.praisenter.data.slide.text.TimedTextComponent#formatText()
+	 */
+	@Override
+	protected String formatText() {
+		DateFormat format = this.dateTimeFormat.get();
+		
+		if (format == null) format = SimpleDateFormat.getDateInstance();
+		
+		return format.format(Date.from(this.now.get().atZone(ZoneId.systemDefault()).toInstant()));
+	}
+	
+	/* (non-Javadoc)
+	 * @see org.praisenter.data.slide.text.TimedTextComponent#getTimeResolution()
+	 */
+	@Override
+	public ChronoUnit getTimeResolution() {
+		SimpleDateFormat format = this.dateTimeFormat.get();
+		
+		// the default format is a date only
+		if (format == null) return ChronoUnit.DAYS;
+		
+		// find the finest pattern letter, skipping quoted text
+		ChronoUnit resolution = ChronoUnit.DAYS;
+		String pattern = format.toPattern();
+		boolean quoted = false;
+		for (int i = 0; i < pattern.length(); i++) {
+			char c = pattern.charAt(i);
+			if (c == '\'') {
+				quoted = !quoted;
+			} else if (!quoted) {
+				if (c == 's' || c == 'S') {
+					return ChronoUnit.SECONDS;
+				} else if (c == 'm') {
+					resolution = ChronoUnit.MINUTES;
+				} else if ((c == 'H' || c == 'h' || c == 'k' || c == 'K' || c == 'a') && resolution == ChronoUnit.DAYS) {
+					resolution = ChronoUnit.HOURS;
+				}
+			}
+		}
+		return resolution;
 	}
 	
 	@Override
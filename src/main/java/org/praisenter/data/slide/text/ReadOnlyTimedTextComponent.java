@@ -1,6 +1,7 @@
 package org.praisenter.data.slide.text;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 import org.praisenter.data.Copyable;
 import org.praisenter.data.Identifiable;
@@ -11,6 +12,7 @@ import javafx.beans.property.ReadOnlyObjectProperty;
 
 public interface ReadOnlyTimedTextComponent extends ReadOnlyTextComponent, ReadOnlySlideComponent, ReadOnlySlideRegion, Copyable, Identifiable {
 	public LocalDateTime getNow();
+	public ChronoUnit getTimeResolution();
 	
 	public ReadOnlyObjectProperty<LocalDateTime> nowProperty();
 }
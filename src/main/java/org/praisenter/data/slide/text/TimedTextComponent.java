@@ -25,6 +25,7 @@
 package org.praisenter.data.slide.text;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 import org.praisenter.data.Copyable;
 import org.praisenter.data.Identifiable;
@@ -35,8 +36,11 @@ import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonSubTypes.Type;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 
+import javafx.beans.Observable;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
 
 /**
  * A component to show the current date and time based on a given format.
@@ -53,10 +57,44 @@ import javafx.beans.property.SimpleObjectProperty;
 public abstract class TimedTextComponent extends TextComponent implements ReadOnlyTimedTextComponent, ReadOnlyTextComponent, ReadOnlySlideComponent, ReadOnlySlideRegion, Copyable, Identifiable {
 	protected final ObjectProperty<LocalDateTime> now;
 	
+	/** The last formatted text; the text is bound to this so that it's only invalidated when the formatted text changes */
+	private final StringProperty formattedText;
+	
 	public TimedTextComponent() {
 		this.now = new SimpleObjectProperty<>(LocalDateTime.now());
+		this.formattedText = new SimpleStringProperty();
+		
+		this.text.bind(this.formattedText);
+		this.now.addListener(this::updateText);
+	}
+	
+	/**
+	 * Returns the text for the current time and settings.
+	 * @return String
+	 */
+	protected abstract String formatText();
+	
+	/**
+	 * Updates the text from the current time and settings.
+	 * <p>
+	 * Anything bound to the text is only notified if the formatted text is different
+	 * from the current text. Subclasses should call this at the end of their constructor
+	 * and when any of their settings change.
+	 * @param obs the observable that changed; unused
+	 */
+	protected final void updateText(Observable obs) {
+		this.formattedText.set(this.formatText());
 	}
 	
+	/**
+	 * Returns the smallest unit of time the formatted text can show.
+	 * <p>
+	 * The text doesn't need to be updated more often than this.
+	 * @return ChronoUnit
+	 */
+	@Override
+	public abstract ChronoUnit getTimeResolution();
+	
 	// will only be bound/set when in use
 	
 	@Override
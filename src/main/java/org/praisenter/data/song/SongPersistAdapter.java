@@ -17,6 +17,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -105,13 +106,14 @@ public final class SongPersistAdapter implements PersistAdapter<Song> {
 	}
 	
 	@Override
-	public void update(Song item) throws IOException {
+	public CompletableFuture<Void> update(Song item) throws IOException {
 		synchronized (this.exportLock) {
 			Path path = this.pathResolver.getPath(item);
 			synchronized (this.locks.get(item.getId())) {
 				JsonIO.write(path, item);
 			}
 		}
+		return CompletableFuture.completedFuture(null);
 	}
 	
 	@Override
@@ -124,6 +126,11 @@ public final class SongPersistAdapter implements PersistAdapter<Song> {
 		}
 	}
 	
+	@Override
+	public void flush() throws IOException {
+		// all writes are synchronous, nothing to flush
+	}
+	
 	@Override
 	public void exportData(KnownFormat format, Path path, Song item) throws IOException {
 		synchronized (this.exportLock) {
@@ -2,6 +2,7 @@ package org.praisenter.data.workspace;
 
 import org.praisenter.data.Identifiable;
 import org.praisenter.data.media.MediaConfiguration;
+import org.praisenter.data.media.TranscodePreset;
 import org.praisenter.data.slide.SlideConfiguration;
 
 import javafx.beans.property.ReadOnlyBooleanProperty;
@@ -30,6 +31,9 @@ public interface ReadOnlyWorkspaceConfiguration extends MediaConfiguration, Slid
 
 	public boolean isWaitForTransitionsToCompleteEnabled();
 	public PlaceholderTransitionBehavior getPlaceholderTransitionBehavior();
+	public int getPrefetchMemoryBudget();
+	public boolean isStaticSlideRasterizationEnabled();
+	public boolean isTextEffectCachingEnabled();
 	
 	public ReadOnlyStringProperty formatProperty();
 	public ReadOnlyStringProperty versionProperty();
@@ -47,6 +51,8 @@ public interface ReadOnlyWorkspaceConfiguration extends MediaConfiguration, Slid
 	public ReadOnlyStringProperty audioTranscodeCommandProperty();
 	public ReadOnlyStringProperty videoTranscodeCommandProperty();
 	public ReadOnlyStringProperty videoFrameExtractCommandProperty();
+	public ReadOnlyObjectProperty<TranscodePreset> audioTranscodePresetProperty();
+	public ReadOnlyObjectProperty<TranscodePreset> videoTranscodePresetProperty();
 	public ReadOnlyDoubleProperty targetMeanVolumeProperty();
 	
 	public ReadOnlyStringProperty languageTagProperty();
@@ -61,6 +67,9 @@ public interface ReadOnlyWorkspaceConfiguration extends MediaConfiguration, Slid
 
 	public ReadOnlyBooleanProperty waitForTransitionsToCompleteEnabledProperty();
 	public ReadOnlyObjectProperty<PlaceholderTransitionBehavior> placeholderTransitionBehaviorProperty();
+	public ReadOnlyIntegerProperty prefetchMemoryBudgetProperty();
+	public ReadOnlyBooleanProperty staticSlideRasterizationEnabledProperty();
+	public ReadOnlyBooleanProperty textEffectCachingEnabledProperty();
 	
 //	public ObservableList<? extends ReadOnlyDisplay> getDisplaysUnmodifiable();
 	public ObservableList<? extends ReadOnlyResolution> getResolutionsUnmodifiable();
@@ -0,0 +1,235 @@
+package org.praisenter.data.workspace;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.praisenter.data.Persistable;
+import org.praisenter.data.Tag;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableSet;
+
+/**
+ * An index of the items that have each tag.
+ * <p>
+ * Each item is given a small number (reused once the item is removed) and the items
+ * with a tag are stored as a {@link BitSet} of those numbers, so finding the items
+ * that have all of a set of tags is a few bitwise ANDs. The index is updated per item;
+ * only the tags that were added to or removed from the item are touched. Tags that no
+ * longer have any items are removed from the index and from the set of all tags.
+ * <p>
+ * This class must only be used from the Java FX UI thread.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public final class TagIndex {
+	/** The items for each tag */
+	private final Map<Tag, Items> index;
+
+	/** The tags of each indexed item (copied so they can be compared on update) */
+	private final Map<UUID, Set<Tag>> itemTags;
+
+	/** The number of each indexed item */
+	private final Map<UUID, Integer> numbers;
+
+	/** The id of each item by number */
+	private final List<UUID> ids;
+
+	/** The numbers in use */
+	private final BitSet used;
+
+	/** All tags that have at least one item */
+	private final ObservableSet<Tag> tags;
+	private final ObservableSet<Tag> tagsReadOnly;
+
+	public TagIndex() {
+		this.index = new HashMap<>();
+		this.itemTags = new HashMap<>();
+		this.numbers = new HashMap<>();
+		this.ids = new ArrayList<>();
+		this.used = new BitSet();
+		this.tags = FXCollections.observableSet(new HashSet<>());
+		this.tagsReadOnly = FXCollections.unmodifiableObservableSet(this.tags);
+	}
+
+	/**
+	 * Adds the given item or updates its tags if it's already indexed.
+	 * @param item the item
+	 */
+	public void put(Persistable item) {
+		UUID id = item.getId();
+		Set<Tag> tags = item.getTagsUnmodifiable();
+
+		Set<Tag> oldTags = this.itemTags.get(id);
+		if (oldTags == null) {
+			oldTags = Collections.emptySet();
+		}
+
+		Set<Tag> newTags = tags != null ? new HashSet<>(tags) : Collections.emptySet();
+		if (oldTags.equals(newTags)) {
+			return;
+		}
+
+		int number = this.getNumber(id);
+		for (Tag tag : oldTags) {
+			if (!newTags.contains(tag)) {
+				this.removeTag(tag, number);
+			}
+		}
+		for (Tag tag : newTags) {
+			if (!oldTags.contains(tag)) {
+				this.addTag(tag, number);
+			}
+		}
+
+		if (newTags.isEmpty()) {
+			this.release(id, number);
+		} else {
+			this.itemTags.put(id, newTags);
+		}
+	}
+
+	/**
+	 * Calls {@link #put(Persistable)} for each of the given items.
+	 * @param items the items
+	 */
+	public void putAll(Collection<? extends Persistable> items) {
+		for (Persistable item : items) {
+			this.put(item);
+		}
+	}
+
+	/**
+	 * Removes the item with the given id.
+	 * @param id the item id
+	 */
+	public void remove(UUID id) {
+		Set<Tag> oldTags = this.itemTags.get(id);
+		if (oldTags == null) {
+			return;
+		}
+
+		int number = this.numbers.get(id);
+		for (Tag tag : oldTags) {
+			this.removeTag(tag, number);
+		}
+		this.release(id, number);
+	}
+
+	/**
+	 * Returns the number of items with the given tag.
+	 * @param tag the tag
+	 * @return int
+	 */
+	public int getCount(Tag tag) {
+		Items items = this.index.get(tag);
+		return items != null ? items.count : 0;
+	}
+
+	/**
+	 * Returns the ids of the items that have all of the given tags.
+	 * <p>
+	 * Returns an empty set if no tags are given.
+	 * @param tags the tags
+	 * @return Set&lt;UUID&gt;
+	 */
+	public Set<UUID> getItemIds(Collection<Tag> tags) {
+		if (tags == null || tags.isEmpty()) {
+			return Collections.emptySet();
+		}
+
+		// start with the tag with the fewest items
+		List<Items> lists = new ArrayList<>(tags.size());
+		for (Tag tag : tags) {
+			Items items = this.index.get(tag);
+			if (items == null) {
+				return Collections.emptySet();
+			}
+			lists.add(items);
+		}
+		lists.sort((a, b) -> Integer.compare(a.count, b.count));
+
+		BitSet result = (BitSet)lists.get(0).bits.clone();
+		for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+			result.and(lists.get(i).bits);
+		}
+
+		Set<UUID> ids = new HashSet<>(result.cardinality() * 2);
+		for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+			ids.add(this.ids.get(i));
+		}
+		return ids;
+	}
+
+	/**
+	 * Returns all tags that have at least one item.
+	 * @return ObservableSet&lt;{@link Tag}&gt;
+	 */
+	public ObservableSet<Tag> getTagsUnmodifiable() {
+		return this.tagsReadOnly;
+	}
+
+	private int getNumber(UUID id) {
+		Integer number = this.numbers.get(id);
+		if (number != null) {
+			return number;
+		}
+
+		int n = this.used.nextClearBit(0);
+		this.used.set(n);
+		if (n == this.ids.size()) {
+			this.ids.add(id);
+		} else {
+			this.ids.set(n, id);
+		}
+		this.numbers.put(id, n);
+		return n;
+	}
+
+	private void release(UUID id, int number) {
+		this.itemTags.remove(id);
+		this.numbers.remove(id);
+		this.ids.set(number, null);
+		this.used.clear(number);
+	}
+
+	private void addTag(Tag tag, int number) {
+		Items items = this.index.get(tag);
+		if (items == null) {
+			items = new Items();
+			this.index.put(tag, items);
+			this.tags.add(tag);
+		}
+		items.bits.set(number);
+		items.count++;
+	}
+
+	private void removeTag(Tag tag, int number) {
+		Items items = this.index.get(tag);
+		if (items == null) {
+			return;
+		}
+		items.bits.clear(number);
+		items.count--;
+		if (items.count <= 0) {
+			this.index.remove(tag);
+			this.tags.remove(tag);
+		}
+	}
+
+	/**
+	 * The items with a tag.
+	 */
+	private static final class Items {
+		private final BitSet bits = new BitSet();
+		private int count;
+	}
+}
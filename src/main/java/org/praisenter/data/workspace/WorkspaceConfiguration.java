@@ -8,6 +8,7 @@ import org.praisenter.Constants;
 import org.praisenter.Version;
 import org.praisenter.data.Identifiable;
 import org.praisenter.data.media.MediaConfiguration;
+import org.praisenter.data.media.TranscodePreset;
 import org.praisenter.data.slide.SlideConfiguration;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -34,6 +35,7 @@ import javafx.collections.ObservableList;
 @JsonTypeName(value = "workspace")
 public final class WorkspaceConfiguration implements ReadOnlyWorkspaceConfiguration, MediaConfiguration, SlideConfiguration, Identifiable {
 	public static final double POSITION_SIZE_UNSET = -1;
+	public static final int DEFAULT_PREFETCH_MEMORY_BUDGET = 256;
 	
 	private final StringProperty format;
 	private final StringProperty version;
@@ -52,6 +54,8 @@ public final class WorkspaceConfiguration implements ReadOnlyWorkspaceConfigurat
 	private final StringProperty audioTranscodeCommand;
 	private final StringProperty videoTranscodeCommand;
 	private final StringProperty videoFrameExtractCommand;
+	private final ObjectProperty<TranscodePreset> audioTranscodePreset;
+	private final ObjectProperty<TranscodePreset> videoTranscodePreset;
 	private final DoubleProperty targetMeanVolume;
 	
 	private final StringProperty languageTag;
@@ -66,6 +70,9 @@ public final class WorkspaceConfiguration implements ReadOnlyWorkspaceConfigurat
 
 	private final BooleanProperty waitForTransitionsToCompleteEnabled;
 	private final ObjectProperty<PlaceholderTransitionBehavior> placeholderTransitionBehavior;
+	private final IntegerProperty prefetchMemoryBudget;
+	private final BooleanProperty staticSlideRasterizationEnabled;
+	private final BooleanProperty textEffectCachingEnabled;
 	
 	private final ObservableList<Resolution> resolutions;
 	private final ObservableList<Resolution> resolutionsReadOnly;
@@ -90,6 +97,8 @@ public final class WorkspaceConfiguration implements ReadOnlyWorkspaceConfigurat
 		this.audioTranscodeCommand = new SimpleStringProperty(MediaConfiguration.DEFAULT_TRANSCODE_COMMAND);
 		this.videoTranscodeCommand = new SimpleStringProperty(MediaConfiguration.DEFAULT_TRANSCODE_COMMAND);
 		this.videoFrameExtractCommand = new SimpleStringProperty(MediaConfiguration.DEFAULT_VIDEO_FRAME_EXTRACT_COMMAND);
+		this.audioTranscodePreset = new SimpleObjectProperty<>(TranscodePreset.CONFIGURED);
+		this.videoTranscodePreset = new SimpleObjectProperty<>(TranscodePreset.CONFIGURED);
 		this.targetMeanVolume = new SimpleDoubleProperty(MediaConfiguration.DEFAULT_TARGET_MEAN_VOLUME);
 		
 		this.languageTag = new SimpleStringProperty(null);
@@ -104,6 +113,9 @@ public final class WorkspaceConfiguration implements ReadOnlyWorkspaceConfigurat
 
 		this.waitForTransitionsToCompleteEnabled = new SimpleBooleanProperty();
 		this.placeholderTransitionBehavior = new SimpleObjectProperty<>(PlaceholderTransitionBehavior.PLACEHOLDERS);
+		this.prefetchMemoryBudget = new SimpleIntegerProperty(DEFAULT_PREFETCH_MEMORY_BUDGET);
+		this.staticSlideRasterizationEnabled = new SimpleBooleanProperty(false);
+		this.textEffectCachingEnabled = new SimpleBooleanProperty(false);
 		
 		this.resolutions = FXCollections.observableArrayList(Resolution.DEFAULT_RESOLUTIONS);
 		this.resolutionsReadOnly = FXCollections.unmodifiableObservableList(this.resolutions);
@@ -378,6 +390,38 @@ public final class WorkspaceConfiguration implements ReadOnlyWorkspaceConfigurat
 		return this.videoFrameExtractCommand;
 	}
 	
+	@Override
+	@JsonProperty
+	public TranscodePreset getAudioTranscodePreset() {
+		return this.audioTranscodePreset.get();
+	}
+	
+	@JsonProperty
+	public void setAudioTranscodePreset(TranscodePreset preset) {
+		this.audioTranscodePreset.set(preset);
+	}
+	
+	@Override
+	public ObjectProperty<TranscodePreset> audioTranscodePresetProperty() {
+		return this.audioTranscodePreset;
+	}
+	
+	@Override
+	@JsonProperty
+	public TranscodePreset getVideoTranscodePreset() {
+		return this.videoTranscodePreset.get();
+	}
+	
+	@JsonProperty
+	public void setVideoTranscodePreset(TranscodePreset preset) {
+		this.videoTranscodePreset.set(preset);
+	}
+	
+	@Override
+	public ObjectProperty<TranscodePreset> videoTranscodePresetProperty() {
+		return this.videoTranscodePreset;
+	}
+	
 	@Override
 	@JsonProperty
 	public double getTargetMeanVolume() {
@@ -569,6 +613,54 @@ public final class WorkspaceConfiguration implements ReadOnlyWorkspaceConfigurat
 	public ObjectProperty<PlaceholderTransitionBehavior> placeholderTransitionBehaviorProperty() {
 		return this.placeholderTransitionBehavior;
 	}
+	
+	@Override
+	@JsonProperty
+	public int getPrefetchMemoryBudget() {
+		return this.prefetchMemoryBudget.get();
+	}
+	
+	@JsonProperty
+	public void setPrefetchMemoryBudget(int budget) {
+		this.prefetchMemoryBudget.set(budget);
+	}
+	
+	@Override
+	public IntegerProperty prefetchMemoryBudgetProperty() {
+		return this.prefetchMemoryBudget;
+	}
+	
+	@Override
+	@JsonProperty
+	public boolean isStaticSlideRasterizationEnabled() {
+		return this.staticSlideRasterizationEnabled.get();
+	}
+	
+	@JsonProperty
+	public void setStaticSlideRasterizationEnabled(boolean enabled) {
+		this.staticSlideRasterizationEnabled.set(enabled);
+	}
+	
+	@Override
+	public BooleanProperty staticSlideRasterizationEnabledProperty() {
+		return this.staticSlideRasterizationEnabled;
+	}
+	
+	@Override
+	@JsonProperty
+	public boolean isTextEffectCachingEnabled() {
+		return this.textEffectCachingEnabled.get();
+	}
+	
+	@JsonProperty
+	public void setTextEffectCachingEnabled(boolean enabled) {
+		this.textEffectCachingEnabled.set(enabled);
+	}
+	
+	@Override
+	public BooleanProperty textEffectCachingEnabledProperty() {
+		return this.textEffectCachingEnabled;
+	}
 
 	@JsonProperty
 	public ObservableList<Resolution> getResolutions() {
@@ -4,9 +4,9 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -15,6 +15,8 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.zip.ZipOutputStream;
 
 import org.apache.logging.log4j.LogManager;
@@ -24,10 +26,12 @@ import org.apache.lucene.analysis.CharArraySet;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.store.FSDirectory;
 import org.praisenter.async.AsyncHelper;
+import org.praisenter.async.TaskExecutors;
 import org.praisenter.data.DataImportResult;
 import org.praisenter.data.KnownFormat;
 import org.praisenter.data.PersistAdapter;
 import org.praisenter.data.Persistable;
+import org.praisenter.data.PersistableList;
 import org.praisenter.data.PersistentStore;
 import org.praisenter.data.Tag;
 import org.praisenter.data.bible.Bible;
@@ -35,6 +39,8 @@ import org.praisenter.data.bible.BiblePersistAdapter;
 import org.praisenter.data.json.JsonIO;
 import org.praisenter.data.media.Media;
 import org.praisenter.data.media.MediaPersistAdapter;
+import org.praisenter.data.media.MediaTranscodeQueue;
+import org.praisenter.data.media.TranscodeJob;
 import org.praisenter.data.search.Indexable;
 import org.praisenter.data.search.SearchCriteria;
 import org.praisenter.data.search.SearchIndex;
@@ -58,41 +64,40 @@ public final class WorkspaceManager {
 	private final SearchIndex searchIndex;
 	private final Set<Path> otherWorkspaces;
 	private final boolean newWorkspace;
+	private final TaskExecutors executors;
 	
 	private final ConcurrentMap<Class<?>, PersistentStore<?>> adapters;
 	
-	private final Map<UUID, Persistable> itemLookup;
-	
-	private final ObservableList<Persistable> items;
+	private final PersistableList<Persistable> items;
 	private final ObservableList<Persistable> itemsReadOnly;
 	
-	private final ObservableSet<Tag> tags;
-	private final ObservableSet<Tag> tagsReadOnly;
+	private final TagIndex tagIndex;
+	
+	private volatile MediaTranscodeQueue transcodeQueue;
 	
 	private WorkspaceManager(
 			WorkspacePathResolver pathResolver,
 			WorkspaceConfiguration workspaceConfiguration,
 			SearchIndex searchIndex,
 			Set<Path> otherWorkspaces,
-			boolean isNewWorkspace) {
+			boolean isNewWorkspace,
+			TaskExecutors executors) {
 		this.pathResolver = pathResolver;
 		this.workspaceConfiguration = workspaceConfiguration;
 		this.searchIndex = searchIndex;
 		this.otherWorkspaces = otherWorkspaces;
 		this.newWorkspace = isNewWorkspace;
+		this.executors = executors;
 		
 		this.adapters = new ConcurrentHashMap<>();
 		
-		this.itemLookup = new HashMap<>();
-		
-		this.items = FXCollections.observableArrayList();
+		this.items = new PersistableList<>();
 		this.itemsReadOnly = FXCollections.unmodifiableObservableList(this.items);
 		
-		this.tags = FXCollections.observableSet(new HashSet<>());
-		this.tagsReadOnly = FXCollections.unmodifiableObservableSet(this.tags);
+		this.tagIndex = new TagIndex();
 	}
 	
-	public static WorkspaceManager open(Path basePath, Set<Path> otherWorkspaces) throws IOException {
+	public static WorkspaceManager open(Path basePath, Set<Path> otherWorkspaces, TaskExecutors executors) throws IOException {
 		WorkspacePathResolver pathResolver = new WorkspacePathResolver(basePath);
 		boolean isNewWorkspace = false;
 		
@@ -158,7 +163,8 @@ public final class WorkspaceManager {
 				workspaceConfiguration,
 				searchIndex,
 				Collections.unmodifiableSet(otherWorkspaces),
-				isNewWorkspace);
+				isNewWorkspace,
+				executors);
 	}
 	
 	public WorkspacePathResolver getWorkspacePathResolver() {
@@ -176,7 +182,7 @@ public final class WorkspaceManager {
 			} catch (Exception e) {
 				throw new CompletionException(e);
 			}
-		});
+		}, this.executors.getIOExecutor());
 	}
 	
 	public Set<Path> getOtherWorkspaces() {
@@ -196,28 +202,35 @@ public final class WorkspaceManager {
 	}
 	
 	public CompletableFuture<Void> registerMediaPersistAdapter() {
-		return this.registerPersistAdapter(Media.class, new MediaPersistAdapter(this.pathResolver.getMediaPath(), this.workspaceConfiguration));
+		MediaPersistAdapter adapter = new MediaPersistAdapter(this.pathResolver.getMediaPath(), this.workspaceConfiguration, this.executors.getMediaProcessExecutor());
+		// importing and loading media can wait on FFmpeg so it gets its own threads
+		return this.registerPersistAdapter(Media.class, adapter, this.executors.getMediaExecutor()).thenRun(() -> {
+			this.transcodeQueue = adapter.getTranscodeQueue();
+			this.transcodeQueue.setOnMediaTranscoded((media) -> {
+				Platform.runLater(() -> {
+					this.onMediaTranscoded(media);
+				});
+			});
+			this.transcodeQueue.start();
+		});
 	}
 	
 	public CompletableFuture<Void> registerSlidePersistAdapter(SlideRenderer slideRenderer) {
-		return this.registerPersistAdapter(Slide.class, new SlidePersistAdapter(this.pathResolver.getSlidesPath(), slideRenderer, this.workspaceConfiguration));
+		return this.registerPersistAdapter(Slide.class, new SlidePersistAdapter(this.pathResolver.getSlidesPath(), slideRenderer, this.workspaceConfiguration, this.executors));
 	}
 	
 	public <T extends Persistable> CompletableFuture<Void> registerPersistAdapter(Class<T> clazz, PersistAdapter<T> adapter) {
-		PersistentStore<T> store = new PersistentStore<T>(adapter, this.searchIndex);
+		return this.registerPersistAdapter(clazz, adapter, this.executors.getIOExecutor());
+	}
+	
+	private <T extends Persistable> CompletableFuture<Void> registerPersistAdapter(Class<T> clazz, PersistAdapter<T> adapter, Executor executor) {
+		PersistentStore<T> store = new PersistentStore<T>(adapter, this.searchIndex, executor);
 		return store.initialize().thenApply((items) -> {
 			this.adapters.put(clazz, store);
 			return items;
 		}).thenCompose(AsyncHelper.onJavaFXThreadAndWait((items) -> {
-			// add all items to the lookup and
-			// initialize the set of all saved tags
-			for (T item : items) {
-				this.itemLookup.put(item.getId(), item);
-				Set<Tag> tags = item.getTagsUnmodifiable();
-				if (tags != null && !tags.isEmpty()) {
-					this.tags.addAll(tags);
-				}
-			}
+			// index the tags of all saved items
+			this.tagIndex.putAll(items);
 			
 			// add all items to the full list
 			this.items.addAll(items);
@@ -258,14 +271,11 @@ public final class WorkspaceManager {
 		PersistentStore<T> store = (PersistentStore<T>)this.adapters.get(clazz);
 		if (store == null) throw new UnsupportedOperationException("A persistence adapter was not found for class '" + clazz + "'.");
 		return store.create(item).thenCompose(AsyncHelper.onJavaFXThreadAndWait(() -> {
-			// add to lookup
-			this.itemLookup.put(item.getId(), item);
-			
 			// add to the main list
 			this.items.add(item);
 			
-			// make sure any new tags are added to the main set
-			this.addItemTags(item);
+			// index the item's tags
+			this.tagIndex.put(item);
 		}));
 	}
 	
@@ -274,12 +284,27 @@ public final class WorkspaceManager {
 		Class<?> clazz = item.getClass();
 		PersistentStore<T> store = (PersistentStore<T>)this.adapters.get(clazz);
 		if (store == null) throw new UnsupportedOperationException("A persistence adapter was not found for class '" + clazz + "'.");
-		return store.update(item).thenCompose(AsyncHelper.onJavaFXThreadAndWait(() -> {
+		return store.update(item).thenCompose(this.onUpdated(item));
+	}
+	
+	@SuppressWarnings("unchecked")
+	private <T extends Persistable> CompletableFuture<Void> refresh(T item) {
+		Class<?> clazz = item.getClass();
+		PersistentStore<T> store = (PersistentStore<T>)this.adapters.get(clazz);
+		if (store == null) throw new UnsupportedOperationException("A persistence adapter was not found for class '" + clazz + "'.");
+		return store.refresh(item).thenCompose(this.onUpdated(item));
+	}
+	
+	private <T extends Persistable> Function<Void, CompletableFuture<Void>> onUpdated(T item) {
+		return AsyncHelper.onJavaFXThreadAndWait(() -> {
 			// update the main list
-			this.updateListItem(item);
-			// make sure any new tags are added to the main set
-			this.addItemTags(item);
-		}));
+			int index = this.items.indexOfId(item.getId());
+			if (index >= 0) {
+				this.items.set(index, item);
+				// update the index with any tags that were added or removed
+				this.tagIndex.put(item);
+			}
+		});
 	}
 	
 	@SuppressWarnings("unchecked")
@@ -288,11 +313,11 @@ public final class WorkspaceManager {
 		PersistentStore<T> store = (PersistentStore<T>)this.adapters.get(clazz);
 		if (store == null) throw new UnsupportedOperationException("A persistence adapter was not found for class '" + clazz + "'.");
 		return store.delete(item).thenCompose(AsyncHelper.onJavaFXThreadAndWait(() -> {
-			// remove from the lookup
-			this.itemLookup.remove(item.getId());
-			
 			// remove from the main list
-			this.items.removeIf(i -> i.getId().equals(item.getId()));
+			this.items.removeById(item.getId());
+			
+			// remove the item's tags (and any tags no longer used)
+			this.tagIndex.remove(item.getId());
 		}));
 	}
 	
@@ -301,21 +326,13 @@ public final class WorkspaceManager {
 		PersistentStore<T> store = (PersistentStore<T>)this.adapters.get(clazz);
 		if (store == null) throw new UnsupportedOperationException("A persistence adapter was not found for class '" + clazz + "'.");
 		return store.importData(path, true).thenCompose(AsyncHelper.onJavaFXThreadAndWait((result) -> {
-			// add created lookups
-			for (Persistable item : result.getCreated()) {
-				this.itemLookup.put(item.getId(), item);
-			}
+			// update updated and add created in one change
+			List<Persistable> items = new ArrayList<>(result.getUpdated());
+			items.addAll(result.getCreated());
+			this.items.putAll(items);
 			
-			// add created
-			this.items.addAll(result.getCreated());
-			
-			// update updated
-			for (Persistable item : result.getUpdated()) {
-				this.updateListItem(item);
-			}
-			
-			// make sure we capture any new tags from the import
-			this.addDataImportResultTags(result);
+			// index the tags of the imported items
+			this.tagIndex.putAll(items);
 			return result;
 		}));
 	}
@@ -332,6 +349,7 @@ public final class WorkspaceManager {
 		return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenCompose(AsyncHelper.onJavaFXThreadAndWait(() -> {
 			// process the results
 			int numberImported = 0;
+			List<Persistable> items = new ArrayList<>();
 			
 			for (CompletableFuture<DataImportResult<? extends Persistable>> future : futures) {
 				DataImportResult<? extends Persistable> result = future.get();
@@ -341,64 +359,76 @@ public final class WorkspaceManager {
 					continue;
 				}
 				
-				// add created lookups
-				for (Persistable item : result.getCreated()) {
-					this.itemLookup.put(item.getId(), item);
-					numberImported++;
-				}
-				
-				// add created
-				this.items.addAll(result.getCreated());
-				
-				// update updated
-				for (Persistable item : result.getUpdated()) {
-					this.updateListItem(item);
-					numberImported++;
-				}
-				
-				// make sure we capture any new tags from the import
-				this.addDataImportResultTags(result);
+				items.addAll(result.getUpdated());
+				items.addAll(result.getCreated());
+				numberImported += result.getUpdated().size() + result.getCreated().size();
 			}
 			
+			// update updated and add created in one change
+			this.items.putAll(items);
+			
+			// index the tags of the imported items
+			this.tagIndex.putAll(items);
+			
 			if (numberImported == 0) {
 				throw new CompletionException(new Exception("Failed to import path '" + path + "' it does not match any supported format of media, bible, song, or slide."));
 			}
 		}));
 	}
 	
-	private void updateListItem(Persistable item) {
-		this.itemLookup.put(item.getId(), item);
+	private void onMediaTranscoded(Media media) {
+		// the transcoded media was already saved by the queue; keep any
+		// changes to the item that are still being saved
+		Media current = this.getItem(Media.class, media.getId());
+		if (current == null) return;
 		
-		int index = -1;
-		for (int i = 0; i < this.items.size(); i++) {
-			Persistable test = this.items.get(i);
-			if (test.getId().equals(item.getId())) {
-				index = i;
-			}
-		}
-		if (index >= 0 && index < this.items.size()) {
-			this.items.set(index, item);
-		}
+		media.setName(current.getName());
+		media.setTags(current.getTags());
+		
+		this.refresh(media).exceptionally(t -> {
+			LOGGER.error("Failed to update media '" + media.getName() + "' after transcoding: " + t.getMessage(), t);
+			return null;
+		});
+	}
+	
+	public List<TranscodeJob> getTranscodeJobs() {
+		if (this.transcodeQueue == null) return Collections.emptyList();
+		return this.transcodeQueue.getJobs();
 	}
 	
-	private <T> void addDataImportResultTags(DataImportResult<T> result) {
-		for (Object o : result.getCreated()) {
-			if (o instanceof Persistable) {
-				this.addItemTags((Persistable)o);
+	public CompletableFuture<Void> retryTranscodeJob(UUID id) {
+		return CompletableFuture.runAsync(() -> {
+			if (this.transcodeQueue == null) return;
+			try {
+				this.transcodeQueue.retry(id);
+			} catch (Exception e) {
+				throw new CompletionException(e);
 			}
-		}
-		for (Object o : result.getUpdated()) {
-			if (o instanceof Persistable) {
-				this.addItemTags((Persistable)o);
+		}, this.executors.getIOExecutor());
+	}
+	
+	public CompletableFuture<Void> cancelTranscodeJob(UUID id) {
+		return CompletableFuture.runAsync(() -> {
+			if (this.transcodeQueue == null) return;
+			try {
+				this.transcodeQueue.cancel(id);
+			} catch (Exception e) {
+				throw new CompletionException(e);
 			}
-		}
+		}, this.executors.getIOExecutor());
 	}
 	
-	private <T extends Persistable> void addItemTags(T item) {
-		Set<Tag> tags = item.getTagsUnmodifiable();
-		if (tags != null && !tags.isEmpty()) {
-			this.tags.addAll(tags);
-		}
+	public void stopTranscoding() {
+		if (this.transcodeQueue == null) return;
+		this.transcodeQueue.stop();
+	}
+	
+	public CompletableFuture<Void> flush() {
+		CompletableFuture<?>[] futures = this.adapters.values()
+				.stream()
+				.map(s -> s.flush())
+				.toArray(CompletableFuture[]::new);
+		return CompletableFuture.allOf(futures);
 	}
 	
 	@SuppressWarnings("unchecked")
@@ -439,7 +469,7 @@ public final class WorkspaceManager {
 			} catch (Exception ex) {
 				throw new CompletionException(ex);
 			}
-		});
+		}, this.executors.getSearchExecutor());
 	}
 	
 	public CompletableFuture<Void> reindex() {
@@ -450,7 +480,7 @@ public final class WorkspaceManager {
 			} catch (IOException e) {
 				throw new CompletionException(e);
 			}	
-		});
+		}, this.executors.getSearchExecutor());
 	}
 	
 	@SuppressWarnings("unchecked")
@@ -462,11 +492,21 @@ public final class WorkspaceManager {
 	
 	public Persistable getPersistableById(UUID id) {
 		this.throwIfNotJavaFXThread();
-		return this.itemLookup.get(id);
+		return this.items.getById(id);
 	}
 	
 	public ObservableSet<Tag> getTagsUmodifiable() {
-		return this.tagsReadOnly;
+		return this.tagIndex.getTagsUnmodifiable();
+	}
+	
+	public int getTagCount(Tag tag) {
+		this.throwIfNotJavaFXThread();
+		return this.tagIndex.getCount(tag);
+	}
+	
+	public Set<UUID> getItemIdsWithTags(Collection<Tag> tags) {
+		this.throwIfNotJavaFXThread();
+		return this.tagIndex.getItemIds(tags);
 	}
 
 	private void throwIfNotJavaFXThread() {
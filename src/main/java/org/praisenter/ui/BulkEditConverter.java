@@ -3,5 +3,26 @@ package org.praisenter.ui;
 public interface BulkEditConverter<T> {
 	public String getSample();
 	public String toString(T obj);
+	
+	/**
+	 * Parses the given text.
+	 * <p>
+	 * This method doesn't change any existing objects so it can be called from any thread.
+	 * When there are errors, all the lines with errors are reported in the message and
+	 * {@link BulkEditParseException#getLine()} is the first of them.
+	 * @param data the text
+	 * @return T
+	 * @throws BulkEditParseException if the text isn't valid
+	 */
 	public T fromString(String data) throws BulkEditParseException;
+	
+	/**
+	 * Changes the given target to match the given parsed object.
+	 * <p>
+	 * Only what's different is changed; the existing child objects are kept and
+	 * updated where they can be matched to the parsed ones.
+	 * @param target the object being edited
+	 * @param edits the object returned by {@link #fromString(String)}
+	 */
+	public void apply(T target, T edits);
 }
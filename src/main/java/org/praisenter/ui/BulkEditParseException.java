@@ -5,19 +5,44 @@ import java.io.IOException;
 public final class BulkEditParseException extends IOException {
 	private static final long serialVersionUID = -4456427509948656330L;
 
+	/** The line of the error (starting at 1); -1 if unknown */
+	private final int line;
+	
 	public BulkEditParseException() {
 		super();
+		this.line = -1;
+	}
+	
+	/**
+	 * Creates an exception for an error on the given line.
+	 * @param message the message
+	 * @param line the line (starting at 1)
+	 */
+	public BulkEditParseException(String message, int line) {
+		super(message);
+		this.line = line;
 	}
 	
 	public BulkEditParseException(String message, Throwable cause) {
 		super(message, cause);
+		this.line = -1;
 	}
 
 	public BulkEditParseException(String message) {
 		super(message);
+		this.line = -1;
 	}
 
 	public BulkEditParseException(Throwable cause) {
 		super(cause);
+		this.line = -1;
+	}
+	
+	/**
+	 * Returns the line of the (first) error starting at 1 or -1 if unknown.
+	 * @return int
+	 */
+	public int getLine() {
+		return this.line;
 	}
 }
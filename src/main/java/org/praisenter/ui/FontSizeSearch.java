@@ -0,0 +1,98 @@
+package org.praisenter.ui;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Finds the largest font size that fits starting from the size the previous text of
+ * the same box fit at.
+ * <p>
+ * This doesn't do any measuring itself, the given {@link FitTest} does, so it doesn't 
+ * need the font libraries.
+ * @author William Bittle
+ * @version 3.0.0
+ * @see TextMeasurer
+ */
+final class FontSizeSearch {
+	private static final Logger LOGGER = LogManager.getLogger();
+	
+	/** The maximum number of fit tests */
+	private static final int MAXIMUM_ITERATIONS = 100;
+	
+	/** The factor used to bracket the seed size */
+	private static final double SEED_STEP = 1.1;
+	
+	private FontSizeSearch() {}
+	
+	/**
+	 * Tests whether the text fits at a given font size.
+	 */
+	@FunctionalInterface
+	static interface FitTest {
+		public boolean fits(double size);
+	}
+	
+	/**
+	 * Finds the largest font size that fits by bracketing the given seed size and then
+	 * binary searching the bracket.
+	 * <p>
+	 * Like the full search, the result is the largest fitting size (within 0.1) minus 1.0.
+	 * @param test tests whether the text fits at a given font size
+	 * @param seed the size to start from; the result of the previous search
+	 * @param maxFontSize the maximum font size
+	 * @return double
+	 */
+	static final double fromSeed(FitTest test, double seed, double maxFontSize) {
+		// the previous result had the insurance subtracted, so add it back
+		double cur = Math.max(1.0, Math.min(seed + 1.0, maxFontSize));
+		double lo = 1.0;
+		double hi = maxFontSize;
+		double step = SEED_STEP;
+		int i = 0;
+		
+		// find a font size that fits and one that doesn't
+		if (test.fits(cur)) {
+			lo = cur;
+			while (lo < hi && i < MAXIMUM_ITERATIONS) {
+				double next = Math.min(lo * step, hi);
+				i++;
+				if (test.fits(next)) {
+					lo = next;
+					step *= step;
+				} else {
+					hi = next;
+					break;
+				}
+			}
+		} else {
+			hi = cur;
+			while (hi > 1.0 && i < MAXIMUM_ITERATIONS) {
+				double next = Math.max(hi / step, 1.0);
+				i++;
+				if (next <= 1.0 || test.fits(next)) {
+					lo = next;
+					break;
+				} else {
+					hi = next;
+					step *= step;
+				}
+			}
+		}
+		
+		// binary search the bracket
+		while (hi - lo > 0.1 && i < MAXIMUM_ITERATIONS) {
+			double mid = (lo + hi) * 0.5;
+			i++;
+			if (test.fits(mid)) {
+				lo = mid;
+			} else {
+				hi = mid;
+			}
+		}
+		
+		LOGGER.trace("Seeded font fitting iterations: {}", i);
+		
+		// same as the full search, return the lower bound minus some insurance
+		return Math.max(1.0, lo - 1.0);
+	}
+}
@@ -22,6 +22,7 @@ import org.praisenter.Version;
 import org.praisenter.async.AsyncHelper;
 import org.praisenter.async.BackgroundTask;
 import org.praisenter.async.ReadOnlyBackgroundTask;
+import org.praisenter.async.TaskExecutors;
 import org.praisenter.data.Persistable;
 import org.praisenter.data.bible.Bible;
 import org.praisenter.data.bible.Book;
@@ -41,6 +42,7 @@ import org.praisenter.ui.display.DisplayManager;
 import org.praisenter.ui.display.DisplayTarget;
 import org.praisenter.ui.document.DocumentContext;
 import org.praisenter.ui.events.ActionStateChangedEvent;
+import org.praisenter.ui.slide.convert.PaintConverter;
 import org.praisenter.ui.translations.Translations;
 
 import javafx.application.Application;
@@ -78,7 +80,9 @@ public final class GlobalContext {
 	final Application application;
 	final Stage stage;
 	final WorkspaceManager workspaceManager;
+	final TaskExecutors executors;
 	final ImageCache imageCache;
+	final TimeKeeper timeKeeper;
 	final DisplayManager displayManager;
 	
 	// track focus, selection, location, available actions, etc.
@@ -126,11 +130,14 @@ public final class GlobalContext {
 	public GlobalContext(
 			Application application, 
 			Stage stage,
-			WorkspaceManager workspaceManager) {
+			WorkspaceManager workspaceManager,
+			TaskExecutors executors) {
 		this.application = application;
 		this.stage = stage;
 		this.workspaceManager = workspaceManager;
+		this.executors = executors;
 		this.imageCache = new ImageCache();
+		this.timeKeeper = new TimeKeeper(executors);
 		this.displayManager = new DisplayManager(this);
 		
 		this.scene = new SimpleObjectProperty<>();
@@ -361,6 +368,10 @@ public final class GlobalContext {
 		// NOTE: dispose of images AFTER we've disposed of the display targets
 		// otherwise, the images will get loaded again before cleanup
 		this.imageCache.clear();
+		// these are static so they'd otherwise be kept across a restart
+		// (when switching workspaces for example)
+		PaintConverter.clearCache();
+		TextMeasurer.clearCache();
 	}
 	
 	/**
@@ -894,10 +905,18 @@ public final class GlobalContext {
 		return this.workspaceManager.getWorkspaceConfiguration();
 	}
 	
+	public TaskExecutors getExecutors() {
+		return this.executors;
+	}
+	
 	public ImageCache getImageCache() {
 		return this.imageCache;
 	}
 	
+	public TimeKeeper getTimeKeeper() {
+		return this.timeKeeper;
+	}
+	
 	public DisplayManager getDisplayManager() {
 		return this.displayManager;
 	}
@@ -1,12 +1,18 @@
 package org.praisenter.ui;
 
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.lang.ref.SoftReference;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 import javax.imageio.ImageIO;
@@ -20,10 +26,27 @@ import javafx.scene.image.Image;
 public final class ImageCache {
 	private static final Logger LOGGER = LogManager.getLogger();
 	
+	/** The maximum number of scaled images to keep */
+	private static final int MAX_SCALED_IMAGES = 16;
+	
 	private final Map<ImageCacheKey, SoftReference<Image>> images;
+	
+	/** The most recently used scaled images */
+	private final Map<ImageCacheKey, SoftReference<Image>> scaledImages;
+	
+	/** The images being scaled */
+	private final Map<ImageCacheKey, CompletableFuture<Image>> scaling;
 
 	public ImageCache() {
 		this.images = new HashMap<ImageCacheKey, SoftReference<Image>>();
+		this.scaledImages = new LinkedHashMap<ImageCacheKey, SoftReference<Image>>(MAX_SCALED_IMAGES, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<ImageCacheKey, SoftReference<Image>> eldest) {
+				return this.size() > MAX_SCALED_IMAGES;
+			}
+		};
+		this.scaling = new HashMap<>();
 	}
 	
 	/**
@@ -95,6 +118,121 @@ public final class ImageCache {
 		});
 	}
 
+	/**
+	 * Returns the cached image for the given image media pre-scaled to exactly the given
+	 * size or scales it on the given executor if it's not in the cache.
+	 * <p>
+	 * This is intended for presentation where the same image will be drawn at the same
+	 * size many times. Drawing an image that's already exactly the right size avoids
+	 * rescaling the (possibly very large) source image on every frame.
+	 * <p>
+	 * A display only shows images at a few sizes, so only the last {@value #MAX_SCALED_IMAGES}
+	 * scaled images are kept. The returned future is already
+	 * complete when the image is in the cache. It completes with null in the event that
+	 * an error occurs.
+	 * @param id the id
+	 * @param path the path to the image
+	 * @param width the width in pixels
+	 * @param height the height in pixels
+	 * @param executor the executor to scale the image on
+	 * @return CompletableFuture&lt;Image&gt;
+	 */
+	public CompletableFuture<Image> getOrLoadScaledImage(UUID id, Path path, int width, int height, Executor executor) {
+		final int sw = width;
+		final int sh = height;
+		final ImageCacheKey key = new ImageCacheKey(ImageCacheKeyType.SCALED_MEDIA_IMAGE, id.toString() + "@" + sw + "x" + sh);
+		
+		final CompletableFuture<Image> future = new CompletableFuture<>();
+		synchronized (this) {
+			SoftReference<Image> ref = this.scaledImages.get(key);
+			Image image = ref != null ? ref.get() : null;
+			if (image != null) {
+				return CompletableFuture.completedFuture(image);
+			}
+			
+			CompletableFuture<Image> existing = this.scaling.get(key);
+			if (existing != null) {
+				return existing;
+			}
+			this.scaling.put(key, future);
+		}
+		
+		executor.execute(() -> {
+			Image image = null;
+			try {
+				Image source = this.preloadImage(id, path);
+				if (source != null) {
+					if (sw == (int)source.getWidth() && sh == (int)source.getHeight()) {
+						image = source;
+					} else {
+						LOGGER.debug("Scaling image '{}' to {}x{}", id, sw, sh);
+						image = this.scale(source, sw, sh);
+					}
+				}
+			} catch (Exception ex) {
+				LOGGER.error("Failed to scale image '" + id + "' to " + sw + "x" + sh, ex);
+			}
+			
+			synchronized (this) {
+				this.scaling.remove(key);
+				if (image != null) {
+					this.scaledImages.put(key, new SoftReference<Image>(image));
+				}
+			}
+			future.complete(image);
+		});
+		
+		return future;
+	}
+	
+	/**
+	 * Loads the given image media into the cache if it isn't already present.
+	 * <p>
+	 * Unlike {@link #getOrLoadImage(UUID, Path)} the image is loaded without holding
+	 * the cache's lock so that prefetching on a background thread doesn't block the
+	 * Java FX UI thread from using the cache in the meantime.
+	 * <p>
+	 * Returns null in the event that an error occurs.
+	 * @param id the id
+	 * @param path the path to the image
+	 * @return Image
+	 */
+	public Image preloadImage(UUID id, Path path) {
+		ImageCacheKey key = new ImageCacheKey(ImageCacheKeyType.MEDIA_IMAGE, id.toString());
+		synchronized (this) {
+			SoftReference<Image> ref = this.images.get(key);
+			Image image = ref != null ? ref.get() : null;
+			if (image != null) {
+				return image;
+			}
+		}
+		
+		Image image = null;
+		try {
+			image = this.load(path);
+		} catch (Exception ex) {
+			LOGGER.error("Failed to preload image from path '" + path.toAbsolutePath().toString() + "'", ex);
+			return null;
+		}
+		
+		if (image == null) {
+			return null;
+		}
+		
+		synchronized (this) {
+			// another thread may have loaded it in the meantime
+			SoftReference<Image> ref = this.images.get(key);
+			Image existing = ref != null ? ref.get() : null;
+			if (existing != null) {
+				return existing;
+			}
+			LOGGER.debug("Image preloaded for key: {}", key);
+			this.images.put(key, new SoftReference<Image>(image));
+		}
+		
+		return image;
+	}
+
 	/**
 	 * Returns the cached image for the given image or loads the image given the classpath
 	 * path if the image is not in the cache.
@@ -133,8 +271,42 @@ public final class ImageCache {
 	/**
 	 * Removes everything from the cache.
 	 */
-	public void clear() {
+	public synchronized void clear() {
 		this.images.clear();
+		this.scaledImages.clear();
+	}
+	
+	/**
+	 * Returns a new image that is the given image scaled to the given size.
+	 * <p>
+	 * Large reductions are done in steps of halves to avoid the aliasing that a
+	 * single bilinear/bicubic pass produces.
+	 * @param image the image
+	 * @param width the width in pixels
+	 * @param height the height in pixels
+	 * @return Image
+	 */
+	private Image scale(Image image, int width, int height) {
+		BufferedImage current = SwingFXUtils.fromFXImage(image, null);
+		int w = current.getWidth();
+		int h = current.getHeight();
+		
+		do {
+			// step down by at most half at a time
+			w = w / 2 >= width ? w / 2 : width;
+			h = h / 2 >= height ? h / 2 : height;
+			
+			BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+			Graphics2D g2d = next.createGraphics();
+			g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+			g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+			g2d.drawImage(current, 0, 0, w, h, null);
+			g2d.dispose();
+			current = next;
+		} while (w != width || h != height);
+		
+		return SwingFXUtils.toFXImage(current, null);
 	}
 	
 	/**
@@ -7,6 +7,9 @@ enum ImageCacheKeyType {
 	/** An image from the media library */
 	MEDIA_IMAGE,
 	
+	/** An image from the media library pre-scaled to a specific size */
+	SCALED_MEDIA_IMAGE,
+	
 	/** A thumbnail */
 	THUMBNAIL
 }
@@ -8,7 +8,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
-import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -23,6 +23,7 @@ import org.controlsfx.glyphfont.GlyphFontRegistry;
 import org.praisenter.Constants;
 import org.praisenter.Version;
 import org.praisenter.async.AsyncHelper;
+import org.praisenter.async.TaskExecutors;
 import org.praisenter.data.SingleFileManager;
 import org.praisenter.data.workspace.WorkspaceConfiguration;
 import org.praisenter.data.workspace.WorkspaceManager;
@@ -71,6 +72,17 @@ public final class LifecycleHandler {
 	private static final int MIN_WIDTH = 1000;
 	private static final int MIN_HEIGHT = 700;
 	
+	/** 
+	 * Runs the parts of the shutdown that wait on other threads. They can't run on the
+	 * Java FX UI thread (the work they wait on can need it) or on the application's
+	 * executors (they're being shut down), so each gets its own thread.
+	 */
+	private static final Executor SHUTDOWN_EXECUTOR = (r) -> {
+		Thread thread = new Thread(r, "praisenter-shutdown");
+		thread.setDaemon(true);
+		thread.start();
+	};
+	
 	public void restart(GlobalContext context) {
 		this.restart(context, null);
 	}
@@ -171,10 +183,14 @@ public final class LifecycleHandler {
     	GlyphFontRegistry.register(new FontAwesome(Praisenter.class.getResourceAsStream("/org/praisenter/fonts/fontawesome-webfont.ttf")));
 		GlyphFontRegistry.register(new OpenIconic(Praisenter.class.getResourceAsStream("/org/praisenter/fonts/open-iconic.ttf")));
 
+		// create the executors for background work (they're owned by
+		// the context and shutdown when it's cleaned up)
+		final TaskExecutors executors = new TaskExecutors();
+		
 		// load the workspaces file
 		LOGGER.info("Reading workspaces file.");
 		Path path = Paths.get(Constants.ROOT_PATH, "workspaces.json");
-		SingleFileManager<Workspaces> fm = SingleFileManager.open(path, Workspaces.class, new Workspaces());
+		SingleFileManager<Workspaces> fm = SingleFileManager.open(path, Workspaces.class, new Workspaces(), executors.getIOExecutor());
 		
 		CompletableFuture<Optional<Path>> workspacePathFuture = null;
 		if (workspacePath == null) {
@@ -212,7 +228,7 @@ public final class LifecycleHandler {
 	    	final Path wsp = owp.get();
 	    	LOGGER.info("Workspace '" + wsp.toAbsolutePath() + "' was selected.  Opening...");
 	    	return wsp;
-		}).thenApplyAsync((wsp) -> {
+		}, executors.getIOExecutor()).thenApplyAsync((wsp) -> {
 			// open the workspace
     		try {
     			// get all the other workspaces
@@ -223,14 +239,14 @@ public final class LifecycleHandler {
     					.collect(Collectors.toSet());
     			
     			// build the workspace manager
-    			WorkspaceManager wsm = WorkspaceManager.open(wsp, otherWorkspaces);
+    			WorkspaceManager wsm = WorkspaceManager.open(wsp, otherWorkspaces, executors);
     			LOGGER.info("Workspace '" + wsp.toAbsolutePath()+ "' was opened successfully.");
     			return wsm;
     		} catch (Exception ex) {
     			LOGGER.error("Failed to open the workspace at '" + wsp.toAbsolutePath() + "': " + ex.getMessage(), ex);
     			throw new CompletionException(ex);
     		}
-    	}).thenCompose((workspaceManager) -> {
+    	}, executors.getIOExecutor()).thenCompose((workspaceManager) -> {
     		LOGGER.info("Saving workspaces configuration file.");
     		// save the workspaces config file with the new
     		// last workspace opened and if there's a new workspace
@@ -246,7 +262,8 @@ public final class LifecycleHandler {
     		return new GlobalContext(
     				application, 
     				stage, 
-    				workspaceManager);
+    				workspaceManager,
+    				executors);
     	}).thenApply((context) -> {
     		LOGGER.info("Asynchonously checking for latest Praisenter version.");
     		// NOTE: don't wait on this - it can complete asynchronously
@@ -511,17 +528,31 @@ public final class LifecycleHandler {
 		return CompletableFuture.completedFuture(true);
     }
     
-    private CompletableFuture<Boolean> waitForAsyncTaskCompletion(Logger LOGGER) {
-    	LOGGER.info("Waiting for any pending async tasks to complete");
-    	// wait for any pending async tasks
-    	// NOTE: the assumption here is that all asynchronous processing is being performed on the ForkJoinPool commonPool
-    	// (the default for CompletableFuture)
-    	if (!ForkJoinPool.commonPool().awaitQuiescence(60, TimeUnit.SECONDS)) {
-    		LOGGER.warn("Waited 60 seconds for tasks to complete, but they didn't.");
-    		// TODO need to prompt user to wait longer or just exit
-    	}
+    private CompletableFuture<Boolean> waitForAsyncTaskCompletion(Logger LOGGER, GlobalContext context) {
+    	LOGGER.info("Flushing any pending writes");
+    	// stop transcoding; the job that's running is resumed next time
+    	context.getWorkspaceManager().stopTranscoding();
     	
-    	return CompletableFuture.completedFuture(true);
+    	// flush any coalesced writes that are waiting to be written (NOTE: never wait for
+    	// this on the Java FX UI thread since writing a slide renders its thumbnail on it)
+    	return context.getWorkspaceManager().flush().exceptionally((t) -> {
+    		LOGGER.warn("Failed to flush pending writes: " + t.getMessage(), t);
+    		return null;
+    	}).thenApplyAsync((v) -> {
+	    	LOGGER.info("Waiting for any pending async tasks to complete");
+	    	// wait for any pending async tasks on the application's executors
+	    	try {
+	    		if (!context.getExecutors().awaitIdle(60, TimeUnit.SECONDS)) {
+	    			LOGGER.warn("Waited 60 seconds for tasks to complete, but they didn't: " + context.getExecutors());
+	    			// TODO need to prompt user to wait longer or just exit
+	    		}
+	    	} catch (InterruptedException ex) {
+	    		LOGGER.warn("Interrupted while waiting for tasks to complete");
+	    		Thread.currentThread().interrupt();
+	    	}
+	    	
+	    	return true;
+    	}, SHUTDOWN_EXECUTOR);
     }
     
     private CompletableFuture<Boolean> saveWorkspaceConfiguration(Logger LOGGER, GlobalContext context) {
@@ -546,6 +577,19 @@ public final class LifecycleHandler {
     	}).thenApply((v) -> true);
     }
     
+    private CompletableFuture<Boolean> shutdownExecutors(Logger LOGGER, GlobalContext context) {
+    	// everything should be done by now, so this should be quick
+    	return CompletableFuture.supplyAsync(() -> {
+	    	try {
+	    		context.getExecutors().shutdown(10, TimeUnit.SECONDS);
+	    	} catch (InterruptedException ex) {
+	    		LOGGER.warn("Interrupted while shutting down the executors");
+	    		Thread.currentThread().interrupt();
+	    	}
+	    	return true;
+    	}, SHUTDOWN_EXECUTOR);
+    }
+    
     private CompletableFuture<Boolean> cleanUp(Logger LOGGER, GlobalContext context) {
     	// prompt for unsaved changes
 		return promptUnsavedChanges(LOGGER, context).exceptionally((t) -> {
@@ -558,7 +602,7 @@ public final class LifecycleHandler {
 		}).thenCompose((shouldContinue) -> {
 			// check if we should continue or not
 			if (shouldContinue) {
-				return this.waitForAsyncTaskCompletion(LOGGER);
+				return this.waitForAsyncTaskCompletion(LOGGER, context);
 			}
 			return CompletableFuture.completedStage(false);
 		}).thenCompose((shouldContinue) -> {
@@ -571,6 +615,11 @@ public final class LifecycleHandler {
 				return this.disposeContext(LOGGER, context);
 			}
 			return CompletableFuture.completedStage(false);
+		}).thenCompose((shouldContinue) -> {
+			if (shouldContinue) {
+				return this.shutdownExecutors(LOGGER, context);
+			}
+			return CompletableFuture.completedStage(false);
 		});
     }
 }
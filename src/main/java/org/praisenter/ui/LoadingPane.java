@@ -261,7 +261,7 @@ final class LoadingPane extends Pane {
 			this.progress.set(0.85);
 		}).apply(null).thenRunAsync(() -> {
 			this.waitForAnimation();
-		});
+		}, this.context.getExecutors().getIOExecutor());
 	}
 	
 	private CompletableFuture<Void> loadFonts() {
@@ -279,7 +279,7 @@ final class LoadingPane extends Pane {
 			this.progress.set(0.9);
 		}).apply(null).thenRunAsync(() -> {
 			this.waitForAnimation();
-		});
+		}, this.context.getExecutors().getIOExecutor());
 	}
 	
 	private CompletableFuture<Void> initializeNewWorkspace() {
@@ -323,7 +323,7 @@ final class LoadingPane extends Pane {
 		}).apply(null).thenApplyAsync((ui) -> {
 			this.waitForAnimation();
 			return ui;
-		});
+		}, this.context.getExecutors().getIOExecutor());
 	}
 	
 	private void waitForAnimation() {
@@ -0,0 +1,89 @@
+package org.praisenter.ui;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import javafx.collections.ObservableList;
+
+/**
+ * Helper methods for changing observable lists.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public final class ObservableLists {
+	private ObservableLists() {}
+	
+	/**
+	 * Changes the given list to contain the given items.
+	 * <p>
+	 * Unlike {@link ObservableList#setAll(java.util.Collection)}, only the range that's
+	 * different (by identity) is replaced. The items at the start and end that are the
+	 * same aren't reported as removed and added again, so listeners of the list (undo
+	 * tracking, tree and list views) only see the part that actually changed.
+	 * @param list the list to change
+	 * @param items the items the list should contain
+	 */
+	public static final <T> void replace(ObservableList<T> list, List<? extends T> items) {
+		int c = list.size();
+		int e = items.size();
+
+		int start = 0;
+		while (start < c && start < e && list.get(start) == items.get(start)) {
+			start++;
+		}
+		int end = 0;
+		while (end < c - start && end < e - start && list.get(c - end - 1) == items.get(e - end - 1)) {
+			end++;
+		}
+
+		if (start == c - end && start == e - end) {
+			return;
+		}
+
+		if (start < c - end) {
+			list.remove(start, c - end);
+		}
+		if (start < e - end) {
+			list.addAll(start, items.subList(start, e - end));
+		}
+	}
+	
+	/**
+	 * Changes the given list to match the given items, keeping the existing items that
+	 * match one of the given items.
+	 * <p>
+	 * Each given item is matched to the first unmatched existing item with the same key.
+	 * The existing item is then updated from the given item and kept in its place. The
+	 * given items that don't match anything are added as is.
+	 * @param list the list to change
+	 * @param items the items the list should match
+	 * @param key returns the key to match items by
+	 * @param update updates an existing item (first argument) from a given item (second argument)
+	 */
+	public static final <T, K> void merge(ObservableList<T> list, List<? extends T> items, Function<? super T, K> key, BiConsumer<? super T, ? super T> update) {
+		Map<K, Deque<T>> existing = new HashMap<>();
+		for (T item : list) {
+			existing.computeIfAbsent(key.apply(item), k -> new ArrayDeque<>()).add(item);
+		}
+		
+		List<T> result = new ArrayList<>(items.size());
+		for (T item : items) {
+			Deque<T> matches = existing.get(key.apply(item));
+			T match = matches != null ? matches.poll() : null;
+			if (match != null) {
+				update.accept(match, item);
+				result.add(match);
+			} else {
+				result.add(item);
+			}
+		}
+		
+		replace(list, result);
+	}
+}
@@ -5,6 +5,8 @@ import java.util.Locale;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.praisenter.data.media.MediaType;
+import org.praisenter.data.media.TranscodePreset;
 import org.praisenter.data.workspace.PlaceholderTransitionBehavior;
 import org.praisenter.data.workspace.WorkspaceConfiguration;
 import org.praisenter.ui.controls.FormField;
@@ -112,6 +114,32 @@ public class SettingsPane extends BorderPane {
 			configuration.setWaitForTransitionsToCompleteEnabled(nv);
 		});
 		
+		// prefetch memory budget
+		Spinner<Integer> spnPrefetchMemoryBudget = new Spinner<>(0, 4096, configuration.getPrefetchMemoryBudget(), 64);
+		spnPrefetchMemoryBudget.setEditable(true);
+		spnPrefetchMemoryBudget.getValueFactory().setConverter(LastValueNumberStringConverter.forInteger((originalValueText) -> {
+			Platform.runLater(() -> {
+				spnPrefetchMemoryBudget.getEditor().setText(originalValueText);
+			});
+		}));
+		spnPrefetchMemoryBudget.valueProperty().addListener((obs, ov, nv) -> {
+			configuration.setPrefetchMemoryBudget(nv);
+		});
+		
+		// static slide rasterization
+		CheckBox chkRasterizeStaticSlides = new CheckBox();
+		chkRasterizeStaticSlides.setSelected(configuration.isStaticSlideRasterizationEnabled());
+		chkRasterizeStaticSlides.selectedProperty().addListener((obs, ov, nv) -> {
+			configuration.setStaticSlideRasterizationEnabled(nv);
+		});
+		
+		// text effect caching
+		CheckBox chkCacheTextEffects = new CheckBox();
+		chkCacheTextEffects.setSelected(configuration.isTextEffectCachingEnabled());
+		chkCacheTextEffects.selectedProperty().addListener((obs, ov, nv) -> {
+			configuration.setTextEffectCachingEnabled(nv);
+		});
+		
 		// audio transcode enabled
 		CheckBox chkTranscodeAudio = new CheckBox();
 		chkTranscodeAudio.setSelected(configuration.isAudioTranscodingEnabled());
@@ -161,6 +189,36 @@ public class SettingsPane extends BorderPane {
 			configuration.setVideoTranscodeCommand(nv);
 		});
 		
+		// audio transcode preset
+		ObservableList<Option<TranscodePreset>> audioPresets = FXCollections.observableArrayList();
+		for (TranscodePreset preset : TranscodePreset.values()) {
+			if (preset.isSupported(MediaType.AUDIO)) {
+				audioPresets.add(new Option<TranscodePreset>(Translations.get("settings.media.transcodePreset." + preset), preset));
+			}
+		}
+		ComboBox<Option<TranscodePreset>> cmbAudioTranscodePreset = new ComboBox<Option<TranscodePreset>>(audioPresets);
+		cmbAudioTranscodePreset.setValue(new Option<>(null, configuration.getAudioTranscodePreset()));
+		cmbAudioTranscodePreset.valueProperty().addListener((obs, ov, nv) -> {
+			if (nv != null) {
+				configuration.setAudioTranscodePreset(nv.getValue());
+			}
+		});
+		
+		// video transcode preset
+		ObservableList<Option<TranscodePreset>> videoPresets = FXCollections.observableArrayList();
+		for (TranscodePreset preset : TranscodePreset.values()) {
+			if (preset.isSupported(MediaType.VIDEO)) {
+				videoPresets.add(new Option<TranscodePreset>(Translations.get("settings.media.transcodePreset." + preset), preset));
+			}
+		}
+		ComboBox<Option<TranscodePreset>> cmbVideoTranscodePreset = new ComboBox<Option<TranscodePreset>>(videoPresets);
+		cmbVideoTranscodePreset.setValue(new Option<>(null, configuration.getVideoTranscodePreset()));
+		cmbVideoTranscodePreset.valueProperty().addListener((obs, ov, nv) -> {
+			if (nv != null) {
+				configuration.setVideoTranscodePreset(nv.getValue());
+			}
+		});
+		
 		// video frame extract command
 		TextField txtVideoExtractCommand = new TextField(configuration.getVideoFrameExtractCommand());
 		txtVideoExtractCommand.setMaxWidth(Double.MAX_VALUE);
@@ -209,15 +267,20 @@ public class SettingsPane extends BorderPane {
 		
 		VBox boxSlide = new VBox(
 				new FormField(Translations.get("settings.slide.waitForTransition"), Translations.get("settings.slide.waitForTransition.description"), chkWaitForTransition),
-				new FormField(Translations.get("settings.slide.placeholderTransitionBehavior"), Translations.get("settings.slide.placeholderTransitionBehavior.description"), cmbPlaceholderTransitionBehavior));
+				new FormField(Translations.get("settings.slide.placeholderTransitionBehavior"), Translations.get("settings.slide.placeholderTransitionBehavior.description"), cmbPlaceholderTransitionBehavior),
+				new FormField(Translations.get("settings.slide.prefetchMemoryBudget"), Translations.get("settings.slide.prefetchMemoryBudget.description"), spnPrefetchMemoryBudget),
+				new FormField(Translations.get("settings.slide.rasterizeStaticSlides"), Translations.get("settings.slide.rasterizeStaticSlides.description"), chkRasterizeStaticSlides),
+				new FormField(Translations.get("settings.slide.cacheTextEffects"), Translations.get("settings.slide.cacheTextEffects.description"), chkCacheTextEffects));
 		FormFieldGroup pneSlide = new FormFieldGroup(Translations.get("settings.slide"), boxSlide);
 		pneSlide.setExpanded(false);
 		
 		VBox boxMedia = new VBox(
 				new FormField(Translations.get("settings.media.audioTranscode"), Translations.get("settings.media.audioTranscode.description"), chkTranscodeAudio),
+				new FormField(Translations.get("settings.media.audioTranscode.preset"), Translations.get("settings.media.audioTranscode.preset.description"), cmbAudioTranscodePreset),
 				new FormField(Translations.get("settings.media.audioTranscode.extension"), Translations.get("settings.media.audioTranscode.extension.description"), txtAudioTranscodeExtension),
 				new FormField(Translations.get("settings.media.audioTranscode.command"), Translations.get("settings.media.audioTranscode.command.description"), txtAudioTranscodeCommand),
 				new FormField(Translations.get("settings.media.videoTranscode"), Translations.get("settings.media.videoTranscode.description"), chkTranscodeVideo),
+				new FormField(Translations.get("settings.media.videoTranscode.preset"), Translations.get("settings.media.videoTranscode.preset.description"), cmbVideoTranscodePreset),
 				new FormField(Translations.get("settings.media.videoTranscode.extension"), Translations.get("settings.media.videoTranscode.extension.description"), txtVideoTranscodeExtension),
 				new FormField(Translations.get("settings.media.videoTranscode.command"), Translations.get("settings.media.videoTranscode.command.description"), txtVideoTranscodeCommand),
 				new FormField(Translations.get("settings.media.videoFrameExtract.command"), Translations.get("settings.media.videoFrameExtract.command.description"), txtVideoExtractCommand),
@@ -1,5 +1,10 @@
 package org.praisenter.ui;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -10,26 +15,264 @@ import javafx.scene.text.TextBoundsType;
 
 // JAVABUG (M) 07/01/16 If the text wraps a (whole) word by breaking it up, then the font sizing code won't know what size to look for.  There doesn't seem to be a way to control the word wrapping beyond setting a target width.
 
+// NOTE: measuring is thread safe; each thread measures with its own Text node so that upcoming slides can be measured on worker threads
+
 public final class TextMeasurer {
 	private static final Logger LOGGER = LogManager.getLogger();
 	
-    private static final Text JAVAFX_TEXT_NODE = new Text();
+    private static final ThreadLocal<Text> JAVAFX_TEXT_NODE = ThreadLocal.withInitial(Text::new);
     private static final int MAXIMUM_ITERATIONS = 100;
+    
+    // fitting cache
+    
+    /** The maximum number of cached fitting results */
+    private static final int MAXIMUM_CACHE_SIZE = 512;
+    
+    /** The maximum number of boxes to remember the last result for */
+    private static final int MAXIMUM_SEED_SIZE = 64;
+    
+    /** Text lengths within this ratio of the previous text are seeded from its result */
+    private static final double SEED_LENGTH_RATIO = 2.0;
+    
+    private static final Map<FitKey, Font> FITS = new LinkedHashMap<FitKey, Font>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<FitKey, Font> eldest) {
+			return this.size() > MAXIMUM_CACHE_SIZE;
+		}
+	};
+	
+    private static final Map<FitKey, Seed> SEEDS = new LinkedHashMap<FitKey, Seed>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<FitKey, Seed> eldest) {
+			return this.size() > MAXIMUM_SEED_SIZE;
+		}
+	};
 
     // defaults 
 
-    private static final double DEFAULT_WRAPPING_WIDTH = JAVAFX_TEXT_NODE.getWrappingWidth();
-    private static final double DEFAULT_LINE_SPACING = JAVAFX_TEXT_NODE.getLineSpacing();
-    private static final String DEFAULT_TEXT = JAVAFX_TEXT_NODE.getText();
-    private static final TextBoundsType DEFAULT_BOUNDS_TYPE = JAVAFX_TEXT_NODE.getBoundsType();
+    private static final double DEFAULT_WRAPPING_WIDTH = JAVAFX_TEXT_NODE.get().getWrappingWidth();
+    private static final double DEFAULT_LINE_SPACING = JAVAFX_TEXT_NODE.get().getLineSpacing();
+    private static final String DEFAULT_TEXT = JAVAFX_TEXT_NODE.get().getText();
+    private static final TextBoundsType DEFAULT_BOUNDS_TYPE = JAVAFX_TEXT_NODE.get().getBoundsType();
 	
 	private TextMeasurer() {}
 
-    private static final void reset() {
-    	JAVAFX_TEXT_NODE.setWrappingWidth(DEFAULT_WRAPPING_WIDTH);
-        JAVAFX_TEXT_NODE.setLineSpacing(DEFAULT_LINE_SPACING);
-        JAVAFX_TEXT_NODE.setText(DEFAULT_TEXT);
-        JAVAFX_TEXT_NODE.setBoundsType(DEFAULT_BOUNDS_TYPE);
+    private static final void reset(Text node) {
+    	node.setWrappingWidth(DEFAULT_WRAPPING_WIDTH);
+        node.setLineSpacing(DEFAULT_LINE_SPACING);
+        node.setText(DEFAULT_TEXT);
+        node.setBoundsType(DEFAULT_BOUNDS_TYPE);
+    }
+    
+    /**
+     * Returns a new font that allows the text to fit within the given bounds, increasing up
+     * to the given maxFontSize and decreasing to fit if needed.
+     * <p>
+     * Results are cached, so asking for the same text in the same box again doesn't
+     * require any layouts.
+     * @param text the text to measure
+     * @param font the font
+     * @param maxFontSize the maximum font size
+     * @param targetWidth the target wrapping width
+     * @param targetHeight the target height
+     * @param lineSpacing the line spacing
+     * @param boundsType the bounds type
+     * @return Bounds
+     */
+    public static final Font getFittingFontForParagraph(String text, Font font, double maxFontSize, double targetWidth, double targetHeight, double lineSpacing, TextBoundsType boundsType) {
+    	FitKey key = new FitKey(FitType.PARAGRAPH, text, font, maxFontSize, targetWidth, targetHeight, lineSpacing, boundsType);
+    	return getFittingFont(key, font, maxFontSize, 
+    			(size) -> getParagraphBounds(text, new Font(font.getName(), size), targetWidth, lineSpacing, boundsType).getHeight() <= targetHeight,
+    			() -> searchFittingFontForParagraph(text, font, maxFontSize, targetWidth, targetHeight, lineSpacing, boundsType));
+    }
+    
+    /**
+     * Returns a new font that allows the text to fit within the given width, increasing up
+     * to the given maxFontSize and decreasing to fit if needed.
+     * <p>
+     * Results are cached, so asking for the same text in the same box again doesn't
+     * require any layouts.
+     * @param text the text to measure
+     * @param font the font
+     * @param maxFontSize the maximum font size
+     * @param targetWidth the target width
+     * @param boundsType the bounds type
+     * @return Bounds
+     */
+    public static final Font getFittingFontForLine(String text, Font font, double maxFontSize, double targetWidth, TextBoundsType boundsType) {
+    	FitKey key = new FitKey(FitType.LINE, text, font, maxFontSize, targetWidth, 0, 0, boundsType);
+    	return getFittingFont(key, font, maxFontSize, 
+    			(size) -> getLineBounds(text, new Font(font.getName(), size), boundsType).getWidth() <= targetWidth,
+    			() -> searchFittingFontForLine(text, font, maxFontSize, targetWidth, boundsType));
+    }
+    
+    /**
+     * Returns a new font that allows the text to fit within the given width and height, increasing up
+     * to the given maxFontSize and decreasing to fit if needed.
+     * <p>
+     * Results are cached, so asking for the same text in the same box again doesn't
+     * require any layouts.
+     * @param text the text to measure
+     * @param font the font
+     * @param maxFontSize the maximum font size
+     * @param targetWidth the target width
+     * @param targetHeight the target height
+     * @param boundsType the bounds type
+     * @return Bounds
+     */
+    public static final Font getFittingFontForLine(String text, Font font, double maxFontSize, double targetWidth, double targetHeight, TextBoundsType boundsType) {
+    	FitKey key = new FitKey(FitType.LINE_BOX, text, font, maxFontSize, targetWidth, targetHeight, 0, boundsType);
+    	return getFittingFont(key, font, maxFontSize, 
+    			(size) -> {
+    				Bounds bounds = getLineBounds(text, new Font(font.getName(), size), boundsType);
+    				return bounds.getWidth() <= targetWidth && bounds.getHeight() <= targetHeight;
+    			},
+    			() -> searchFittingFontForLine(text, font, maxFontSize, targetWidth, targetHeight, boundsType));
+    }
+    
+    /**
+     * Clears the cached font sizes.
+     */
+    public static final void clearCache() {
+    	synchronized (FITS) {
+    		FITS.clear();
+    		SEEDS.clear();
+    	}
+    }
+    
+    /**
+     * Returns the cached fitting font for the given key or computes it.
+     * <p>
+     * When the same box was last fit with text of a similar length, the search starts
+     * from that result rather than from scratch.
+     * @param key the cache key
+     * @param font the font
+     * @param maxFontSize the maximum font size
+     * @param test tests whether the text fits at a given font size
+     * @param search the full search
+     * @return Font
+     */
+    private static final Font getFittingFont(FitKey key, Font font, double maxFontSize, FontSizeSearch.FitTest test, Supplier<Font> search) {
+    	FitKey seedKey = key.withoutText();
+    	Seed seed = null;
+    	synchronized (FITS) {
+    		Font cached = FITS.get(key);
+    		if (cached != null) {
+    			return cached;
+    		}
+    		seed = SEEDS.get(seedKey);
+    	}
+    	
+    	int length = key.text != null ? key.text.length() : 0;
+    	Font result = null;
+    	if (seed != null && seed.isSimilar(length)) {
+    		double size = FontSizeSearch.fromSeed(test, seed.size, maxFontSize);
+    		result = new Font(font.getName(), size);
+    	} else {
+    		result = search.get();
+    	}
+    	
+    	synchronized (FITS) {
+    		FITS.put(key, result);
+    		SEEDS.put(seedKey, new Seed(length, result.getSize()));
+    	}
+    	return result;
+    }
+    
+    /**
+     * The kinds of fitting.
+     */
+    private static enum FitType {
+    	PARAGRAPH,
+    	LINE,
+    	LINE_BOX
+    }
+    
+    /**
+     * The previous result for a box; used to start the search for the next text.
+     */
+    private static final class Seed {
+    	private final int length;
+    	private final double size;
+    	
+    	public Seed(int length, double size) {
+    		this.length = length;
+    		this.size = size;
+    	}
+    	
+    	/**
+    	 * Returns true if text of the given length is likely to fit at a similar size.
+    	 * @param length the text length
+    	 * @return boolean
+    	 */
+    	public boolean isSimilar(int length) {
+    		return length <= this.length * SEED_LENGTH_RATIO && this.length <= length * SEED_LENGTH_RATIO;
+    	}
+    }
+    
+    /**
+     * A key for a fitting result.
+     */
+    private static final class FitKey {
+    	private final FitType type;
+    	private final String text;
+    	private final String fontName;
+    	private final double fontSize;
+    	private final double maxFontSize;
+    	private final double targetWidth;
+    	private final double targetHeight;
+    	private final double lineSpacing;
+    	private final TextBoundsType boundsType;
+    	private final int hash;
+    	
+    	public FitKey(FitType type, String text, Font font, double maxFontSize, double targetWidth, double targetHeight, double lineSpacing, TextBoundsType boundsType) {
+    		this(type, text, font.getName(), font.getSize(), maxFontSize, targetWidth, targetHeight, lineSpacing, boundsType);
+    	}
+    	
+    	private FitKey(FitType type, String text, String fontName, double fontSize, double maxFontSize, double targetWidth, double targetHeight, double lineSpacing, TextBoundsType boundsType) {
+    		this.type = type;
+    		this.text = text;
+    		this.fontName = fontName;
+    		this.fontSize = fontSize;
+    		this.maxFontSize = maxFontSize;
+    		this.targetWidth = targetWidth;
+    		this.targetHeight = targetHeight;
+    		this.lineSpacing = lineSpacing;
+    		this.boundsType = boundsType;
+    		this.hash = Objects.hash(type, text, fontName, fontSize, maxFontSize, targetWidth, targetHeight, lineSpacing, boundsType);
+    	}
+    	
+    	/**
+    	 * Returns the key for the box (everything but the text).
+    	 * @return {@link FitKey}
+    	 */
+    	public FitKey withoutText() {
+    		return new FitKey(this.type, null, this.fontName, this.fontSize, this.maxFontSize, this.targetWidth, this.targetHeight, this.lineSpacing, this.boundsType);
+    	}
+    	
+    	@Override
+    	public int hashCode() {
+    		return this.hash;
+    	}
+    	
+    	@Override
+    	public boolean equals(Object obj) {
+    		if (obj == this) return true;
+    		if (obj == null || !(obj instanceof FitKey)) return false;
+    		FitKey other = (FitKey)obj;
+    		return this.hash == other.hash &&
+    			   this.type == other.type &&
+    			   this.boundsType == other.boundsType &&
+    			   Double.compare(this.fontSize, other.fontSize) == 0 &&
+    			   Double.compare(this.maxFontSize, other.maxFontSize) == 0 &&
+    			   Double.compare(this.targetWidth, other.targetWidth) == 0 &&
+    			   Double.compare(this.targetHeight, other.targetHeight) == 0 &&
+    			   Double.compare(this.lineSpacing, other.lineSpacing) == 0 &&
+    			   Objects.equals(this.fontName, other.fontName) &&
+    			   Objects.equals(this.text, other.text);
+    	}
     }
     
     /**
@@ -44,21 +287,21 @@ public final class TextMeasurer {
      */
     public static final Bounds getParagraphBounds(String text, Font font, double targetWidth, double lineSpacing, TextBoundsType boundsType) {
         // setup the node
-    	JAVAFX_TEXT_NODE.setText(text);
-        JAVAFX_TEXT_NODE.setFont(font);
-        JAVAFX_TEXT_NODE.setWrappingWidth(targetWidth);
-        JAVAFX_TEXT_NODE.setLineSpacing(lineSpacing);
-        JAVAFX_TEXT_NODE.setBoundsType(boundsType);
+    	final Text node = JAVAFX_TEXT_NODE.get();
+    	node.setText(text);
+        node.setFont(font);
+        node.setWrappingWidth(targetWidth);
+        node.setLineSpacing(lineSpacing);
+        node.setBoundsType(boundsType);
         // perform the measurement
-        final Bounds bounds = JAVAFX_TEXT_NODE.getLayoutBounds();
+        final Bounds bounds = node.getLayoutBounds();
         // reset the node
-        reset();
+        reset(node);
         return bounds;
     }
     
     /**
-     * Returns a new font that allows the text to fit within the given bounds, increasing up
-     * to the given maxFontSize and decreasing to fit if needed.
+     * Performs a full search for a font that allows the text to fit within the given bounds.
      * @param text the text to measure
      * @param font the font
      * @param maxFontSize the maximum font size
@@ -68,7 +311,7 @@ public final class TextMeasurer {
      * @param boundsType the bounds type
      * @return Bounds
      */
-    public static final Font getFittingFontForParagraph(String text, Font font, double maxFontSize, double targetWidth, double targetHeight, double lineSpacing, TextBoundsType boundsType) {
+    private static final Font searchFittingFontForParagraph(String text, Font font, double maxFontSize, double targetWidth, double targetHeight, double lineSpacing, TextBoundsType boundsType) {
     	Bounds bounds = TextMeasurer.getParagraphBounds(text, font, targetWidth, lineSpacing, boundsType);
 		double max = maxFontSize;
 		double min = (bounds.getHeight() <= targetHeight && max != Double.MAX_VALUE) ? max : 1.0;
@@ -130,21 +373,21 @@ public final class TextMeasurer {
      */
     public static final Bounds getLineBounds(String text, Font font, TextBoundsType boundsType) {
     	// setup the node
-    	JAVAFX_TEXT_NODE.setText(text);
-        JAVAFX_TEXT_NODE.setFont(font);
-        JAVAFX_TEXT_NODE.setWrappingWidth(0);
-        JAVAFX_TEXT_NODE.setLineSpacing(0);
-        JAVAFX_TEXT_NODE.setBoundsType(boundsType);
+    	final Text node = JAVAFX_TEXT_NODE.get();
+    	node.setText(text);
+        node.setFont(font);
+        node.setWrappingWidth(0);
+        node.setLineSpacing(0);
+        node.setBoundsType(boundsType);
         // perform the measurement
-        final Bounds bounds = JAVAFX_TEXT_NODE.getLayoutBounds();
+        final Bounds bounds = node.getLayoutBounds();
         // reset the node
-        reset();
+        reset(node);
         return bounds;
     }
     
     /**
-     * Returns a new font that allows the text to fit within the given width, increasing up
-     * to the given maxFontSize and decreasing to fit if needed.
+     * Performs a full search for a font that allows the text to fit within the given width.
      * @param text the text to measure
      * @param font the font
      * @param maxFontSize the maximum font size
@@ -152,7 +395,7 @@ public final class TextMeasurer {
      * @param boundsType the bounds type
      * @return Bounds
      */
-    public static final Font getFittingFontForLine(String text, Font font, double maxFontSize, double targetWidth, TextBoundsType boundsType) {
+    private static final Font searchFittingFontForLine(String text, Font font, double maxFontSize, double targetWidth, TextBoundsType boundsType) {
     	Bounds bounds = TextMeasurer.getLineBounds(text, font, boundsType);
 		double max = maxFontSize;
 		double min = (bounds.getWidth() < targetWidth && max != Double.MAX_VALUE) ? max : 1.0;
@@ -206,8 +449,7 @@ public final class TextMeasurer {
     }
     
     /**
-     * Returns a new font that allows the text to fit within the given width, increasing up
-     * to the given maxFontSize and decreasing to fit if needed.
+     * Performs a full search for a font that allows the text to fit within the given width and height.
      * @param text the text to measure
      * @param font the font
      * @param maxFontSize the maximum font size
@@ -215,7 +457,7 @@ public final class TextMeasurer {
      * @param boundsType the bounds type
      * @return Bounds
      */
-    public static final Font getFittingFontForLine(String text, Font font, double maxFontSize, double targetWidth, double targetHeight, TextBoundsType boundsType) {
+    private static final Font searchFittingFontForLine(String text, Font font, double maxFontSize, double targetWidth, double targetHeight, TextBoundsType boundsType) {
     	Bounds bounds = TextMeasurer.getLineBounds(text, font, boundsType);
 		double max = maxFontSize;
 		double min = (bounds.getWidth() < targetWidth && bounds.getHeight() < targetHeight && max != Double.MAX_VALUE) ? max : 1.0;
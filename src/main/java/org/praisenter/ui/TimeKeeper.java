@@ -1,37 +1,235 @@
 package org.praisenter.ui;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.praisenter.async.TaskExecutors;
 
 import javafx.application.Platform;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 
+/**
+ * A shared clock for components that show the time.
+ * <p>
+ * A clock property is kept for each resolution (seconds, minutes, hours and days)
+ * that's been requested. Each property only changes when the time crosses a boundary
+ * of its resolution, so a component showing hh:mm is updated once a minute rather than
+ * every second. A single update is scheduled at the next boundary of the finest resolution
+ * in use and is run on the Java FX UI thread.
+ * <p>
+ * The time is measured with a monotonic source anchored to the wall clock so that
+ * small adjustments of the system clock (drift correction, NTP slewing) don't cause
+ * seconds to be skipped or repeated. The clock is re-anchored if it differs from the
+ * wall clock by more than a couple of seconds (the system clock was changed or the
+ * system was suspended).
+ * <p>
+ * The properties are updated on, and should only be accessed from, the Java FX UI thread.
+ * @author William Bittle
+ * @version 3.0.0
+ */
 public final class TimeKeeper {
-	private static final ObjectProperty<LocalDateTime> CURRENT_TIME = new SimpleObjectProperty<>(LocalDateTime.now());
-	private static final Timer TIMER = new Timer("Time Updater", true);
-	private static final TimerTask TIMER_TASK = new TimerTask() {
-		@Override
-		public void run() {
-			Platform.runLater(() -> {
-				CURRENT_TIME.set(LocalDateTime.now());
-			});
-		}
+	/** The class-level logger */
+	private static final Logger LOGGER = LogManager.getLogger();
+
+	/** The supported resolutions from finest to coarsest */
+	private static final ChronoUnit[] RESOLUTIONS = new ChronoUnit[] {
+		ChronoUnit.SECONDS,
+		ChronoUnit.MINUTES,
+		ChronoUnit.HOURS,
+		ChronoUnit.DAYS
 	};
-	
-	static {
-		TIMER.scheduleAtFixedRate(TIMER_TASK, 1000, 1000);
-	}
-	
-	private TimeKeeper() {}
-	
-	public static final ReadOnlyObjectProperty<LocalDateTime> currentTimeProperty() {
-		return CURRENT_TIME;
-	}
-	
-	public static final LocalDateTime getCurrentTime() {
-		return CURRENT_TIME.get();
+
+	/** How long after a boundary to wake up so that we're always past it */
+	private static final long TICK_LATENCY_MILLIS = 5;
+
+	/** How far the monotonic time can differ from the wall clock before re-anchoring */
+	private static final long RESYNC_THRESHOLD_NANOS = 2_000_000_000L;
+
+	/** The executors to schedule the updates on */
+	private final TaskExecutors executors;
+
+	/** The clock for each resolution; only accessed on the Java FX UI thread */
+	private final Map<ChronoUnit, ObjectProperty<LocalDateTime>> clocks;
+
+	/** The lock for the anchor and scheduling */
+	private final Object lock;
+
+	/** The wall clock time the monotonic time is anchored to */
+	private Instant anchorInstant;
+
+	/** The monotonic time at the anchor */
+	private long anchorNanos;
+
+	/** The finest resolution in use */
+	private ChronoUnit resolution;
+
+	/** The next scheduled update */
+	private ScheduledFuture<?> next;
+
+	/** Incremented when the schedule changes so that a cancelled update that's already running doesn't reschedule */
+	private long generation;
+
+	/**
+	 * Minimal constructor.
+	 * @param executors the executors to schedule the updates on
+	 */
+	public TimeKeeper(TaskExecutors executors) {
+		this.executors = executors;
+		this.clocks = new EnumMap<>(ChronoUnit.class);
+		this.lock = new Object();
+		this.anchorInstant = Instant.now();
+		this.anchorNanos = System.nanoTime();
+	}
+
+	/**
+	 * Returns a property containing the current time that's updated every second.
+	 * @return ReadOnlyObjectProperty&lt;LocalDateTime&gt;
+	 */
+	public ReadOnlyObjectProperty<LocalDateTime> currentTimeProperty() {
+		return currentTimeProperty(ChronoUnit.SECONDS);
+	}
+
+	/**
+	 * Returns a property containing the current time truncated to the given resolution
+	 * that's only updated when the time crosses a boundary of the resolution.
+	 * <p>
+	 * Resolutions finer than seconds are treated as seconds and resolutions coarser than
+	 * days are treated as days.
+	 * @param unit the resolution
+	 * @return ReadOnlyObjectProperty&lt;LocalDateTime&gt;
+	 */
+	public ReadOnlyObjectProperty<LocalDateTime> currentTimeProperty(ChronoUnit unit) {
+		ChronoUnit resolution = getSupportedResolution(unit);
+		ObjectProperty<LocalDateTime> clock = this.clocks.get(resolution);
+		if (clock == null) {
+			clock = new SimpleObjectProperty<>(this.now().truncatedTo(resolution));
+			this.clocks.put(resolution, clock);
+			this.schedule(resolution);
+		}
+		return clock;
+	}
+
+	/**
+	 * Returns the current time.
+	 * @return LocalDateTime
+	 */
+	public LocalDateTime getCurrentTime() {
+		return this.now();
+	}
+
+	/**
+	 * Returns the supported resolution for the given unit.
+	 * @param unit the unit
+	 * @return ChronoUnit
+	 */
+	private static final ChronoUnit getSupportedResolution(ChronoUnit unit) {
+		if (unit == null) return ChronoUnit.SECONDS;
+		for (ChronoUnit resolution : RESOLUTIONS) {
+			if (unit.getDuration().compareTo(resolution.getDuration()) <= 0) {
+				return resolution;
+			}
+		}
+		return ChronoUnit.DAYS;
+	}
+
+	/**
+	 * Returns the current time using the monotonic time source.
+	 * @return LocalDateTime
+	 */
+	private LocalDateTime now() {
+		Instant instant;
+		synchronized (this.lock) {
+			long nanos = System.nanoTime();
+			instant = this.anchorInstant.plusNanos(nanos - this.anchorNanos);
+
+			// if the wall clock has moved a lot, then follow it
+			Instant wall = Instant.now();
+			if (Math.abs(Duration.between(instant, wall).toNanos()) > RESYNC_THRESHOLD_NANOS) {
+				LOGGER.debug("System clock changed; re-anchoring clock from {} to {}", instant, wall);
+				this.anchorInstant = wall;
+				this.anchorNanos = nanos;
+				instant = wall;
+			}
+		}
+		return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+	}
+
+	/**
+	 * Schedules the next update if the given resolution is finer than the
+	 * current one (or nothing is scheduled yet).
+	 * @param unit the newly requested resolution
+	 */
+	private void schedule(ChronoUnit unit) {
+		synchronized (this.lock) {
+			if (this.resolution != null && this.resolution.getDuration().compareTo(unit.getDuration()) <= 0) {
+				return;
+			}
+			this.resolution = unit;
+			if (this.next != null) {
+				this.next.cancel(false);
+			}
+			this.generation++;
+			this.scheduleNext();
+		}
+	}
+
+	/**
+	 * Schedules the next update at the next boundary of the finest resolution.
+	 * <p>
+	 * Must be called while holding the lock.
+	 */
+	private void scheduleNext() {
+		LocalDateTime now = this.now();
+		LocalDateTime boundary = now.truncatedTo(this.resolution).plus(1, this.resolution);
+		long delay = Duration.between(now, boundary).toMillis() + TICK_LATENCY_MILLIS;
+		final long scheduled = this.generation;
+		try {
+			this.next = this.executors.schedule(() -> this.tick(scheduled), delay, TimeUnit.MILLISECONDS, Platform::runLater);
+		} catch (RejectedExecutionException ex) {
+			// the executors have been shut down
+			LOGGER.debug("Stopped updating the clocks");
+			this.next = null;
+		}
+	}
+
+	/**
+	 * Called at each boundary on the Java FX UI thread.
+	 * @param scheduled the generation the update was scheduled in
+	 */
+	private void tick(long scheduled) {
+		synchronized (this.lock) {
+			// the schedule changed after this update was due; the new schedule takes over
+			if (scheduled != this.generation) {
+				return;
+			}
+		}
+
+		final LocalDateTime now = this.now();
+		for (Map.Entry<ChronoUnit, ObjectProperty<LocalDateTime>> entry : this.clocks.entrySet()) {
+			LocalDateTime time = now.truncatedTo(entry.getKey());
+			ObjectProperty<LocalDateTime> clock = entry.getValue();
+			// only notify when the value actually changes
+			if (!time.equals(clock.get())) {
+				clock.set(time);
+			}
+		}
+
+		synchronized (this.lock) {
+			if (scheduled == this.generation) {
+				this.scheduleNext();
+			}
+		}
 	}
 }
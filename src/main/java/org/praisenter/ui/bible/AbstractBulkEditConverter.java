@@ -1,65 +1,125 @@
 package org.praisenter.ui.bible;
 
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import org.praisenter.Constants;
 import org.praisenter.data.bible.Book;
 import org.praisenter.data.bible.Chapter;
 import org.praisenter.data.bible.Verse;
 import org.praisenter.ui.BulkEditConverter;
 import org.praisenter.ui.BulkEditParseException;
+import org.praisenter.ui.ObservableLists;
 import org.praisenter.ui.translations.Translations;
 
 abstract class AbstractBulkEditConverter<T> implements BulkEditConverter<T> {
+	/** The maximum number of line errors to report */
+	private static final int MAX_ERRORS = 10;
+
+	private static final Pattern NUMBER = Pattern.compile("^\\d+$");
+	private static final Pattern NUMBER_AND_TEXT = Pattern.compile("^(\\d+)\\s+(.+)$");
+
 	protected final void append(StringBuilder sb, Book book) {
 		sb.append(book.getNumber()).append(" ").append(book.getName()).append(Constants.NEW_LINE);
 	}
-	
+
 	protected final void append(StringBuilder sb, Chapter chapter) {
 		sb.append(chapter.getNumber()).append(Constants.NEW_LINE);
 	}
-	
+
 	protected final void append(StringBuilder sb, Verse verse) {
 		sb.append(verse.getNumber()).append(" ").append(verse.getText()).append(Constants.NEW_LINE);
 	}
-	
-	protected final Book parseBook(String line) throws BulkEditParseException {
-		if (!line.matches("^(\\d+)\\s+.+$")) {
-			throw new BulkEditParseException(Translations.get("bible.bulk.book.pattern.invalid"));
+
+	protected final boolean isChapter(String line) {
+		return NUMBER.matcher(line).matches();
+	}
+
+	protected final Book parseBook(String line, int lineNumber) throws BulkEditParseException {
+		Matcher matcher = NUMBER_AND_TEXT.matcher(line);
+		if (!matcher.matches()) {
+			throw new BulkEditParseException(Translations.get("bible.bulk.book.pattern.invalid"), lineNumber);
+		}
+
+		return new Book(this.parseNumber(matcher.group(1), lineNumber), matcher.group(2).trim());
+	}
+
+	protected final Chapter parseChapter(String line, int lineNumber) throws BulkEditParseException {
+		if (!this.isChapter(line)) {
+			throw new BulkEditParseException(Translations.get("bible.bulk.chapter.pattern.invalid"), lineNumber);
+		}
+
+		return new Chapter(this.parseNumber(line, lineNumber));
+	}
+
+	protected final Verse parseVerse(String line, int lineNumber) throws BulkEditParseException {
+		Matcher matcher = NUMBER_AND_TEXT.matcher(line);
+		if (!matcher.matches()) {
+			throw new BulkEditParseException(Translations.get("bible.bulk.verse.pattern.invalid"), lineNumber);
 		}
-		
-		int index = 0;
-		char c = ' ';
-		do {
-			c = line.charAt(index++);			
-		} while (c >= '0' && c <= '9');
-		
-		String num = line.substring(0, index).trim();
-		String text = line.substring(index).trim();
-		
-		return new Book(Integer.parseInt(num), text);
+
+		return new Verse(this.parseNumber(matcher.group(1), lineNumber), matcher.group(2).trim());
 	}
-	
-	protected final Chapter parseChapter(String line) throws BulkEditParseException {
-		if (!line.matches("^\\d+$")) {
-			throw new BulkEditParseException(Translations.get("bible.bulk.chapter.pattern.invalid"));
+
+	private int parseNumber(String number, int lineNumber) throws BulkEditParseException {
+		try {
+			return Integer.parseInt(number);
+		} catch (NumberFormatException ex) {
+			throw new BulkEditParseException(Translations.get("bulk.error.number", number), lineNumber);
 		}
-		
-		return new Chapter(Integer.parseInt(line));
 	}
 
-	protected final Verse parseVerse(String line) throws BulkEditParseException {
-		if (!line.matches("^(\\d+)\\s+.+$")) {
-			throw new BulkEditParseException(Translations.get("bible.bulk.verse.pattern.invalid"));
+	/**
+	 * Throws an exception listing the given line errors if there are any.
+	 * @param errors the errors
+	 * @throws BulkEditParseException if there are any errors
+	 */
+	protected final void check(List<BulkEditParseException> errors) throws BulkEditParseException {
+		if (errors.isEmpty()) return;
+
+		StringBuilder sb = new StringBuilder();
+		int n = Math.min(errors.size(), MAX_ERRORS);
+		for (int i = 0; i < n; i++) {
+			BulkEditParseException error = errors.get(i);
+			if (i > 0) sb.append(Constants.NEW_LINE);
+			sb.append(Translations.get("bulk.error.line", error.getLine(), error.getMessage()));
+		}
+		if (errors.size() > n) {
+			sb.append(Constants.NEW_LINE).append(Translations.get("bulk.error.more", errors.size() - n));
 		}
-		
-		int index = 0;
-		char c = ' ';
-		do {
-			c = line.charAt(index++);			
-		} while (c >= '0' && c <= '9');
-		
-		String num = line.substring(0, index).trim();
-		String text = line.substring(index).trim();
-		
-		return new Verse(Integer.parseInt(num), text);
+
+		BulkEditParseException ex = new BulkEditParseException(sb.toString(), errors.get(0).getLine());
+		for (BulkEditParseException error : errors) {
+			ex.addSuppressed(error);
+		}
+		throw ex;
+	}
+
+	/**
+	 * Updates the given book and its chapters and verses to match the given book.
+	 * <p>
+	 * Chapters and verses are matched by number, so only the verses whose text
+	 * changed and the chapters and verses that were added or removed are changed.
+	 * @param target the book to change
+	 * @param edits the parsed book
+	 */
+	protected final void update(Book target, Book edits) {
+		target.setNumber(edits.getNumber());
+		target.setName(edits.getName());
+		ObservableLists.merge(target.getChapters(), edits.getChapters(), Chapter::getNumber, this::update);
+	}
+
+	/**
+	 * Updates the given chapter and its verses to match the given chapter.
+	 * @param target the chapter to change
+	 * @param edits the parsed chapter
+	 * @see #update(Book, Book)
+	 */
+	protected final void update(Chapter target, Chapter edits) {
+		target.setNumber(edits.getNumber());
+		ObservableLists.merge(target.getVerses(), edits.getVerses(), Verse::getNumber, (verse, edit) -> {
+			verse.setText(edit.getText());
+		});
 	}
 }
@@ -1,9 +1,11 @@
 package org.praisenter.ui.bible;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
@@ -26,6 +28,7 @@ import org.praisenter.ui.events.ActionStateChangedEvent;
 import org.praisenter.ui.translations.Translations;
 import org.praisenter.ui.undo.UndoManager;
 
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.ListChangeListener;
@@ -108,6 +111,14 @@ public final class BibleEditor extends BorderPane implements DocumentEditor<Bibl
 		BibleTreeItem root = new BibleTreeItem();
 		root.setValue(this.bible);
 		
+		// the books, chapters and verses are only watched for edits
+		// once they are shown (see Watchable.lazy)
+		root.addEventHandler(TreeItem.<Object>branchExpandedEvent(), (e) -> {
+			for (TreeItem<Object> child : e.getTreeItem().getChildren()) {
+				this.undoManager.watch(child.getValue(), false);
+			}
+		});
+		
 		this.treeView = new TreeView<Object>(root);
 		this.treeView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
 		this.treeView.setCellFactory((view) -> {
@@ -123,12 +134,19 @@ public final class BibleEditor extends BorderPane implements DocumentEditor<Bibl
 		
 		this.treeView.getSelectionModel().getSelectedItems().addListener((ListChangeListener.Change<? extends TreeItem<Object>> change) -> {
 			// set the selected items
-			document.getSelectedItems().setAll(this.treeView
+			List<Object> selected = this.treeView
 					.getSelectionModel()
 					.getSelectedItems()
-					.stream().filter(i -> i != null && i.getValue() != null)
+					.stream().filter(i -> i != null && i.getValue() != null && !(i.getValue() instanceof BibleTreePage))
 					.map(i -> i.getValue())
-					.collect(Collectors.toList()));
+					.collect(Collectors.toList());
+			
+			// make sure they're watched before they can be edited
+			for (Object item : selected) {
+				this.undoManager.watch(item, false);
+			}
+			
+			document.getSelectedItems().setAll(selected);
 		});
 
 		ContextMenu menu = new ContextMenu();
@@ -195,14 +213,22 @@ public final class BibleEditor extends BorderPane implements DocumentEditor<Bibl
 		StackPane editorStack = new StackPane(this.treeView, bulkEditor);
 		
 		btnOk.setOnAction(e -> {
-			try {
-				this.processBulkEdit();
-				document.setBulkEdit(false);
-				this.bulkEditModeValue.set(null);
-				this.bulkEditModeError.set(null);
-			} catch (Exception ex) {
-				this.bulkEditModeError.set(ex.getMessage());
-			}
+			btnOk.setDisable(true);
+			this.processBulkEdit().whenCompleteAsync((r, ex) -> {
+				btnOk.setDisable(false);
+				if (ex != null) {
+					Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+					this.bulkEditModeError.set(cause.getMessage());
+					// go to the first line with an error
+					if (cause instanceof BulkEditParseException) {
+						selectLine(textArea, ((BulkEditParseException)cause).getLine());
+					}
+				} else {
+					document.setBulkEdit(false);
+					this.bulkEditModeValue.set(null);
+					this.bulkEditModeError.set(null);
+				}
+			}, Platform::runLater);
 		});
 		
 		btnCancel.setOnAction(e -> {
@@ -334,31 +360,59 @@ public final class BibleEditor extends BorderPane implements DocumentEditor<Bibl
 		return CompletableFuture.completedFuture(null);
 	}
 	
-	private void processBulkEdit() throws BulkEditParseException {
+	private CompletableFuture<Void> processBulkEdit() {
 		Object selection = this.document.getSelectedItem();
 		Class<?> clazz = this.document.getSelectedType();
 		String result = this.bulkEditModeValue.get();
 		
 		if (clazz == Book.class) {
-			BulkEditConverter<Book> tx = new BookBulkEditConverter();
-			Book book = tx.fromString(result);
-			Bible bible = this.bible;
-			int index = bible.getBooks().indexOf(selection);
-			if (index >= 0) {
-				bible.getBooks().set(index, book);
-			}
+			return this.processBulkEdit(new BookBulkEditConverter(), (Book)selection, result);
 		} else if (clazz == Chapter.class) {
-			BulkEditConverter<Chapter> tx = new ChapterBulkEditConverter();
-			Chapter chapter = tx.fromString(result);
-			Bible bible = this.bible;
-			for (Book book : bible.getBooks()) {
-				int index = book.getChapters().indexOf(selection);
-				if (index >= 0) {
-					book.getChapters().set(index, chapter);
-					break;
-				}
+			return this.processBulkEdit(new ChapterBulkEditConverter(), (Chapter)selection, result);
+		}
+		
+		return CompletableFuture.completedFuture(null);
+	}
+	
+	private <T> CompletableFuture<Void> processBulkEdit(BulkEditConverter<T> converter, T target, String data) {
+		// parse in the background
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return converter.fromString(data);
+			} catch (BulkEditParseException ex) {
+				throw new CompletionException(ex);
+			}
+		}, this.context.getExecutors().getCPUExecutor()).thenAcceptAsync((edits) -> {
+			// then only change what's different
+			this.undoManager.watch(target, true);
+			this.undoManager.beginBatch("BulkEdit");
+			try {
+				converter.apply(target, edits);
+				this.undoManager.completeBatch();
+			} catch (RuntimeException ex) {
+				LOGGER.error("Failed to apply the bulk edit", ex);
+				this.undoManager.discardBatch();
+				throw ex;
 			}
+		}, Platform::runLater);
+	}
+	
+	private static void selectLine(TextArea textArea, int line) {
+		String text = textArea.getText();
+		if (text == null || line < 1) return;
+		
+		int start = 0;
+		for (int i = 1; i < line && start >= 0; i++) {
+			start = text.indexOf('\n', start);
+			if (start >= 0) start++;
 		}
+		if (start < 0) return;
+		
+		int end = text.indexOf('\n', start);
+		if (end < 0) end = text.length();
+		
+		textArea.requestFocus();
+		textArea.selectRange(start, end);
 	}
 	
 	private CompletableFuture<Void> delete() {
@@ -368,17 +422,14 @@ public final class BibleEditor extends BorderPane implements DocumentEditor<Bibl
 		try {
 			for (TreeItem<Object> item : selected) {
 				Object value = item.getValue();
-				TreeItem<Object> parentItem = item.getParent();
-				if (parentItem != null) {
-					Object parent = parentItem.getValue();
-					if (parent != null) {
-						if (parent instanceof Bible) {
-							((Bible)parent).getBooks().remove(value);
-						} else if (parent instanceof Book) {
-							((Book)parent).getChapters().remove(value);
-						} else if (parent instanceof Chapter) {
-							((Chapter)parent).getVerses().remove(value);
-						}
+				Object parent = BibleTreeItem.getParentValue(item);
+				if (parent != null) {
+					if (parent instanceof Bible) {
+						((Bible)parent).getBooks().remove(value);
+					} else if (parent instanceof Book) {
+						((Book)parent).getChapters().remove(value);
+					} else if (parent instanceof Chapter) {
+						((Chapter)parent).getVerses().remove(value);
 					}
 				}
 			}
@@ -472,20 +523,9 @@ public final class BibleEditor extends BorderPane implements DocumentEditor<Bibl
 	private void renumber(boolean accepted, Object selected) {		
 		this.treeView.requestFocus();
 		if (accepted && selected != null) {
-			this.undoManager.beginBatch("Renumber");
-			try {
-				if (selected instanceof Bible) {
-					((Bible)selected).renumber();
-				} else if (selected instanceof Book) {
-					((Book)selected).renumber();
-				} else if (selected instanceof Chapter) {
-					((Chapter)selected).renumber();
-				}
-				this.undoManager.completeBatch();
-			} catch (Exception ex) {
-				LOGGER.error("Failed to renumber", ex);
-				this.undoManager.discardBatch();
-			}
+			// this changes everything below the selection
+			this.undoManager.watch(selected, true);
+			BibleOrdering.renumber(selected, this.undoManager, this.context.getExecutors().getCPUExecutor());
 		}
 	}
 	
@@ -528,20 +568,9 @@ public final class BibleEditor extends BorderPane implements DocumentEditor<Bibl
 	private void reorder(boolean accepted, Object selected) {		
 		this.treeView.requestFocus();
 		if (accepted && selected != null) {
-			this.undoManager.beginBatch("Renumber");
-			try {
-				if (selected instanceof Bible) {
-					((Bible)selected).reorder();
-				} else if (selected instanceof Book) {
-					((Book)selected).reorder();
-				} else if (selected instanceof Chapter) {
-					((Chapter)selected).reorder();
-				}
-				this.undoManager.completeBatch();
-			} catch (Exception ex) {
-				LOGGER.error("Failed to reorder", ex);
-				this.undoManager.discardBatch();
-			}
+			// this changes everything below the selection
+			this.undoManager.watch(selected, true);
+			BibleOrdering.reorder(selected, this.undoManager, this.context.getExecutors().getCPUExecutor());
 		}
 	}
 	
@@ -584,7 +613,7 @@ public final class BibleEditor extends BorderPane implements DocumentEditor<Bibl
 				clipboard.setContent(content);
 				
 				if (isCut) {
-					Object parent = items.get(0).getParent().getValue();
+					Object parent = BibleTreeItem.getParentValue(items.get(0));
 					if (clazz == Book.class) {
 						((Bible)parent).getBooks().removeAll(objectData);
 					} else if (clazz == Chapter.class) {
@@ -758,7 +787,7 @@ public final class BibleEditor extends BorderPane implements DocumentEditor<Bibl
 		List<Object> items = new ArrayList<>();
 		for (TreeItem<Object> item : selected) {
 			Object child = item.getValue();
-			Object parent = item.getParent().getValue();
+			Object parent = BibleTreeItem.getParentValue(item);
 			if (child instanceof Verse) {
 				((Chapter)parent).getVerses().remove(child);
 			} else if (child instanceof Chapter) {
@@ -770,9 +799,11 @@ public final class BibleEditor extends BorderPane implements DocumentEditor<Bibl
 		}
 		
 		// now add the data
-		Object parent = isParent ? targetValue : targetItem.getParent().getValue();
-		int size = targetItem.getChildren().size();
-		int index = isParent ? size : targetItem.getParent().getChildren().indexOf(targetItem);
+		// the children of the target may not have been created or may be paged
+		// so use the position in the data rather than in the tree
+		Object parent = isParent ? targetValue : BibleTreeItem.getParentValue(targetItem);
+		List<?> siblings = getChildren(parent);
+		int index = isParent ? siblings.size() : indexOf(siblings, targetValue);
 		boolean after = e.getY() >= target.getHeight() * 0.75;
 		if (!isParent && after) index++;
 		
@@ -797,6 +828,26 @@ public final class BibleEditor extends BorderPane implements DocumentEditor<Bibl
 		e.setDropCompleted(true);
 	}
 	
+	private static List<?> getChildren(Object parent) {
+		if (parent instanceof Bible) {
+			return ((Bible)parent).getBooks();
+		} else if (parent instanceof Book) {
+			return ((Book)parent).getChapters();
+		} else if (parent instanceof Chapter) {
+			return ((Chapter)parent).getVerses();
+		}
+		return Collections.emptyList();
+	}
+	
+	private static int indexOf(List<?> items, Object item) {
+		for (int i = 0; i < items.size(); i++) {
+			if (items.get(i) == item) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
 	private void dragDone(DragEvent e) {
 		// nothing to do
 	}
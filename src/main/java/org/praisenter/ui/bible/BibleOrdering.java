@@ -0,0 +1,230 @@
+package org.praisenter.ui.bible;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.praisenter.data.bible.Bible;
+import org.praisenter.data.bible.Book;
+import org.praisenter.data.bible.Chapter;
+import org.praisenter.data.bible.Verse;
+import org.praisenter.ui.undo.UndoManager;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+
+/**
+ * Renumbers or reorders the books, chapters and verses below a bible, book or chapter.
+ * <p>
+ * The numbers are copied on the Java FX UI thread, the new order or numbering is worked
+ * out on a background thread and then the changes are applied back on the Java FX UI
+ * thread as a single undoable edit. Lists are reordered with one replacement per list
+ * and only the numbers that change are set. A list that was changed while the work was
+ * being done is left as is.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+final class BibleOrdering {
+	/** The class-level logger */
+	private static final Logger LOGGER = LogManager.getLogger();
+
+	private BibleOrdering() {}
+
+	/**
+	 * Renumbers everything below the given item based on the current order.
+	 * <p>
+	 * Must be called from the Java FX UI thread.
+	 * @param selected the bible, book or chapter
+	 * @param undoManager the undo manager
+	 * @param executor the executor to do the work on
+	 * @return CompletableFuture&lt;Void&gt;
+	 */
+	public static CompletableFuture<Void> renumber(Object selected, UndoManager undoManager, Executor executor) {
+		return renumber(selected, undoManager, executor, Platform::runLater);
+	}
+
+	/**
+	 * Renumbers everything below the given item based on the current order.
+	 * @param selected the bible, book or chapter
+	 * @param undoManager the undo manager
+	 * @param executor the executor to do the work on
+	 * @param uiExecutor the executor to read and apply the changes on
+	 * @return CompletableFuture&lt;Void&gt;
+	 */
+	static CompletableFuture<Void> renumber(Object selected, UndoManager undoManager, Executor executor, Executor uiExecutor) {
+		return run("Renumber", selected, undoManager, executor, uiExecutor, false);
+	}
+
+	/**
+	 * Reorders everything below the given item based on the current numbers.
+	 * <p>
+	 * Must be called from the Java FX UI thread.
+	 * @param selected the bible, book or chapter
+	 * @param undoManager the undo manager
+	 * @param executor the executor to do the work on
+	 * @return CompletableFuture&lt;Void&gt;
+	 */
+	public static CompletableFuture<Void> reorder(Object selected, UndoManager undoManager, Executor executor) {
+		return reorder(selected, undoManager, executor, Platform::runLater);
+	}
+
+	/**
+	 * Reorders everything below the given item based on the current numbers.
+	 * @param selected the bible, book or chapter
+	 * @param undoManager the undo manager
+	 * @param executor the executor to do the work on
+	 * @param uiExecutor the executor to read and apply the changes on
+	 * @return CompletableFuture&lt;Void&gt;
+	 */
+	static CompletableFuture<Void> reorder(Object selected, UndoManager undoManager, Executor executor, Executor uiExecutor) {
+		return run("Reorder", selected, undoManager, executor, uiExecutor, true);
+	}
+
+	private static CompletableFuture<Void> run(String name, Object selected, UndoManager undoManager, Executor executor, Executor uiExecutor, boolean reorder) {
+		final List<NumberedList<?>> lists = new ArrayList<>();
+		if (selected instanceof Bible) {
+			Bible bible = (Bible)selected;
+			lists.add(new NumberedList<>(bible.getBooks(), Book::getNumber, Book::setNumber));
+			for (Book book : bible.getBooks()) {
+				addBook(lists, book);
+			}
+		} else if (selected instanceof Book) {
+			addBook(lists, (Book)selected);
+		} else if (selected instanceof Chapter) {
+			addChapter(lists, (Chapter)selected);
+		}
+
+		return CompletableFuture.runAsync(() -> {
+			for (NumberedList<?> list : lists) {
+				list.compute(reorder);
+			}
+		}, executor).thenRunAsync(() -> {
+			undoManager.beginBatch(name);
+			try {
+				for (NumberedList<?> list : lists) {
+					list.apply();
+				}
+				undoManager.completeBatch();
+			} catch (Exception ex) {
+				LOGGER.error("Failed to " + name.toLowerCase(), ex);
+				undoManager.discardBatch();
+			}
+		}, uiExecutor);
+	}
+
+	private static void addBook(List<NumberedList<?>> lists, Book book) {
+		lists.add(new NumberedList<>(book.getChapters(), Chapter::getNumber, Chapter::setNumber));
+		for (Chapter chapter : book.getChapters()) {
+			addChapter(lists, chapter);
+		}
+	}
+
+	private static void addChapter(List<NumberedList<?>> lists, Chapter chapter) {
+		lists.add(new NumberedList<>(chapter.getVerses(), Verse::getNumber, Verse::setNumber));
+	}
+
+	/**
+	 * A copy of a list and the numbers of its items.
+	 * @param <T> the item type
+	 */
+	private static final class NumberedList<T> {
+		private final ObservableList<T> list;
+		private final List<T> items;
+		private final int[] numbers;
+		private final ObjIntConsumer<T> setter;
+
+		/** The new order of the items; null if unchanged */
+		private int[] order;
+
+		/** True if the items should be renumbered */
+		private boolean renumber;
+
+		public NumberedList(ObservableList<T> list, ToIntFunction<T> getter, ObjIntConsumer<T> setter) {
+			this.list = list;
+			this.items = new ArrayList<>(list);
+			this.numbers = new int[this.items.size()];
+			for (int i = 0; i < this.numbers.length; i++) {
+				this.numbers[i] = getter.applyAsInt(this.items.get(i));
+			}
+			this.setter = setter;
+		}
+
+		/**
+		 * Works out the changes; can be called from any thread.
+		 * @param reorder true to reorder, false to renumber
+		 */
+		public void compute(boolean reorder) {
+			int n = this.numbers.length;
+			if (reorder) {
+				// stable so that items with the same number keep their order
+				Integer[] order = new Integer[n];
+				for (int i = 0; i < n; i++) {
+					order[i] = i;
+				}
+				Arrays.sort(order, (a, b) -> Integer.compare(this.numbers[a], this.numbers[b]));
+				for (int i = 0; i < n; i++) {
+					if (order[i] != i) {
+						this.order = Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+						break;
+					}
+				}
+			} else {
+				for (int i = 0; i < n; i++) {
+					if (this.numbers[i] != i + 1) {
+						this.renumber = true;
+						break;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Applies the changes; must be called from the Java FX UI thread.
+		 */
+		public void apply() {
+			if (this.order == null && !this.renumber) {
+				return;
+			}
+
+			if (!this.isUnchanged()) {
+				LOGGER.warn("The list was changed while it was being processed; skipping it");
+				return;
+			}
+
+			if (this.order != null) {
+				List<T> sorted = new ArrayList<>(this.order.length);
+				for (int i : this.order) {
+					sorted.add(this.items.get(i));
+				}
+				this.list.setAll(sorted);
+			}
+
+			if (this.renumber) {
+				for (int i = 0; i < this.numbers.length; i++) {
+					if (this.numbers[i] != i + 1) {
+						this.setter.accept(this.items.get(i), i + 1);
+					}
+				}
+			}
+		}
+
+		private boolean isUnchanged() {
+			int n = this.items.size();
+			if (this.list.size() != n) {
+				return false;
+			}
+			for (int i = 0; i < n; i++) {
+				if (this.list.get(i) != this.items.get(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -56,6 +56,8 @@ final class BibleTreeCell extends TreeCell<Object> {
 				textProperty().bind(verse.textProperty());
 				this.graphic.textProperty().bind(verse.numberProperty().asString());
 				this.setGraphic(this.graphic);
+			} else if (data instanceof BibleTreePage) {
+				setText(data.toString());
 			}
 		}
 	}
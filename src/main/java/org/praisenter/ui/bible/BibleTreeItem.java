@@ -1,27 +1,67 @@
 package org.praisenter.ui.bible;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.praisenter.data.bible.Bible;
 import org.praisenter.data.bible.Book;
 import org.praisenter.data.bible.Chapter;
 import org.praisenter.data.bible.Verse;
-import org.praisenter.ui.MappedList;
+import org.praisenter.ui.ObservableLists;
 
-import javafx.beans.binding.Bindings;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.collections.WeakListChangeListener;
 import javafx.scene.control.TreeItem;
 
+/**
+ * A tree item for a bible, book, chapter or verse.
+ * <p>
+ * The children aren't created until the item is expanded. When there are more than
+ * {@link #PAGE_SIZE} children (the chapters of Psalms for example) they are grouped
+ * into pages, and the items of a page aren't created until the page is expanded.
+ * @author William Bittle
+ * @version 3.0.0
+ */
 final class BibleTreeItem extends TreeItem<Object> {
-	
+	/** The maximum number of children to show before grouping them into pages */
+	static final int PAGE_SIZE = 100;
+
 	private final StringProperty label;
-	private ObservableList<TreeItem<Object>> children = null;
-	
+
+	/** Updates the children when the data changes */
+	private final ListChangeListener<Object> listener;
+	private final WeakListChangeListener<Object> weakListener;
+
+	/** The list of books, chapters or verses; null until the children are created */
+	private ObservableList<?> data;
+
+	/** The tree items created so far for the data */
+	private Map<Object, BibleTreeItem> items;
+
+	/** The pages when the data is paged */
+	private final List<Page> pages;
+
 	public BibleTreeItem() {
 		this.label = new SimpleStringProperty();
-		
+		this.listener = (c) -> this.update();
+		this.weakListener = new WeakListChangeListener<>(this.listener);
+		this.items = new IdentityHashMap<>();
+		this.pages = new ArrayList<>();
+
 		this.valueProperty().addListener((obs, ov, nv) -> {
-			this.children = null;
+			if (this.data != null) {
+				this.data.removeListener(this.weakListener);
+			}
+			this.data = null;
+			this.items.clear();
+			this.clearPages(0);
 			super.getChildren().clear();
 			this.setExpanded(false);
 			if (nv != null) {
@@ -41,54 +81,164 @@ final class BibleTreeItem extends TreeItem<Object> {
 			} else {
 				this.label.unbind();
 				this.label.set(null);
-				if (this.children != null) {
-					Bindings.unbindContent(super.getChildren(), this.children);
-				}
-				this.children = null;
-				super.getChildren().clear();
 			}
 		});
 	}
-	
+
+	/**
+	 * Returns the value of the closest parent of the given item that isn't a page.
+	 * @param item the item
+	 * @return Object
+	 */
+	static Object getParentValue(TreeItem<Object> item) {
+		TreeItem<Object> parent = item.getParent();
+		while (parent != null && parent.getValue() instanceof BibleTreePage) {
+			parent = parent.getParent();
+		}
+		return parent != null ? parent.getValue() : null;
+	}
+
 	@Override
 	public boolean isLeaf() {
 		Object value = this.getValue();
-		if (value == null) return true;
-		if (value instanceof Verse) {
-			if (this.children != null) {
-				return this.children.size() > 0;
-			}
-			return true;
-		}
-		return false;
+		return value == null || value instanceof Verse;
 	}
-	
+
 	@Override
 	public ObservableList<TreeItem<Object>> getChildren() {
-		Object value = this.getValue();
 		ObservableList<TreeItem<Object>> children = super.getChildren();
-		
-		if (this.children == null && value != null) {
-			ObservableList<?> data = null;
+
+		// only create the children once they're shown
+		if (this.data == null && this.isExpanded()) {
+			Object value = this.getValue();
 			if (value instanceof Bible) {
-				data = ((Bible) value).getBooks();
+				this.data = ((Bible) value).getBooks();
 			} else if (value instanceof Book) {
-				data = ((Book) value).getChapters();
+				this.data = ((Book) value).getChapters();
 			} else if (value instanceof Chapter) {
-				data = ((Chapter) value).getVerses();
+				this.data = ((Chapter) value).getVerses();
 			}
-			
-			if (data != null) {
-				this.children = new MappedList<TreeItem<Object>, Object>(data, (item) -> {
-					BibleTreeItem bti = new BibleTreeItem();
-	               	bti.setValue(item);
-					return bti;
-				});
-				
-				Bindings.bindContent(children, this.children);
+
+			if (this.data != null) {
+				this.data.addListener(this.weakListener);
+				this.update();
 			}
 		}
 		return children;
 	}
-	
+
+	/**
+	 * Updates the children to match the data.
+	 */
+	private void update() {
+		int n = this.data.size();
+
+		// forget the items that were removed
+		if (!this.items.isEmpty()) {
+			Set<Object> present = Collections.newSetFromMap(new IdentityHashMap<>(n));
+			present.addAll(this.data);
+			this.items.keySet().retainAll(present);
+		}
+
+		List<TreeItem<Object>> expected = new ArrayList<>();
+		if (n <= PAGE_SIZE) {
+			this.clearPages(0);
+			for (Object item : this.data) {
+				expected.add(this.getItem(item));
+			}
+		} else {
+			int count = (n + PAGE_SIZE - 1) / PAGE_SIZE;
+			this.clearPages(count);
+			while (this.pages.size() < count) {
+				this.pages.add(new Page(this.pages.size() * PAGE_SIZE));
+			}
+			for (Page page : this.pages) {
+				page.update();
+			}
+			expected.addAll(this.pages);
+		}
+
+		ObservableLists.replace(super.getChildren(), expected);
+	}
+
+	/**
+	 * Removes the pages after the given number of pages.
+	 * @param count the number of pages to keep
+	 */
+	private void clearPages(int count) {
+		while (this.pages.size() > count) {
+			Page page = this.pages.remove(this.pages.size() - 1);
+			page.clear();
+		}
+	}
+
+	/**
+	 * Returns the tree item for the given book, chapter or verse.
+	 * @param value the book, chapter or verse
+	 * @return {@link BibleTreeItem}
+	 */
+	private BibleTreeItem getItem(Object value) {
+		return this.items.computeIfAbsent(value, (v) -> {
+			BibleTreeItem item = new BibleTreeItem();
+			item.setValue(v);
+			return item;
+		});
+	}
+
+	/**
+	 * A range of the children.
+	 */
+	private final class Page extends TreeItem<Object> {
+		/** The index of the first item */
+		private final int from;
+
+		/** True if the items have been created */
+		private boolean filled;
+
+		public Page(int from) {
+			this.from = from;
+		}
+
+		@Override
+		public boolean isLeaf() {
+			return false;
+		}
+
+		@Override
+		public ObservableList<TreeItem<Object>> getChildren() {
+			if (!this.filled && this.isExpanded()) {
+				this.fill();
+			}
+			return super.getChildren();
+		}
+
+		/**
+		 * Updates the range and the items (if created) to match the data.
+		 */
+		private void update() {
+			int to = Math.min(this.from + PAGE_SIZE, data.size());
+			BibleTreePage value = (BibleTreePage)this.getValue();
+			if (value == null || value.getEnd() != to) {
+				this.setValue(new BibleTreePage(this.from + 1, to));
+			}
+			if (this.filled) {
+				this.fill();
+			}
+		}
+
+		private void fill() {
+			this.filled = true;
+			int to = Math.min(this.from + PAGE_SIZE, data.size());
+			List<TreeItem<Object>> expected = new ArrayList<>(to - this.from);
+			for (int i = this.from; i < to; i++) {
+				expected.add(getItem(data.get(i)));
+			}
+			ObservableLists.replace(super.getChildren(), expected);
+		}
+
+		private void clear() {
+			this.filled = false;
+			super.getChildren().clear();
+		}
+	}
 }
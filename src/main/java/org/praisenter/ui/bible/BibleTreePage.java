@@ -0,0 +1,35 @@
+package org.praisenter.ui.bible;
+
+import org.praisenter.ui.translations.Translations;
+
+/**
+ * The value of a tree item that groups a range of the chapters of a book or
+ * the verses of a chapter.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+final class BibleTreePage {
+	/** The position of the first item (starting at 1) */
+	private final int start;
+	
+	/** The position of the last item */
+	private final int end;
+	
+	public BibleTreePage(int start, int end) {
+		this.start = start;
+		this.end = end;
+	}
+	
+	@Override
+	public String toString() {
+		return Translations.get("bible.page.name", this.start, this.end);
+	}
+	
+	public int getStart() {
+		return this.start;
+	}
+	
+	public int getEnd() {
+		return this.end;
+	}
+}
@@ -1,5 +1,9 @@
 package org.praisenter.ui.bible;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
 import org.praisenter.Constants;
 import org.praisenter.data.bible.Book;
 import org.praisenter.data.bible.Chapter;
@@ -7,7 +11,6 @@ import org.praisenter.data.bible.Verse;
 import org.praisenter.ui.BulkEditConverter;
 import org.praisenter.ui.BulkEditParseException;
 import org.praisenter.ui.translations.Translations;
-import org.praisenter.utility.StringManipulator;
 
 final class BookBulkEditConverter extends AbstractBulkEditConverter<Book> implements BulkEditConverter<Book> {
 	private static final String EXAMPLE_BOOK_FORMAT = "10 Genesis\n\n1\n1 In the beginning God created the heaven and the earth.\n2 And the earth was without form, and void; and darkness was upon the face of the deep. And the Spirit of God moved upon the face of the waters.\n3 And God said, Let there be light: and there was light.\n2\n1 Thus the heavens and the earth were finished, and all the host of them.";
@@ -37,30 +40,49 @@ final class BookBulkEditConverter extends AbstractBulkEditConverter<Book> implem
 		
 		if (data == null) return book;
 		
-		String[] lines = data.split("\\r?\\n");
-		
-		if (lines.length == 0) return book;
-		
-		book = this.parseBook(lines[0].trim());
+		List<BulkEditParseException> errors = new ArrayList<>();
 		Chapter chapter = null;
-		for (int i = 1; i < lines.length; i++) {
-			String line = lines[i].trim();
-			// ignore empty lines
-			if (StringManipulator.isNullOrEmpty(line)) continue;
-			// does it match a chapter?
-			if (line.matches("^\\d+$")) {
-				chapter = new Chapter();
-				chapter.setNumber(Integer.parseInt(line));
-				book.getChapters().add(chapter);
-			} else {
-				if (chapter == null) {
-					throw new BulkEditParseException(Translations.get("bible.bulk.chapter.missing"));
+		int n = 0;
+		Iterator<String> lines = data.lines().iterator();
+		while (lines.hasNext()) {
+			String line = lines.next().trim();
+			n++;
+			try {
+				// the first line is the book
+				if (n == 1) {
+					book = this.parseBook(line, n);
+					continue;
 				}
-				Verse verse = this.parseVerse(line);
-				chapter.getVerses().add(verse);
+				// ignore empty lines
+				if (line.isEmpty()) continue;
+				// does it match a chapter?
+				if (this.isChapter(line)) {
+					chapter = this.parseChapter(line, n);
+					book.getChapters().add(chapter);
+				} else {
+					if (chapter == null) {
+						throw new BulkEditParseException(Translations.get("bible.bulk.chapter.missing"), n);
+					}
+					Verse verse = this.parseVerse(line, n);
+					chapter.getVerses().add(verse);
+				}
+			} catch (BulkEditParseException ex) {
+				// keep going so that all the errors are reported
+				errors.add(ex);
 			}
 		}
 		
+		// there has to be a book at least
+		if (n == 0) {
+			errors.add(new BulkEditParseException(Translations.get("bible.bulk.book.pattern.invalid"), 1));
+		}
+		
+		this.check(errors);
 		return book;
 	}
+	
+	@Override
+	public void apply(Book target, Book edits) {
+		this.update(target, edits);
+	}
 }
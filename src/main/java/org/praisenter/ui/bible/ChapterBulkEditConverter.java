@@ -1,10 +1,14 @@
 package org.praisenter.ui.bible;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
 import org.praisenter.data.bible.Chapter;
 import org.praisenter.data.bible.Verse;
 import org.praisenter.ui.BulkEditConverter;
 import org.praisenter.ui.BulkEditParseException;
-import org.praisenter.utility.StringManipulator;
+import org.praisenter.ui.translations.Translations;
 
 final class ChapterBulkEditConverter extends AbstractBulkEditConverter<Chapter> implements BulkEditConverter<Chapter> {
 	private static final String EXAMPLE_CHAPTER_FORMAT = "1\n1 In the beginning God created the heaven and the earth.\n2 And the earth was without form, and void; and darkness was upon the face of the deep. And the Spirit of God moved upon the face of the waters.\n3 And God said, Let there be light: and there was light.";
@@ -30,20 +34,39 @@ final class ChapterBulkEditConverter extends AbstractBulkEditConverter<Chapter>
 		
 		if (data == null) return chapter;
 		
-		String[] lines = data.split("\\r?\\n");
-		
-		if (lines.length == 0) return chapter;
-		
-		chapter = this.parseChapter(lines[0].trim());
+		List<BulkEditParseException> errors = new ArrayList<>();
+		int n = 0;
+		Iterator<String> lines = data.lines().iterator();
+		while (lines.hasNext()) {
+			String line = lines.next().trim();
+			n++;
+			try {
+				// the first line is the chapter
+				if (n == 1) {
+					chapter = this.parseChapter(line, n);
+					continue;
+				}
+				// ignore empty lines
+				if (line.isEmpty()) continue;
+				Verse verse = this.parseVerse(line, n);
+				chapter.getVerses().add(verse);
+			} catch (BulkEditParseException ex) {
+				// keep going so that all the errors are reported
+				errors.add(ex);
+			}
+		}
 		
-		for (int i = 1; i < lines.length; i++) {
-			String line = lines[i].trim();
-			// ignore empty lines
-			if (StringManipulator.isNullOrEmpty(line)) continue;
-			Verse verse = this.parseVerse(line);
-			chapter.getVerses().add(verse);
+		// there has to be a chapter at least
+		if (n == 0) {
+			errors.add(new BulkEditParseException(Translations.get("bible.bulk.chapter.pattern.invalid"), 1));
 		}
 		
+		this.check(errors);
 		return chapter;
 	}
+	
+	@Override
+	public void apply(Chapter target, Chapter edits) {
+		this.update(target, edits);
+	}
 }
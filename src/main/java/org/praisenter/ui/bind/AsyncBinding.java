@@ -3,6 +3,7 @@ package org.praisenter.ui.bind;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 import org.praisenter.async.InOrderExecutionManager;
@@ -16,6 +17,7 @@ import javafx.beans.value.ObservableValue;
 final class AsyncBinding<T> implements ObservableValue<T> {
     private T value;
     private Supplier<T> func;
+    private Executor executor;
     
     private InOrderExecutionManager asyncExecutionManager;
     
@@ -24,10 +26,11 @@ final class AsyncBinding<T> implements ObservableValue<T> {
 	
     private InvalidationListener invalidationListener;
     
-    public AsyncBinding(Supplier<T> func, Observable... dependencies) {
+    public AsyncBinding(Supplier<T> func, Executor executor, Observable... dependencies) {
     	//this.source = value;
     	this.value = null;
     	this.func = func;
+    	this.executor = executor;
     	
     	this.asyncExecutionManager = new InOrderExecutionManager();
     	this.invalidationListeners = new ArrayList<InvalidationListener>(1);
@@ -49,7 +52,7 @@ final class AsyncBinding<T> implements ObservableValue<T> {
     			Platform.runLater(() -> {
     				this.applyResult(result, isInvalidation);
     			});
-    		});
+    		}, this.executor);
     	});
     }
     
@@ -2,6 +2,7 @@ package org.praisenter.ui.bind;
 
 import java.lang.ref.WeakReference;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 import org.praisenter.Reference;
@@ -90,10 +91,11 @@ public final class BindingHelper {
 	 * Creates a binding where the given function is executed off of the UI thread.
 	 * @param <T> the value type
 	 * @param func the function to run asynchronously
+	 * @param executor the executor to run the function on
 	 * @param dependencies the dependencies
 	 * @return ObservableValue
 	 */
-	public static final <T> ObservableValue<T> createAsyncObjectBinding(Supplier<T> func, Observable... dependencies) {
-		return new AsyncBinding<T>(func, dependencies);
+	public static final <T> ObservableValue<T> createAsyncObjectBinding(Supplier<T> func, Executor executor, Observable... dependencies) {
+		return new AsyncBinding<T>(func, executor, dependencies);
 	}
 }
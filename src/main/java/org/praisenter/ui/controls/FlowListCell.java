@@ -1,20 +1,69 @@
 package org.praisenter.ui.controls;
 
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.event.EventTarget;
 import javafx.scene.layout.VBox;
 
+/**
+ * A cell of a {@link FlowListView}.
+ * <p>
+ * Cells are reused as the view is scrolled so the item a cell shows can change
+ * at any time. Sub classes should listen to the {@link #dataProperty()} to update
+ * what they show. The data will be null when the cell isn't in use.
+ * @author William Bittle
+ * @version 3.0.0
+ * @param <T> the item type
+ */
 public class FlowListCell<T> extends VBox implements EventTarget {
 	private static final String FLOW_LIST_CELL_CSS = "p-flow-list-view-cell";
-	
-	private final T data;
+
+	/** The item this cell is showing */
+	private final ReadOnlyObjectWrapper<T> data;
+
+	/** The index of the item in the view */
+	private int index;
 
 	public FlowListCell(T data) {
-		this.data = data;
+		this.data = new ReadOnlyObjectWrapper<T>(data);
+		this.index = -1;
 		this.getStyleClass().add(FLOW_LIST_CELL_CSS);
 		this.setFocusTraversable(false);
 	}
 
 	public T getData() {
-		return this.data;
+		return this.data.get();
+	}
+
+	/**
+	 * Sets the item this cell is showing.
+	 * @param data the item; null if the cell isn't in use
+	 */
+	void setData(T data) {
+		this.data.set(data);
+	}
+
+	/**
+	 * Returns the item property.
+	 * @return ReadOnlyObjectProperty&lt;T&gt;
+	 */
+	public ReadOnlyObjectProperty<T> dataProperty() {
+		return this.data.getReadOnlyProperty();
+	}
+
+	/**
+	 * Returns the index of the item this cell is showing or -1 if the cell isn't in use.
+	 * @return int
+	 */
+	int getIndex() {
+		return this.index;
+	}
+
+	/**
+	 * Sets the index of the item this cell is showing.
+	 * @param index the index
+	 */
+	void setIndex(int index) {
+		this.index = index;
 	}
 }
@@ -0,0 +1,603 @@
+package org.praisenter.ui.controls;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.css.CssMetaData;
+import javafx.css.Styleable;
+import javafx.css.StyleableDoubleProperty;
+import javafx.css.StyleableProperty;
+import javafx.css.converter.SizeConverter;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
+import javafx.scene.layout.Region;
+
+/**
+ * The content of a {@link FlowListView} that lays out the items in uniformly sized tiles
+ * like a {@link javafx.scene.layout.TilePane}, but only has cells for the tiles that are
+ * visible in the view's viewport (plus a few lines before and after).
+ * <p>
+ * The size of this node is the size of all the tiles so that the scroll pane scrolls as
+ * if every item had a cell. As the view is scrolled, cells that go out of view are given
+ * the items that come into view. The tile size is the largest preferred size of the cells
+ * in use.
+ * @author William Bittle
+ * @version 3.0.0
+ * @param <T> the item type
+ */
+final class FlowListLayout<T> extends Region {
+	/** The number of lines to keep before and after the viewport */
+	private static final int OVERSCAN_LINES = 2;
+
+	/** The number of tiles to use for the preferred size across the lines */
+	private static final int PREFERRED_LINE_TILES = 5;
+
+	/** The view */
+	private final FlowListView<T> view;
+
+	/** The direction items are laid out before wrapping */
+	private final Orientation orientation;
+
+	/** All the cells that have been created */
+	private final List<FlowListCell<T>> cells;
+
+	/** The horizontal gap between tiles */
+	private final StyleableDoubleProperty hgap;
+
+	/** The vertical gap between tiles */
+	private final StyleableDoubleProperty vgap;
+
+	/** The width of each tile */
+	private double tileWidth;
+
+	/** The height of each tile */
+	private double tileHeight;
+
+	/** The index of the first item with a cell */
+	private int start;
+
+	/** The index after the last item with a cell */
+	private int end;
+
+	/**
+	 * Minimal constructor.
+	 * @param view the view
+	 * @param orientation the direction items are laid out before wrapping
+	 */
+	public FlowListLayout(FlowListView<T> view, Orientation orientation) {
+		this.view = view;
+		this.orientation = orientation;
+		this.cells = new ArrayList<>();
+
+		this.hgap = new StyleableDoubleProperty(0) {
+			@Override
+			protected void invalidated() {
+				requestLayout();
+			}
+			@Override
+			public Object getBean() {
+				return FlowListLayout.this;
+			}
+			@Override
+			public String getName() {
+				return "hgap";
+			}
+			@Override
+			public CssMetaData<FlowListLayout<?>, Number> getCssMetaData() {
+				return HGAP;
+			}
+		};
+
+		this.vgap = new StyleableDoubleProperty(0) {
+			@Override
+			protected void invalidated() {
+				requestLayout();
+			}
+			@Override
+			public Object getBean() {
+				return FlowListLayout.this;
+			}
+			@Override
+			public String getName() {
+				return "vgap";
+			}
+			@Override
+			public CssMetaData<FlowListLayout<?>, Number> getCssMetaData() {
+				return VGAP;
+			}
+		};
+
+		// only lay out again when scrolling brings other items into view
+		InvalidationListener scrolled = (obs) -> {
+			if (this.isVisibleRangeChanged()) {
+				this.requestLayout();
+			}
+		};
+		this.view.hvalueProperty().addListener(scrolled);
+		this.view.vvalueProperty().addListener(scrolled);
+		this.view.viewportBoundsProperty().addListener(scrolled);
+
+		this.view.itemsProperty().addListener((Observable obs) -> {
+			if (this.view.getItems().isEmpty()) {
+				// measure again when there are items again
+				this.tileWidth = 0;
+				this.tileHeight = 0;
+			}
+			this.requestLayout();
+		});
+	}
+
+	// layout
+
+	@Override
+	public Orientation getContentBias() {
+		return this.orientation;
+	}
+
+	@Override
+	protected double computeMinWidth(double height) {
+		Insets insets = this.getInsets();
+		if (this.orientation == Orientation.HORIZONTAL) {
+			this.ensureTileSize();
+			return insets.getLeft() + this.tileWidth + insets.getRight();
+		}
+		return this.computePrefWidth(height);
+	}
+
+	@Override
+	protected double computeMinHeight(double width) {
+		Insets insets = this.getInsets();
+		if (this.orientation == Orientation.VERTICAL) {
+			this.ensureTileSize();
+			return insets.getTop() + this.tileHeight + insets.getBottom();
+		}
+		return this.computePrefHeight(width);
+	}
+
+	@Override
+	protected double computePrefWidth(double height) {
+		this.ensureTileSize();
+		Insets insets = this.getInsets();
+		int n = this.view.getItems().size();
+		double hgap = this.snapSpaceX(this.getHgap());
+		if (this.orientation == Orientation.HORIZONTAL) {
+			int tiles = Math.max(1, Math.min(n, PREFERRED_LINE_TILES));
+			return insets.getLeft() + tiles * this.tileWidth + (tiles - 1) * hgap + insets.getRight();
+		}
+		int lines = this.getLineCount(this.getItemsPerLine(height));
+		return insets.getLeft() + lines * this.tileWidth + Math.max(0, lines - 1) * hgap + insets.getRight();
+	}
+
+	@Override
+	protected double computePrefHeight(double width) {
+		this.ensureTileSize();
+		Insets insets = this.getInsets();
+		int n = this.view.getItems().size();
+		double vgap = this.snapSpaceY(this.getVgap());
+		if (this.orientation == Orientation.VERTICAL) {
+			int tiles = Math.max(1, Math.min(n, PREFERRED_LINE_TILES));
+			return insets.getTop() + tiles * this.tileHeight + (tiles - 1) * vgap + insets.getBottom();
+		}
+		int lines = this.getLineCount(this.getItemsPerLine(width));
+		return insets.getTop() + lines * this.tileHeight + Math.max(0, lines - 1) * vgap + insets.getBottom();
+	}
+
+	@Override
+	protected void layoutChildren() {
+		List<T> items = this.view.getItems();
+
+		this.ensureTileSize();
+		int[] range = this.getVisibleRange();
+		int start = range[0];
+		int end = range[1];
+
+		// find the cells that are already showing an item
+		Map<T, FlowListCell<T>> showing = new IdentityHashMap<>();
+		Deque<FlowListCell<T>> free = new ArrayDeque<>();
+		for (FlowListCell<T> cell : this.cells) {
+			T data = cell.getData();
+			if (data != null && !showing.containsKey(data)) {
+				showing.put(data, cell);
+			} else {
+				free.add(cell);
+			}
+		}
+
+		// keep the cells for items that are still in view so that they
+		// don't need to be updated (and their thumbnails loaded again)
+		List<FlowListCell<T>> used = new ArrayList<>(end - start);
+		List<Integer> missing = new ArrayList<>();
+		for (int i = start; i < end; i++) {
+			FlowListCell<T> cell = showing.remove(items.get(i));
+			if (cell != null) {
+				cell.setIndex(i);
+				used.add(cell);
+			} else {
+				missing.add(i);
+			}
+		}
+		free.addAll(showing.values());
+
+		// reuse the remaining cells for the items that don't have one
+		for (int i : missing) {
+			T item = items.get(i);
+			FlowListCell<T> cell = free.poll();
+			if (cell == null) {
+				cell = this.createCell(item);
+			} else {
+				cell.setData(item);
+			}
+			cell.setIndex(i);
+			cell.applyCss();
+			used.add(cell);
+		}
+
+		// release the cells that aren't needed anymore
+		for (FlowListCell<T> cell : free) {
+			cell.setData(null);
+			cell.setIndex(-1);
+			cell.setVisible(false);
+		}
+
+		// the tiles are the size of the largest cell
+		double tw = 0;
+		double th = 0;
+		for (FlowListCell<T> cell : used) {
+			tw = Math.max(tw, cell.prefWidth(-1));
+			th = Math.max(th, cell.prefHeight(-1));
+		}
+		tw = this.snapSizeX(tw);
+		th = this.snapSizeY(th);
+		if (used.size() > 0 && (tw != this.tileWidth || th != this.tileHeight)) {
+			this.tileWidth = tw;
+			this.tileHeight = th;
+			// our size and the visible range depend on the tile size
+			Platform.runLater(this::requestLayout);
+		}
+
+		for (FlowListCell<T> cell : used) {
+			Bounds bounds = this.getTileBounds(cell.getIndex());
+			cell.resizeRelocate(bounds.getMinX(), bounds.getMinY(), bounds.getWidth(), bounds.getHeight());
+			cell.setVisible(true);
+			this.view.updateCell(cell);
+		}
+
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * Creates a new cell for the given item.
+	 * @param item the item
+	 * @return {@link FlowListCell}
+	 */
+	private FlowListCell<T> createCell(T item) {
+		FlowListCell<T> cell = this.view.createCell(item);
+		this.cells.add(cell);
+		this.getChildren().add(cell);
+		return cell;
+	}
+
+	/**
+	 * Measures a cell to get an initial tile size if the tile size isn't known yet.
+	 */
+	private void ensureTileSize() {
+		if (this.tileWidth > 0 && this.tileHeight > 0) {
+			return;
+		}
+
+		List<T> items = this.view.getItems();
+		if (items.isEmpty()) {
+			return;
+		}
+
+		FlowListCell<T> cell = null;
+		for (FlowListCell<T> c : this.cells) {
+			if (c.getData() != null) {
+				cell = c;
+				break;
+			}
+		}
+
+		if (cell == null) {
+			if (this.cells.isEmpty()) {
+				cell = this.createCell(items.get(0));
+			} else {
+				cell = this.cells.get(0);
+				cell.setData(items.get(0));
+			}
+		}
+
+		cell.applyCss();
+		this.tileWidth = this.snapSizeX(cell.prefWidth(-1));
+		this.tileHeight = this.snapSizeY(cell.prefHeight(-1));
+	}
+
+	// grid math
+
+	/**
+	 * Returns the number of items in each line for the given size across the lines.
+	 * @param size the width for the horizontal orientation or the height for the vertical orientation; -1 to use the current size
+	 * @return int
+	 */
+	private int getItemsPerLine(double size) {
+		Insets insets = this.getInsets();
+		double available, tile, gap;
+		if (this.orientation == Orientation.HORIZONTAL) {
+			available = (size < 0 ? this.getWidth() : size) - insets.getLeft() - insets.getRight();
+			tile = this.tileWidth;
+			gap = this.snapSpaceX(this.getHgap());
+		} else {
+			available = (size < 0 ? this.getHeight() : size) - insets.getTop() - insets.getBottom();
+			tile = this.tileHeight;
+			gap = this.snapSpaceY(this.getVgap());
+		}
+		if (tile <= 0 || available <= 0) {
+			return 1;
+		}
+		return Math.max(1, (int)Math.floor((available + gap) / (tile + gap)));
+	}
+
+	/**
+	 * Returns the number of lines needed for all the items.
+	 * @param perLine the number of items in each line
+	 * @return int
+	 */
+	private int getLineCount(int perLine) {
+		int n = this.view.getItems().size();
+		return (n + perLine - 1) / perLine;
+	}
+
+	/**
+	 * Returns the range of item indices that should have cells given the
+	 * current scroll position.
+	 * @return int[] the start index (inclusive) and end index (exclusive)
+	 */
+	private int[] getVisibleRange() {
+		int n = this.view.getItems().size();
+		int perLine = this.getItemsPerLine(-1);
+		Bounds viewport = this.view.getViewportBounds();
+		Insets insets = this.getInsets();
+
+		double offset, length, lead, line;
+		if (this.orientation == Orientation.HORIZONTAL) {
+			length = viewport.getHeight();
+			offset = getScrollOffset(this.getHeight(), length, this.view.getVvalue(), this.view.getVmin(), this.view.getVmax());
+			lead = insets.getTop();
+			line = this.tileHeight + this.snapSpaceY(this.getVgap());
+		} else {
+			length = viewport.getWidth();
+			offset = getScrollOffset(this.getWidth(), length, this.view.getHvalue(), this.view.getHmin(), this.view.getHmax());
+			lead = insets.getLeft();
+			line = this.tileWidth + this.snapSpaceX(this.getHgap());
+		}
+
+		int first = 0;
+		int last = OVERSCAN_LINES;
+		if (line > 0 && length > 0) {
+			first = Math.max(0, (int)Math.floor((offset - lead) / line) - OVERSCAN_LINES);
+			last = (int)Math.floor((offset + length - lead) / line) + OVERSCAN_LINES;
+		}
+
+		return new int[] {
+			(int)Math.min(n, (long)first * perLine),
+			(int)Math.min(n, ((long)last + 1) * perLine)
+		};
+	}
+
+	/**
+	 * Returns true if the items that should have cells are different than the
+	 * items that have cells.
+	 * @return boolean
+	 */
+	private boolean isVisibleRangeChanged() {
+		int[] range = this.getVisibleRange();
+		return range[0] != this.start || range[1] != this.end;
+	}
+
+	/**
+	 * Returns the scroll offset given the content and viewport size and the scroll value.
+	 * @param content the content size
+	 * @param viewport the viewport size
+	 * @param value the scroll value
+	 * @param min the minimum scroll value
+	 * @param max the maximum scroll value
+	 * @return double
+	 */
+	private static double getScrollOffset(double content, double viewport, double value, double min, double max) {
+		if (content <= viewport || max <= min) {
+			return 0;
+		}
+		return (content - viewport) * (value - min) / (max - min);
+	}
+
+	/**
+	 * Returns the bounds of the tile for the item at the given index in the local
+	 * coordinates of this node.
+	 * @param index the item index
+	 * @return Bounds
+	 */
+	Bounds getTileBounds(int index) {
+		Insets insets = this.getInsets();
+		int perLine = this.getItemsPerLine(-1);
+		int line = index / perLine;
+		int position = index % perLine;
+		double hgap = this.snapSpaceX(this.getHgap());
+		double vgap = this.snapSpaceY(this.getVgap());
+
+		int column = position;
+		int row = line;
+		if (this.orientation == Orientation.VERTICAL) {
+			column = line;
+			row = position;
+		}
+
+		return new BoundingBox(
+				insets.getLeft() + column * (this.tileWidth + hgap),
+				insets.getTop() + row * (this.tileHeight + vgap),
+				this.tileWidth,
+				this.tileHeight);
+	}
+
+	/**
+	 * Returns the indices of the items whose tiles intersect the given rectangle in
+	 * the local coordinates of this node.
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 * @param w the width
+	 * @param h the height
+	 * @return BitSet
+	 */
+	BitSet getIndices(double x, double y, double w, double h) {
+		int n = this.view.getItems().size();
+		BitSet indices = new BitSet();
+		if (n == 0 || this.tileWidth <= 0 || this.tileHeight <= 0) {
+			return indices;
+		}
+
+		Insets insets = this.getInsets();
+		int perLine = this.getItemsPerLine(-1);
+		int lines = this.getLineCount(perLine);
+		double tw = this.tileWidth + this.snapSpaceX(this.getHgap());
+		double th = this.tileHeight + this.snapSpaceY(this.getVgap());
+
+		int columns = this.orientation == Orientation.HORIZONTAL ? perLine : lines;
+		int rows = this.orientation == Orientation.HORIZONTAL ? lines : perLine;
+
+		int c0 = Math.max(0, (int)Math.floor((x - insets.getLeft()) / tw));
+		int c1 = Math.min(columns - 1, (int)Math.floor((x + w - insets.getLeft()) / tw));
+		int r0 = Math.max(0, (int)Math.floor((y - insets.getTop()) / th));
+		int r1 = Math.min(rows - 1, (int)Math.floor((y + h - insets.getTop()) / th));
+
+		for (int r = r0; r <= r1; r++) {
+			for (int c = c0; c <= c1; c++) {
+				int index = this.orientation == Orientation.HORIZONTAL
+						? r * perLine + c
+						: c * perLine + r;
+				if (index < n && this.getTileBounds(index).intersects(x, y, w, h)) {
+					indices.set(index);
+				}
+			}
+		}
+
+		return indices;
+	}
+
+	/**
+	 * Returns the number of items to move to get to the same position in
+	 * the next or previous line.
+	 * @return int
+	 */
+	int getItemsPerLine() {
+		return this.getItemsPerLine(-1);
+	}
+
+	/**
+	 * Returns the width of each tile.
+	 * @return double
+	 */
+	double getTileWidth() {
+		return this.tileWidth;
+	}
+
+	/**
+	 * Returns the height of each tile.
+	 * @return double
+	 */
+	double getTileHeight() {
+		return this.tileHeight;
+	}
+
+	/**
+	 * Returns the direction items are laid out before wrapping.
+	 * @return Orientation
+	 */
+	Orientation getOrientation() {
+		return this.orientation;
+	}
+
+	/**
+	 * Returns the cells that are showing an item.
+	 * @return List&lt;{@link FlowListCell}&lt;T&gt;&gt;
+	 */
+	List<FlowListCell<T>> getCells() {
+		List<FlowListCell<T>> cells = new ArrayList<>();
+		for (FlowListCell<T> cell : this.cells) {
+			if (cell.getData() != null) {
+				cells.add(cell);
+			}
+		}
+		return cells;
+	}
+
+	// properties
+
+	public double getHgap() {
+		return this.hgap.get();
+	}
+
+	public void setHgap(double hgap) {
+		this.hgap.set(hgap);
+	}
+
+	public double getVgap() {
+		return this.vgap.get();
+	}
+
+	public void setVgap(double vgap) {
+		this.vgap.set(vgap);
+	}
+
+	// CSS
+
+	private static final CssMetaData<FlowListLayout<?>, Number> HGAP = new CssMetaData<FlowListLayout<?>, Number>("-fx-hgap", SizeConverter.getInstance(), 0.0) {
+		@Override
+		public boolean isSettable(FlowListLayout<?> node) {
+			return !node.hgap.isBound();
+		}
+		@Override
+		public StyleableProperty<Number> getStyleableProperty(FlowListLayout<?> node) {
+			return node.hgap;
+		}
+	};
+
+	private static final CssMetaData<FlowListLayout<?>, Number> VGAP = new CssMetaData<FlowListLayout<?>, Number>("-fx-vgap", SizeConverter.getInstance(), 0.0) {
+		@Override
+		public boolean isSettable(FlowListLayout<?> node) {
+			return !node.vgap.isBound();
+		}
+		@Override
+		public StyleableProperty<Number> getStyleableProperty(FlowListLayout<?> node) {
+			return node.vgap;
+		}
+	};
+
+	private static final List<CssMetaData<? extends Styleable, ?>> CSS_META_DATA;
+
+	static {
+		List<CssMetaData<? extends Styleable, ?>> metadata = new ArrayList<>(Region.getClassCssMetaData());
+		metadata.add(HGAP);
+		metadata.add(VGAP);
+		CSS_META_DATA = Collections.unmodifiableList(metadata);
+	}
+
+	public static List<CssMetaData<? extends Styleable, ?>> getClassCssMetaData() {
+		return CSS_META_DATA;
+	}
+
+	@Override
+	public List<CssMetaData<? extends Styleable, ?>> getCssMetaData() {
+		return getClassCssMetaData();
+	}
+}
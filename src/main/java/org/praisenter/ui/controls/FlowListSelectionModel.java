@@ -25,13 +25,15 @@
 package org.praisenter.ui.controls;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
-import java.util.function.BiFunction;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
-import org.praisenter.ui.MappedList;
 import org.praisenter.ui.events.FlowListViewSelectionEvent;
 
 import javafx.application.Platform;
@@ -44,35 +46,37 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
-import javafx.css.PseudoClass;
 import javafx.scene.Node;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 
 /**
  * A selection model specifically for the {@link FlowListView}.
+ * <p>
+ * The selection is stored as a set of item positions. Items are found by their key
+ * (see {@link #setKeyProvider(Function)}) using an index of key to position that's
+ * rebuilt when the items change. Each change to the selection updates the selected
+ * items list once and fires a single {@link FlowListViewSelectionEvent#CHANGED} event
+ * on the view, no matter how many items were selected or deselected.
  * @author William Bittle
  * @version 3.0.0
  * @since 3.0.0
  * @param <T> the item type
  */
 public final class FlowListSelectionModel<T> {
-	/** The :selected CSS pseudo class for styling */
-    private static final PseudoClass SELECTED = PseudoClass.getPseudoClass("selected");
-    
 	// parent
 	
-    /** The view for this selection model */
-	private final FlowListView<T> view;
+    /** The items of the view */
+	private final ObservableList<T> items;
+	
+	/** The node selection events are fired on; the view */
+	private final Node target;
 	
 	// properties
 	
 	/** The current selection when only one item is selected */
 	private final ObjectProperty<T> selection = new SimpleObjectProperty<T>();
 	
-	/** The mapping for the selected data from the selected cells */
-	private final MappedList<T, FlowListCell<T>> mapping;
-	
 	/** The list of selected items */
 	private final ObservableList<T> selections = FXCollections.observableArrayList();
 	
@@ -82,57 +86,65 @@ public final class FlowListSelectionModel<T> {
 	/** True if multi-selection is enabled */
 	private final BooleanProperty multiselect = new SimpleBooleanProperty(true);
 	
-	private BiFunction<T, T, Boolean> identityProvider = (a, b) -> Objects.equals(a, b);
+	/** Returns the value that identifies an item; the item itself by default */
+	private Function<T, ?> keyProvider = (item) -> item;
 	
 	// internal state
 	
-	/** The selected nodes */
-	private final ObservableList<FlowListCell<T>> selected = FXCollections.observableArrayList();
+	/** The positions of the selected items */
+	private final BitSet selected = new BitSet();
+	
+	/** The position of each item by key; null when it needs to be rebuilt */
+	private Map<Object, Integer> positions = null;
 	
-	/** The last selected node */
-	private FlowListCell<T> last = null;
+	/** The keys of the items that were selected before the items changed; null if the positions are current */
+	private Set<Object> pendingKeys = null;
 	
-	/** The first selected node in a shift select */
-	private FlowListCell<T> first = null;
+	/** The index of the last selected item */
+	private int last = -1;
+	
+	/** The index of the first selected item in a shift select */
+	private int first = -1;
 	
 	/**
 	 * Minimal constructor.
 	 * @param view the view
 	 */
 	public FlowListSelectionModel(FlowListView<T> view) {
-		this.view = view;
+		this(view.itemsProperty(), view);
+	}
+	
+	/**
+	 * Full constructor.
+	 * @param items the items of the view
+	 * @param target the node to fire selection events on
+	 */
+	FlowListSelectionModel(ObservableList<T> items, Node target) {
+		this.items = items;
+		this.target = target;
 		
-		// remove selections when the children are removed or replaced
-		this.view.getLayoutChildren().addListener(new ListChangeListener<Node>() {
-			@Override
-			public void onChanged(ListChangeListener.Change<? extends Node> changes) {
-				// record what was selected before
-				List<T> old = selected.stream().map(n -> ((FlowListCell<T>)n).getData()).collect(Collectors.toList());
-				
-				boolean reselect = false;
-				while (changes.next()) {
-					reselect |= changes.wasAdded() || changes.wasReplaced() || changes.wasUpdated();
+		// the positions are no longer valid when the items change
+		this.items.addListener((ListChangeListener.Change<? extends T> changes) -> {
+			this.positions = null;
+			this.first = -1;
+			this.last = -1;
+			
+			// record what was selected before
+			if (this.pendingKeys == null && !this.selections.isEmpty()) {
+				this.pendingKeys = new HashSet<>();
+				for (T item : this.selections) {
+					this.pendingKeys.add(this.getKey(item));
 				}
+				
 				// now reselect what we can
-				if (old.size() > 0 && reselect) {
-					// NOTE: we need to do this later so that the change to the source can
-					// be applied
-					Platform.runLater(() -> {
-						selectOnly(old);
-					});
-				}
+				// NOTE: we need to do this later so that all the changes to the 
+				// source can be applied (a sort is a removal and an add for example)
+				Platform.runLater(this::reselect);
+			} else if (this.pendingKeys == null) {
+				this.selected.clear();
 			}
  		});
 		
-		// make sure we update the publicly facing selections when the 
-		// internal selections are changed
-		this.mapping = new MappedList<>(this.selected, (item) -> {
-			return item.getData();
-		});
-		
-		// bind the selections to the mapping
-		Bindings.bindContent(this.selections, this.mapping);
-		
 		// make sure the single selection property is updated when the
 		// multi-selection property is changed
 		this.selection.bind(Bindings.createObjectBinding(() -> {
@@ -151,39 +163,32 @@ public final class FlowListSelectionModel<T> {
 	 * @return boolean
 	 */
 	public boolean isSelected(T item) {
-		if (item != null) {
-			for (FlowListCell<T> cell : this.selected) {
-				//item.equals(cell.getData())
-				if (this.identityProvider.apply(item, cell.getData())) {
-					return true;
-				}
-			}
+		if (item == null) {
+			return false;
 		}
-		return false;
+		if (this.pendingKeys != null) {
+			return this.pendingKeys.contains(this.getKey(item));
+		}
+		int index = this.getPosition(item);
+		return index >= 0 && this.selected.get(index);
 	}
 	
 	/**
 	 * Selects the given item. Other selections are retained.
 	 * @param item the item to select
 	 */
-	@SuppressWarnings("unchecked")
 	public void select(T item) {
 		if (!this.multiselect.get() ) {
 			this.selectOnly(item);
 			return;
 		}
 		
-		if (item != null) {
-			List<FlowListCell<T>> cells = new ArrayList<FlowListCell<T>>();
-			for (Node node : this.view.getLayoutChildren()) {
-				FlowListCell<T> cell = (FlowListCell<T>)node;
-				if (this.identityProvider.apply(item, cell.getData())) {
-					cells.add(cell);
-				}
-			}
-			if (cells.size() > 0) {
-				this.selectCells(cells);
-			}
+		this.reselect();
+		int index = this.getPosition(item);
+		if (index >= 0) {
+			BitSet indices = new BitSet();
+			indices.set(index);
+			this.selectIndices(indices);
 		}
 	}
 	
@@ -191,273 +196,336 @@ public final class FlowListSelectionModel<T> {
 	 * Clears all selections and selects the given item only.
 	 * @param item the item to select
 	 */
-	@SuppressWarnings("unchecked")
 	public void selectOnly(T item) {
-		if (item != null) {
-			List<FlowListCell<T>> cells = new ArrayList<FlowListCell<T>>();
-			for (Node node : this.view.getLayoutChildren()) {
-				FlowListCell<T> cell = (FlowListCell<T>)node;
-				if (this.identityProvider.apply(item, cell.getData())) {
-					cells.add(cell);
-				}
-			}
-			if (cells.size() > 0) {
-				this.selectCellsOnly(cells);
-				return;
-			}
-		}
-		this.clear();
+		this.reselect();
+		this.selectIndexOnly(this.getPosition(item));
 	}
 	
 	/**
-	 * Deselects the given item. Other selections are retained.
+	 * Deselects the given item.
 	 * @param item the item to deselect
 	 */
 	public void deselect(T item) {
-		if (item != null) {
-			List<FlowListCell<T>> cells = new ArrayList<FlowListCell<T>>();
-			for (FlowListCell<T> cell : this.selected) {
-				if (this.identityProvider.apply(item, cell.getData())) {
-					cells.add(cell);
-				}
-			}
-			if (cells.size() > 0) {
-				this.deselectCells(cells);
-			}
+		this.reselect();
+		int index = this.getPosition(item);
+		if (index >= 0) {
+			this.deselectIndex(index);
 		}
 	}
 	
 	/**
-	 * Selects all the given items. Other selections are retained.
+	 * Selects the given items. Other selections are retained.
 	 * @param items the items to select
 	 */
-	@SuppressWarnings("unchecked")
 	public void select(Collection<T> items) {
 		if (items != null && !items.isEmpty()) {
 			if (!this.multiselect.get()) {
 				this.selectOnly(items.stream().findFirst().get());
 				return;
 			}
-			List<FlowListCell<T>> cells = new ArrayList<FlowListCell<T>>();
-			for (T item : items) {
-				for (Node node : this.view.getLayoutChildren()) {
-					FlowListCell<T> cell = (FlowListCell<T>)node;
-					if (this.identityProvider.apply(item, cell.getData())) {
-						cells.add(cell);
-					}
-				}
-			}
-			this.selectCells(cells);
+			this.reselect();
+			this.selectIndices(this.getPositions(items));
 		}
 	}
 
 	/**
-	 * Selects the given items in the list of nodes only.
-	 * @param items the items
+	 * Clears all selections and selects only the given items.
+	 * @param items the items to select
 	 */
-	@SuppressWarnings("unchecked")
 	public void selectOnly(Collection<T> items) {
 		if (items != null && !items.isEmpty()) {
 			if (!this.multiselect.get()) {
 				this.selectOnly(items.stream().findFirst().get());
 				return;
 			}
-			List<FlowListCell<T>> cells = new ArrayList<FlowListCell<T>>();
-			for (T item : items) {
-				for (Node node : this.view.getLayoutChildren()) {
-					FlowListCell<T> cell = (FlowListCell<T>)node;
-					if (this.identityProvider.apply(item, cell.getData())) {
-						cells.add(cell);
-						break;
-					}
-				}
-			}
-			this.selectCellsOnly(cells);
+			this.reselect();
+			this.selectIndicesOnly(this.getPositions(items));
 		} else {
 			this.clear();
 		}
 	}
 	
 	/**
-	 * Selects all items.
+	 * Selects all the items.
 	 */
-	@SuppressWarnings("unchecked")
 	public void selectAll() {
 		if (!this.multiselect.get()) {
 			return;
 		}
-		List<FlowListCell<T>> cells = new ArrayList<FlowListCell<T>>();
-		for (Node node : this.view.getLayoutChildren()) {
-			FlowListCell<T> cell = (FlowListCell<T>)node;
-			cells.add(cell);
-		}
-		this.selectCells(cells);
+		this.reselect();
+		BitSet indices = new BitSet();
+		indices.set(0, this.items.size());
+		this.commit(indices, false);
 	}
 	
 	/**
 	 * Inverts the selection.
 	 */
-	@SuppressWarnings("unchecked")
 	public void invert() {
 		if (!this.multiselect.get()) {
 			return;
 		}
-		List<FlowListCell<T>> cells = new ArrayList<FlowListCell<T>>();
-		for (Node node : this.view.getLayoutChildren()) {
-			FlowListCell<T> cell = (FlowListCell<T>)node;
-			if (!this.selected.contains(cell)) {
-				cells.add(cell);
-			}
-		}
-		this.selectCellsOnly(cells);
+		this.reselect();
+		BitSet indices = (BitSet)this.selected.clone();
+		indices.flip(0, this.items.size());
+		this.selectIndicesOnly(indices);
 	}
 
 	/**
-	 * Clears all selections.
+	 * Clears the selection.
 	 */
 	public void clear() {
-		for (Node node : this.selected) {
-			node.pseudoClassStateChanged(SELECTED, false);
+		this.pendingKeys = null;
+		this.commit(new BitSet(), false);
+		this.last = -1;
+	}
+	
+	// INTERNAL
+	
+	/**
+	 * Returns the key for the given item.
+	 * @param item the item
+	 * @return Object
+	 */
+	private Object getKey(T item) {
+		return item != null ? this.keyProvider.apply(item) : null;
+	}
+	
+	/**
+	 * Returns the position of the given item or -1 if it's not in the list.
+	 * <p>
+	 * If more than one item has the same key, the position of the first is returned.
+	 * @param item the item
+	 * @return int
+	 */
+	private int getPosition(T item) {
+		if (item == null) {
+			return -1;
+		}
+		Integer index = this.getPositionIndex().get(this.getKey(item));
+		return index != null ? index : -1;
+	}
+	
+	/**
+	 * Returns the position of each item by key, building it if necessary.
+	 * @return Map&lt;Object, Integer&gt;
+	 */
+	private Map<Object, Integer> getPositionIndex() {
+		if (this.positions == null) {
+			List<T> items = this.items;
+			this.positions = new HashMap<>(items.size() * 2);
+			for (int i = 0; i < items.size(); i++) {
+				this.positions.putIfAbsent(this.getKey(items.get(i)), i);
+			}
+		}
+		return this.positions;
+	}
+	
+	/**
+	 * Returns the positions of the given items.
+	 * @param items the items
+	 * @return BitSet
+	 */
+	private BitSet getPositions(Collection<T> items) {
+		BitSet indices = new BitSet();
+		for (T item : items) {
+			int index = this.getPosition(item);
+			if (index >= 0) {
+				indices.set(index);
+			}
+		}
+		return indices;
+	}
+	
+	/**
+	 * Selects the items that were selected before the items changed.
+	 * <p>
+	 * This does nothing if the selection is up to date.
+	 */
+	private void reselect() {
+		if (this.pendingKeys == null) {
+			return;
+		}
+		
+		Set<Object> keys = this.pendingKeys;
+		this.pendingKeys = null;
+		
+		Map<Object, Integer> positions = this.getPositionIndex();
+		BitSet indices = new BitSet();
+		for (Object key : keys) {
+			Integer index = positions.get(key);
+			if (index != null) {
+				indices.set(index);
+			}
 		}
+		
+		// force the update since the items may have been replaced with copies
+		this.commit(indices, true);
+	}
+	
+	/**
+	 * Sets the selection to the items at the given positions.
+	 * <p>
+	 * The selected items list is updated with one change and a single selection
+	 * event is fired.
+	 * @param indices the positions of the items to select
+	 * @param force true if the selected items should be updated even if the positions haven't changed
+	 */
+	private void commit(BitSet indices, boolean force) {
+		List<T> items = this.items;
+		int n = items.size();
+		if (indices.length() > n) {
+			indices.clear(n, indices.length());
+		}
+		
+		if (!force && indices.equals(this.selected)) {
+			return;
+		}
+		
+		List<T> selections = new ArrayList<T>(indices.cardinality());
+		for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+			selections.add(items.get(i));
+		}
+		
 		this.selected.clear();
-		this.last = null;
+		this.selected.or(indices);
+		
+		if (force && !this.isChanged(selections)) {
+			return;
+		}
+		
+		this.selections.setAll(selections);
+		this.target.fireEvent(new FlowListViewSelectionEvent(this.target, this.target, FlowListViewSelectionEvent.CHANGED));
 	}
 	
-	// INTERNAL
+	/**
+	 * Returns true if the given items are different than the selected items.
+	 * <p>
+	 * The items are compared by reference so that the selection is updated when
+	 * an item is replaced by a copy of itself.
+	 * @param items the new selected items in order
+	 * @return boolean
+	 */
+	private boolean isChanged(List<T> items) {
+		if (items.size() != this.selections.size()) {
+			return true;
+		}
+		for (int i = 0; i < items.size(); i++) {
+			if (items.get(i) != this.selections.get(i)) {
+				return true;
+			}
+		}
+		return false;
+	}
 	
 	/**
-	 * Returns true if the given cell is selected.
-	 * @param cell the cell to test
+	 * Returns true if the item at the given index is selected.
+	 * @param index the item index
 	 * @return boolean
 	 */
-	boolean isCellSelected(FlowListCell<T> cell) {
-		return this.selected.contains(cell);
+	boolean isIndexSelected(int index) {
+		List<T> items = this.items;
+		if (index < 0 || index >= items.size()) {
+			return false;
+		}
+		if (this.pendingKeys != null) {
+			return this.pendingKeys.contains(this.getKey(items.get(index)));
+		}
+		return this.selected.get(index);
 	}
 	
 	/**
-	 * Selects the given cell.
-	 * @param cell the cell to select
+	 * Selects the item at the given index retaining the current selection.
+	 * @param index the item index
 	 */
-	void selectCell(FlowListCell<T> cell) {
+	void selectIndex(int index) {
 		if (!this.multiselect.get()) {
-			this.selectCellOnly(cell);
+			this.selectIndexOnly(index);
 			return;
 		}
-		if (cell != null) {
-			cell.pseudoClassStateChanged(SELECTED, true);
-			this.selected.add(cell);
-			this.last = cell;
+		this.reselect();
+		if (index >= 0 && index < this.items.size()) {
+			BitSet indices = (BitSet)this.selected.clone();
+			indices.set(index);
+			this.commit(indices, false);
+			this.last = index;
 		}
 	}
 	
 	/**
-	 * Selects the given cell.
-	 * @param cell the cell to select
+	 * Selects the item at the given index only.
+	 * @param index the item index
 	 */
-	@SuppressWarnings("unchecked")
-	void selectCellOnly(FlowListCell<T> cell) {
-		// avoid clear+select by checking if it's already selected first
-		if (this.selected.size() == 1 && this.selected.contains(cell)) return;
-		
-		for (FlowListCell<T> c : this.selected) {
-			c.pseudoClassStateChanged(SELECTED, false);
-		}
-		if (cell != null) {
-			cell.pseudoClassStateChanged(SELECTED, true);
-			this.selected.setAll(cell);
-			this.last = cell;
+	void selectIndexOnly(int index) {
+		this.reselect();
+		if (index >= 0 && index < this.items.size()) {
+			BitSet indices = new BitSet();
+			indices.set(index);
+			this.commit(indices, false);
+			this.last = index;
 		} else {
-			this.selected.clear();
-			this.last = null;
+			this.clear();
 		}
 	}
 	
 	/**
-	 * Selects all the given cells.
-	 * @param cells the cells to select
+	 * Selects the items at the given indices retaining the current selection.
+	 * @param indices the item indices
 	 */
-	void selectCells(Collection<FlowListCell<T>> cells) {
-		if (cells != null && !cells.isEmpty()) {
+	void selectIndices(BitSet indices) {
+		if (indices != null && !indices.isEmpty()) {
 			if (!this.multiselect.get()) {
-				this.selectCellOnly(cells.stream().findFirst().get());
+				this.selectIndexOnly(indices.nextSetBit(0));
 				return;
 			}
-			List<FlowListCell<T>> toAdd = new ArrayList<FlowListCell<T>>();
-			for (FlowListCell<T> cell : cells) {
-				cell.pseudoClassStateChanged(SELECTED, true);
-				if (!this.selected.contains(cell)) {
-					toAdd.add(cell);
-				}
-			}
-			this.selected.addAll(toAdd);
+			this.reselect();
+			BitSet next = (BitSet)this.selected.clone();
+			next.or(indices);
+			this.commit(next, false);
 		}
 	}
 	
 	/**
-	 * Selects only the given cells.
-	 * @param cells the cells to select
+	 * Selects the items at the given indices only.
+	 * @param indices the item indices
 	 */
-	void selectCellsOnly(Collection<FlowListCell<T>> cells) {
-		if (cells != null && !cells.isEmpty()) {
+	void selectIndicesOnly(BitSet indices) {
+		if (indices != null && !indices.isEmpty()) {
 			if (!this.multiselect.get()) {
-				this.selectCellOnly(cells.stream().findFirst().get());
+				this.selectIndexOnly(indices.nextSetBit(0));
 				return;
 			}
-			for (FlowListCell<T> cell : this.selected) {
-				cell.pseudoClassStateChanged(SELECTED, false);
-			}
-			for (FlowListCell<T> cell : cells) {
-				cell.pseudoClassStateChanged(SELECTED, true);
-			}
-			if (this.hasMultiSelectionChanged(cells)) {
-				this.selected.setAll(cells);
-			}
+			this.reselect();
+			this.commit((BitSet)indices.clone(), false);
 		} else {
 			this.clear();
 		}
 	}
 	
 	/**
-	 * Returns true if the given cells are different than the selected cells.
-	 * @param cells the new set of selected cells
-	 * @return boolean
+	 * Selects the items from index i to index j (inclusive) only.
+	 * @param i index a
+	 * @param j index b
 	 */
-	private boolean hasMultiSelectionChanged(Collection<FlowListCell<T>> cells) {
-		int ss = this.selected.size();
-		int ns = cells.size();
-		if (ss != ns) return true;
-		for (FlowListCell<T> cell : cells) {
-			if (!this.selected.contains(cell)) {
-				return true;
-			}
-		}
-		return false;
+	void selectRangeOnly(int i, int j) {
+		BitSet indices = new BitSet();
+		indices.set(Math.max(0, Math.min(i, j)), Math.max(i, j) + 1);
+		this.selectIndicesOnly(indices);
 	}
 	
 	/**
-	 * Deselects the given cell.
-	 * @param cell the cell to deselect
+	 * Deselects the item at the given index.
+	 * @param index the item index
 	 */
-	void deselectCell(FlowListCell<T> cell) {
-		if (cell != null) {
-			cell.pseudoClassStateChanged(SELECTED, false);
-			this.selected.remove(cell);
-			if (this.last == cell) {
-				this.last = null;
-			}
+	void deselectIndex(int index) {
+		this.reselect();
+		if (index >= 0 && this.selected.get(index)) {
+			BitSet indices = (BitSet)this.selected.clone();
+			indices.clear(index);
+			this.commit(indices, false);
 		}
-	}
-
-	/**
-	 * Deselects the given cells.
-	 * @param cells the cells to deselect
-	 */
-	void deselectCells(Collection<FlowListCell<T>> cells) {
-		if (cells != null && !cells.isEmpty()) {
-			for (FlowListCell<T> cell : this.selected) {
-				cell.pseudoClassStateChanged(SELECTED, false);
-			}
-			this.selected.removeAll(cells);
+		if (this.last == index) {
+			this.last = -1;
 		}
 	}
 	
@@ -466,7 +534,6 @@ public final class FlowListSelectionModel<T> {
 	 * @param cell the cell that was clicked
 	 * @param event the mouse event
 	 */
-	@SuppressWarnings("unchecked")
 	final void handle(FlowListCell<T> cell, MouseEvent event) {
 		boolean isPrimary = event.getButton() == MouseButton.PRIMARY;
 		boolean isSecondary = event.getButton() == MouseButton.SECONDARY;
@@ -477,7 +544,8 @@ public final class FlowListSelectionModel<T> {
 			event.consume();
 
 			// are we being selected?
-			boolean selected = this.isCellSelected(cell);
+			int index = cell.getIndex();
+			boolean selected = this.isIndexSelected(index);
 			boolean select = !selected;
 			
 			// check for double click
@@ -502,7 +570,7 @@ public final class FlowListSelectionModel<T> {
 			
 			// if the short cut is no longer down but the last time we selected something
 			// it was, then select this regardless if it was selected already
-			if (!event.isShortcutDown() && this.selected.size() > 1) {
+			if (!event.isShortcutDown() && this.selections.size() > 1) {
 				select = true;
 			}
 			
@@ -510,8 +578,8 @@ public final class FlowListSelectionModel<T> {
 			// we can do a shift select properly
 			if (!event.isShiftDown()) {
 				// shift isn't down, so clear the first selected item
-				this.first = null;
-			} else if (this.first == null && this.last != null) {
+				this.first = -1;
+			} else if (this.first < 0 && this.last >= 0) {
 				// shift is down and first is null, so set it to the last item selected
 				this.first = this.last;
 			}
@@ -520,34 +588,20 @@ public final class FlowListSelectionModel<T> {
 			if (this.multiselect.get() && isPrimary && event.isShortcutDown()) {
 				// then its a multi-(de)select
 				if (select) {
-					selectCell(cell);
+					selectIndex(index);
 				} else {
-					deselectCell(cell);
+					deselectIndex(index);
 				}
 			// SHIFT + click
 			} else if (this.multiselect.get() && isPrimary && event.isShiftDown()) {
-				int start = 0;
-				int end = this.view.getLayoutChildren().indexOf(cell);
 				// select from the currently selected cell to the this cell
-				if (this.first != null) {
-					// select from last to this cell
-					start = this.view.getLayoutChildren().indexOf(this.first);
-				}
-				if (end < start) {
-					int temp = end;
-					end = start;
-					start = temp;
-				}
-				List<FlowListCell<T>> cells = new ArrayList<FlowListCell<T>>();
-				for (Node node : this.view.getLayoutChildren().subList(start, end + 1)) {
-					cells.add((FlowListCell<T>)node);
-				}
-				this.selectCellsOnly(cells);
+				int start = this.first >= 0 ? this.first : 0;
+				this.selectRangeOnly(start, index);
 			// just click
 			} else {
 				// then its a single select
 				if (select) {
-					this.selectCellOnly(cell);
+					this.selectIndexOnly(index);
 				}
 			}
 		}
@@ -596,11 +650,23 @@ public final class FlowListSelectionModel<T> {
 		return this.multiselect;
 	}
 	
-	public BiFunction<T, T, Boolean> getIdentityProvider() {
-		return this.identityProvider;
+	/**
+	 * Returns the function that returns the value that identifies an item.
+	 * @return Function&lt;T, ?&gt;
+	 */
+	public Function<T, ?> getKeyProvider() {
+		return this.keyProvider;
 	}
 	
-	public void setIdentityProvider(BiFunction<T, T, Boolean> identityProvider) {
-		this.identityProvider = identityProvider;
+	/**
+	 * Sets the function that returns the value that identifies an item.
+	 * <p>
+	 * Items with equal keys are considered the same item. The keys must have
+	 * consistent {@link Object#equals(Object)} and {@link Object#hashCode()} methods.
+	 * @param keyProvider the key provider
+	 */
+	public void setKeyProvider(Function<T, ?> keyProvider) {
+		this.keyProvider = keyProvider;
+		this.positions = null;
 	}
 }
@@ -24,31 +24,25 @@
  */
 package org.praisenter.ui.controls;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.BitSet;
 
-import org.praisenter.ui.MappedList;
-
-import javafx.beans.binding.Bindings;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ListProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleListProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.css.PseudoClass;
 import javafx.event.EventHandler;
 import javafx.geometry.Bounds;
 import javafx.geometry.Orientation;
-import javafx.scene.Node;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.StackPane;
-import javafx.scene.layout.TilePane;
 import javafx.scene.shape.Rectangle;
 import javafx.util.Callback;
 
@@ -56,8 +50,9 @@ import javafx.util.Callback;
  * Represents a list view whose items are laid out vertically or horizontally
  * and wrap to a new row below when out of space.
  * <p>
- * This implementation does not use virtual items so performance can suffer with
- * many items in the list.
+ * Only the items that are visible (plus a few rows before and after) have cells.
+ * Cells are reused for other items as the view is scrolled, so cells should update
+ * what they show when their data changes.
  * @author William Bittle
  * @version 3.0.0
  * @param <T> the item type
@@ -70,6 +65,9 @@ public class FlowListView<T> extends ScrollPane {
     /** The :hover CSS pseudo class for styling */
     private static final PseudoClass HOVER = PseudoClass.getPseudoClass("hover");
     
+	/** The :selected CSS pseudo class for styling */
+    private static final PseudoClass SELECTED = PseudoClass.getPseudoClass("selected");
+    
     // state
     
     /** The cell factory */
@@ -81,10 +79,7 @@ public class FlowListView<T> extends ScrollPane {
 	// nodes
 	
 	/** The layout pane */
-	private final TilePane layout;
-	
-	/** The item nodes */
-	private final MappedList<FlowListCell<T>, T> mapping;
+	private final FlowListLayout<T> layout;
 	
 	/** The drag selection node */
 	private final Rectangle dragRect;
@@ -100,10 +95,16 @@ public class FlowListView<T> extends ScrollPane {
 	// focus
 	
 	/** Keyboard shift-select */
-	private FlowListCell<T> startCell = null;
+	private T startItem = null;
+	
+	/** The index of the keyboard shift-select item */
+	private int startIndex = -1;
 	
-	/** The current focused cell */
-	private FlowListCell<T> currentCell = null;
+	/** The current focused item */
+	private T currentItem = null;
+	
+	/** The index of the current focused item */
+	private int currentIndex = -1;
 	
 	// properties
 	
@@ -123,7 +124,7 @@ public class FlowListView<T> extends ScrollPane {
 		
 		this.cellFactory = cellFactory;
 
-		this.layout = new TilePane();
+		this.layout = new FlowListLayout<T>(this, orientation);
 		
 		this.dragRect = new Rectangle();
 		this.dragRect.getStyleClass().add(FLOW_LIST_VIEW_DRAG_SELECTION_AREA_CSS);
@@ -147,17 +148,13 @@ public class FlowListView<T> extends ScrollPane {
         this.setContent(stack);
         
         this.layout.getStyleClass().add(FLOW_LIST_VIEW_TILES_CSS);
-        this.layout.setOrientation(orientation);
-        
-        // make the min height of the listing pane the height of the split pane 
- 		//this.layout.minHeightProperty().bind(this.heightProperty().subtract(20));
         
- 		this.mapping = new MappedList<>(this.items, (T item) -> {
- 			return createCell(item);
- 		});
- 		
-        // bind the children of this view to the tagNode list
- 		Bindings.bindContent(this.layout.getChildren(), this.mapping);
+        // update the cells when the selection changes
+        this.selection.getSelectedItems().addListener((ListChangeListener.Change<? extends T> c) -> {
+        	for (FlowListCell<T> cell : this.layout.getCells()) {
+        		this.updateCell(cell);
+        	}
+        });
         
  		this.layout.addEventHandler(MouseEvent.MOUSE_CLICKED, e -> {
  			if (!e.isConsumed() && (e.getButton() == MouseButton.PRIMARY || e.getButton() == MouseButton.SECONDARY) && e.isStillSincePress()) {
@@ -213,21 +210,12 @@ public class FlowListView<T> extends ScrollPane {
 	 				this.dragRect.setHeight(h);
 	 				this.dragRect.setVisible(true);
 	 				
-	 				// select anything under the rect
-	 				List<FlowListCell<T>> nodes = new ArrayList<FlowListCell<T>>();
-	 				for (FlowListCell<T> node : this.mapping) {
-	 					if (node.getBoundsInParent().intersects(x, y, w, h)) {
-	 						nodes.add(node);
-	 					}
-	 				}
-	 				
-					// make sure the items selected have actually changed
-	 				// so we don't flood the listeners
-	 				List<T> items = nodes.stream().map(n -> n.getData()).collect(Collectors.toList());
-	 				if (!items.containsAll(this.selection.getSelectedItems()) || 
-	 					!this.selection.getSelectedItems().containsAll(items)) {
-						this.selection.selectCellsOnly(nodes);
-	 				}
+	 				// select anything under the rect; the tiles are computed
+	 				// so that items without cells are selected too
+	 				// NOTE: the selection model makes sure the items selected have 
+	 				// actually changed so we don't flood the listeners
+	 				BitSet indices = this.layout.getIndices(x, y, w, h);
+	 				this.selection.selectIndicesOnly(indices);
 	 			}
  			}
  		});
@@ -274,6 +262,8 @@ public class FlowListView<T> extends ScrollPane {
 	
 	/**
 	 * Creates a cell using the given cell factory and wires up events.
+	 * <p>
+	 * The cell will be reused for other items as the view is scrolled.
 	 * @param item the item
 	 * @return {@link FlowListCell}
 	 */
@@ -286,14 +276,15 @@ public class FlowListView<T> extends ScrollPane {
     		public void handle(MouseEvent event) {
     			if (!event.isConsumed() && (event.getButton() == MouseButton.PRIMARY || event.getButton() == MouseButton.SECONDARY) && event.isStillSincePress()) {
     				selection.handle(cell, event);
-    				currentCell = cell;
+    				currentItem = cell.getData();
+    				currentIndex = cell.getIndex();
     			}
     		}
     	});
     	cell.addEventHandler(MouseEvent.MOUSE_ENTERED, new EventHandler<MouseEvent>() {
 			@Override
 			public void handle(MouseEvent event) {
-				if (!selection.isCellSelected(cell)) {
+				if (!selection.isIndexSelected(cell.getIndex())) {
 					cell.pseudoClassStateChanged(HOVER, true);
 				}
 			}
@@ -301,7 +292,7 @@ public class FlowListView<T> extends ScrollPane {
     	cell.addEventHandler(MouseEvent.MOUSE_EXITED, new EventHandler<MouseEvent>() {
 			@Override
 			public void handle(MouseEvent event) {
-				if (!selection.isCellSelected(cell)) {
+				if (!selection.isIndexSelected(cell.getIndex())) {
 					cell.pseudoClassStateChanged(HOVER, false);
 				}
 			}
@@ -311,11 +302,31 @@ public class FlowListView<T> extends ScrollPane {
 	}
 	
 	/**
-	 * Returns the children of this view's content.
-	 * @return ObservableList&lt;Node&gt;
+	 * Updates the pseudo class state of the given cell after the cell has been given
+	 * an item or the selection has changed.
+	 * @param cell the cell
+	 */
+	void updateCell(FlowListCell<T> cell) {
+		boolean selected = this.selection.isIndexSelected(cell.getIndex());
+		cell.pseudoClassStateChanged(SELECTED, selected);
+		cell.pseudoClassStateChanged(HOVER, !selected && cell.isHover());
+	}
+	
+	/**
+	 * Returns the current index of the given item using the given index
+	 * as a hint for where it was.
+	 * @param item the item
+	 * @param hint the index the item was at
+	 * @return int
 	 */
-	protected ObservableList<Node> getLayoutChildren() {
-		return this.layout.getChildren();
+	private int getIndex(T item, int hint) {
+		if (item == null) {
+			return -1;
+		}
+		if (hint >= 0 && hint < this.items.size() && this.items.get(hint) == item) {
+			return hint;
+		}
+		return this.items.indexOf(item);
 	}
 	
 	/**
@@ -325,7 +336,6 @@ public class FlowListView<T> extends ScrollPane {
 	 * down keys along with the shift modifier.
 	 * @param event the event
 	 */
-	@SuppressWarnings("unchecked")
 	private void handleKeyEvent(KeyEvent event) {
 		KeyCode code = event.getCode();
 		Orientation orientation = this.layout.getOrientation();
@@ -347,91 +357,69 @@ public class FlowListView<T> extends ScrollPane {
 			return;
 		}
 
+		// the items may have changed since the last key press
+		this.currentIndex = this.getIndex(this.currentItem, this.currentIndex);
+		if (this.currentIndex < 0) {
+			this.currentItem = null;
+		}
+		
 		// check for shift down, which indicates a range selection
 		boolean rangeSelect = false;
-		int startIndex = -1;
 		if (event.isShiftDown()) {
 			rangeSelect = true;
-			if (this.startCell == null && this.currentCell != null) {
-				this.startCell = this.currentCell;
-			}
-			if (this.startCell != null) {
-				startIndex = this.getLayoutChildren().indexOf(this.startCell);
+			if (this.startItem == null && this.currentItem != null) {
+				this.startItem = this.currentItem;
+				this.startIndex = this.currentIndex;
 			}
+			this.startIndex = this.getIndex(this.startItem, this.startIndex);
 		} else {
-			this.startCell = null;
+			this.startItem = null;
+			this.startIndex = -1;
 		}
 
 		// get the number of items
-		int size = this.getLayoutChildren().size();
-		if (this.currentCell == null) {
+		int size = this.items.size();
+		int index = -1;
+		if (this.currentIndex < 0) {
 			// no cell has been focused by the key events yet
 			if (size > 0) {
 				// there are cells to select, so select the first
-				this.currentCell = (FlowListCell<T>) this.getLayoutChildren().get(0);
-				this.selection.selectCell(this.currentCell);
+				index = 0;
+				this.selection.selectIndex(index);
 			}
 		} else {
 			// otherwise, start from the last focused cell
-			int index = this.getLayoutChildren().indexOf(this.currentCell);
 			if ((orientation == Orientation.HORIZONTAL && code == KeyCode.RIGHT) || 
 				(orientation == Orientation.VERTICAL && code == KeyCode.DOWN)) {
 				// in either of these cases we just need to select the next item in the list
-				index++;
-				if (index < size) {
-					this.currentCell = (FlowListCell<T>) this.getLayoutChildren().get(index);
-					if (rangeSelect && startIndex >= 0) {
-						this.selection.selectCellsOnly(this.getRange(startIndex, index));
-					} else {
-						this.selection.selectCellOnly(this.currentCell);
-					}
-				}
+				index = this.currentIndex + 1;
 			} else if ((orientation == Orientation.HORIZONTAL && code == KeyCode.LEFT) || 
 					   (orientation == Orientation.VERTICAL && code == KeyCode.UP)) {
 				// in either of these case we just need to select the previous item in the list
-				index--;
-				if (index >= 0) {
-					this.currentCell = (FlowListCell<T>) this.getLayoutChildren().get(index);
-					if (rangeSelect && startIndex >= 0) {
-						this.selection.selectCellsOnly(this.getRange(startIndex, index));
-					} else {
-						this.selection.selectCellOnly(this.currentCell);
-					}
-				}
+				index = this.currentIndex - 1;
 			} else {
 				// in this case we are jumping rows or columns
-				int ind = this.getNextCellIndex(index, code);
-				int tn = this.items.size();
-				if (ind >= 0 && ind < tn) {
-					this.currentCell = (FlowListCell<T>) this.getLayoutChildren().get(ind);
-					if (rangeSelect && startIndex >= 0) {
-						this.selection.selectCellsOnly(this.getRange(startIndex, ind));
-					} else {
-						this.selection.selectCellOnly(this.currentCell);
-					}
+				index = this.getNextCellIndex(this.currentIndex, code);
+			}
+			
+			if (index >= 0 && index < size) {
+				if (rangeSelect && this.startIndex >= 0) {
+					this.selection.selectRangeOnly(this.startIndex, index);
+				} else {
+					this.selection.selectIndexOnly(index);
 				}
+			} else {
+				index = -1;
 			}
 		}
 
-		if (this.currentCell != null) {
-			this.scrollToCell(this.currentCell);
+		if (index >= 0) {
+			this.currentIndex = index;
+			this.currentItem = this.items.get(index);
+			this.scrollToIndex(index);
 		}
 	}
 	
-	/**
-	 * Returns a sublist of this list's nodes.
-	 * @param i index a
-	 * @param j index b
-	 * @return List&lt;{@link FlowListCell}&lt;T&gt;&gt;
-	 */
-	@SuppressWarnings("unchecked")
-	private List<FlowListCell<T>> getRange(int i, int j) {
-		return this.getLayoutChildren().subList(i < j ? i : j, (i < j ? j : i) + 1)
-			.stream()
-			.map(n -> (FlowListCell<T>)n)
-			.collect(Collectors.toList());
-	}
-	
 	// UI related helpers
 	
 	/**
@@ -475,35 +463,29 @@ public class FlowListView<T> extends ScrollPane {
 	private int getNextCellIndex(int index, KeyCode code) {
 		Orientation orientation = this.layout.getOrientation();
 		
-		// determine the tile layout and compute the index of the desired item
-		double th = this.layout.getTileHeight() + this.layout.getVgap();
-		double tw = this.layout.getTileWidth() + this.layout.getHgap();
-		double h = this.layout.getHeight();
-		double w = this.layout.getWidth();
-
-		int npr = (int) Math.floor(w / tw);
-		int npc = (int) Math.floor(h / th);
+		// the number of items in each row (horizontal) or column (vertical)
+		int n = this.layout.getItemsPerLine();
 
 		int ind = -1;
 		if (orientation == Orientation.HORIZONTAL && code == KeyCode.DOWN) {
-			ind = index + npr;
+			ind = index + n;
 		} else if (orientation == Orientation.HORIZONTAL && code == KeyCode.UP) {
-			ind = index - npr;
+			ind = index - n;
 		} else if (orientation == Orientation.VERTICAL && code == KeyCode.RIGHT) {
-			ind = index + npc;
-		} else if (orientation == Orientation.VERTICAL && code == KeyCode.UP) {
-			ind = index - npc;
+			ind = index + n;
+		} else if (orientation == Orientation.VERTICAL && code == KeyCode.LEFT) {
+			ind = index - n;
 		}
 
 		return ind;
 	}
 	
 	/**
-	 * Scrolls the scrollpane to the given cell such that it is fully within the
-	 * viewport.
-	 * @param cell the cell to scroll to
+	 * Scrolls the scrollpane to the item at the given index such that it is 
+	 * fully within the viewport.
+	 * @param index the index of the item to scroll to
 	 */
-	private void scrollToCell(FlowListCell<T> cell) {
+	private void scrollToIndex(int index) {
 		Bounds vb = this.getViewportBounds();
 		double sx = this.getHvalue();
 		double sy = this.getVvalue();
@@ -514,7 +496,8 @@ public class FlowListView<T> extends ScrollPane {
 		double dx = (w - vb.getWidth()) * sx;
 		double dy = (h - vb.getHeight()) * sy;
 		
-		Bounds cb = this.layout.getLocalToParentTransform().transform(cell.getBoundsInParent());
+		// the item may not have a cell, so use its tile
+		Bounds cb = this.layout.getLocalToParentTransform().transform(this.layout.getTileBounds(index));
 
 		// if the view bounds is smaller than the tile size, then we want to scroll to the top/left of the tile
 		// otherwise we want to scroll to the bottom/right of the tile
@@ -1,18 +1,23 @@
 package org.praisenter.ui.display;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.controlsfx.glyphfont.Glyph;
 import org.praisenter.TriConsumer;
 import org.praisenter.data.Persistable;
 import org.praisenter.data.StringTextStore;
 import org.praisenter.data.TextStore;
+import org.praisenter.data.TextVariant;
 import org.praisenter.data.bible.BibleReferenceTextStore;
 import org.praisenter.data.slide.Slide;
 import org.praisenter.data.slide.SlideReference;
@@ -20,6 +25,7 @@ import org.praisenter.data.song.SongReferenceTextStore;
 import org.praisenter.data.workspace.DisplayConfiguration;
 import org.praisenter.data.workspace.PlaceholderTransitionBehavior;
 import org.praisenter.ui.GlobalContext;
+import org.praisenter.ui.Glyphs;
 import org.praisenter.ui.MappedList;
 import org.praisenter.ui.bible.BibleNavigationPane;
 import org.praisenter.ui.controls.Dialogs;
@@ -27,6 +33,7 @@ import org.praisenter.ui.slide.SlideList;
 import org.praisenter.ui.slide.SlideMode;
 import org.praisenter.ui.slide.SlideNavigationPane;
 import org.praisenter.ui.slide.SlideTemplateComboBox;
+import org.praisenter.ui.slide.SlideTextMeasurer;
 import org.praisenter.ui.slide.SlideView;
 import org.praisenter.ui.song.SongNavigationPane;
 import org.praisenter.ui.translations.Translations;
@@ -34,6 +41,7 @@ import org.praisenter.utility.StringManipulator;
 
 import javafx.animation.PauseTransition;
 import javafx.animation.Transition;
+import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.DoubleBinding;
 import javafx.beans.property.DoubleProperty;
@@ -55,6 +63,7 @@ import javafx.scene.control.TabPane;
 import javafx.scene.control.TabPane.TabClosingPolicy;
 import javafx.scene.control.TextField;
 import javafx.scene.control.TextInputDialog;
+import javafx.scene.control.Tooltip;
 import javafx.scene.image.ImageView;
 import javafx.scene.image.WritableImage;
 import javafx.scene.layout.BorderPane;
@@ -66,6 +75,8 @@ import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.robot.Robot;
 import javafx.scene.text.TextAlignment;
+import javafx.stage.FileChooser;
+import javafx.stage.FileChooser.ExtensionFilter;
 import javafx.stage.Modality;
 import javafx.util.Duration;
 
@@ -79,9 +90,13 @@ public final class DisplayController extends BorderPane {
 	private static final String DISPLAY_CONTROLLER_BTN_GRID_CSS = "p-display-controller-btn-grid";
 	private static final String DISPLAY_CONTROLLER_TABS_CSS = "p-display-controller-tabs";
 	private static final String DISPLAY_CONTROLLER_TAB_CSS = "p-display-controller-tab";
+	private static final String DISPLAY_CONTROLLER_WARNING_CSS = "p-display-controller-warning";
 	
 	private static final Logger LOGGER = LogManager.getLogger();
 	
+	/** The number of slides after the selected slide in the queue to prefetch */
+	private static final int PREFETCH_QUEUED_SLIDE_COUNT = 2;
+	
 	private final GlobalContext context;
 	private final DisplayTarget target;
 	
@@ -97,6 +112,12 @@ public final class DisplayController extends BorderPane {
 	
 	private boolean selectingQueuedSlide = false;
 	
+	/** True if a check that the song fits the template has been scheduled */
+	private boolean songFitCheckScheduled = false;
+	
+	/** The id of the latest check that the song fits the template */
+	private long songFitCheckGeneration = 0;
+	
 	public DisplayController(GlobalContext context, DisplayTarget target) {
 		this.getStyleClass().add(DISPLAY_CONTROLLER_CSS);
 		
@@ -185,6 +206,34 @@ public final class DisplayController extends BorderPane {
 			mnuIdentify,
 			mnuHide);
 		
+		// frame times are only recorded in debug mode
+		if (target.isFrameTimeMonitoringEnabled()) {
+			MenuItem mnuExportFrameTimes = new MenuItem(Translations.get("display.frameTimes.export"));
+			mnuExportFrameTimes.setOnAction(e -> {
+				FileChooser chooser = new FileChooser();
+				chooser.setInitialFileName(Translations.get("display.frameTimes.export.filename") + ".csv");
+				chooser.setTitle(Translations.get("display.frameTimes.export"));
+				chooser.getExtensionFilters().add(new ExtensionFilter(Translations.get("display.frameTimes.export.filetype"), "*.csv"));
+				File file = chooser.showSaveDialog(this.context.getStage());
+				if (file != null) {
+					target.exportFrameTimes(file.toPath()).exceptionally(t -> {
+						if (t instanceof CompletionException) {
+							t = t.getCause();
+						}
+						
+						LOGGER.error("Failed to export frame times: " + t.getMessage(), t);
+						
+						final Throwable ex = t;
+						Platform.runLater(() -> {
+							Dialogs.exception(this.context.getStage(), ex).show();
+						});
+						return null;
+					});
+				}
+			});
+			mnuActions.getItems().add(mnuExportFrameTimes);
+		}
+		
 		Robot robot = new Robot();
 		WritableImage image = robot.getScreenCapture(null, 
 				configuration.getX(), 
@@ -263,7 +312,16 @@ public final class DisplayController extends BorderPane {
 		cmbNotificationTemplate.setPromptText(Translations.get("display.controller.template"));
 		
 		VBox bibleTab = new VBox(cmbBibleSlideTemplate, bibleNavigationPane);
-		VBox songTab = new VBox(cmbSongSlideTemplate, songNavigationPane);
+		Label lblSongFit = new Label();
+		lblSongFit.setWrapText(true);
+		Glyph songFitIcon = Glyphs.WARN.duplicate();
+		HBox songFitWarning = new HBox(songFitIcon, lblSongFit);
+		songFitWarning.getStyleClass().add(DISPLAY_CONTROLLER_WARNING_CSS);
+		songFitWarning.managedProperty().bind(songFitWarning.visibleProperty());
+		songFitWarning.setVisible(false);
+		HBox.setHgrow(lblSongFit, Priority.ALWAYS);
+		
+		VBox songTab = new VBox(cmbSongSlideTemplate, songFitWarning, songNavigationPane);
 		VBox notificationTab = new VBox(cmbNotificationTemplate, txtNotification, new HBox(5, btnPreviewNotification, btnShowNotification, btnClearNotification));
 		
 		VBox.setVgrow(bibleNavigationPane, Priority.ALWAYS);
@@ -615,6 +673,12 @@ public final class DisplayController extends BorderPane {
 				data = new StringTextStore("");
 			}
 			
+			// whatever is being previewed is likely the next thing to be shown
+			// so get any audio/video ready to play on the display
+			if (change != DisplayChange.HIDE) {
+				target.prerollSlide(slide);
+			}
+			
 			// update the slide view
 			if (change == DisplayChange.HIDE || slide == null) {
 				if (transition) {
@@ -661,7 +725,29 @@ public final class DisplayController extends BorderPane {
 			}
 		};
 		
+		// get the media of whatever is likely to be shown next ready ahead of time:
+		// the current template with the next and previous verse or section and the
+		// slides after the selected one in the queue
+		final Runnable prefetch = () -> {
+			List<Slide> candidates = new ArrayList<>();
+			int index = tabs.getSelectionModel().getSelectedIndex();
+			if (index == 0) {
+				candidates.add(this.withPlaceholderData(cmbBibleSlideTemplate.getValue(), bibleNavigationPane.getNext()));
+				candidates.add(this.withPlaceholderData(cmbBibleSlideTemplate.getValue(), bibleNavigationPane.getPrevious()));
+			} else if (index == 1) {
+				candidates.add(this.withPlaceholderData(cmbSongSlideTemplate.getValue(), songNavigationPane.getNext()));
+				candidates.add(this.withPlaceholderData(cmbSongSlideTemplate.getValue(), songNavigationPane.getPrevious()));
+			}
+			// the prefetcher modifies the slides, so queued slides must be copied
+			// (the template candidates are copies already)
+			for (Slide slide : this.getNextQueuedSlides(lstSlideQueue.getSelectionModel().getSelectedItem(), PREFETCH_QUEUED_SLIDE_COUNT)) {
+				candidates.add(slide.copy());
+			}
+			target.prefetchSlides(candidates);
+		};
+		
 		cmbBibleSlideTemplate.valueProperty().addListener((obs, ov, nv) -> {
+			prefetch.run();
 			if (tabs.getSelectionModel().getSelectedIndex() != 0) {
 				return;
 			}
@@ -674,6 +760,7 @@ public final class DisplayController extends BorderPane {
 		});
 		
 		cmbSongSlideTemplate.valueProperty().addListener((obs, ov, nv) -> {
+			prefetch.run();
 			if (tabs.getSelectionModel().getSelectedIndex() != 1) {
 				return;
 			}
@@ -685,6 +772,58 @@ public final class DisplayController extends BorderPane {
 			}
 		});
 		
+		// check that all the sections of the song fit the template; every section is
+		// measured so this is done in the background and only the latest result is shown
+		final Runnable checkSongFit = () -> {
+			this.songFitCheckScheduled = false;
+			final long generation = ++this.songFitCheckGeneration;
+			final Slide template = cmbSongSlideTemplate.getValue();
+			final List<SongReferenceTextStore> sections = songNavigationPane.getAllSections();
+			if (template == null || sections.isEmpty()) {
+				songFitWarning.setVisible(false);
+				return;
+			}
+			
+			final Slide copy = template.copy();
+			final double w = configuration.getWidth();
+			final double h = configuration.getHeight();
+			CompletableFuture.supplyAsync(() -> {
+				return SlideTextMeasurer.getNonFitting(copy, sections, w, h);
+			}, this.context.getExecutors().getCPUExecutor()).thenAccept((nonFitting) -> Platform.runLater(() -> {
+				if (generation != this.songFitCheckGeneration) {
+					return;
+				}
+				
+				if (nonFitting.isEmpty()) {
+					songFitWarning.setVisible(false);
+					return;
+				}
+				
+				List<String> names = new ArrayList<>();
+				for (TextStore data : nonFitting) {
+					names.add(((SongReferenceTextStore)data).getVariant(TextVariant.PRIMARY).getName());
+				}
+				lblSongFit.setText(Translations.get("display.controller.song.notFitting", nonFitting.size(), sections.size()));
+				lblSongFit.setTooltip(new Tooltip(String.join(", ", names)));
+				songFitWarning.setVisible(true);
+			})).exceptionally(t -> {
+				LOGGER.warn("Failed to check that the song fits the template: " + t.getMessage(), t);
+				return null;
+			});
+		};
+		
+		// the sections change many times in a row when the lyrics change
+		// so only check once they're all done
+		final Runnable scheduleSongFitCheck = () -> {
+			if (!this.songFitCheckScheduled) {
+				this.songFitCheckScheduled = true;
+				Platform.runLater(checkSongFit);
+			}
+		};
+		
+		cmbSongSlideTemplate.valueProperty().addListener((obs, ov, nv) -> scheduleSongFitCheck.run());
+		songNavigationPane.allSectionsProperty().addListener((obs, ov, nv) -> scheduleSongFitCheck.run());
+		
 		cmbNotificationTemplate.valueProperty().addListener((obs, ov, nv) -> {
 			if (nv != null) {
 				configuration.setNotificationTemplateId(nv.getId());
@@ -724,6 +863,8 @@ public final class DisplayController extends BorderPane {
 
 			int lastTabIndex = this.lastTabIndex.get();
 			this.lastTabIndex.set(index);
+			
+			prefetch.run();
 
 			// if we're coming from the notification tab, check what the
 			// last "real" tab we were on was and compare it to where we're
@@ -749,6 +890,18 @@ public final class DisplayController extends BorderPane {
 			handleDisplayChange.accept(DisplayChange.DATA, slide, nv);
 		});
 		
+		bibleNavigationPane.nextProperty().addListener((obs, ov, nv) -> {
+			prefetch.run();
+		});
+		
+		songNavigationPane.nextProperty().addListener((obs, ov, nv) -> {
+			prefetch.run();
+		});
+		
+		this.slides.addListener((Change<? extends Slide> c) -> {
+			prefetch.run();
+		});
+		
 		songNavigationPane.valueProperty().addListener((obs, ov, nv) -> {
 			if (tabs.getSelectionModel().getSelectedIndex() != 1) {
 				return;
@@ -762,6 +915,9 @@ public final class DisplayController extends BorderPane {
 			LOGGER.debug("{} was selected", nv);
 			
 			if (nv != null) {
+				// get the media of the slides after this one ready
+				prefetch.run();
+				
 				this.selectingQueuedSlide = true;
 				// check for slide first
 				if (!nv.hasPlaceholders()) {
@@ -855,6 +1011,34 @@ public final class DisplayController extends BorderPane {
 		return false;
 	}
 	
+	private Slide withPlaceholderData(Slide template, TextStore data) {
+		if (template == null || data == null) return null;
+		
+		Slide copy = template.copy();
+		copy.setPlaceholderData(data.copy());
+		return copy;
+	}
+	
+	private List<Slide> getNextQueuedSlides(Slide slide, int count) {
+		// when nothing is selected, the first slides are next
+		int start = 0;
+		if (slide != null) {
+			start = this.slides.size();
+			for (int i = 0; i < this.slides.size(); i++) {
+				if (this.slides.get(i) == slide) {
+					start = i + 1;
+					break;
+				}
+			}
+		}
+		
+		List<Slide> next = new ArrayList<>();
+		for (int i = start; i < this.slides.size() && next.size() < count; i++) {
+			next.add(this.slides.get(i));
+		}
+		return next;
+	}
+	
 	private Slide getChangeAction(Change<? extends Slide> c, Slide cv) {
 		// if the items change we need to examine if the change was the current slide we're on
 		while (c.next()) {
@@ -9,6 +9,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.praisenter.data.workspace.DisplayConfiguration;
 import org.praisenter.ui.GlobalContext;
+import org.praisenter.ui.TextMeasurer;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
@@ -139,6 +140,9 @@ public final class DisplayManager {
 						// remove the target (if it exists)
 						this.removeDisplayTargetForDisplayConfiguration(configuration);
 						
+						// the font sizes fitted for the old resolution won't be used again
+						TextMeasurer.clearCache();
+						
 						// update the configuration
 						this.updateConfiguration(screen, configuration);
 						
@@ -1,13 +1,20 @@
 package org.praisenter.ui.display;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.praisenter.data.TextStore;
+import org.praisenter.data.media.Media;
 import org.praisenter.data.slide.Slide;
 import org.praisenter.data.workspace.DisplayConfiguration;
 import org.praisenter.ui.GlobalContext;
 import org.praisenter.ui.controls.WindowHelper;
+import org.praisenter.ui.slide.MediaPlayerPool;
 import org.praisenter.ui.slide.SlideMode;
+import org.praisenter.ui.slide.SlideRasterCache;
 import org.praisenter.ui.slide.SlideView;
 
 import javafx.beans.binding.Bindings;
@@ -32,6 +39,13 @@ import javafx.stage.StageStyle;
 import javafx.stage.WindowEvent;
 
 public final class DisplayTarget extends Stage {
+	/** The maximum number of idle (pre-rolled or released) media players to keep */
+	private static final int MAXIMUM_POOLED_MEDIA_PLAYERS = 3;
+	private static final int MAXIMUM_RASTERIZED_SLIDES = 5;
+	
+	/** The number of bytes in a megabyte */
+	private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+	
 	private final GlobalContext context;
 	private final DisplayConfiguration configuration;
 	
@@ -40,8 +54,15 @@ public final class DisplayTarget extends Stage {
 	
 	private final SlideView slideView;
 	private final SlideView notificationView;
+	private final MediaPlayerPool mediaPlayerPool;
+	private final SlidePrefetcher slidePrefetcher;
+	private final SlideRasterCache slideRasterCache;
+	
+	/** The frame time monitor; only used in debug mode */
+	private final FrameTimeMonitor frameTimeMonitor;
 	
 	private final ChangeListener<? super Boolean> activeListener;
+	private final ChangeListener<? super Boolean> rasterizationListener;
 	
 	public DisplayTarget(GlobalContext context, DisplayConfiguration configuration) {
 		super(StageStyle.TRANSPARENT);
@@ -93,7 +114,11 @@ public final class DisplayTarget extends Stage {
 					new BorderWidths(10))));
 		}
 		
+		this.mediaPlayerPool = new MediaPlayerPool(MAXIMUM_POOLED_MEDIA_PLAYERS);
+		this.slidePrefetcher = new SlidePrefetcher(context, this);
+		
 		this.slideView = new SlideView(context);
+		this.slideView.setMediaPlayerPool(this.mediaPlayerPool);
 		this.slideView.setClipEnabled(false);
 		this.slideView.setFitToHeightEnabled(false);
 		this.slideView.setFitToWidthEnabled(false);
@@ -107,9 +132,34 @@ public final class DisplayTarget extends Stage {
 		this.notificationView.setCheckeredBackgroundEnabled(false);
 		this.notificationView.setViewMode(SlideMode.PRESENT);
 		this.notificationView.setAutoHideEnabled(true);
+		this.notificationView.setMediaPlayerPool(this.mediaPlayerPool);
 		
 		this.container.getChildren().addAll(this.slideView, this.notificationView);
 		
+		// show static slides as images during transitions when enabled
+		this.slideRasterCache = new SlideRasterCache(context, MAXIMUM_RASTERIZED_SLIDES);
+		this.rasterizationListener = (obs, ov, nv) -> {
+			this.slideView.setSlideRasterCache(nv ? this.slideRasterCache : null);
+			if (!nv) {
+				this.slideRasterCache.clear();
+			}
+		};
+		context.getWorkspaceConfiguration().staticSlideRasterizationEnabledProperty().addListener(this.rasterizationListener);
+		if (context.getWorkspaceConfiguration().isStaticSlideRasterizationEnabled()) {
+			this.slideView.setSlideRasterCache(this.slideRasterCache);
+		}
+		
+		// setup frame timing in debug mode
+		if (context.getWorkspaceConfiguration().isDebugModeEnabled()) {
+			this.frameTimeMonitor = new FrameTimeMonitor();
+			this.slideView.setTransitionTimingListener(this.frameTimeMonitor::recordTransition);
+			this.notificationView.setTransitionTimingListener(this.frameTimeMonitor::recordTransition);
+			this.container.getChildren().add(this.frameTimeMonitor.getOverlay());
+			this.frameTimeMonitor.start();
+		} else {
+			this.frameTimeMonitor = null;
+		}
+		
 		// cache hints
 		this.container.setCache(true);
 		this.container.setCacheHint(CacheHint.SPEED);
@@ -140,8 +190,16 @@ public final class DisplayTarget extends Stage {
 	
 	public void dispose() {
 		this.configuration.activeProperty().removeListener(this.activeListener);
+		this.context.getWorkspaceConfiguration().staticSlideRasterizationEnabledProperty().removeListener(this.rasterizationListener);
 		
 		this.slideView.dispose();
+		this.notificationView.dispose();
+		this.mediaPlayerPool.clear();
+		this.slidePrefetcher.clear();
+		this.slideRasterCache.clear();
+		if (this.frameTimeMonitor != null) {
+			this.frameTimeMonitor.stop();
+		}
 		
 		this.container.getChildren().clear();
 		
@@ -150,6 +208,80 @@ public final class DisplayTarget extends Stage {
 		this.close();
 	}
 
+	/**
+	 * Pre-rolls the audio and video media of the given slide so that it's
+	 * ready to play if it's the next slide shown on this display.
+	 * <p>
+	 * The pre-rolled players are limited to the prefetch memory budget.
+	 * @param slide the slide that will likely be shown next
+	 */
+	public void prerollSlide(final Slide slide) {
+		if (slide == null) return;
+		
+		long budget = this.context.getWorkspaceConfiguration().getPrefetchMemoryBudget() * BYTES_PER_MEGABYTE;
+		for (UUID mediaId : slide.getReferencedMedia()) {
+			Media media = this.context.getWorkspaceManager().getItem(Media.class, mediaId);
+			this.mediaPlayerPool.preroll(media, budget);
+		}
+	}
+	
+	/**
+	 * Returns the estimated size in bytes of the idle (pre-rolled or released)
+	 * media players of this display.
+	 * @return long
+	 */
+	public long getPrerolledSize() {
+		return this.mediaPlayerPool.getEstimatedSize();
+	}
+	
+	/**
+	 * Renders the given slide to an image ahead of time if it's static and
+	 * pre-rendering static slides is enabled.
+	 * <p>
+	 * The slide should be a copy that has been fit to this display with its
+	 * placeholder data set, the same as it would be when displayed.
+	 * @param slide the slide that will likely be shown next
+	 */
+	public void prerenderSlide(final Slide slide) {
+		if (slide == null || this.slideView.getSlideRasterCache() == null) return;
+		
+		// the image is looked up by the exact scale the slide view will show the slide at
+		this.slideRasterCache.getOrRender(slide, this.slideView.getViewScaleFactor(slide));
+	}
+	
+	/**
+	 * Gets the media of the given slides ready ahead of time since they are
+	 * likely to be shown next on this display.
+	 * <p>
+	 * The slides are modified, so they must be copies.
+	 * @param slides the slides in order of likelihood
+	 * @see SlidePrefetcher
+	 */
+	public void prefetchSlides(final List<Slide> slides) {
+		this.slidePrefetcher.prefetch(slides);
+	}
+	
+	/**
+	 * Returns true if frame times are being recorded for this display (in debug mode).
+	 * @return boolean
+	 */
+	public boolean isFrameTimeMonitoringEnabled() {
+		return this.frameTimeMonitor != null;
+	}
+	
+	/**
+	 * Exports the recorded frame times, dropped frames and transition durations
+	 * of this display to the given file as CSV.
+	 * @param path the file
+	 * @return CompletableFuture&lt;Void&gt;
+	 */
+	public CompletableFuture<Void> exportFrameTimes(Path path) {
+		if (this.frameTimeMonitor == null) {
+			return CompletableFuture.completedFuture(null);
+		}
+		return this.frameTimeMonitor.exportCsv(path, this.context.getExecutors().getIOExecutor());
+	}
+	
 	public void displaySlidePlaceholders(final TextStore data, boolean waitForTransition) {
 		this.slideView.transitionPlaceholders(data.copy(), waitForTransition);
 		
@@ -0,0 +1,274 @@
+package org.praisenter.ui.display;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.util.Duration;
+
+/**
+ * Records the frame times, dropped frames and transition durations of a display.
+ * <p>
+ * Frames are timed with an {@link AnimationTimer} so the times are the times between
+ * pulses of the Java FX UI thread. A pulse that takes longer than one and a half times
+ * the expected frame time is counted as dropping the frames it covered. The most recent
+ * samples are kept in fixed size ring buffers, shown in an overlay and can be exported
+ * as CSV.
+ * <p>
+ * All methods other than {@link #exportCsv(Path, Executor)} should be called from the Java FX UI thread.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+final class FrameTimeMonitor {
+	/** The number of frame samples to keep (about 5 minutes at 60 FPS) */
+	private static final int FRAME_CAPACITY = 60 * 60 * 5;
+
+	/** The number of transition samples to keep */
+	private static final int TRANSITION_CAPACITY = 500;
+
+	/** The expected time between frames (60 FPS) */
+	private static final long EXPECTED_FRAME_NANOS = 1_000_000_000L / 60;
+
+	/** How often the overlay is updated */
+	private static final long OVERLAY_UPDATE_NANOS = 500_000_000L;
+
+	/** The number of nanoseconds in a millisecond */
+	private static final double NANOS_PER_MILLISECOND = 1_000_000.0;
+
+	// frames
+
+	/** The wall clock time of each frame in milliseconds */
+	private final long[] frameTimes;
+
+	/** The time since the previous frame in nanoseconds */
+	private final long[] frameIntervals;
+
+	/** The index of the next frame sample */
+	private int frameIndex;
+
+	/** The number of frame samples */
+	private int frameCount;
+
+	/** The time of the last frame in nanoseconds */
+	private long lastFrameNanos;
+
+	/** The total number of dropped frames */
+	private long droppedFrames;
+
+	// transitions
+
+	private final Deque<TransitionSample> transitions;
+
+	// overlay
+
+	private final AnimationTimer timer;
+	private final Label overlay;
+	private long lastOverlayNanos;
+	private int overlayFrames;
+	private long overlayMaxNanos;
+	private long overlayDroppedFrames;
+
+	public FrameTimeMonitor() {
+		this.frameTimes = new long[FRAME_CAPACITY];
+		this.frameIntervals = new long[FRAME_CAPACITY];
+		this.frameIndex = 0;
+		this.frameCount = 0;
+		this.lastFrameNanos = 0;
+		this.droppedFrames = 0;
+
+		this.transitions = new ArrayDeque<>();
+
+		this.overlay = new Label();
+		this.overlay.setTextFill(Color.WHITE);
+		this.overlay.setBackground(new Background(new BackgroundFill(Color.rgb(0, 0, 0, 0.7), null, null)));
+		this.overlay.setPadding(new Insets(5));
+		this.overlay.setMouseTransparent(true);
+		StackPane.setAlignment(this.overlay, Pos.TOP_LEFT);
+		StackPane.setMargin(this.overlay, new Insets(15));
+
+		this.timer = new AnimationTimer() {
+			@Override
+			public void handle(long now) {
+				onFrame(now);
+			}
+		};
+	}
+
+	/**
+	 * Starts recording frames.
+	 */
+	public void start() {
+		this.lastFrameNanos = 0;
+		this.timer.start();
+	}
+
+	/**
+	 * Stops recording frames.
+	 */
+	public void stop() {
+		this.timer.stop();
+	}
+
+	/**
+	 * Returns the overlay that shows the current frame rate and last transition.
+	 * @return Label
+	 */
+	public Label getOverlay() {
+		return this.overlay;
+	}
+
+	/**
+	 * Records the duration of a transition.
+	 * @param expected the configured duration of the transition
+	 * @param actual the time the transition actually took
+	 */
+	public void recordTransition(Duration expected, Duration actual) {
+		if (this.transitions.size() >= TRANSITION_CAPACITY) {
+			this.transitions.removeFirst();
+		}
+		this.transitions.addLast(new TransitionSample(System.currentTimeMillis(), expected.toMillis(), actual.toMillis()));
+	}
+
+	/**
+	 * Writes the recorded frames and transitions to the given file as CSV.
+	 * <p>
+	 * The samples are copied when this method is called (on the Java FX UI thread)
+	 * and then written in the background.
+	 * @param path the file
+	 * @param executor the executor to write the file on
+	 * @return CompletableFuture&lt;Void&gt;
+	 */
+	public CompletableFuture<Void> exportCsv(Path path, Executor executor) {
+		List<String> lines = new ArrayList<>(this.frameCount + this.transitions.size() + 1);
+		lines.add("time,type,duration_ms,expected_ms,dropped_frames");
+
+		double expected = EXPECTED_FRAME_NANOS / NANOS_PER_MILLISECOND;
+		int start = (this.frameIndex - this.frameCount + FRAME_CAPACITY) % FRAME_CAPACITY;
+		for (int i = 0; i < this.frameCount; i++) {
+			int j = (start + i) % FRAME_CAPACITY;
+			long interval = this.frameIntervals[j];
+			lines.add(String.format(Locale.ROOT, "%s,frame,%.3f,%.3f,%d",
+					Instant.ofEpochMilli(this.frameTimes[j]),
+					interval / NANOS_PER_MILLISECOND,
+					expected,
+					getDroppedFrames(interval)));
+		}
+
+		for (TransitionSample sample : this.transitions) {
+			lines.add(String.format(Locale.ROOT, "%s,transition,%.3f,%.3f,",
+					Instant.ofEpochMilli(sample.time),
+					sample.actual,
+					sample.expected));
+		}
+
+		return CompletableFuture.runAsync(() -> {
+			try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+				for (String line : lines) {
+					writer.write(line);
+					writer.newLine();
+				}
+			} catch (Exception ex) {
+				throw new CompletionException(ex);
+			}
+		}, executor);
+	}
+
+	/**
+	 * Called each pulse.
+	 * @param now the time of the pulse in nanoseconds
+	 */
+	private void onFrame(long now) {
+		if (this.lastFrameNanos == 0) {
+			this.lastFrameNanos = now;
+			this.lastOverlayNanos = now;
+			return;
+		}
+
+		long interval = now - this.lastFrameNanos;
+		this.lastFrameNanos = now;
+
+		// record the sample
+		this.frameTimes[this.frameIndex] = System.currentTimeMillis();
+		this.frameIntervals[this.frameIndex] = interval;
+		this.frameIndex = (this.frameIndex + 1) % FRAME_CAPACITY;
+		this.frameCount = Math.min(this.frameCount + 1, FRAME_CAPACITY);
+
+		long dropped = getDroppedFrames(interval);
+		this.droppedFrames += dropped;
+
+		// update the overlay every so often
+		this.overlayFrames++;
+		this.overlayMaxNanos = Math.max(this.overlayMaxNanos, interval);
+		this.overlayDroppedFrames += dropped;
+
+		long elapsed = now - this.lastOverlayNanos;
+		if (elapsed >= OVERLAY_UPDATE_NANOS) {
+			double fps = this.overlayFrames / (elapsed / 1_000_000_000.0);
+			double average = (elapsed / NANOS_PER_MILLISECOND) / this.overlayFrames;
+
+			StringBuilder sb = new StringBuilder();
+			sb.append(String.format(Locale.ROOT, "%.1f FPS | avg %.1f ms | max %.1f ms | dropped %d (total %d)",
+					fps,
+					average,
+					this.overlayMaxNanos / NANOS_PER_MILLISECOND,
+					this.overlayDroppedFrames,
+					this.droppedFrames));
+
+			TransitionSample last = this.transitions.peekLast();
+			if (last != null) {
+				sb.append(String.format(Locale.ROOT, "%nlast transition %.0f ms (expected %.0f ms)", last.actual, last.expected));
+			}
+			this.overlay.setText(sb.toString());
+
+			this.lastOverlayNanos = now;
+			this.overlayFrames = 0;
+			this.overlayMaxNanos = 0;
+			this.overlayDroppedFrames = 0;
+		}
+	}
+
+	/**
+	 * Returns the number of frames that were missed given the time between two frames.
+	 * @param interval the time between the frames in nanoseconds
+	 * @return long
+	 */
+	private static long getDroppedFrames(long interval) {
+		if (interval * 2 <= EXPECTED_FRAME_NANOS * 3) {
+			return 0;
+		}
+		return Math.round((double)interval / EXPECTED_FRAME_NANOS) - 1;
+	}
+
+	/**
+	 * A recorded transition.
+	 */
+	private static final class TransitionSample {
+		private final long time;
+		private final double expected;
+		private final double actual;
+
+		public TransitionSample(long time, double expected, double actual) {
+			this.time = time;
+			this.expected = expected;
+			this.actual = actual;
+		}
+	}
+}
@@ -0,0 +1,220 @@
+package org.praisenter.ui.display;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.praisenter.data.media.Media;
+import org.praisenter.data.media.MediaType;
+import org.praisenter.data.slide.Slide;
+import org.praisenter.ui.GlobalContext;
+import org.praisenter.ui.slide.SlideTextMeasurer;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+
+/**
+ * Gets the media of the slides that are likely to be shown next ready ahead of time.
+ * <p>
+ * Images are decoded on a background thread and placed in the {@link org.praisenter.ui.ImageCache}.
+ * Since the image cache only holds soft references, this class keeps strong references to the
+ * most recently prefetched images up to the configured memory budget so that they aren't
+ * collected before they're shown. Audio and video are pre-rolled on the display target
+ * and count against the same budget; the images get what the media players leave.
+ * The text of the slides is measured on the background thread as well so that the
+ * fitted font sizes are cached. Static slides are then pre-rendered on the UI thread when
+ * enabled (see {@link DisplayTarget#prerenderSlide(Slide)}).
+ * <p>
+ * The {@link #prefetch(List)} method should be called from the Java FX UI thread.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+final class SlidePrefetcher {
+	private static final Logger LOGGER = LogManager.getLogger();
+
+	/** The number of bytes in a megabyte */
+	private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+
+	private final GlobalContext context;
+	private final DisplayTarget target;
+
+	/** The prefetched images in least recently used order */
+	private final Map<UUID, Image> images;
+
+	/** The estimated size in bytes of the prefetched images */
+	private long size;
+
+	/** The number of prefetch requests; used to skip stale requests */
+	private long generation;
+
+	public SlidePrefetcher(GlobalContext context, DisplayTarget target) {
+		this.context = context;
+		this.target = target;
+		this.images = new LinkedHashMap<>(16, 0.75f, true);
+		this.size = 0;
+		this.generation = 0;
+	}
+
+	/**
+	 * Prefetches the media of the given slides in the order given (most likely first).
+	 * <p>
+	 * The slides are fit to the display and measured on another thread, so they must
+	 * be copies that aren't used by anything else.
+	 * @param slides the slides; null entries are ignored
+	 */
+	public void prefetch(List<Slide> slides) {
+		long total = this.context.getWorkspaceConfiguration().getPrefetchMemoryBudget() * BYTES_PER_MEGABYTE;
+
+		double w = this.target.getDisplayConfiguration().getWidth();
+		double h = this.target.getDisplayConfiguration().getHeight();
+		
+		// collect the media on the UI thread
+		Set<UUID> seen = new LinkedHashSet<>();
+		List<Media> images = new ArrayList<>();
+		List<Slide> copies = new ArrayList<>();
+		for (Slide slide : slides) {
+			if (slide == null) continue;
+			
+			// size the slide the same way it will be displayed
+			slide.fit(w, h);
+			copies.add(slide);
+
+			// get any audio/video ready to play on the display
+			this.target.prerollSlide(slide);
+
+			for (UUID id : slide.getReferencedMedia()) {
+				if (!seen.add(id)) continue;
+				Media media = this.context.getWorkspaceManager().getItem(Media.class, id);
+				if (media != null && media.getMediaType() == MediaType.IMAGE) {
+					images.add(media);
+				}
+			}
+		}
+
+		// the pre-rolled media players come out of the same budget
+		final long budget = Math.max(0, total - this.target.getPrerolledSize());
+		
+		final long generation;
+		synchronized (this) {
+			generation = ++this.generation;
+			if (budget <= 0) {
+				this.images.clear();
+				this.size = 0;
+			}
+		}
+
+		if (images.isEmpty() && copies.isEmpty()) {
+			return;
+		}
+
+		CompletableFuture.runAsync(() -> {
+			for (Slide copy : copies) {
+				synchronized (this) {
+					if (generation != this.generation) {
+						return;
+					}
+				}
+				SlideTextMeasurer.measure(copy);
+			}
+			
+			if (budget > 0) {
+				this.prefetchImages(images, generation, budget);
+			}
+			
+			// render static slides once their text is measured and images
+			// loaded; this has to be done on the UI thread so queue each
+			// separately to avoid holding up the UI thread for long
+			for (Slide copy : copies) {
+				Platform.runLater(() -> {
+					synchronized (this) {
+						if (generation != this.generation) {
+							return;
+						}
+					}
+					this.target.prerenderSlide(copy);
+				});
+			}
+		}, this.context.getExecutors().getIOExecutor()).exceptionally(t -> {
+			LOGGER.warn("Failed to prefetch slide media: " + t.getMessage(), t);
+			return null;
+		});
+	}
+
+	/**
+	 * Decodes the given images and keeps them within the given budget.
+	 * @param images the images to decode
+	 * @param generation the prefetch request
+	 * @param budget the memory budget in bytes
+	 */
+	private void prefetchImages(List<Media> images, long generation, long budget) {
+		for (Media media : images) {
+			synchronized (this) {
+				// a newer request supersedes this one
+				if (generation != this.generation) {
+					return;
+				}
+				// touch it so that it's the most recently used
+				if (this.images.get(media.getId()) != null) {
+					continue;
+				}
+			}
+
+			Path path = media.getMediaImagePath();
+			LOGGER.debug("Prefetching image '{}'", media.getName());
+			Image image = this.context.getImageCache().preloadImage(media.getId(), path);
+			if (image != null) {
+				this.retain(media.getId(), image, budget);
+			}
+		}
+	}
+
+	/**
+	 * Releases all prefetched images.
+	 */
+	public synchronized void clear() {
+		this.generation++;
+		this.images.clear();
+		this.size = 0;
+	}
+
+	/**
+	 * Keeps a strong reference to the given image, evicting the least recently
+	 * used images to stay within the given budget.
+	 * @param id the media id
+	 * @param image the image
+	 * @param budget the memory budget in bytes
+	 */
+	private synchronized void retain(UUID id, Image image, long budget) {
+		Image old = this.images.put(id, image);
+		if (old != null) {
+			this.size -= this.estimateSize(old);
+		}
+		this.size += this.estimateSize(image);
+
+		// always keep at least the image we just loaded
+		Iterator<Image> it = this.images.values().iterator();
+		while (this.size > budget && this.images.size() > 1 && it.hasNext()) {
+			Image eldest = it.next();
+			it.remove();
+			this.size -= this.estimateSize(eldest);
+		}
+	}
+
+	/**
+	 * Returns the approximate number of bytes used by the given image (assuming 32bpp).
+	 * @param image the image
+	 * @return long
+	 */
+	private long estimateSize(Image image) {
+		return (long)image.getWidth() * (long)image.getHeight() * 4;
+	}
+}
@@ -12,6 +12,9 @@ public final class FlowListViewSelectionEvent extends Event implements Serializa
 	public static final EventType<FlowListViewSelectionEvent> ALL = new EventType<FlowListViewSelectionEvent>("SELECTION_ALL");
 	public static final EventType<FlowListViewSelectionEvent> DOUBLE_CLICK = new EventType<FlowListViewSelectionEvent>("SELECTION_DOUBLE_CLICK");
 	
+	/** Fired once for each change to the selection */
+	public static final EventType<FlowListViewSelectionEvent> CHANGED = new EventType<FlowListViewSelectionEvent>(ALL, "SELECTION_CHANGED");
+	
 	public FlowListViewSelectionEvent(Object source, EventTarget target, EventType<FlowListViewSelectionEvent> type) {
 		super(source, target, type);
 	}
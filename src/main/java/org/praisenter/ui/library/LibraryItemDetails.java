@@ -312,7 +312,7 @@ final class LibraryItemDetails extends VBox {
 				return this.context.getImageCache().getOrLoadClasspathImage("/org/praisenter/images/song-lyrics-icon.png");
 			}
 			return null;
-		}, this.item));
+		}, this.context.getExecutors().getIOExecutor(), this.item));
 		image.setPreserveRatio(true);
 		image.fitWidthProperty().bind(Bindings.createDoubleBinding(() -> {
 			double tw = this.widthProperty().get() - 25;
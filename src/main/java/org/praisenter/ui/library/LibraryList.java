@@ -4,7 +4,6 @@ import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.nio.file.Path;
-import java.text.Collator;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -41,7 +40,6 @@ import org.praisenter.ui.document.DocumentContext;
 import org.praisenter.ui.events.ActionStateChangedEvent;
 import org.praisenter.ui.events.FlowListViewSelectionEvent;
 import org.praisenter.ui.translations.Translations;
-import org.praisenter.utility.StringManipulator;
 
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
@@ -53,8 +51,6 @@ import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
-import javafx.collections.transformation.SortedList;
 import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
 import javafx.scene.control.Alert;
@@ -88,7 +84,6 @@ public final class LibraryList extends BorderPane implements ActionPane {
 	private static final String LIBRARY_LIST_RIGHT_CSS = "p-library-list-right";
 	
 	private static final Logger LOGGER = LogManager.getLogger();
-	private static final Collator COLLATOR = Collator.getInstance();
 	
 	private final Glyph SORT_ASC = Glyphs.SORT_ASC.duplicate();
 	private final Glyph SORT_DESC = Glyphs.SORT_DESC.duplicate();
@@ -160,89 +155,30 @@ public final class LibraryList extends BorderPane implements ActionPane {
 		});
 		this.view.getStyleClass().add(LIBRARY_LIST_ITEMS_CSS);
 		
-		// override the selection model's identity provider to check the 
+		// override the selection model's key provider to use the 
 		// ids instead of object equality.  This is because of the way the
 		// library is managed -> we always create a copy of an item, update
 		// it, then overwrite the item in the library - so object equality
 		// is not preserved.  To ensure the selected item stays selected
 		// under these conditions we need to use the identity of the object
 		// instead of it's object reference
-		this.view.getSelectionModel().setIdentityProvider((a, b) -> {
-			if (a == b) return true;
-			if (a == null) return false;
-			if (b == null) return false;
-			if (a.getId().equals(b.getId())) return true;
-			return false;
-		});
+		this.view.getSelectionModel().setKeyProvider((p) -> p.getId());
 		
 		this.source = FXCollections.observableArrayList();
-		final FilteredList<Persistable> filtered = new FilteredList<Persistable>(this.source, (p) -> true);
-		final SortedList<Persistable> sorted = new SortedList<>(filtered, (a, b) -> 0);
+		
+		// the index keeps the view's items filtered and sorted
+		final LibraryListIndex index = new LibraryListIndex(this.source, this.view.getItems(), this.context.getExecutors().getCPUExecutor());
 		
 		final Runnable filterListener = () -> {
-			final String search = this.textFilter.get();
-			final String term = !StringManipulator.isNullOrEmpty(search) ? search.trim().toLowerCase() : null;
 			final Option<LibraryListType> optTypeFilter = this.typeFilter.get();
 			final LibraryListType typeFilter = optTypeFilter != null ? optTypeFilter.getValue() : null;
-			filtered.setPredicate((i) -> {
-				if (i == null) return false;
-				if (typeFilter != null) {
-					if (typeFilter != LibraryListType.from(i)) {
-						return false;
-					}
-				}
-				// single name search (more complex searching will be handled elsewhere)
-				if (!StringManipulator.isNullOrEmpty(search)) {
-					if (!i.getName().toLowerCase().contains(term)) {
-						return false;
-					}
-				}
-				return true;
-			});
+			index.filter(this.textFilter.get(), typeFilter);
 		};
 		
 		final Runnable sortListner = () -> {
 			final LibraryListSortField sortField = this.sortField.get().getValue();
 			final boolean sortAscending = this.sortAscending.get();
-			sorted.setComparator((a, b) -> {
-				if (a == b) return 0;
-				if (a == null) return 1;
-				if (b == null) return -1;
-				
-				String an = a.getName();
-				String bn = b.getName();
-				
-				if (an == null) an = "";
-				if (bn == null) bn = "";
-				
-				int value = 0;
-				if (sortField == null || sortField == LibraryListSortField.NAME) {
-					// sort by name
-					value = COLLATOR.compare(an, bn);
-				} else if (sortField == LibraryListSortField.TYPE) {
-					// sort by type, then name
-					LibraryListType at = LibraryListType.from(a);
-					LibraryListType bt = LibraryListType.from(b);
-					value = at.getOrder() - bt.getOrder();
-					if (value == 0) {
-						value = COLLATOR.compare(an, bn);
-					}
-				} else if (sortField == LibraryListSortField.CREATED_ON) {
-					// sort by created
-					Instant at = a.getCreatedDate();
-					Instant bt = b.getCreatedDate();
-					value = at.compareTo(bt);
-				} else if (sortField == LibraryListSortField.MODIFIED_ON) {
-					// sort by created
-					Instant at = a.getModifiedDate();
-					Instant bt = b.getModifiedDate();
-					value = at.compareTo(bt);
-				} else {
-					throw new RuntimeException("The sort field '" + sortField + "' is not supported.");
-				}
-				
-				return value * (sortAscending ? 1 : -1);
-			});
+			index.sort(sortField, sortAscending);
 		};
 		
 		this.textFilter.addListener((obs, ov, nv) -> filterListener.run());
@@ -253,8 +189,6 @@ public final class LibraryList extends BorderPane implements ActionPane {
 		filterListener.run();
 		sortListner.run();
 		
-		Bindings.bindContent(this.view.getItems(), sorted);
-		
 //		sorted.addListener((Change<? extends Persistable> c) -> {
 //			while (c.next()) {
 //				
@@ -783,7 +717,7 @@ public final class LibraryList extends BorderPane implements ActionPane {
 					} catch (Exception ex) {
 						throw new CompletionException(ex);
 					}
-	    		}).thenRun(() -> {
+	    		}, this.context.getExecutors().getIOExecutor()).thenRun(() -> {
 	    			task.setProgress(1.0);
 	    		}).exceptionally(t -> {
 	    			// get the root exception
@@ -30,60 +30,92 @@ final class LibraryListCell extends FlowListCell<Persistable> {
 	private static final String LIBRARY_LIST_CELL_SLIDE_CSS = "p-library-list-cell-slide";
 	private static final String LIBRARY_LIST_CELL_LABEL_CSS = "p-library-list-cell-label";
 	
+	private final ImageView thumb;
+	private final VBox underlay;
+	private final Label label;
+	
 	public LibraryListCell(Persistable data) {
 		super(data);
 		
 		this.getStyleClass().add(LIBRARY_LIST_CELL_CSS);
 		
     	// setup the thumbnail image
-    	final ImageView thumb = new ImageView();
-    	final VBox underlay = new VBox(thumb);
-    	final VBox graphic = new VBox(underlay);
-    	final Label label = new Label();
+    	this.thumb = new ImageView();
+    	this.underlay = new VBox(this.thumb);
+    	final VBox graphic = new VBox(this.underlay);
+    	this.label = new Label();
     	
-    	thumb.getStyleClass().add(LIBRARY_LIST_CELL_THUMBNAIL_CSS);
+    	this.thumb.getStyleClass().add(LIBRARY_LIST_CELL_THUMBNAIL_CSS);
     	graphic.getStyleClass().add(LIBRARY_LIST_CELL_GRAPHIC_CSS);
-    	label.getStyleClass().add(LIBRARY_LIST_CELL_LABEL_CSS);
+    	this.label.getStyleClass().add(LIBRARY_LIST_CELL_LABEL_CSS);
+    	
+    	this.thumb.setPreserveRatio(true);
+    	this.underlay.maxWidthProperty().bind(this.thumb.fitWidthProperty());
+    	this.underlay.maxHeightProperty().bind(this.thumb.fitHeightProperty());
     	
-    	thumb.setPreserveRatio(true);
-    	underlay.maxWidthProperty().bind(thumb.fitWidthProperty());
-    	underlay.maxHeightProperty().bind(thumb.fitHeightProperty());
+    	// the cell is reused for other items as the list is scrolled
+    	this.dataProperty().addListener((obs, ov, nv) -> this.update(nv));
+    	this.update(data);
     	
+    	// add the image and label to the cell
+    	this.getChildren().addAll(graphic, this.label);
+	}
+	
+	/**
+	 * Updates this cell to show the given item.
+	 * <p>
+	 * Thumbnails are loaded in the background so that scrolling isn't held up.
+	 * @param data the item; null if the cell isn't in use
+	 */
+	private void update(Persistable data) {
+		this.thumb.imageProperty().unbind();
+		this.thumb.setImage(null);
+		this.label.textProperty().unbind();
+		this.label.setText(null);
+		this.underlay.getStyleClass().removeAll(
+				LIBRARY_LIST_CELL_IMAGE_CSS,
+				LIBRARY_LIST_CELL_AUDIO_CSS,
+				LIBRARY_LIST_CELL_VIDEO_CSS,
+				LIBRARY_LIST_CELL_BIBLE_CSS,
+				LIBRARY_LIST_CELL_SONG_CSS,
+				LIBRARY_LIST_CELL_SLIDE_CSS);
+		
+		if (data == null) {
+			return;
+		}
+		
     	if (data instanceof ReadOnlyMedia) {
     		final ReadOnlyMedia media = (ReadOnlyMedia)data;
-    		thumb.imageProperty().bind(Bindings.createObjectBinding(() -> {
-    			return new Image(media.getMediaThumbnailPath().toUri().toURL().toExternalForm());
+    		this.thumb.imageProperty().bind(Bindings.createObjectBinding(() -> {
+    			return new Image(media.getMediaThumbnailPath().toUri().toURL().toExternalForm(), true);
     		}, media.mediaThumbnailPathProperty()));
     		
     		if (media.getMediaType() != MediaType.VIDEO) {
-    			underlay.getStyleClass().add(LIBRARY_LIST_CELL_VIDEO_CSS);
+    			this.underlay.getStyleClass().add(LIBRARY_LIST_CELL_VIDEO_CSS);
     		} else if (media.getMediaType() != MediaType.AUDIO) {
-    			underlay.getStyleClass().add(LIBRARY_LIST_CELL_AUDIO_CSS);
+    			this.underlay.getStyleClass().add(LIBRARY_LIST_CELL_AUDIO_CSS);
     		} else if (media.getMediaType() != MediaType.IMAGE) {
-    			underlay.getStyleClass().add(LIBRARY_LIST_CELL_IMAGE_CSS);
+    			this.underlay.getStyleClass().add(LIBRARY_LIST_CELL_IMAGE_CSS);
     		}
-    		label.textProperty().bind(media.nameProperty());
+    		this.label.textProperty().bind(media.nameProperty());
     	} else if (data instanceof ReadOnlySlide) {
     		final ReadOnlySlide slide = (ReadOnlySlide)data;
-    		underlay.getStyleClass().add(LIBRARY_LIST_CELL_SLIDE_CSS);
-    		thumb.imageProperty().bind(Bindings.createObjectBinding(() -> {
-    			return new Image(slide.getThumbnailPath().toUri().toURL().toExternalForm());
+    		this.underlay.getStyleClass().add(LIBRARY_LIST_CELL_SLIDE_CSS);
+    		this.thumb.imageProperty().bind(Bindings.createObjectBinding(() -> {
+    			return new Image(slide.getThumbnailPath().toUri().toURL().toExternalForm(), true);
     		}, slide.thumbnailPathProperty()));
-    		label.textProperty().bind(slide.nameProperty());
+    		this.label.textProperty().bind(slide.nameProperty());
     	} else if (data instanceof ReadOnlyBible) {
     		final ReadOnlyBible bible = (ReadOnlyBible)data;
-    		underlay.getStyleClass().add(LIBRARY_LIST_CELL_BIBLE_CSS);
-    		label.textProperty().bind(bible.nameProperty());
+    		this.underlay.getStyleClass().add(LIBRARY_LIST_CELL_BIBLE_CSS);
+    		this.label.textProperty().bind(bible.nameProperty());
     	} else if (data instanceof ReadOnlySong) {
     		final ReadOnlySong song = (ReadOnlySong)data;
-    		underlay.getStyleClass().add(LIBRARY_LIST_CELL_SONG_CSS);
-    		label.textProperty().bind(song.nameProperty());
+    		this.underlay.getStyleClass().add(LIBRARY_LIST_CELL_SONG_CSS);
+    		this.label.textProperty().bind(song.nameProperty());
     	} else {
     		LOGGER.warn("Unknown data type: '" + data.getClass() + "'.");
     	}
-    	
-    	// add the image and label to the cell
-    	this.getChildren().addAll(graphic, label);
 	}
 	
 }
@@ -0,0 +1,367 @@
+package org.praisenter.ui.library;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.praisenter.data.Persistable;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.util.Duration;
+
+/**
+ * Filters and sorts the items of a {@link LibraryList}.
+ * <p>
+ * The lower case name and collation key of each item are computed once and kept until
+ * the item is renamed or removed. Filtering by text is delayed until typing pauses and,
+ * when the new search text contains the previous search text, only the items that matched
+ * before are checked. Filtering and sorting are done on a background thread and the result
+ * replaces the target list in one change.
+ * <p>
+ * The public methods of this class must be called from the Java FX UI thread.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+final class LibraryListIndex {
+	/** The class-level logger */
+	private static final Logger LOGGER = LogManager.getLogger();
+
+	/** How long to wait after the last change to the search text before filtering */
+	private static final Duration FILTER_DELAY = Duration.millis(150);
+
+	/** The collator for sorting by name; collators aren't thread safe so each thread gets its own */
+	private static final ThreadLocal<Collator> COLLATOR = ThreadLocal.withInitial(Collator::getInstance);
+
+	/** The executor to filter and sort on */
+	private final Executor executor;
+
+	/** The executor to update the target on; the Java FX UI thread */
+	private final Executor uiExecutor;
+
+	/** The items */
+	private final ObservableList<Persistable> source;
+
+	/** The filtered and sorted items */
+	private final ObservableList<Persistable> target;
+
+	/** The delay for the text filter */
+	private final PauseTransition filterDelay;
+
+	/** The keys for each item by id */
+	private Map<UUID, SortKey> keys;
+
+	/** A snapshot of the items; null if the items have changed since */
+	private List<Entry> entries;
+
+	/** True if a refresh has been scheduled for changes to the items */
+	private boolean refreshScheduled;
+
+	/** The id of the latest refresh */
+	private long generation;
+
+	// requested
+
+	private String term;
+	private LibraryListType type;
+	private LibraryListSortField sortField;
+	private boolean ascending;
+
+	// applied (the state the result was created with)
+
+	private List<Entry> result;
+	private String resultTerm;
+	private LibraryListType resultType;
+	private LibraryListSortField resultSortField;
+	private boolean resultAscending;
+
+	/**
+	 * Minimal constructor.
+	 * @param source the items
+	 * @param target the list to set to the filtered and sorted items
+	 * @param executor the executor to filter and sort on
+	 */
+	public LibraryListIndex(ObservableList<Persistable> source, ObservableList<Persistable> target, Executor executor) {
+		this(source, target, executor, Platform::runLater);
+	}
+
+	/**
+	 * Full constructor.
+	 * @param source the items
+	 * @param target the list to set to the filtered and sorted items
+	 * @param executor the executor to filter and sort on
+	 * @param uiExecutor the executor to update the target on
+	 */
+	LibraryListIndex(ObservableList<Persistable> source, ObservableList<Persistable> target, Executor executor, Executor uiExecutor) {
+		this.executor = executor;
+		this.uiExecutor = uiExecutor;
+		this.source = source;
+		this.target = target;
+		this.keys = new HashMap<>();
+		this.sortField = LibraryListSortField.NAME;
+		this.ascending = true;
+
+		this.filterDelay = new PauseTransition(FILTER_DELAY);
+		this.filterDelay.setOnFinished(e -> this.refresh());
+
+		this.source.addListener((ListChangeListener.Change<? extends Persistable> c) -> {
+			this.entries = null;
+			// the source can change many times in a row when it's bound
+			// so only refresh once they're all done
+			if (!this.refreshScheduled) {
+				this.refreshScheduled = true;
+				this.uiExecutor.execute(() -> {
+					this.refreshScheduled = false;
+					this.refresh();
+				});
+			}
+		});
+
+		this.refresh();
+	}
+
+	/**
+	 * Sets the filter after typing pauses.
+	 * @param search the search text; can be null
+	 * @param type the item type; null for all types
+	 */
+	public void filter(String search, LibraryListType type) {
+		this.setFilter(search, type);
+		this.filterDelay.playFromStart();
+	}
+
+	/**
+	 * Sets the filter without waiting for typing to pause.
+	 * @param search the search text; can be null
+	 * @param type the item type; null for all types
+	 */
+	public void filterNow(String search, LibraryListType type) {
+		this.setFilter(search, type);
+		this.filterDelay.stop();
+		this.refresh();
+	}
+
+	/**
+	 * Sets the requested filter.
+	 * @param search the search text; can be null
+	 * @param type the item type; null for all types
+	 */
+	private void setFilter(String search, LibraryListType type) {
+		String term = search != null ? search.trim().toLowerCase() : "";
+		this.term = term.isEmpty() ? null : term;
+		this.type = type;
+	}
+
+	/**
+	 * Sets the sort.
+	 * @param sortField the field to sort by; null to sort by name
+	 * @param ascending true to sort in ascending order
+	 */
+	public void sort(LibraryListSortField sortField, boolean ascending) {
+		this.sortField = sortField != null ? sortField : LibraryListSortField.NAME;
+		this.ascending = ascending;
+		this.refresh();
+	}
+
+	/**
+	 * Filters and sorts the items in the background if anything has changed and
+	 * updates the target with the result.
+	 */
+	private void refresh() {
+		final long generation = ++this.generation;
+
+		final String term = this.term;
+		final LibraryListType type = this.type;
+		final LibraryListSortField sortField = this.sortField;
+		final boolean ascending = this.ascending;
+
+		boolean sourceChanged = this.entries == null;
+		if (sourceChanged) {
+			this.entries = this.snapshot();
+		}
+
+		// if the search has only been extended then only the items that
+		// matched before need to be checked and they're already sorted
+		final boolean narrow = !sourceChanged &&
+				this.result != null &&
+				type == this.resultType &&
+				isNarrowing(this.resultTerm, term);
+		final boolean refilter = !narrow || !Objects.equals(term, this.resultTerm);
+		final boolean resort = !narrow || sortField != this.resultSortField || ascending != this.resultAscending;
+		if (!refilter && !resort) {
+			return;
+		}
+
+		final List<Entry> base = narrow ? this.result : this.entries;
+		CompletableFuture.supplyAsync(() -> {
+			List<Entry> items = refilter ? filter(base, term, type) : new ArrayList<>(base);
+			if (resort) {
+				items.sort(getComparator(sortField, ascending));
+			}
+			return items;
+		}, this.executor).thenAcceptAsync(items -> {
+			// ignore old results
+			if (generation != this.generation) {
+				return;
+			}
+
+			this.result = items;
+			this.resultTerm = term;
+			this.resultType = type;
+			this.resultSortField = sortField;
+			this.resultAscending = ascending;
+
+			List<Persistable> sorted = new ArrayList<>(items.size());
+			for (Entry entry : items) {
+				sorted.add(entry.item);
+			}
+			this.target.setAll(sorted);
+		}, this.uiExecutor).exceptionally(t -> {
+			LOGGER.error("Failed to filter and sort the library items: " + t.getMessage(), t);
+			return null;
+		});
+	}
+
+	/**
+	 * Creates a snapshot of the items and their keys so that they can be filtered and
+	 * sorted on another thread.
+	 * <p>
+	 * The keys of renamed items are recomputed and the keys of removed items are dropped.
+	 * @return List&lt;{@link Entry}&gt;
+	 */
+	private List<Entry> snapshot() {
+		Map<UUID, SortKey> keys = new HashMap<>(this.source.size() * 2);
+		List<Entry> entries = new ArrayList<>(this.source.size());
+		for (Persistable item : this.source) {
+			if (item == null) continue;
+			String name = item.getName();
+			if (name == null) name = "";
+
+			SortKey key = this.keys.get(item.getId());
+			if (key == null || !key.name.equals(name)) {
+				key = new SortKey(name);
+			}
+			keys.put(item.getId(), key);
+
+			entries.add(new Entry(item, key, LibraryListType.from(item), item.getCreatedDate(), item.getModifiedDate()));
+		}
+		this.keys = keys;
+		return entries;
+	}
+
+	/**
+	 * Returns true if everything that matches the given term also matched the
+	 * given previous term.
+	 * @param previous the previous term
+	 * @param term the new term
+	 * @return boolean
+	 */
+	private static boolean isNarrowing(String previous, String term) {
+		if (previous == null) return true;
+		if (term == null) return false;
+		return term.contains(previous);
+	}
+
+	/**
+	 * Returns the given entries that match the given filter.
+	 * @param entries the entries
+	 * @param term the lower case search text; null for no text filter
+	 * @param type the type; null for all types
+	 * @return List&lt;{@link Entry}&gt;
+	 */
+	private static List<Entry> filter(List<Entry> entries, String term, LibraryListType type) {
+		List<Entry> items = new ArrayList<>();
+		for (Entry entry : entries) {
+			if (type != null && entry.type != type) {
+				continue;
+			}
+			// single name search (more complex searching will be handled elsewhere)
+			if (term != null && !entry.key.lowerName.contains(term)) {
+				continue;
+			}
+			items.add(entry);
+		}
+		return items;
+	}
+
+	/**
+	 * Returns a comparator for the given sort.
+	 * @param sortField the field to sort by
+	 * @param ascending true to sort in ascending order
+	 * @return Comparator&lt;{@link Entry}&gt;
+	 */
+	private static Comparator<Entry> getComparator(LibraryListSortField sortField, boolean ascending) {
+		Comparator<Entry> byName = (a, b) -> a.key.getCollationKey().compareTo(b.key.getCollationKey());
+
+		Comparator<Entry> comparator;
+		if (sortField == LibraryListSortField.NAME) {
+			comparator = byName;
+		} else if (sortField == LibraryListSortField.TYPE) {
+			// sort by type, then name
+			comparator = Comparator.<Entry>comparingInt(e -> e.type.getOrder()).thenComparing(byName);
+		} else if (sortField == LibraryListSortField.CREATED_ON) {
+			comparator = Comparator.comparing(e -> e.created, Comparator.nullsLast(Comparator.naturalOrder()));
+		} else if (sortField == LibraryListSortField.MODIFIED_ON) {
+			comparator = Comparator.comparing(e -> e.modified, Comparator.nullsLast(Comparator.naturalOrder()));
+		} else {
+			throw new RuntimeException("The sort field '" + sortField + "' is not supported.");
+		}
+
+		return ascending ? comparator : comparator.reversed();
+	}
+
+	/**
+	 * The precomputed values for an item's name.
+	 */
+	private static final class SortKey {
+		private final String name;
+		private final String lowerName;
+
+		/** Computed on first use on the executor */
+		private volatile CollationKey collationKey;
+
+		public SortKey(String name) {
+			this.name = name;
+			this.lowerName = name.toLowerCase();
+		}
+
+		public CollationKey getCollationKey() {
+			if (this.collationKey == null) {
+				this.collationKey = COLLATOR.get().getCollationKey(this.name);
+			}
+			return this.collationKey;
+		}
+	}
+
+	/**
+	 * An item and the values it's filtered and sorted by.
+	 */
+	private static final class Entry {
+		private final Persistable item;
+		private final SortKey key;
+		private final LibraryListType type;
+		private final Instant created;
+		private final Instant modified;
+
+		public Entry(Persistable item, SortKey key, LibraryListType type, Instant created, Instant modified) {
+			this.item = item;
+			this.key = key;
+			this.type = type;
+			this.created = created;
+			this.modified = modified;
+		}
+	}
+}
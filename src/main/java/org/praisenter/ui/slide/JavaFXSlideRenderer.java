@@ -107,6 +107,10 @@ public final class JavaFXSlideRenderer implements SlideRenderer {
 			} 
 		}
 		
+		// measure the text here so that the Java FX thread only has to
+		// lay out the slide (the fitting fonts are cached)
+		SlideTextMeasurer.measure(slide);
+		
 		// if we are not on the Java FX thread, we need to execute the generation
 		// code on it and then wait for it to complete
 		final Reference<Image> imageRef = new Reference<Image>();
@@ -12,6 +12,8 @@ final class MediaComponentNode extends SlideComponentNode<MediaComponent> {
 		this.media = new PaintPane(context);
 		
 		this.media.slideModeProperty().bind(this.mode);
+		this.media.mediaPlayerPoolProperty().bind(this.mediaPlayerPool);
+		this.media.renderScaleProperty().bind(this.renderScale);
 		this.media.slidePaintProperty().bind(this.region.mediaProperty());
 		this.media.slideBorderProperty().bind(this.region.borderProperty());
 		this.media.slideWidthProperty().bind(this.region.widthProperty());
@@ -0,0 +1,250 @@
+package org.praisenter.ui.slide;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.praisenter.data.media.Media;
+import org.praisenter.data.media.MediaType;
+import org.praisenter.ui.slide.convert.MediaConverter;
+
+import javafx.scene.media.MediaPlayer;
+
+/**
+ * A bounded pool of Java FX media players keyed by media id.
+ * <p>
+ * Players can be pre-rolled ahead of time so that they have buffered by the time
+ * a slide using the media is shown. When a slide is shown, it acquires the pre-rolled
+ * player (if present) instead of creating a new one. When the slide is disposed it
+ * releases the player back to the pool so that it can be reused.
+ * <p>
+ * The pool only keeps idle players. Once the pool exceeds its maximum size the least
+ * recently used player is disposed. The memory used by each idle player is estimated
+ * and pre-rolling is limited to a memory budget (shared with anything else that's
+ * prefetched), evicting the least recently used players to make room.
+ * <p>
+ * This class is not thread safe and should only be used on the Java FX UI thread.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public final class MediaPlayerPool {
+	private static final Logger LOGGER = LogManager.getLogger();
+
+	/** The estimated size in bytes of the buffered (encoded) media of a player */
+	private static final long BUFFER_SIZE = 2 * 1024 * 1024;
+
+	/** The estimated number of decoded frames a video player holds */
+	private static final int BUFFERED_FRAMES = 4;
+
+	/** The maximum number of idle players to keep */
+	private final int maximumSize;
+
+	/** The idle players in least recently used order */
+	private final Map<UUID, MediaPlayer> players;
+
+	/** The estimated size in bytes of each idle player */
+	private final Map<UUID, Long> sizes;
+
+	/** The estimated size in bytes of all the idle players */
+	private long size;
+
+	/** Creates the pre-rolled players */
+	private final Function<Media, MediaPlayer> factory;
+
+	/**
+	 * Minimal constructor.
+	 * @param maximumSize the maximum number of idle players to keep
+	 */
+	public MediaPlayerPool(int maximumSize) {
+		this(maximumSize, (media) -> MediaConverter.toJavaFXMediaPlayer(media, false, true));
+	}
+
+	/**
+	 * Full constructor.
+	 * @param maximumSize the maximum number of idle players to keep
+	 * @param factory creates a muted, non-looping player for pre-rolling the given media
+	 */
+	MediaPlayerPool(int maximumSize, Function<Media, MediaPlayer> factory) {
+		this.maximumSize = maximumSize;
+		this.factory = factory;
+		this.players = new LinkedHashMap<>(16, 0.75f, true);
+		this.sizes = new HashMap<>();
+		this.size = 0;
+	}
+
+	/**
+	 * Creates a player for the given media (if one isn't already pooled) so that it
+	 * begins buffering before it's needed.
+	 * <p>
+	 * The least recently used idle players are disposed so that the estimated size of
+	 * the idle players stays within the given budget. Nothing is pre-rolled if the
+	 * player alone wouldn't fit (or the budget is zero).
+	 * @param media the media
+	 * @param budget the memory budget in bytes
+	 */
+	public void preroll(Media media, long budget) {
+		if (media == null) return;
+
+		MediaType type = media.getMediaType();
+		if (type != MediaType.AUDIO && type != MediaType.VIDEO) return;
+
+		UUID id = media.getId();
+		MediaPlayer player = this.players.get(id);
+		if (player != null && this.isUsable(player)) {
+			return;
+		}
+
+		long size = type == MediaType.VIDEO
+				? estimateSize(media.getWidth(), media.getHeight())
+				: estimateSize(0, 0);
+		if (size > budget) {
+			LOGGER.debug("Skipped pre-rolling media player for '{}': it doesn't fit in the budget", media.getName());
+			return;
+		}
+
+		// make room for the new player (the unusable one is replaced)
+		if (player != null) {
+			this.remove(id).dispose();
+		}
+		Iterator<UUID> it = this.players.keySet().iterator();
+		while (this.size + size > budget && it.hasNext()) {
+			UUID eldest = it.next();
+			this.players.get(eldest).dispose();
+			this.size -= this.sizes.remove(eldest);
+			it.remove();
+		}
+
+		LOGGER.debug("Pre-rolling media player for '{}'", media.getName());
+		player = this.factory.apply(media);
+		if (player != null) {
+			this.put(id, player, size);
+		}
+	}
+
+	/**
+	 * Returns a player for the given media, using a pooled one if available.
+	 * @param media the media
+	 * @param loop true if the media should loop
+	 * @param mute true if the media should be muted
+	 * @return MediaPlayer
+	 */
+	public MediaPlayer acquire(Media media, boolean loop, boolean mute) {
+		if (media == null) return null;
+
+		MediaPlayer player = this.remove(media.getId());
+		if (player != null) {
+			if (this.isUsable(player)) {
+				LOGGER.debug("Using pre-rolled media player for '{}'", media.getName());
+				player.setMute(mute);
+				player.setCycleCount(loop ? MediaPlayer.INDEFINITE : 0);
+				return player;
+			}
+			player.dispose();
+		}
+
+		return MediaConverter.toJavaFXMediaPlayer(media, loop, mute);
+	}
+
+	/**
+	 * Returns the given player to the pool, or disposes it if it can't be reused.
+	 * @param mediaId the id of the media the player is playing
+	 * @param player the player
+	 */
+	public void release(UUID mediaId, MediaPlayer player) {
+		if (player == null) return;
+
+		if (mediaId == null || !this.isUsable(player) || this.players.containsKey(mediaId)) {
+			player.dispose();
+			return;
+		}
+
+		player.stop();
+		javafx.scene.media.Media media = player.getMedia();
+		this.put(mediaId, player, estimateSize(media.getWidth(), media.getHeight()));
+	}
+
+	/**
+	 * Disposes all pooled players.
+	 */
+	public void clear() {
+		for (MediaPlayer player : this.players.values()) {
+			player.dispose();
+		}
+		this.players.clear();
+		this.sizes.clear();
+		this.size = 0;
+	}
+
+	/**
+	 * Returns the estimated size in bytes of the idle players.
+	 * @return long
+	 */
+	public long getEstimatedSize() {
+		return this.size;
+	}
+
+	/**
+	 * Adds the given player to the pool, evicting the least recently used as needed.
+	 * @param id the media id
+	 * @param player the player
+	 * @param size the estimated size of the player in bytes
+	 */
+	private void put(UUID id, MediaPlayer player, long size) {
+		MediaPlayer old = this.remove(id);
+		if (old != null && old != player) {
+			old.dispose();
+		}
+		this.players.put(id, player);
+		this.sizes.put(id, size);
+		this.size += size;
+
+		Iterator<UUID> it = this.players.keySet().iterator();
+		while (this.players.size() > this.maximumSize && it.hasNext()) {
+			UUID eldest = it.next();
+			this.players.get(eldest).dispose();
+			this.size -= this.sizes.remove(eldest);
+			it.remove();
+		}
+	}
+
+	/**
+	 * Removes the player for the given media from the pool without disposing it.
+	 * @param id the media id
+	 * @return MediaPlayer the player or null if there wasn't one
+	 */
+	private MediaPlayer remove(UUID id) {
+		MediaPlayer player = this.players.remove(id);
+		Long size = this.sizes.remove(id);
+		if (size != null) {
+			this.size -= size;
+		}
+		return player;
+	}
+
+	/**
+	 * Returns the approximate number of bytes used by an idle player for media of
+	 * the given size (zero for audio), assuming 32bpp frames.
+	 * @param width the width of the video
+	 * @param height the height of the video
+	 * @return long
+	 */
+	private static long estimateSize(int width, int height) {
+		return BUFFER_SIZE + (long)width * (long)height * 4 * BUFFERED_FRAMES;
+	}
+
+	/**
+	 * Returns true if the given player can still be used.
+	 * @param player the player
+	 * @return boolean
+	 */
+	private boolean isUsable(MediaPlayer player) {
+		MediaPlayer.Status status = player.getStatus();
+		return status != MediaPlayer.Status.HALTED &&
+			   status != MediaPlayer.Status.DISPOSED;
+	}
+}
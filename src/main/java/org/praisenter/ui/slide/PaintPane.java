@@ -2,6 +2,7 @@ package org.praisenter.ui.slide;
 
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -22,10 +23,13 @@ import org.praisenter.ui.slide.convert.EffectConverter;
 import org.praisenter.ui.slide.convert.MediaConverter;
 import org.praisenter.ui.slide.convert.PaintConverter;
 
+import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.scene.effect.Effect;
 import javafx.scene.image.Image;
@@ -34,6 +38,7 @@ import javafx.scene.layout.BackgroundFill;
 import javafx.scene.layout.BackgroundImage;
 import javafx.scene.layout.BackgroundPosition;
 import javafx.scene.layout.BackgroundRepeat;
+import javafx.scene.layout.BackgroundSize;
 import javafx.scene.layout.CornerRadii;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
@@ -51,6 +56,11 @@ final class PaintPane extends StackPane implements Playable {
 	private final ObjectProperty<SlideStroke> slideBorder;
 	private final DoubleProperty slideWidth;
 	private final DoubleProperty slideHeight;
+	private final ObjectProperty<MediaPlayerPool> mediaPlayerPool;
+	private final DoubleProperty renderScale;
+	
+	/** Incremented when a scaled image has finished loading */
+	private final IntegerProperty scaledImageVersion;
 	
 	private final ObjectProperty<MediaObject> mediaObject;
 	private final ObjectProperty<Media> media;
@@ -61,6 +71,7 @@ final class PaintPane extends StackPane implements Playable {
 	
 	private final Region backgroundView;
 	private final MediaView mediaView;
+	private UUID mediaPlayerMediaId;
 	
 	protected PaintPane(GlobalContext context) {
 		this.context = context;
@@ -69,6 +80,9 @@ final class PaintPane extends StackPane implements Playable {
 		this.slideBorder = new SimpleObjectProperty<SlideStroke>();
 		this.slideWidth = new SimpleDoubleProperty();
 		this.slideHeight = new SimpleDoubleProperty();
+		this.mediaPlayerPool = new SimpleObjectProperty<MediaPlayerPool>();
+		this.renderScale = new SimpleDoubleProperty(1.0);
+		this.scaledImageVersion = new SimpleIntegerProperty();
 
 		this.mediaObject = new SimpleObjectProperty<>();
 		this.media = new SimpleObjectProperty<>();
@@ -144,13 +158,13 @@ final class PaintPane extends StackPane implements Playable {
 				
 				MediaType type = m1.getMediaType();
 				if (type == MediaType.IMAGE || type == MediaType.AUDIO || this.isImageOnlyMode(mode)) {
-					return this.createBackground(m1, mo1.getScaleType());
+					return this.createBackground(m1, mo1.getScaleType(), mode);
 				}
 			} else {
 				LOGGER.warn("Unsupported paint type '" + paint.getClass().getName() + "'.");
 			}
 			return null;
-		}, this.slidePaint, this.slideMode, this.slideBorder));
+		}, this.slidePaint, this.slideMode, this.slideBorder, this.slideWidth, this.slideHeight, this.renderScale, this.scaledImageVersion));
 		
 		this.backgroundView.clipProperty().bind(Bindings.createObjectBinding(() -> {
 			SlidePaint paint = this.slidePaint.get();
@@ -319,8 +333,8 @@ final class PaintPane extends StackPane implements Playable {
 		// clean up if media changed or the slide mode changed
 		MediaPlayer player = this.mediaView.getMediaPlayer();
 		if (mediaChanged && player != null) {
-			player.dispose();
 			this.mediaView.setMediaPlayer(null);
+			this.releaseMediaPlayer(player);
 			player = null;
 		}
 		
@@ -338,7 +352,15 @@ final class PaintPane extends StackPane implements Playable {
 		if ((type == MediaType.AUDIO || type == MediaType.VIDEO) && !this.isImageOnlyMode(mode)) {
 			// create a new media player if needed
 			if (player == null) {
-				player = MediaConverter.toJavaFXMediaPlayer(media, nv.isLoopEnabled(), mode == SlideMode.PREVIEW || nv.isMuted());
+				boolean mute = mode == SlideMode.PREVIEW || nv.isMuted();
+				MediaPlayerPool pool = this.mediaPlayerPool.get();
+				if (pool != null) {
+					// use a pre-rolled player if one is available
+					player = pool.acquire(media, nv.isLoopEnabled(), mute);
+				} else {
+					player = MediaConverter.toJavaFXMediaPlayer(media, nv.isLoopEnabled(), mute);
+				}
+				this.mediaPlayerMediaId = media.getId();
 				this.mediaView.setMediaPlayer(player);
 			} else {
 				player.setMute(mode == SlideMode.PREVIEW || nv.isMuted());
@@ -347,9 +369,28 @@ final class PaintPane extends StackPane implements Playable {
 		}
 	}
 	
-	private final Background createBackground(Media media, ScaleType scale) {
+	private void releaseMediaPlayer(MediaPlayer player) {
+		MediaPlayerPool pool = this.mediaPlayerPool.get();
+		if (pool != null) {
+			pool.release(this.mediaPlayerMediaId, player);
+		} else {
+			player.dispose();
+		}
+		this.mediaPlayerMediaId = null;
+	}
+	
+	private final Background createBackground(Media media, ScaleType scale, SlideMode mode) {
 		Image image = this.context.getImageCache().getOrLoadImage(media.getId(), media.getMediaImagePath());
 		if (image != null) {
+			// when presenting (or previewing a presentation) use an image that's already
+			// scaled to the exact size it will be drawn so that it's not rescaled every frame
+			if (mode == SlideMode.PRESENT || mode == SlideMode.PREVIEW) {
+				Background background = this.createScaledBackground(media, image, scale);
+				if (background != null) {
+					return background;
+				}
+			}
+			
 			return new Background(new BackgroundImage(
 					image,
 					BackgroundRepeat.NO_REPEAT, 
@@ -360,6 +401,60 @@ final class PaintPane extends StackPane implements Playable {
 		return null;
 	}
 	
+	private final Background createScaledBackground(Media media, Image image, ScaleType scale) {
+		double w = this.slideWidth.get();
+		double h = this.slideHeight.get();
+		double s = this.renderScale.get();
+		double iw = image.getWidth();
+		double ih = image.getHeight();
+		if (scale == null || scale == ScaleType.NONE || w <= 0 || h <= 0 || s <= 0 || iw <= 0 || ih <= 0) {
+			return null;
+		}
+		
+		// the size in pixels the image will be drawn
+		double pw = w * s;
+		double ph = h * s;
+		if (scale == ScaleType.UNIFORM) {
+			double f = Math.min(pw / iw, ph / ih);
+			pw = iw * f;
+			ph = ih * f;
+		}
+		
+		int tw = (int)Math.round(pw);
+		int th = (int)Math.round(ph);
+		if (tw <= 0 || th <= 0) {
+			return null;
+		}
+		
+		if (tw != (int)iw || th != (int)ih) {
+			CompletableFuture<Image> future = this.context.getImageCache().getOrLoadScaledImage(
+					media.getId(), 
+					media.getMediaImagePath(), 
+					tw, 
+					th, 
+					this.context.getExecutors().getCPUExecutor());
+			Image scaled = future.getNow(null);
+			if (scaled == null) {
+				// use the full size image until it's been scaled
+				if (!future.isDone()) {
+					future.thenRun(() -> Platform.runLater(() -> {
+						this.scaledImageVersion.set(this.scaledImageVersion.get() + 1);
+					}));
+				}
+				return null;
+			}
+			image = scaled;
+		}
+		
+		// size it in local coordinates so that after the render scale it's drawn 1:1
+		return new Background(new BackgroundImage(
+				image,
+				BackgroundRepeat.NO_REPEAT, 
+				BackgroundRepeat.NO_REPEAT, 
+				BackgroundPosition.CENTER, 
+				new BackgroundSize(tw / s, th / s, false, false, false, false)));
+	}
+	
 	@Override
 	public void play() {
 		// media
@@ -393,7 +488,8 @@ final class PaintPane extends StackPane implements Playable {
 		MediaPlayer mp = this.mediaView.getMediaPlayer();
 		if (mp != null) {
 			//mp.stop();
-			mp.dispose();
+			this.mediaView.setMediaPlayer(null);
+			this.releaseMediaPlayer(mp);
 		}
 	}
 	
@@ -456,4 +552,12 @@ final class PaintPane extends StackPane implements Playable {
 	public DoubleProperty slideHeightProperty() {
 		return this.slideHeight;
 	}
+	
+	public ObjectProperty<MediaPlayerPool> mediaPlayerPoolProperty() {
+		return this.mediaPlayerPool;
+	}
+	
+	public DoubleProperty renderScaleProperty() {
+		return this.renderScale;
+	}
 }
@@ -27,10 +27,14 @@ final class SlideNode extends SlideRegionNode<Slide> implements Playable {
 			if (c instanceof TextComponent) {
 				TextComponentNode tcn = new TextComponentNode(context, (TextComponent)c);
 				tcn.modeProperty().bind(this.mode);
+				tcn.mediaPlayerPoolProperty().bind(this.mediaPlayerPool);
+				tcn.renderScaleProperty().bind(this.renderScale);
 				return tcn;
 			} else if (c instanceof MediaComponent) {
 				MediaComponentNode mcn = new MediaComponentNode(context, (MediaComponent)c);
 				mcn.modeProperty().bind(this.mode);
+				mcn.mediaPlayerPoolProperty().bind(this.mediaPlayerPool);
+				mcn.renderScaleProperty().bind(this.renderScale);
 				return mcn;
 			} else {
 				throw new IllegalArgumentException("Unknown type '" + c.getClass().getName() + "' when generating slide UI.");
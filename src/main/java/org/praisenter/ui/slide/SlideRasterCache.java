@@ -0,0 +1,195 @@
+package org.praisenter.ui.slide;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.praisenter.data.media.Media;
+import org.praisenter.data.media.MediaType;
+import org.praisenter.data.slide.Slide;
+import org.praisenter.data.slide.text.TextComponent;
+import org.praisenter.data.slide.text.TimedTextComponent;
+import org.praisenter.ui.GlobalContext;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.Image;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Scale;
+
+/**
+ * A small LRU cache of slides rendered to images at their output resolution.
+ * <p>
+ * Static slides (slides without audio, video or timed components) look the same
+ * every time they are shown, so they can be rendered once and then shown as an
+ * image. This keeps the node graph that's animated during a slide transition to
+ * a single image instead of every component of the slide.
+ * <p>
+ * Slides are rendered using {@link javafx.scene.Node#snapshot(SnapshotParameters, javafx.scene.image.WritableImage)}
+ * so all methods of this class must be called from the Java FX UI thread.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public final class SlideRasterCache {
+	/** The class-level logger */
+	private static final Logger LOGGER = LogManager.getLogger();
+
+	/** The context */
+	private final GlobalContext context;
+
+	/** The rendered slides */
+	private final Map<String, Image> images;
+
+	/**
+	 * Minimal constructor.
+	 * @param context the context
+	 * @param capacity the maximum number of rendered slides to keep
+	 */
+	public SlideRasterCache(GlobalContext context, int capacity) {
+		this.context = context;
+		this.images = new LinkedHashMap<String, Image>(capacity + 1, 0.75f, true) {
+			private static final long serialVersionUID = 2407306131963717271L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Image> eldest) {
+				return this.size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns true if the given slide can be shown as an image.
+	 * <p>
+	 * A slide can be shown as an image if it doesn't have any timed text components
+	 * and all the media it references are images.
+	 * @param slide the slide
+	 * @return boolean
+	 */
+	public boolean isRasterizable(Slide slide) {
+		if (slide == null) return false;
+		if (slide.getWidth() <= 0 || slide.getHeight() <= 0) return false;
+		if (!slide.getComponents(TimedTextComponent.class).isEmpty()) return false;
+
+		for (UUID id : slide.getReferencedMedia()) {
+			Media media = this.context.getWorkspaceManager().getItem(Media.class, id);
+			if (media == null || media.getMediaType() != MediaType.IMAGE) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the image of the given slide at the given scale or null if it hasn't
+	 * been rendered.
+	 * @param slide the slide
+	 * @param scale the scale the slide will be shown at
+	 * @return Image
+	 */
+	public Image get(Slide slide, double scale) {
+		if (slide == null || scale <= 0) return null;
+		return this.images.get(getKey(slide, scale));
+	}
+
+	/**
+	 * Adds an image of the given slide at the given scale that was rendered elsewhere
+	 * (a snapshot of the slide as it was shown for example).
+	 * <p>
+	 * The image is ignored if the slide isn't rasterizable.
+	 * @param slide the slide
+	 * @param scale the scale the image was rendered at
+	 * @param image the image
+	 */
+	public void put(Slide slide, double scale, Image image) {
+		if (image == null || scale <= 0 || !this.isRasterizable(slide)) return;
+		this.images.put(getKey(slide, scale), image);
+	}
+
+	/**
+	 * Returns the image of the given slide at the given scale, rendering it if it
+	 * isn't in the cache already.
+	 * <p>
+	 * Returns null if the slide isn't rasterizable or couldn't be rendered.
+	 * @param slide the slide
+	 * @param scale the scale the slide will be shown at
+	 * @return Image
+	 */
+	public Image getOrRender(Slide slide, double scale) {
+		if (scale <= 0 || !this.isRasterizable(slide)) return null;
+
+		String key = getKey(slide, scale);
+		Image image = this.images.get(key);
+		if (image != null) {
+			return image;
+		}
+
+		try {
+			image = this.render(slide, scale);
+			this.images.put(key, image);
+			return image;
+		} catch (Exception ex) {
+			LOGGER.warn("Failed to render slide '" + slide.getName() + "' to an image", ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Removes all rendered slides.
+	 */
+	public void clear() {
+		this.images.clear();
+	}
+
+	/**
+	 * Renders the given slide at the given scale.
+	 * @param slide the slide
+	 * @param scale the scale
+	 * @return Image
+	 */
+	private Image render(Slide slide, double scale) {
+		SlideNode node = new SlideNode(this.context, slide);
+		node.setRenderScale(scale);
+		node.setMode(SlideMode.PRESENT);
+
+		try {
+			SnapshotParameters sp = new SnapshotParameters();
+			sp.setFill(Color.TRANSPARENT);
+			sp.setTransform(new Scale(scale, scale));
+			// make sure we only render the slide width/height since components can spill
+			// over the width, but won't be shown when displayed
+			sp.setViewport(new Rectangle2D(0, 0, Math.ceil(slide.getWidth() * scale), Math.ceil(slide.getHeight() * scale)));
+
+			LOGGER.debug("Rendering slide '{}' to an image at scale {}", slide.getName(), scale);
+			return new Pane(node).snapshot(sp, null);
+		} finally {
+			node.dispose();
+		}
+	}
+
+	/**
+	 * Returns the cache key for the given slide and scale.
+	 * <p>
+	 * The slide's modified date identifies the saved version of the slide. The text
+	 * of each text component is included so that each set of placeholder data gets
+	 * its own image.
+	 * @param slide the slide
+	 * @param scale the scale
+	 * @return String
+	 */
+	private static String getKey(Slide slide, double scale) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(slide.getId())
+		  .append('|').append(slide.getModifiedDate())
+		  .append('|').append(slide.getWidth())
+		  .append('x').append(slide.getHeight())
+		  .append('@').append(scale);
+		for (TextComponent tc : slide.getComponents(TextComponent.class)) {
+			sb.append('|').append(tc.getFont().getSize())
+			  .append(':').append(tc.getText());
+		}
+		return sb.toString();
+	}
+}
@@ -7,7 +7,9 @@ import org.praisenter.ui.Playable;
 import org.praisenter.ui.slide.convert.BorderConverter;
 
 import javafx.beans.binding.Bindings;
+import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.scene.layout.Border;
 import javafx.scene.layout.Region;
@@ -29,6 +31,8 @@ abstract class SlideRegionNode<T extends SlideRegion> extends StackPane implemen
 	protected final GlobalContext context;
 	protected final T region;
 	protected final ObjectProperty<SlideMode> mode;
+	protected final ObjectProperty<MediaPlayerPool> mediaPlayerPool;
+	protected final DoubleProperty renderScale;
 	
 	// scaling/clipping is performed at the parent node to the slide
 	// this					X, Y, Width, Height, Animation (TranslateX, TranslateY, ScaleX, ScaleY, Fade, Rotate, etc.)
@@ -63,6 +67,8 @@ abstract class SlideRegionNode<T extends SlideRegion> extends StackPane implemen
 		this.context = context;
 		this.region = region;
 		this.mode = new SimpleObjectProperty<>(SlideMode.VIEW);
+		this.mediaPlayerPool = new SimpleObjectProperty<>();
+		this.renderScale = new SimpleDoubleProperty(1.0);
 		
 		this.container = new StackPane();
 		this.background = new PaintPane(context);
@@ -105,6 +111,8 @@ abstract class SlideRegionNode<T extends SlideRegion> extends StackPane implemen
 		this.container.opacityProperty().bind(this.region.opacityProperty());
 		
 		this.background.slideModeProperty().bind(this.mode);
+		this.background.mediaPlayerPoolProperty().bind(this.mediaPlayerPool);
+		this.background.renderScaleProperty().bind(this.renderScale);
 		this.background.slidePaintProperty().bind(this.region.backgroundProperty());
 		this.background.slideBorderProperty().bind(this.region.borderProperty());
 		this.background.slideWidthProperty().bind(this.region.widthProperty());
@@ -174,4 +182,28 @@ abstract class SlideRegionNode<T extends SlideRegion> extends StackPane implemen
 	public void setMode(SlideMode mode) {
 		this.mode.set(mode);
 	}
+	
+	public ObjectProperty<MediaPlayerPool> mediaPlayerPoolProperty() {
+		return this.mediaPlayerPool;
+	}
+	
+	public MediaPlayerPool getMediaPlayerPool() {
+		return this.mediaPlayerPool.get();
+	}
+	
+	public void setMediaPlayerPool(MediaPlayerPool pool) {
+		this.mediaPlayerPool.set(pool);
+	}
+	
+	public DoubleProperty renderScaleProperty() {
+		return this.renderScale;
+	}
+	
+	public double getRenderScale() {
+		return this.renderScale.get();
+	}
+	
+	public void setRenderScale(double scale) {
+		this.renderScale.set(scale);
+	}
 }
@@ -0,0 +1,152 @@
+package org.praisenter.ui.slide;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.praisenter.data.TextStore;
+import org.praisenter.data.slide.Slide;
+import org.praisenter.data.slide.graphics.SlidePadding;
+import org.praisenter.data.slide.text.FontScaleType;
+import org.praisenter.data.slide.text.SlideFont;
+import org.praisenter.data.slide.text.TextComponent;
+import org.praisenter.ui.TextMeasurer;
+import org.praisenter.ui.slide.convert.FontConverter;
+
+import javafx.geometry.Bounds;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextBoundsType;
+
+/**
+ * Measures the text of slide text components.
+ * <p>
+ * The methods of this class can be called from any thread, so slides can be measured
+ * ahead of time on worker threads. The slides and components passed in must not be
+ * modified by another thread while they are being measured, so pass copies of slides
+ * that are in use by the UI.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public final class SlideTextMeasurer {
+	private SlideTextMeasurer() {}
+
+	/**
+	 * Returns the font the given text should be displayed with in the given component
+	 * based on the component's size, padding, font and font scale type.
+	 * @param component the component
+	 * @param text the text
+	 * @return Font
+	 */
+	public static final Font getFont(TextComponent component, String text) {
+		double pw = getTextWidth(component);
+		double ph = getTextHeight(component);
+
+		FontScaleType scaleType = component.getFontScaleType();
+		double lineSpacing = component.getLineSpacing();
+		boolean isWrapping = component.isTextWrappingEnabled();
+
+		// compute a fitting font, if necessary
+		SlideFont sf = component.getFont();
+		Font base = FontConverter.toJavaFX(sf);
+		Font font = base;
+		if (scaleType == FontScaleType.REDUCE_SIZE_ONLY) {
+			if (isWrapping) {
+				font = TextMeasurer.getFittingFontForParagraph(text, base, base.getSize(), pw, ph, lineSpacing, TextBoundsType.LOGICAL);
+			} else {
+				font = TextMeasurer.getFittingFontForLine(text, base, base.getSize(), pw, ph, TextBoundsType.LOGICAL);
+			}
+		} else if (scaleType == FontScaleType.BEST_FIT) {
+			if (isWrapping) {
+				font = TextMeasurer.getFittingFontForParagraph(text, base, Double.MAX_VALUE, pw, ph, lineSpacing, TextBoundsType.LOGICAL);
+			} else {
+				font = TextMeasurer.getFittingFontForLine(text, base, Double.MAX_VALUE, pw, ph, TextBoundsType.LOGICAL);
+			}
+		}
+
+		return font;
+	}
+
+	/**
+	 * Returns true if the given text fits within the given component when displayed
+	 * with the font returned by {@link #getFont(TextComponent, String)}.
+	 * @param component the component
+	 * @param text the text
+	 * @return boolean
+	 */
+	public static final boolean isFitting(TextComponent component, String text) {
+		double pw = getTextWidth(component);
+		double ph = getTextHeight(component);
+
+		Font font = getFont(component, text);
+		if (component.isTextWrappingEnabled()) {
+			Bounds bounds = TextMeasurer.getParagraphBounds(text, font, pw, component.getLineSpacing(), TextBoundsType.LOGICAL);
+			return bounds.getHeight() <= ph;
+		} else {
+			Bounds bounds = TextMeasurer.getLineBounds(text, font, TextBoundsType.LOGICAL);
+			return bounds.getWidth() <= pw && bounds.getHeight() <= ph;
+		}
+	}
+
+	/**
+	 * Measures all the text components of the given slide.
+	 * <p>
+	 * The results are cached by {@link TextMeasurer} so this can be used to get a
+	 * slide ready to be shown.
+	 * @param slide the slide
+	 */
+	public static final void measure(Slide slide) {
+		for (TextComponent component : slide.getComponents(TextComponent.class)) {
+			getFont(component, component.getText());
+		}
+	}
+
+	/**
+	 * Returns the given placeholder data that doesn't fit within the text components
+	 * of the given template.
+	 * <p>
+	 * This can be used to check that all the sections of a song or all the verses of a
+	 * passage fit a template before presenting them.
+	 * @param template the template
+	 * @param data the placeholder data to check
+	 * @param width the width to fit the template to; zero or less to use the template's size
+	 * @param height the height to fit the template to; zero or less to use the template's size
+	 * @return List&lt;{@link TextStore}&gt;
+	 */
+	public static final List<TextStore> getNonFitting(Slide template, List<? extends TextStore> data, double width, double height) {
+		List<TextStore> nonFitting = new ArrayList<>();
+		for (TextStore item : data) {
+			Slide slide = template.copy();
+			slide.setPlaceholderData(item.copy());
+			if (width > 0 && height > 0) {
+				slide.fit(width, height);
+			}
+
+			for (TextComponent component : slide.getComponents(TextComponent.class)) {
+				if (!isFitting(component, component.getText())) {
+					nonFitting.add(item);
+					break;
+				}
+			}
+		}
+		return nonFitting;
+	}
+
+	/**
+	 * Returns the width available for text in the given component.
+	 * @param component the component
+	 * @return double
+	 */
+	private static final double getTextWidth(TextComponent component) {
+		SlidePadding padding = component.getPadding();
+		return Math.max(1.0, component.getWidth() - padding.getLeft() - padding.getRight());
+	}
+
+	/**
+	 * Returns the height available for text in the given component.
+	 * @param component the component
+	 * @return double
+	 */
+	private static final double getTextHeight(TextComponent component) {
+		SlidePadding padding = component.getPadding();
+		return Math.max(1.0, component.getHeight() - padding.getTop() - padding.getBottom());
+	}
+}
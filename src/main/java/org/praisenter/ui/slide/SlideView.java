@@ -1,14 +1,14 @@
 package org.praisenter.ui.slide;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -41,12 +41,17 @@ import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
 import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundImage;
 import javafx.scene.layout.BackgroundRepeat;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.transform.Scale;
 import javafx.util.Duration;
@@ -78,9 +83,31 @@ public class SlideView extends Region implements Playable {
 
 	private final Pane surface;
 	
-	private final Deque<TransitionRequest> requests;
+	/** The latest request waiting for the current transition to finish; later requests are coalesced into it */
+	private TransitionRequest pendingRequest;
+	
+	/** True if running the pending request has been scheduled */
+	private boolean pendingRequestScheduled;
+	
 	private Transition currentTransition;
 	
+	/** Removes the old nodes or components of the current transition; run once when it finishes or is cut short */
+	private Runnable currentCleanup;
+	
+	private MediaPlayerPool mediaPlayerPool;
+	
+	/** The cache of rendered static slides; can be null */
+	private SlideRasterCache slideRasterCache;
+	
+	/** The image shown in place of the current slide node; null if the slide node is shown */
+	private ImageView raster;
+	
+	/** True while the current slide is replaced without building a new slide node */
+	private boolean slideNodeReused;
+	
+	/** Called with the expected and actual duration of each transition; can be null */
+	private BiConsumer<Duration, Duration> transitionTimingListener;
+	
 	public SlideView(GlobalContext context) {
 		this.context = context;
 		
@@ -102,8 +129,10 @@ public class SlideView extends Region implements Playable {
 		
 		this.clipEnabled = new SimpleBooleanProperty(false);
 
-		this.requests = new ArrayDeque<>();
+		this.pendingRequest = null;
+		this.pendingRequestScheduled = false;
 		this.currentTransition = null;
+		this.currentCleanup = null;
 		
 		this.setSnapToPixel(true);
 		
@@ -114,12 +143,23 @@ public class SlideView extends Region implements Playable {
 		this.slide.addListener((obs, ov, nv) -> {
 			this.slideHeight.unbind();
 			this.slideWidth.unbind();
-			this.slideNode.set(null);
-			
 			if (nv != null) {
 				this.slideWidth.bind(nv.widthProperty());
 				this.slideHeight.bind(nv.heightProperty());
-				this.slideNode.set(new SlideNode(context, nv));
+			}
+			
+			// keep the current node (see transitionSlidePlaceholders)
+			if (this.slideNodeReused) {
+				return;
+			}
+			
+			this.slideNode.set(null);
+			if (nv != null) {
+				// NOTE: the pool must be set before the mode is bound so that
+				// the media players are acquired from the pool
+				SlideNode node = new SlideNode(context, nv);
+				node.setMediaPlayerPool(this.mediaPlayerPool);
+				this.slideNode.set(node);
 			}
 		});
 		
@@ -139,17 +179,11 @@ public class SlideView extends Region implements Playable {
 		// target resolution
 		
 		this.viewScale.bind(Bindings.createObjectBinding(() -> {
-			double tw = this.getWidth();
-			double th = this.getHeight();
 			// NOTE: we can't access the slide.getWidth/getHeight methods here, instead we need to 
 			//		 access the local slideWidth/slideHeight properties or we don't get notifications
 			//		 of them changing. See the following link for more details:
 			// https://stackoverflow.com/questions/40690022/javafx-custom-bindings-not-working
-			double sw = this.slideWidth.get();
-			double sh = this.slideHeight.get();
-			if (sw <= 0 || sh <= 0) return Scaling.getNoScaling(tw, th);
-			Scaling scale = Scaling.getUniformScaling(sw, sh, tw, th, this.fitToWidthEnabled.get(), this.fitToHeightEnabled.get());
-			return scale;
+			return this.getViewScale(this.slideWidth.get(), this.slideHeight.get());
 		}, this.slide, this.slideWidth, this.slideHeight, this.widthProperty(), this.heightProperty(), this.fitToWidthEnabled, this.fitToHeightEnabled));
 		
 		this.viewScaleFactor.bind(Bindings.createDoubleBinding(() -> {
@@ -245,16 +279,13 @@ public class SlideView extends Region implements Playable {
 
 	@Override
 	public void dispose() {
-		Transition tx = this.currentTransition;
-		if (tx != null) {
-			tx.stop();
-		}
+		this.pendingRequest = null;
+		this.finishTransition();
 		
 		SlideNode slideNode = this.slideNode.get();
 		if (slideNode != null) {
 			slideNode.dispose();
 		}
-		this.requests.clear();
 	}
 	
 	// TODO would be nice if there was a mechanism to wait for the SlideNode to load as well (when media players are ready for example) for better PRESENT interaction
@@ -269,6 +300,8 @@ public class SlideView extends Region implements Playable {
 			}
 		}
 		
+		// the slide is about to be shown, so load on the normal priority
+		// I/O threads rather than waiting behind media imports
 		return CompletableFuture.runAsync(() -> {
 			for (Media media : mediaToLoad) {
 				if (media.getMediaType() == MediaType.IMAGE) {
@@ -279,20 +312,16 @@ public class SlideView extends Region implements Playable {
 					this.context.getImageCache().getOrLoadImage(media.getId(), media.getMediaImagePath());
 				}
 			}
-		});
+		}, this.context.getExecutors().getIOExecutor());
 	}
 	
 	public void swapSlide(Slide slide) {
 		Slide oldSlide = this.slide.get();
 		SlideNode oldNode = this.slideNode.get();
 
-		// clear any pending requests
-		this.requests.clear();
-		
-		if (this.currentTransition != null) {
-			LOGGER.debug("Transition in progress - immediately finishing it.");
-			this.currentTransition.jumpTo(this.currentTransition.getCycleDuration());
-		}
+		// clear any pending requests and finish the current transition
+		this.pendingRequest = null;
+		this.finishTransition();
 
 		if (oldSlide == null && slide == null) {
 			return;
@@ -301,10 +330,12 @@ public class SlideView extends Region implements Playable {
 		LOGGER.debug("Swapping slide: {} with {}", oldSlide, slide);
 		
 		// clean up
+		this.removeRaster();
 		if (oldNode != null) {
 			this.slideNode.setValue(null);
 			this.surface.getChildren().remove(oldNode);
 			oldNode.mode.unbind();
+			oldNode.renderScale.unbind();
 			oldNode.dispose();
 			oldNode = null;
 		}
@@ -318,6 +349,7 @@ public class SlideView extends Region implements Playable {
 		
 		if (slide != null) {
 			final SlideNode newNode = this.slideNode.get();
+			newNode.renderScale.bind(this.viewScaleFactor);
 			newNode.mode.bind(this.mode);
 			this.surface.getChildren().add(newNode);
 			
@@ -350,41 +382,22 @@ public class SlideView extends Region implements Playable {
 	}
 	
 	public void transitionSlide(Slide slide, boolean waitForTransition) {
-		// check if there's a transition currently executing
-		if (this.currentTransition != null && this.currentTransition.getStatus() != Status.STOPPED) {
-			// if there is one, should we stop it where it is and start the new
-			// transition or should we queue it up to play after the executing one
-			if (!waitForTransition) {
-				// if we don't want to wait
-				LOGGER.debug("A transition is currently in progress, stopping and doing new transition");
-				// clear any pending requests so we don't execute them after ending the current transition
-				this.requests.clear();
-				// jump to the end of the current transition
-				this.currentTransition.jumpTo(this.currentTransition.getCycleDuration());
-				// then stop it
-				this.currentTransition.stop();
-				// manually complete any finalization steps for the transition
-				EventHandler<ActionEvent> eh = this.currentTransition.getOnFinished();
-				if (eh != null) {
-					eh.handle(null);
-				}
-				// and set it to null
-				this.currentTransition = null;
-			} else {
-				// if we want to wait, build a transition request and add it to the
-				// request stack
-				LOGGER.debug("A transition is currently in progress, waiting...");
-				TransitionRequest tr = TransitionRequest.transitionSlide(slide);
-				this.requests.push(tr);
-				return;
-			}
+		if (this.queueRequest(TransitionRequest.transitionSlide(slide), waitForTransition)) {
+			return;
+		}
+		
+		Slide oldSlide = this.slide.get();
+		SlideNode oldNode = this.slideNode.get();
+		if (this.isPlaceholderChangeOnly(oldSlide, oldNode, slide)) {
+			this.transitionSlidePlaceholders(oldSlide, oldNode, slide);
+			return;
 		}
 		
 		LOGGER.debug("Transitioning slide {}", slide);
-		this.requests.clear();
 		
-		Slide oldSlide = this.slide.get();
-		final SlideNode oldNode = this.slideNode.get();
+		// the node that's actually on the surface for the old slide
+		final Node oldDisplayed = this.raster != null ? this.raster : oldNode;
+		this.raster = null;
 		
 		// set new slide (always set null to ensure that
 		// it registers the change of value)
@@ -397,14 +410,20 @@ public class SlideView extends Region implements Playable {
 		
 		if (oldNode != null) {
 			Slide basis = slide != null ? slide : oldSlide;
-			inOutTransition.getChildren().add(TransitionConverter.toJavaFX(basis.getTransition(), basis, null, oldNode, false));
+			inOutTransition.getChildren().add(TransitionConverter.toJavaFX(basis.getTransition(), basis, null, oldDisplayed, false));
 		}
 
 		if (slide != null) {
 			final SlideNode newNode = this.slideNode.get();
+			newNode.renderScale.bind(this.viewScaleFactor);
 			newNode.mode.bind(this.mode);
-			this.surface.getChildren().add(newNode);
-			inOutTransition.getChildren().add(TransitionConverter.toJavaFX(slide.getTransition(), slide, null, newNode, true));
+			
+			// show static slides as an image during the transition so that
+			// only one node is animated
+			this.raster = this.createRaster(slide);
+			Node newDisplayed = this.raster != null ? this.raster : newNode;
+			this.surface.getChildren().add(newDisplayed);
+			inOutTransition.getChildren().add(TransitionConverter.toJavaFX(slide.getTransition(), slide, null, newDisplayed, true));
 			
 			if (this.mode.get() == SlideMode.PRESENT) {
 				newNode.play();
@@ -429,20 +448,25 @@ public class SlideView extends Region implements Playable {
 			}
 		}
 		
-		inOutTransition.setOnFinished(e -> {
+		this.currentCleanup = () -> {
 			if (oldNode != null) {
-				this.surface.getChildren().remove(oldNode);
+				this.surface.getChildren().remove(oldDisplayed);
 				oldNode.mode.unbind();
+				oldNode.renderScale.unbind();
 				oldNode.dispose();
 			}
-		});
+			// the image was only needed for the transition
+			this.restoreSlideNode();
+		};
+		inOutTransition.setOnFinished(e -> this.runCleanup());
 		
 		this.currentTransition = tx;
 		
 		// no matter what, we always want to run something after the
 		// transition ends - this gives us the ability to queue transitions
 		// or do clean up after the transition finishes
-		tx.setOnFinished(this::runLastPendingTransition);
+		tx.setOnFinished(this::onTransitionFinished);
+		this.timeTransition(inOutTransition);
 		tx.play();
 	}
 
@@ -454,16 +478,13 @@ public class SlideView extends Region implements Playable {
 		Slide slide = this.slide.get();
 		if (slide == null) return;
 		
-		this.requests.clear();
-		
-		if (this.currentTransition != null) {
-			LOGGER.debug("Transition in progress - immediately finishing it.");
-			this.currentTransition.jumpTo(this.currentTransition.getCycleDuration());
-		}
+		this.pendingRequest = null;
+		this.finishTransition();
 		
 		LOGGER.debug("Swapping placeholder data");
 		
-		slide.setPlaceholderData(data);
+		this.restoreSlideNode();
+		this.setPlaceholderData(slide, data);
 	}
 	
 	/**
@@ -479,52 +500,40 @@ public class SlideView extends Region implements Playable {
 	 * @param data the placeholder data
 	 */
 	public void transitionPlaceholders(TextStore data, boolean waitForTransition) {
-		Slide slide = this.slide.get();
-		if (slide == null) return;
+		Slide current = this.slide.get();
+		if (current == null) return;
 		
 		SlideNode slideNode = this.slideNode.get();
 		if (slideNode == null) return;
 		
-		// check if there's a transition currently executing
-		if (this.currentTransition != null && this.currentTransition.getStatus() != Status.STOPPED) {
-			// if there is one, should we stop it where it is and start the new
-			// transition or should we queue it up to play after the executing one
-			if (!waitForTransition) {
-				// if we don't want to wait
-				LOGGER.debug("A transition is currently in progress, stopping and doing new transition");
-				// clear any pending requests so we don't execute them after ending the current transition
-				this.requests.clear();
-				// jump to the end of the current transition
-				this.currentTransition.jumpTo(this.currentTransition.getCycleDuration());
-				// then stop it
-				this.currentTransition.stop();
-				// manually complete any finalization steps for the transition
-				EventHandler<ActionEvent> eh = this.currentTransition.getOnFinished();
-				if (eh != null) {
-					eh.handle(null);
-				}
-				// and set it to null
-				this.currentTransition = null;
-			} else {
-				// if we want to wait, build a transition request and add it to the
-				// request stack
-				LOGGER.debug("A transition is currently in progress, waiting...");
-				TransitionRequest tr = TransitionRequest.transitionPlaceholders(data);
-				this.requests.push(tr);
-				return;
-			}
+		// the components of the slide the node shows are animated
+		Slide slide = slideNode.region;
+		
+		if (this.queueRequest(TransitionRequest.transitionPlaceholders(data), waitForTransition)) {
+			return;
 		}
 		
-		this.requests.clear();
 		LOGGER.debug("Transitioning placeholder data {}", data);
 		
+		// the components are animated individually so the slide node must be shown
+		this.restoreSlideNode();
+		
+		// only the placeholders whose text changes need to be transitioned, the
+		// others are left as is (along with their nodes, fonts, and effects)
+		List<TextPlaceholderComponent> changed = slide.getChangedPlaceholders(data);
+		if (changed.isEmpty()) {
+			LOGGER.debug("No placeholder text changed");
+			this.setPlaceholderData(current, data);
+			return;
+		}
+		
 		// copy the place holder components and convert them to static text components
 		// so that they don't change when we update the place holder data
 		int index = 0;
 		Map<Integer, SlideComponent> newComponents = new HashMap<Integer, SlideComponent>();
 		List<SlideComponent> oldComponents = new ArrayList<SlideComponent>();
 		for (SlideComponent sc : slide.getComponents()) {
-			if (sc instanceof TextPlaceholderComponent) {
+			if (sc instanceof TextPlaceholderComponent && changed.contains(sc)) {
 				TextPlaceholderComponent tpc = (TextPlaceholderComponent)sc;
 				tpc.setTextLocked(true);
 				
@@ -546,7 +555,7 @@ public class SlideView extends Region implements Playable {
 		}
 		
 		// update the placeholder data
-		slide.setPlaceholderData(data);
+		this.setPlaceholderData(current, data);
 
 		// setup transition
 		SlideAnimation source = slide.getTransition();
@@ -579,13 +588,17 @@ public class SlideView extends Region implements Playable {
 		// transition ends - this gives us the ability to queue transitions
 		// or do clean up after the transition finishes
 		// when complete, remove all the asis components
-		tx.setOnFinished(e -> {
+		this.currentCleanup = () -> {
 			slide.getComponents().removeAll(oldComponents);
+		};
+		tx.setOnFinished(e -> {
+			this.runCleanup();
 			// make sure to trigger any pending transitions
-			this.runLastPendingTransition(e);
+			this.onTransitionFinished(e);
 		});
 		
 		this.currentTransition = tx;
+		this.timeTransition(tx);
 		
 		// play the transition
 		tx.play();
@@ -604,45 +617,24 @@ public class SlideView extends Region implements Playable {
 	 * @param data the placeholder data
 	 */
 	public void transitionContent(TextStore data, boolean waitForTransition) {
-		Slide slide = this.slide.get();
-		if (slide == null) return;
+		Slide current = this.slide.get();
+		if (current == null) return;
 		
 		SlideNode slideNode = this.slideNode.get();
 		if (slideNode == null) return;
 		
-		// check if there's a transition currently executing
-		if (this.currentTransition != null && this.currentTransition.getStatus() != Status.STOPPED) {
-			// if there is one, should we stop it where it is and start the new
-			// transition or should we queue it up to play after the executing one
-			if (!waitForTransition) {
-				// if we don't want to wait
-				LOGGER.debug("A transition is currently in progress, stopping and doing new transition");
-				// clear any pending requests so we don't execute them after ending the current transition
-				this.requests.clear();
-				// jump to the end of the current transition
-				this.currentTransition.jumpTo(this.currentTransition.getCycleDuration());
-				// then stop it
-				this.currentTransition.stop();
-				// manually complete any finalization steps for the transition
-				EventHandler<ActionEvent> eh = this.currentTransition.getOnFinished();
-				if (eh != null) {
-					eh.handle(null);
-				}
-				// and set it to null
-				this.currentTransition = null;
-			} else {
-				// if we want to wait, build a transition request and add it to the
-				// request stack
-				LOGGER.debug("A transition is currently in progress, waiting...");
-				TransitionRequest tr = TransitionRequest.transitionContent(data);
-				this.requests.push(tr);
-				return;
-			}
+		// the components of the slide the node shows are animated
+		Slide slide = slideNode.region;
+		
+		if (this.queueRequest(TransitionRequest.transitionContent(data), waitForTransition)) {
+			return;
 		}
 		
-		this.requests.clear();
 		LOGGER.debug("Transitioning placeholder data {}", data);
 		
+		// the components are animated individually so the slide node must be shown
+		this.restoreSlideNode();
+		
 		// copy all components and converting any placeholders to static text components
 		// so that they don't change when we update the place holder data
 		int index = 0;
@@ -674,7 +666,7 @@ public class SlideView extends Region implements Playable {
 		}
 		
 		// update the placeholder data
-		slide.setPlaceholderData(data);
+		this.setPlaceholderData(current, data);
 
 		// setup transition
 		SlideAnimation source = slide.getTransition();
@@ -707,47 +699,243 @@ public class SlideView extends Region implements Playable {
 		// transition ends - this gives us the ability to queue transitions
 		// or do clean up after the transition finishes
 		// when complete, remove all the asis components
-		tx.setOnFinished(e -> {
+		this.currentCleanup = () -> {
 			slide.getComponents().removeAll(oldComponents);
+		};
+		tx.setOnFinished(e -> {
+			this.runCleanup();
 			// make sure to trigger any pending transitions
-			this.runLastPendingTransition(e);
+			this.onTransitionFinished(e);
 		});
 		
 		this.currentTransition = tx;
+		this.timeTransition(tx);
 		
 		// play the transition
 		tx.play();
 	}
 
-	private void runLastPendingTransition(ActionEvent e) {
+	/**
+	 * Transitions to the given slide by reusing the current slide node.
+	 * <p>
+	 * This is used when the new slide is the same template as the current slide with
+	 * different placeholder data. The current slide is shown as an image which is
+	 * transitioned out while the existing slide node, updated with the new placeholder
+	 * data, is transitioned in using the slide's transition. The new slide becomes the
+	 * current slide, but the slide node keeps showing the slide it was created for. This
+	 * avoids building a new slide node (and reloading its media) for each verse or song
+	 * section.
+	 * @param oldSlide the current slide
+	 * @param slideNode the current slide node
+	 * @param slide the new slide
+	 */
+	private void transitionSlidePlaceholders(Slide oldSlide, SlideNode slideNode, Slide slide) {
+		LOGGER.debug("Transitioning slide {} placeholders by reusing the slide node", slide);
+		
+		// replace what's currently shown with a static image of it
+		Node outgoing = this.raster;
+		if (outgoing == null) {
+			outgoing = this.createSnapshot(oldSlide, slideNode);
+			int index = this.surface.getChildren().indexOf(slideNode);
+			if (index >= 0) {
+				this.surface.getChildren().set(index, outgoing);
+			} else {
+				this.surface.getChildren().add(outgoing);
+			}
+		}
+		this.raster = null;
+		
+		// make the new slide the current slide without building a new node
+		this.slideNodeReused = true;
+		try {
+			this.slide.set(slide);
+		} finally {
+			this.slideNodeReused = false;
+		}
+		
+		// then update what the node shows and show it on top
+		this.setPlaceholderData(slide, slide.getPlaceholderData());
+		this.raster = this.createRaster(slide);
+		Node incoming = this.raster != null ? this.raster : slideNode;
+		this.surface.getChildren().add(incoming);
+		
+		ParallelTransition inOutTransition = new ParallelTransition(
+				TransitionConverter.toJavaFX(slide.getTransition(), slide, null, outgoing, false),
+				TransitionConverter.toJavaFX(slide.getTransition(), slide, null, incoming, true));
+		SequentialTransition tx = new SequentialTransition(inOutTransition);
+		
+		final Node old = outgoing;
+		this.currentCleanup = () -> {
+			this.surface.getChildren().remove(old);
+			this.restoreSlideNode();
+		};
+		inOutTransition.setOnFinished(e -> this.runCleanup());
+		
+		this.currentTransition = tx;
+		tx.setOnFinished(this::onTransitionFinished);
+		this.timeTransition(inOutTransition);
+		tx.play();
+	}
+	
+	/**
+	 * Sets the placeholder data of the given slide and of the slide the current slide
+	 * node shows, if it's a different slide.
+	 * @param slide the current slide
+	 * @param data the placeholder data
+	 */
+	private void setPlaceholderData(Slide slide, TextStore data) {
+		slide.setPlaceholderData(data);
+		
+		SlideNode slideNode = this.slideNode.get();
+		if (slideNode != null && slideNode.region != slide) {
+			slideNode.region.setPlaceholderData(data);
+		}
+	}
+	
+	/**
+	 * Returns true if the given new slide only differs from the current slide by its
+	 * placeholder data so that the current slide node can be reused.
+	 * @param oldSlide the current slide
+	 * @param oldNode the current slide node
+	 * @param slide the new slide
+	 * @return boolean
+	 */
+	private boolean isPlaceholderChangeOnly(Slide oldSlide, SlideNode oldNode, Slide slide) {
+		if (oldSlide == null || oldNode == null || slide == null) return false;
+		// notifications are hidden based on the identity of the slide
+		if (this.autoHideEnabled.get()) return false;
+		if (!oldSlide.hasPlaceholders()) return false;
+		
+		return Objects.equals(oldSlide.getId(), slide.getId()) &&
+			   Objects.equals(oldSlide.getModifiedDate(), slide.getModifiedDate()) &&
+			   oldSlide.getWidth() == slide.getWidth() &&
+			   oldSlide.getHeight() == slide.getHeight() &&
+			   oldSlide.getComponents().size() == slide.getComponents().size();
+	}
+	
+	/**
+	 * Returns an image view of the given slide node as it's currently shown.
+	 * <p>
+	 * Static slides are only captured once for each set of placeholder text; the
+	 * image is kept in the slide raster cache (if set) and reused when the same text
+	 * is shown again (a repeated chorus or going back a verse for example).
+	 * @param slide the slide
+	 * @param slideNode the slide node
+	 * @return ImageView
+	 */
+	private ImageView createSnapshot(Slide slide, SlideNode slideNode) {
+		double scale = this.viewScaleFactor.get();
+		if (scale <= 0) scale = 1.0;
+		
+		SlideRasterCache cache = this.slideRasterCache;
+		Image image = cache != null ? cache.get(slide, scale) : null;
+		if (image == null) {
+			SnapshotParameters sp = new SnapshotParameters();
+			sp.setFill(Color.TRANSPARENT);
+			sp.setTransform(new Scale(scale, scale));
+			sp.setViewport(new Rectangle2D(0, 0, Math.ceil(slide.getWidth() * scale), Math.ceil(slide.getHeight() * scale)));
+			
+			image = slideNode.snapshot(sp, null);
+			if (cache != null && this.mode.get() == SlideMode.PRESENT) {
+				cache.put(slide, scale, image);
+			}
+		}
+		
+		ImageView view = new ImageView(image);
+		view.setFitWidth(slide.getWidth());
+		view.setFitHeight(slide.getHeight());
+		view.setSmooth(true);
+		return view;
+	}
+	
+	/**
+	 * Queues the given request if a transition is in progress or other requests are
+	 * waiting to run.
+	 * <p>
+	 * Queued requests are coalesced so that only the latest target is shown, skipping
+	 * any intermediate slides or placeholder data. If we shouldn't wait, the current
+	 * transition is finished immediately and the queued request is run on the next pulse
+	 * so that a burst of requests (like holding the next verse key) only transitions once
+	 * per pulse.
+	 * @param request the request
+	 * @param waitForTransition true if the request should wait for the current transition to complete
+	 * @return boolean true if the request was queued
+	 */
+	private boolean queueRequest(TransitionRequest request, boolean waitForTransition) {
+		boolean transitioning = this.currentTransition != null && this.currentTransition.getStatus() != Status.STOPPED;
+		if (!transitioning && this.pendingRequest == null) {
+			return false;
+		}
+		
+		LOGGER.debug("A transition is in progress or pending, queueing {} request", request.getType());
+		this.pendingRequest = this.pendingRequest == null ? request : this.pendingRequest.coalesce(request);
+		
+		if (!transitioning) {
+			// already waiting for the next pulse
+			this.schedulePendingRequest();
+		} else if (!waitForTransition) {
+			LOGGER.debug("Finishing the current transition early");
+			this.finishTransition();
+			this.schedulePendingRequest();
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Immediately finishes the current transition (if any) and cleans up after it.
+	 */
+	private void finishTransition() {
+		Transition tx = this.currentTransition;
+		this.currentTransition = null;
+		if (tx != null) {
+			// jump to the end so that the nodes are in their final state
+			tx.jumpTo(tx.getCycleDuration());
+			tx.stop();
+		}
+		this.runCleanup();
+	}
+	
+	/**
+	 * Runs the clean up of the current transition if it hasn't run yet.
+	 */
+	private void runCleanup() {
+		Runnable cleanup = this.currentCleanup;
+		this.currentCleanup = null;
+		if (cleanup != null) {
+			cleanup.run();
+		}
+	}
+	
+	private void onTransitionFinished(ActionEvent e) {
 		LOGGER.debug("Transition complete, checking for pending transition requests");
 		
 		this.currentTransition = null;
+		this.schedulePendingRequest();
+	}
+	
+	/**
+	 * Runs the pending request (if any) on the next pulse.
+	 */
+	private void schedulePendingRequest() {
+		if (this.pendingRequestScheduled) {
+			return;
+		}
 		
 		// NOTE: this is put in a run later because if we don't there's a flicker
 		// when performing the slide/placeholder transition immediately
+		this.pendingRequestScheduled = true;
 		Platform.runLater(() -> {
-			int size = this.requests.size();
-			if (size <= 0) {
-				LOGGER.debug("No requests to process");
-				return;
-			}
+			this.pendingRequestScheduled = false;
 			
-			// get the most recent operation
-			TransitionRequest request = this.requests.pop();
+			TransitionRequest request = this.pendingRequest;
+			this.pendingRequest = null;
 			if (request == null) {
 				LOGGER.debug("No requests to process");
-				// if it's null, then there's nothing to do
 				return;
 			}
 			
-			LOGGER.debug("{} transition requests present. Running {}", size, request.getType());
-			LOGGER.debug("Clearing the transition requests stack");
-			// if it's non-null, then clear the stack of all other pending
-			// operations because we only want to run the most recent
-			this.requests.clear();
-			
-			LOGGER.debug("Running most recent transition request");
+			LOGGER.debug("Running pending {} transition request", request.getType());
 			switch(request.getType()) {
 				case SLIDE:
 					transitionSlide(request.getSlide());
@@ -802,6 +990,16 @@ public class SlideView extends Region implements Playable {
 		return this.viewScaleFactor.get();
 	}
 	
+	/**
+	 * Returns the scale factor the given slide would be shown at in this view at its current size.
+	 * @param slide the slide
+	 * @return double
+	 */
+	public double getViewScaleFactor(Slide slide) {
+		if (slide == null) return 1.0;
+		return this.getViewScale(slide.getWidth(), slide.getHeight()).factor;
+	}
+	
 	public ReadOnlyDoubleProperty viewScaleFactorProperty() {
 		return this.viewScaleFactor;
 	}
@@ -866,6 +1064,123 @@ public class SlideView extends Region implements Playable {
 		return this.checkeredBackgroundEnabled;
 	}
 	
+	/**
+	 * Returns the uniform scaling of a slide of the given size to this view's current size.
+	 * @param sw the slide width
+	 * @param sh the slide height
+	 * @return {@link Scaling}
+	 */
+	private Scaling getViewScale(double sw, double sh) {
+		double tw = this.getWidth();
+		double th = this.getHeight();
+		if (sw <= 0 || sh <= 0) return Scaling.getNoScaling(tw, th);
+		return Scaling.getUniformScaling(sw, sh, tw, th, this.fitToWidthEnabled.get(), this.fitToHeightEnabled.get());
+	}
+	
+	/**
+	 * Returns an image view showing the given slide rendered at the current scale
+	 * or null if the slide shouldn't be shown as an image or hasn't been rendered
+	 * ahead of time.
+	 * <p>
+	 * Slides are never rendered here since that would hold up the transition.
+	 * @param slide the slide
+	 * @return ImageView
+	 */
+	private ImageView createRaster(Slide slide) {
+		SlideRasterCache cache = this.slideRasterCache;
+		if (cache == null || this.mode.get() != SlideMode.PRESENT) return null;
+		
+		Image image = cache.get(slide, this.viewScaleFactor.get());
+		if (image == null) return null;
+		
+		// the image is rendered at the output resolution, so size it back
+		// down to the slide's size to counter the scale container's scale
+		ImageView view = new ImageView(image);
+		view.setFitWidth(slide.getWidth());
+		view.setFitHeight(slide.getHeight());
+		view.setSmooth(true);
+		return view;
+	}
+	
+	/**
+	 * Replaces the image of the current slide (if shown) with the slide node.
+	 */
+	private void restoreSlideNode() {
+		ImageView raster = this.raster;
+		SlideNode slideNode = this.slideNode.get();
+		if (raster == null || slideNode == null) return;
+		
+		this.raster = null;
+		int index = this.surface.getChildren().indexOf(raster);
+		if (index >= 0) {
+			this.surface.getChildren().set(index, slideNode);
+		}
+	}
+	
+	/**
+	 * Removes the image of the current slide (if shown) from the surface.
+	 */
+	private void removeRaster() {
+		if (this.raster != null) {
+			this.surface.getChildren().remove(this.raster);
+			this.raster = null;
+		}
+	}
+	
+	/**
+	 * Reports the time the given transition takes to the transition timing listener (if set).
+	 * <p>
+	 * This should be called after the transition's on finished handler has been set.
+	 * @param transition the transition
+	 */
+	private void timeTransition(Transition transition) {
+		final BiConsumer<Duration, Duration> listener = this.transitionTimingListener;
+		if (listener == null) return;
+		
+		final long start = System.nanoTime();
+		final EventHandler<ActionEvent> onFinished = transition.getOnFinished();
+		transition.setOnFinished(e -> {
+			listener.accept(transition.getTotalDuration(), Duration.millis((System.nanoTime() - start) / 1_000_000.0));
+			if (onFinished != null) {
+				onFinished.handle(e);
+			}
+		});
+	}
+	
+	public BiConsumer<Duration, Duration> getTransitionTimingListener() {
+		return this.transitionTimingListener;
+	}
+	
+	/**
+	 * Sets a listener that's called with the expected and actual duration of each
+	 * transition when it finishes.
+	 * @param listener the listener; can be null
+	 */
+	public void setTransitionTimingListener(BiConsumer<Duration, Duration> listener) {
+		this.transitionTimingListener = listener;
+	}
+	
+	public MediaPlayerPool getMediaPlayerPool() {
+		return this.mediaPlayerPool;
+	}
+	
+	public void setMediaPlayerPool(MediaPlayerPool pool) {
+		this.mediaPlayerPool = pool;
+	}
+	
+	public SlideRasterCache getSlideRasterCache() {
+		return this.slideRasterCache;
+	}
+	
+	/**
+	 * Sets the cache used to show static slides as images during slide transitions
+	 * in present mode.
+	 * @param cache the cache; can be null to always show the slide's nodes
+	 */
+	public void setSlideRasterCache(SlideRasterCache cache) {
+		this.slideRasterCache = cache;
+	}
+	
 	public boolean isAutoHideEnabled() {
 		return this.autoHideEnabled.get();
 	}
@@ -8,7 +8,6 @@ import org.praisenter.data.slide.graphics.DashPattern;
 import org.praisenter.data.slide.graphics.SlidePadding;
 import org.praisenter.data.slide.graphics.SlidePaint;
 import org.praisenter.data.slide.graphics.SlideStroke;
-import org.praisenter.data.slide.text.FontScaleType;
 import org.praisenter.data.slide.text.HorizontalTextAlignment;
 import org.praisenter.data.slide.text.SlideFont;
 import org.praisenter.data.slide.text.TextComponent;
@@ -16,8 +15,6 @@ import org.praisenter.data.slide.text.TextPlaceholderComponent;
 import org.praisenter.data.slide.text.TimedTextComponent;
 import org.praisenter.data.slide.text.VerticalTextAlignment;
 import org.praisenter.ui.GlobalContext;
-import org.praisenter.ui.TextMeasurer;
-import org.praisenter.ui.TimeKeeper;
 import org.praisenter.ui.slide.convert.BorderConverter;
 import org.praisenter.ui.slide.convert.EffectConverter;
 import org.praisenter.ui.slide.convert.FontConverter;
@@ -29,6 +26,7 @@ import org.praisenter.utility.StringManipulator;
 import javafx.beans.binding.Bindings;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.scene.CacheHint;
 import javafx.scene.effect.Effect;
 import javafx.scene.effect.InnerShadow;
 import javafx.scene.layout.VBox;
@@ -81,7 +79,8 @@ final class TextComponentNode extends SlideComponentNode<TextComponent> {
 			this.mode.addListener((obs, ov, nv) -> {
 				ttc.nowProperty().unbind();
 				if (nv == SlideMode.PRESENT) {
-					ttc.nowProperty().bind(TimeKeeper.currentTimeProperty());
+					// only update as often as the text can change
+					ttc.nowProperty().bind(this.context.getTimeKeeper().currentTimeProperty(ttc.getTimeResolution()));
 				} else {
 					ttc.setNow(LocalDateTime.now());
 				}
@@ -179,6 +178,17 @@ final class TextComponentNode extends SlideComponentNode<TextComponent> {
 		this.text.effectProperty().bind(Bindings.createObjectBinding(() -> {
 			return this.computeTextEffect();
 		}, this.region.textShadowProperty(), this.region.textGlowProperty()));
+		
+		// when presenting, cache text with effects as a bitmap so that the blurs
+		// aren't recomputed every frame while the node is animated. JavaFX
+		// invalidates the cached bitmap when the text, font, fill or effect
+		// change and the QUALITY hint re-renders it when the output scale changes
+		this.text.setCacheHint(CacheHint.QUALITY);
+		this.text.cacheProperty().bind(Bindings.createBooleanBinding(() -> {
+			return this.mode.get() == SlideMode.PRESENT 
+				&& this.text.getEffect() != null
+				&& this.context.getWorkspaceConfiguration().isTextEffectCachingEnabled();
+		}, this.mode, this.text.effectProperty(), this.context.getWorkspaceConfiguration().textEffectCachingEnabledProperty()));
 	}
 	
 	private String getText() {
@@ -238,39 +248,6 @@ final class TextComponentNode extends SlideComponentNode<TextComponent> {
 	}
 	
 	private Font computeFont() {
-		double w = this.region.getWidth();
-		double h = this.region.getHeight();
-		
-		// compute the bounding text width and height so 
-		// we can compute an accurate font size
-		SlidePadding padding = this.region.getPadding();
-		double pw = Math.max(1.0, w - padding.getLeft() - padding.getRight());
-		double ph = Math.max(1.0, h - padding.getTop() - padding.getBottom());
-		
-		FontScaleType scaleType = this.region.getFontScaleType();
-		double lineSpacing = this.region.getLineSpacing();
-		boolean isWrapping = this.region.isTextWrappingEnabled();
-		
-		String str = this.getText();
-		
-		// compute a fitting font, if necessary
-		SlideFont sf = this.region.getFont();
-		Font base = FontConverter.toJavaFX(sf);
-		Font font = base;
-		if (scaleType == FontScaleType.REDUCE_SIZE_ONLY) {
-			if (isWrapping) {
-				font = TextMeasurer.getFittingFontForParagraph(str, base, base.getSize(), pw, ph, lineSpacing, TextBoundsType.LOGICAL);
-			} else {
-				font = TextMeasurer.getFittingFontForLine(str, base, base.getSize(), pw, ph, TextBoundsType.LOGICAL);
-			}
-		} else if (scaleType == FontScaleType.BEST_FIT) {
-			if (isWrapping) {
-				font = TextMeasurer.getFittingFontForParagraph(str, base, Double.MAX_VALUE, pw, ph, lineSpacing, TextBoundsType.LOGICAL);
-			} else {
-				font = TextMeasurer.getFittingFontForLine(str, base, Double.MAX_VALUE, pw, ph, TextBoundsType.LOGICAL);
-			}
-		}
-		
-		return font;
+		return SlideTextMeasurer.getFont(this.region, this.getText());
 	}
 }
@@ -27,6 +27,34 @@ final class TransitionRequest {
 		return new TransitionRequest(PlaceholderTransitionBehavior.CONTENT, null, placeholderData);
 	}
 	
+	/**
+	 * Returns a request that combines this request with the given later request.
+	 * <p>
+	 * The result has the later request's target and the higher priority of the two
+	 * types (slide over content over placeholders). Placeholder data that follows a
+	 * slide request is applied to that slide so that the slide isn't skipped.
+	 * @param next the later request
+	 * @return {@link TransitionRequest}
+	 */
+	public TransitionRequest coalesce(TransitionRequest next) {
+		if (next.type == PlaceholderTransitionBehavior.SLIDE) {
+			return next;
+		}
+		
+		if (this.type == PlaceholderTransitionBehavior.SLIDE) {
+			if (this.slide != null) {
+				this.slide.setPlaceholderData(next.placeholderData);
+			}
+			return this;
+		}
+		
+		if (this.type == PlaceholderTransitionBehavior.CONTENT) {
+			return transitionContent(next.placeholderData);
+		}
+		
+		return next;
+	}
+	
 	public PlaceholderTransitionBehavior getType() {
 		return type;
 	}
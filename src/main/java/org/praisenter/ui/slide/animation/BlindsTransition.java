@@ -1,5 +1,8 @@
 package org.praisenter.ui.slide.animation;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.praisenter.data.slide.animation.AnimationOrientation;
 
 import javafx.beans.property.IntegerProperty;
@@ -8,8 +11,8 @@ import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.geometry.Bounds;
 import javafx.scene.Node;
-import javafx.scene.shape.Rectangle;
-import javafx.scene.shape.Shape;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.PathElement;
 import javafx.util.Duration;
 
 public final class BlindsTransition extends CustomTransition {
@@ -17,12 +20,21 @@ public final class BlindsTransition extends CustomTransition {
 	private final ObjectProperty<AnimationOrientation> orientation;
 	private final IntegerProperty blindCount;
 	private final ObjectProperty<Bounds> bounds;
+	
+	/** The clip; a rectangle per blind that's reshaped each frame rather than recreated */
+	private final Path clip;
+	
+	/** The rectangle of each blind */
+	private RectangleElements[] blinds;
 
 	public BlindsTransition() {
 		this.duration = new SimpleObjectProperty<Duration>();
 		this.orientation = new SimpleObjectProperty<AnimationOrientation>();
 		this.blindCount = new SimpleIntegerProperty();
 		this.bounds = new SimpleObjectProperty<Bounds>();
+		
+		this.clip = createClipPath();
+		this.blinds = new RectangleElements[0];
 
 		this.duration.addListener((obs, ov, nv) -> {
 			this.setCycleDuration(nv);
@@ -39,19 +51,20 @@ public final class BlindsTransition extends CustomTransition {
 		
 		int blindCount = this.blindCount.get();
 		
-		Shape clip = null;
 		switch(orientation) {
 			case HORIZONTAL:
-				clip = getHorizontalBlinds(blindCount, frac);
+				this.updateHorizontalBlinds(blindCount, frac);
 				break;
 			case VERTICAL:
-				clip = getVerticalBlinds(blindCount, frac);
+				this.updateVerticalBlinds(blindCount, frac);
 				break;
 			default:
 				break;
 		}
 		
-		node.setClip(clip);
+		if (node.getClip() != this.clip) {
+			node.setClip(this.clip);
+		}
 	}
 
 	@Override
@@ -61,69 +74,71 @@ public final class BlindsTransition extends CustomTransition {
 		if (node == null) return;
 		node.setClip(null);
 	}
+	
+	/**
+	 * Makes sure the clip has a rectangle for each blind.
+	 * @param blinds the number of blinds
+	 */
+	private void ensureBlinds(int blinds) {
+		if (this.blinds.length == blinds) return;
+		
+		this.blinds = new RectangleElements[blinds];
+		List<PathElement> elements = new ArrayList<>(blinds * 5);
+		for (int i = 0; i < blinds; i++) {
+			this.blinds[i] = new RectangleElements();
+			this.blinds[i].addTo(elements);
+		}
+		this.clip.getElements().setAll(elements);
+	}
 
-	private Shape getHorizontalBlinds(int blinds, double frac) {
+	private void updateHorizontalBlinds(int blinds, double frac) {
 		Bounds bounds = this.bounds.get();
 		double x = bounds.getMinX();
 		double y = bounds.getMinY();
 		double w = bounds.getWidth();
 		double h = bounds.getHeight();
 		
-		Shape clip = null;
-		if (this.isInTransition()) {
-			clip = new Rectangle(x, y, w, h);
-		} else {
-			clip = new Rectangle();
-		}
+		this.ensureBlinds(blinds);
 		
 		double dy = y;
 		// compute the blind width
 		double bh = h / blinds;
-		// compute the area that needs to be painted by either removing
-		// vertical bars or adding vertical bars
+		// compute the area that needs to be painted; when transitioning in
+		// it's the part of each blind that's not covered yet, otherwise
+		// it's the part that's still covered
 		for (int i = 0; i < blinds; i++) {
-			Rectangle blind = new Rectangle(x, dy + bh * frac, w, bh * (1.0 - frac));
 			if (this.isInTransition()) {
-				clip = Shape.subtract(clip, blind);
+				this.blinds[i].set(x, dy, w, bh * frac);
 			} else {
-				clip = Shape.union(clip, blind);
+				this.blinds[i].set(x, dy + bh * frac, w, bh * (1.0 - frac));
 			}
 			dy += bh;
 		}
-		
-		return clip;
 	}
 	
-	private Shape getVerticalBlinds(int blinds, double frac) {
+	private void updateVerticalBlinds(int blinds, double frac) {
 		Bounds bounds = this.bounds.get();
 		double x = bounds.getMinX();
 		double y = bounds.getMinY();
 		double w = bounds.getWidth();
 		double h = bounds.getHeight();
 		
-		Shape clip = null;
-		if (this.isInTransition()) {
-			clip = new Rectangle(x, y, w, h);
-		} else {
-			clip = new Rectangle();
-		}
+		this.ensureBlinds(blinds);
 		
 		double dx = x;
 		// compute the blind width
 		double bw = w / blinds;
-		// compute the area that needs to be painted by either removing
-		// vertical bars or adding vertical bars
+		// compute the area that needs to be painted; when transitioning in
+		// it's the part of each blind that's not covered yet, otherwise
+		// it's the part that's still covered
 		for (int i = 0; i < blinds; i++) {
-			Rectangle blind = new Rectangle(dx + bw * frac, y, bw * (1.0 - frac), h);
 			if (this.isInTransition()) {
-				clip = Shape.subtract(clip, blind);
+				this.blinds[i].set(dx, y, bw * frac, h);
 			} else {
-				clip = Shape.union(clip, blind);
+				this.blinds[i].set(dx + bw * frac, y, bw * (1.0 - frac), h);
 			}
 			dx += bw;
 		}
-		
-		return clip;
 	}
 
 	public Duration getDuration() {
@@ -0,0 +1,119 @@
+package org.praisenter.ui.slide.animation;
+
+import java.util.List;
+
+import javafx.scene.shape.ArcTo;
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.PathElement;
+
+/**
+ * The path elements of a circle centered in a rectangle and clipped to it that can
+ * be moved and resized in place.
+ * <p>
+ * The outline is a quarter circle arc per quadrant joined by lines along the edges of
+ * the rectangle. The lines have zero length while the circle is inside the rectangle and
+ * the arcs have zero length once the circle covers it, so the outline never leaves the
+ * rectangle (the same area as intersecting the circle with the rectangle).
+ * <p>
+ * Used by the clip based transitions so that the clip's geometry can be updated
+ * each frame without creating new shapes.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+final class ClippedCircleElements {
+	private final MoveTo start;
+	private final LineTo right;
+	private final ArcTo bottomRight;
+	private final LineTo bottom;
+	private final ArcTo bottomLeft;
+	private final LineTo left;
+	private final ArcTo topLeft;
+	private final LineTo top;
+	private final ArcTo topRight;
+	private final ClosePath close;
+
+	public ClippedCircleElements() {
+		this.start = new MoveTo();
+		this.right = new LineTo();
+		this.bottomRight = createArc();
+		this.bottom = new LineTo();
+		this.bottomLeft = createArc();
+		this.left = new LineTo();
+		this.topLeft = createArc();
+		this.top = new LineTo();
+		this.topRight = createArc();
+		this.close = new ClosePath();
+	}
+
+	private static final ArcTo createArc() {
+		ArcTo arc = new ArcTo();
+		// each arc is at most a quarter circle in the clockwise direction
+		arc.setSweepFlag(true);
+		arc.setLargeArcFlag(false);
+		return arc;
+	}
+
+	/**
+	 * Moves and resizes the circle.
+	 * @param x the x coordinate of the top left corner of the rectangle
+	 * @param y the y coordinate of the top left corner of the rectangle
+	 * @param w the width of the rectangle
+	 * @param h the height of the rectangle
+	 * @param r the radius of the circle
+	 */
+	public void set(double x, double y, double w, double h, double r) {
+		double hw = w * 0.5;
+		double hh = h * 0.5;
+		double cx = x + hw;
+		double cy = y + hh;
+
+		// how far the outline reaches from the center along each axis
+		double rx = Math.min(r, hw);
+		double ry = Math.min(r, hh);
+
+		// where the circle crosses the left/right and top/bottom edges (from the center)
+		double ey = r > hw ? Math.min(Math.sqrt(r * r - hw * hw), hh) : 0;
+		double ex = r > hh ? Math.min(Math.sqrt(r * r - hh * hh), hw) : 0;
+
+		this.start.setX(cx + rx);
+		this.start.setY(cy - ey);
+		this.right.setX(cx + rx);
+		this.right.setY(cy + ey);
+		setArc(this.bottomRight, r, cx + ex, cy + ry);
+		this.bottom.setX(cx - ex);
+		this.bottom.setY(cy + ry);
+		setArc(this.bottomLeft, r, cx - rx, cy + ey);
+		this.left.setX(cx - rx);
+		this.left.setY(cy - ey);
+		setArc(this.topLeft, r, cx - ex, cy - ry);
+		this.top.setX(cx + ex);
+		this.top.setY(cy - ry);
+		setArc(this.topRight, r, cx + rx, cy - ey);
+	}
+
+	private static final void setArc(ArcTo arc, double r, double x, double y) {
+		arc.setRadiusX(r);
+		arc.setRadiusY(r);
+		arc.setX(x);
+		arc.setY(y);
+	}
+
+	/**
+	 * Adds the elements of this circle to the given list.
+	 * @param elements the list
+	 */
+	public void addTo(List<PathElement> elements) {
+		elements.add(this.start);
+		elements.add(this.right);
+		elements.add(this.bottomRight);
+		elements.add(this.bottom);
+		elements.add(this.bottomLeft);
+		elements.add(this.left);
+		elements.add(this.topLeft);
+		elements.add(this.top);
+		elements.add(this.topRight);
+		elements.add(this.close);
+	}
+}
@@ -4,6 +4,8 @@ import javafx.animation.Transition;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.scene.Node;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Path;
 
 public abstract class CustomTransition extends Transition {
 	protected ObjectProperty<Node> node;
@@ -16,6 +18,17 @@ public abstract class CustomTransition extends Transition {
 		return this.getRate() > 0;
 	}
 	
+	/**
+	 * Returns a new path for use as a clip whose elements can be updated each frame.
+	 * @return Path
+	 */
+	protected static final Path createClipPath() {
+		Path path = new Path();
+		path.setFill(Color.BLACK);
+		path.setStroke(null);
+		return path;
+	}
+	
 	public Node getNode() {
 		return this.node.get();
 	}
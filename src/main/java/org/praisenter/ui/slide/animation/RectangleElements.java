@@ -0,0 +1,62 @@
+package org.praisenter.ui.slide.animation;
+
+import java.util.List;
+
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.PathElement;
+
+/**
+ * The path elements of a rectangle that can be moved and resized in place.
+ * <p>
+ * Used by the clip based transitions so that the clip's geometry can be updated
+ * each frame without creating new shapes.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+final class RectangleElements {
+	private final MoveTo topLeft;
+	private final LineTo topRight;
+	private final LineTo bottomRight;
+	private final LineTo bottomLeft;
+	private final ClosePath close;
+	
+	public RectangleElements() {
+		this.topLeft = new MoveTo();
+		this.topRight = new LineTo();
+		this.bottomRight = new LineTo();
+		this.bottomLeft = new LineTo();
+		this.close = new ClosePath();
+	}
+	
+	/**
+	 * Moves and resizes the rectangle.
+	 * @param x the x coordinate of the top left corner
+	 * @param y the y coordinate of the top left corner
+	 * @param w the width
+	 * @param h the height
+	 */
+	public void set(double x, double y, double w, double h) {
+		this.topLeft.setX(x);
+		this.topLeft.setY(y);
+		this.topRight.setX(x + w);
+		this.topRight.setY(y);
+		this.bottomRight.setX(x + w);
+		this.bottomRight.setY(y + h);
+		this.bottomLeft.setX(x);
+		this.bottomLeft.setY(y + h);
+	}
+	
+	/**
+	 * Adds the elements of this rectangle to the given list.
+	 * @param elements the list
+	 */
+	public void addTo(List<PathElement> elements) {
+		elements.add(this.topLeft);
+		elements.add(this.topRight);
+		elements.add(this.bottomRight);
+		elements.add(this.bottomLeft);
+		elements.add(this.close);
+	}
+}
@@ -7,8 +7,8 @@ import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.geometry.Bounds;
 import javafx.scene.Node;
-import javafx.scene.shape.Circle;
-import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.FillRule;
+import javafx.scene.shape.Path;
 import javafx.scene.shape.Shape;
 import javafx.util.Duration;
 
@@ -18,11 +18,30 @@ public final class ShapedTransition extends CustomTransition {
 	private final ObjectProperty<AnimationOperation> operation;
 	private final ObjectProperty<Bounds> bounds;
 	
+	// the clip shapes; these are reshaped each frame rather than recreated
+	
+	private final Path circle;
+	private final Path cutout;
+	private final ClippedCircleElements circleElements;
+	private final RectangleElements rect;
+	private final ClippedCircleElements cutoutCircleElements;
+	
 	public ShapedTransition() {
 		this.duration = new SimpleObjectProperty<Duration>();
 		this.shapeType = new SimpleObjectProperty<AnimationShapeType>();
 		this.operation = new SimpleObjectProperty<AnimationOperation>();
 		this.bounds = new SimpleObjectProperty<Bounds>();
+		
+		this.circleElements = new ClippedCircleElements();
+		this.circle = createClipPath();
+		this.circleElements.addTo(this.circle.getElements());
+		
+		this.rect = new RectangleElements();
+		this.cutoutCircleElements = new ClippedCircleElements();
+		this.cutout = createClipPath();
+		this.rect.addTo(this.cutout.getElements());
+		this.cutoutCircleElements.addTo(this.cutout.getElements());
+		this.cutout.setFillRule(FillRule.EVEN_ODD);
 
 		this.duration.addListener((obs, ov, nv) -> {
 			this.setCycleDuration(nv);
@@ -51,7 +70,9 @@ public final class ShapedTransition extends CustomTransition {
 				break;
 		}
 		
-		node.setClip(clip);
+		if (node.getClip() != clip) {
+			node.setClip(clip);
+		}
 	}
 
 	@Override
@@ -64,44 +85,67 @@ public final class ShapedTransition extends CustomTransition {
 	
 	private Shape getCollapsingCircleClip(double frac) {
 		Bounds bounds = this.bounds.get();
-		double x = bounds.getMinX();
-		double y = bounds.getMinY();
-		double w = bounds.getWidth();
-		double h = bounds.getHeight();
-		
-		double hw = w * 0.5;
-		double hh = h * 0.5;
+		double hw = bounds.getWidth() * 0.5;
+		double hh = bounds.getHeight() * 0.5;
 		double r = Math.sqrt(hw * hw + hh * hh) * (1.0 - frac);
-		Rectangle all = new Rectangle(x, y, w, h);
-		Circle circle = new Circle(x + hw, y + hh, r);
 		
-		// create the clip shape
+		// update the clip shape
 		if (this.isInTransition()) {
-			return Shape.subtract(all, circle);
+			return this.updateCircleCutout(bounds, r);
 		} else {
-			return circle;
+			return this.updateCircle(bounds, r);
 		}
 	}
 	
 	private Shape getExpandingCircleClip(double frac) {
 		Bounds bounds = this.bounds.get();
+		double hw = bounds.getWidth() * 0.5;
+		double hh = bounds.getHeight() * 0.5;
+		double r = Math.sqrt(hw * hw + hh * hh) * frac;
+		
+		// update the clip shape
+		if (this.isInTransition()) {
+			return this.updateCircle(bounds, r);
+		} else {
+			return this.updateCircleCutout(bounds, r);
+		}
+	}
+	
+	/**
+	 * Updates the reusable circle clip to the given radius centered in the given bounds.
+	 * <p>
+	 * The circle is clipped to the bounds.
+	 * @param bounds the bounds
+	 * @param r the radius
+	 * @return Shape
+	 */
+	private Shape updateCircle(Bounds bounds, double r) {
+		this.circleElements.set(bounds.getMinX(), bounds.getMinY(), bounds.getWidth(), bounds.getHeight(), r);
+		return this.circle;
+	}
+	
+	/**
+	 * Updates the reusable cutout clip (the bounds with a circle of the given 
+	 * radius removed from the center).
+	 * <p>
+	 * The path is filled with the even-odd rule so that the circle subpath
+	 * removes its area from the rectangle subpath. The circle subpath is clipped
+	 * to the bounds, otherwise the part of the circle outside the bounds would
+	 * be filled once it's larger than the bounds.
+	 * @param bounds the bounds
+	 * @param r the radius
+	 * @return Shape
+	 */
+	private Shape updateCircleCutout(Bounds bounds, double r) {
 		double x = bounds.getMinX();
 		double y = bounds.getMinY();
 		double w = bounds.getWidth();
 		double h = bounds.getHeight();
 		
-		double hw = w * 0.5;
-		double hh = h * 0.5;
-		double r = Math.sqrt(hw * hw + hh * hh) * frac;
-		Rectangle all = new Rectangle(x, y, w, h);
-		Circle circle = new Circle(x + hw, y + hh, r);
+		this.rect.set(x, y, w, h);
+		this.cutoutCircleElements.set(x, y, w, h, r);
 		
-		// create the clip shape
-		if (this.isInTransition()) {
-			return circle;
-		} else {
-			return Shape.subtract(all, circle);
-		}
+		return this.cutout;
 	}
 
 	public Duration getDuration() {
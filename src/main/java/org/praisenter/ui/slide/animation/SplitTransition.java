@@ -7,6 +7,7 @@ import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.geometry.Bounds;
 import javafx.scene.Node;
+import javafx.scene.shape.Path;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.shape.Shape;
 import javafx.util.Duration;
@@ -17,12 +18,26 @@ public final class SplitTransition extends CustomTransition {
 	private final ObjectProperty<AnimationOperation> operation;
 	private final ObjectProperty<Bounds> bounds;
 	
+	// the clip shapes; these are reshaped each frame rather than recreated
+	
+	private final Rectangle band;
+	private final Path outside;
+	private final RectangleElements before;
+	private final RectangleElements after;
+	
 	public SplitTransition() {
 		this.duration = new SimpleObjectProperty<Duration>();
 		this.orientation = new SimpleObjectProperty<AnimationOrientation>();
 		this.operation = new SimpleObjectProperty<AnimationOperation>();
 		this.bounds = new SimpleObjectProperty<Bounds>();
 		
+		this.band = new Rectangle();
+		this.before = new RectangleElements();
+		this.after = new RectangleElements();
+		this.outside = createClipPath();
+		this.before.addTo(this.outside.getElements());
+		this.after.addTo(this.outside.getElements());
+		
 		this.duration.addListener((obs, ov, nv) -> {
 			this.setCycleDuration(nv);
 		});
@@ -69,7 +84,9 @@ public final class SplitTransition extends CustomTransition {
 				break;
 		}
 		
-		node.setClip(clip);
+		if (node.getClip() != clip) {
+			node.setClip(clip);
+		}
 	}
 
 	@Override
@@ -82,78 +99,97 @@ public final class SplitTransition extends CustomTransition {
 	
 	private Shape getHorizontalCollapse(double frac) {
 		Bounds bounds = this.bounds.get();
-		double x = bounds.getMinX();
-		double y = bounds.getMinY();
-		double w = bounds.getWidth();
 		double h = bounds.getHeight();
-		
 		double hh = h * 0.5;
 		
-		Rectangle all = new Rectangle(x, y, w, h);
-		Rectangle cut = new Rectangle(x, y + hh * frac, w, h * (1.0 - frac));
-		
 		if (this.isInTransition()) {
-			return Shape.subtract(all, cut);
+			return this.getOutsideBand(bounds, hh * frac, h * (1.0 - frac), true);
 		} else {
-			return cut;
+			return this.getBand(bounds, hh * frac, h * (1.0 - frac), true);
 		}
 	}
 	
 	private Shape getHorizontalExpand(double frac) {
 		Bounds bounds = this.bounds.get();
-		double x = bounds.getMinX();
-		double y = bounds.getMinY();
-		double w = bounds.getWidth();
 		double h = bounds.getHeight();
-		
 		double hh = h * 0.5;
 		
-		Rectangle all = new Rectangle(x, y, w, h);
-		Rectangle cut = new Rectangle(x, y + hh * (1.0 - frac), w, h * frac);
-		
 		if (this.isInTransition()) {
-			return cut;
+			return this.getBand(bounds, hh * (1.0 - frac), h * frac, true);
 		} else {
-			return Shape.subtract(all, cut);
+			return this.getOutsideBand(bounds, hh * (1.0 - frac), h * frac, true);
 		}
 	}
 	
 	private Shape getVerticalCollapse(double frac) {
 		Bounds bounds = this.bounds.get();
-		double x = bounds.getMinX();
-		double y = bounds.getMinY();
 		double w = bounds.getWidth();
-		double h = bounds.getHeight();
-		
 		double hw = w * 0.5;
 		
-		Rectangle all = new Rectangle(x, y, w, h);
-		Rectangle cut = new Rectangle(x + hw * frac, y, w * (1.0 - frac), h);
-		
 		if (this.isInTransition()) {
-			return Shape.subtract(all, cut);
+			return this.getOutsideBand(bounds, hw * frac, w * (1.0 - frac), false);
 		} else {
-			return cut;
+			return this.getBand(bounds, hw * frac, w * (1.0 - frac), false);
 		}
 	}
 	
 	private Shape getVerticalExpand(double frac) {
 		Bounds bounds = this.bounds.get();
+		double w = bounds.getWidth();
+		double hw = w * 0.5;
+		
+		if (this.isInTransition()) {
+			return this.getBand(bounds, hw * (1.0 - frac), w * frac, false);
+		} else {
+			return this.getOutsideBand(bounds, hw * (1.0 - frac), w * frac, false);
+		}
+	}
+	
+	/**
+	 * Updates the reusable band clip.
+	 * @param bounds the bounds
+	 * @param offset the offset of the band from the top (or left)
+	 * @param size the height (or width) of the band
+	 * @param horizontal true if the band spans the width of the bounds
+	 * @return Shape
+	 */
+	private Shape getBand(Bounds bounds, double offset, double size, boolean horizontal) {
+		if (horizontal) {
+			this.band.setX(bounds.getMinX());
+			this.band.setY(bounds.getMinY() + offset);
+			this.band.setWidth(bounds.getWidth());
+			this.band.setHeight(size);
+		} else {
+			this.band.setX(bounds.getMinX() + offset);
+			this.band.setY(bounds.getMinY());
+			this.band.setWidth(size);
+			this.band.setHeight(bounds.getHeight());
+		}
+		return this.band;
+	}
+	
+	/**
+	 * Updates the reusable clip for the area outside of a band (the bounds minus the band).
+	 * @param bounds the bounds
+	 * @param offset the offset of the band from the top (or left)
+	 * @param size the height (or width) of the band
+	 * @param horizontal true if the band spans the width of the bounds
+	 * @return Shape
+	 */
+	private Shape getOutsideBand(Bounds bounds, double offset, double size, boolean horizontal) {
 		double x = bounds.getMinX();
 		double y = bounds.getMinY();
 		double w = bounds.getWidth();
 		double h = bounds.getHeight();
 		
-		double hw = w * 0.5;
-		
-		Rectangle all = new Rectangle(x, y, w, h);
-		Rectangle cut = new Rectangle(x + hw * (1.0 - frac), y, w * frac, h);
-		
-		if (this.isInTransition()) {
-			return cut;
+		if (horizontal) {
+			this.before.set(x, y, w, offset);
+			this.after.set(x, y + offset + size, w, h - offset - size);
 		} else {
-			return Shape.subtract(all, cut);
+			this.before.set(x, y, offset, h);
+			this.after.set(x + offset + size, y, w - offset - size, h);
 		}
+		return this.outside;
 	}
 	
 	public Duration getDuration() {
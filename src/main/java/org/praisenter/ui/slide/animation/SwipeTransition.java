@@ -17,10 +17,19 @@ public final class SwipeTransition extends CustomTransition {
 	private final ObjectProperty<AnimationDirection> direction;
 	private final ObjectProperty<Bounds> bounds;
 	
+	// the clip shapes; these are reshaped each frame rather than recreated
+	
+	private final Rectangle rectangle;
+	private final Arc arc;
+	
 	public SwipeTransition() {
 		this.duration = new SimpleObjectProperty<Duration>();
 		this.direction = new SimpleObjectProperty<AnimationDirection>();
 		this.bounds = new SimpleObjectProperty<Bounds>();
+		
+		this.rectangle = new Rectangle();
+		this.arc = new Arc();
+		this.arc.setType(ArcType.ROUND);
 
 		this.duration.addListener((obs, ov, nv) -> {
 			this.setCycleDuration(nv);
@@ -65,7 +74,9 @@ public final class SwipeTransition extends CustomTransition {
 				break;
 		}
 		
-		node.setClip(clip);
+		if (node.getClip() != clip) {
+			node.setClip(clip);
+		}
 	}
 
 	@Override
@@ -85,9 +96,9 @@ public final class SwipeTransition extends CustomTransition {
 		
 		double p = Math.ceil(h * (1.0 - frac));
 		if (this.isInTransition()) {
-			return new Rectangle(x, y + p, w, h);
+			return this.getRectangle(x, y + p, w, h);
 		} else {
-			return new Rectangle(x, y, w, p);
+			return this.getRectangle(x, y, w, p);
 		}
 	}
 
@@ -100,9 +111,9 @@ public final class SwipeTransition extends CustomTransition {
 		
 		double p = Math.ceil(w * frac);
 		if (this.isInTransition()) {
-			return new Rectangle(x, y, p, h);
+			return this.getRectangle(x, y, p, h);
 		} else {
-			return new Rectangle(x + p, y, w, h);
+			return this.getRectangle(x + p, y, w, h);
 		}
 	}
 
@@ -115,9 +126,9 @@ public final class SwipeTransition extends CustomTransition {
 		
 		double p = Math.ceil(h * frac);
 		if (this.isInTransition()) {
-			return new Rectangle(x, y, w, p);
+			return this.getRectangle(x, y, w, p);
 		} else {
-			return new Rectangle(x, y + p, w, h * Math.ceil(1.0 - frac));
+			return this.getRectangle(x, y + p, w, h * Math.ceil(1.0 - frac));
 		}
 	}
 
@@ -130,100 +141,102 @@ public final class SwipeTransition extends CustomTransition {
 		
 		double p = Math.ceil(w * (1.0 - frac));
 		if (this.isInTransition()) {
-			return new Rectangle(x + p, y, w, h);
+			return this.getRectangle(x + p, y, w, h);
 		} else {
-			return new Rectangle(x, y, p, h);
+			return this.getRectangle(x, y, p, h);
 		}
 	}
 
 	private Shape getClockwiseClip(double frac) {
 		Bounds bounds = this.bounds.get();
-		double x = bounds.getMinX();
-		double y = bounds.getMinY();
-		double w = bounds.getWidth();
-		double h = bounds.getHeight();
-		
-		double hw = w * 0.5;
-		double hh = h * 0.5;
-		double r = Math.sqrt(hw * hw + hh * hh);
-		
-		Rectangle all = new Rectangle(x, y, w, h);
-		Arc arc = new Arc(x + hw, y + hh, r, r, 90.0, -360 * frac);
-		arc.setType(ArcType.ROUND);
+		double start = 90.0;
+		double length = -360 * frac;
 		
 		if (this.isInTransition()) {
-			return arc;
+			return this.getArc(bounds, start, length);
 		} else {
-			return Shape.subtract(all, arc);
+			// the rest of the circle is the bounds minus the arc
+			return this.getArc(bounds, start + length, (length < 0 ? -360.0 : 360.0) - length);
 		}
 	}
 
 	private Shape getCounterClockwiseClip(double frac) {
 		Bounds bounds = this.bounds.get();
-		double x = bounds.getMinX();
-		double y = bounds.getMinY();
-		double w = bounds.getWidth();
-		double h = bounds.getHeight();
-		
-		double hw = w * 0.5;
-		double hh = h * 0.5;
-		double r = Math.sqrt(hw * hw + hh * hh);
-		
-		Rectangle all = new Rectangle(x, y, w, h);
-		Arc arc = new Arc(x + hw, y + hh, r, r, 90.0, 360 * frac);
-		arc.setType(ArcType.ROUND);
+		double start = 90.0;
+		double length = 360 * frac;
 		
 		if (this.isInTransition()) {
-			return arc;
+			return this.getArc(bounds, start, length);
 		} else {
-			return Shape.subtract(all, arc);
+			// the rest of the circle is the bounds minus the arc
+			return this.getArc(bounds, start + length, (length < 0 ? -360.0 : 360.0) - length);
 		}
 	}
 
 	private Shape getWedgeDownClip(double frac) {
 		Bounds bounds = this.bounds.get();
-		double x = bounds.getMinX();
-		double y = bounds.getMinY();
-		double w = bounds.getWidth();
-		double h = bounds.getHeight();
-		
-		double hw = w * 0.5;
-		double hh = h * 0.5;
-		double r = Math.sqrt(hw * hw + hh * hh);
+		double start = 90 - 180 * frac;
+		double length = 360 * frac;
 		
-		Rectangle all = new Rectangle(x, y, w, h);
-		Arc arc = new Arc(x + hw, y + hh, r, r, 90 - 180 * frac, 360 * frac);
-		arc.setType(ArcType.ROUND);
-
 		if (this.isInTransition()) {
-			return arc;
+			return this.getArc(bounds, start, length);
 		} else {
-			return Shape.subtract(all, arc);
+			// the rest of the circle is the bounds minus the arc
+			return this.getArc(bounds, start + length, (length < 0 ? -360.0 : 360.0) - length);
 		}
 	}
 
 	private Shape getWedgeUpClip(double frac) {
 		Bounds bounds = this.bounds.get();
-		double x = bounds.getMinX();
-		double y = bounds.getMinY();
-		double w = bounds.getWidth();
-		double h = bounds.getHeight();
-		
-		double hw = w * 0.5;
-		double hh = h * 0.5;
-		double r = Math.sqrt(hw * hw + hh * hh);
-		
-		Rectangle all = new Rectangle(x, y, w, h);
-		Arc arc = new Arc(x + hw, y + hh, r, r, -90 - 180 * frac, 360 * frac);
-		arc.setType(ArcType.ROUND);
+		double start = -90 - 180 * frac;
+		double length = 360 * frac;
 		
 		if (this.isInTransition()) {
-			return arc;
+			return this.getArc(bounds, start, length);
 		} else {
-			return Shape.subtract(all, arc);
+			// the rest of the circle is the bounds minus the arc
+			return this.getArc(bounds, start + length, (length < 0 ? -360.0 : 360.0) - length);
 		}
 	}
 
+	/**
+	 * Updates the reusable rectangle clip.
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 * @param w the width
+	 * @param h the height
+	 * @return Shape
+	 */
+	private Shape getRectangle(double x, double y, double w, double h) {
+		this.rectangle.setX(x);
+		this.rectangle.setY(y);
+		this.rectangle.setWidth(w);
+		this.rectangle.setHeight(h);
+		return this.rectangle;
+	}
+	
+	/**
+	 * Updates the reusable arc clip; the arc is centered in the given bounds
+	 * with a radius that covers the bounds.
+	 * @param bounds the bounds
+	 * @param start the start angle
+	 * @param length the angular extent
+	 * @return Shape
+	 */
+	private Shape getArc(Bounds bounds, double start, double length) {
+		double hw = bounds.getWidth() * 0.5;
+		double hh = bounds.getHeight() * 0.5;
+		double r = Math.sqrt(hw * hw + hh * hh);
+		
+		this.arc.setCenterX(bounds.getMinX() + hw);
+		this.arc.setCenterY(bounds.getMinY() + hh);
+		this.arc.setRadiusX(r);
+		this.arc.setRadiusY(r);
+		this.arc.setStartAngle(start);
+		this.arc.setLength(length);
+		return this.arc;
+	}
+
 	public Duration getDuration() {
 		return this.duration.get();
 	}
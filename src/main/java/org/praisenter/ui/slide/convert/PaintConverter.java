@@ -25,7 +25,10 @@
 package org.praisenter.ui.slide.convert;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.praisenter.data.slide.graphics.SlideColor;
 import org.praisenter.data.slide.graphics.SlideGradient;
@@ -43,12 +46,46 @@ import javafx.scene.paint.Stop;
 
 /**
  * Class with a collection of paint (color, gradient, etc) related conversion methods for Java FX and Praisenter.
+ * <p>
+ * The Java FX paints are immutable, so the converted paints are interned by value. Converting
+ * the same color or gradient again (for example, each time a template is rendered) returns the
+ * same instance instead of building (and validating) a new one.
  * @author William Bittle
  * @version 3.0.0
  */
 public final class PaintConverter {
+	/** The maximum number of converted paints to keep */
+	private static final int MAXIMUM_CACHED_PAINTS = 256;
+	
+	/** The key type for colors */
+	private static final int KEY_TYPE_COLOR = 0;
+	
+	/** The key type for linear gradients */
+	private static final int KEY_TYPE_LINEAR = 1;
+	
+	/** The key type for radial gradients */
+	private static final int KEY_TYPE_RADIAL = 2;
+	
+	/** The converted paints by value */
+	private static final Map<PaintKey, Paint> PAINTS = new LinkedHashMap<PaintKey, Paint>(MAXIMUM_CACHED_PAINTS + 1, 0.75f, true) {
+		private static final long serialVersionUID = -1805785473566473215L;
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<PaintKey, Paint> eldest) {
+			return this.size() > MAXIMUM_CACHED_PAINTS;
+		}
+	};
+	
 	/** private constructor */
 	private PaintConverter() {}
+	
+	/**
+	 * Removes all converted paints from the cache.
+	 */
+	public static void clearCache() {
+		synchronized (PAINTS) {
+			PAINTS.clear();
+		}
+	}
 
 	/**
 	 * Converts the given {@link SlideColor} into a Color.
@@ -57,7 +94,23 @@ public final class PaintConverter {
 	 */
 	public static Color toJavaFX(SlideColor color) {
 		if (color == null) return Color.BLACK;
-		return new Color(color.getRed(), color.getGreen(), color.getBlue(), color.getAlpha());
+		
+		PaintKey key = new PaintKey(KEY_TYPE_COLOR, new double[] { 
+			color.getRed(), 
+			color.getGreen(), 
+			color.getBlue(), 
+			color.getAlpha() 
+		});
+		
+		synchronized (PAINTS) {
+			Paint paint = PAINTS.get(key);
+			if (paint != null) {
+				return (Color)paint;
+			}
+		}
+		
+		Color converted = new Color(color.getRed(), color.getGreen(), color.getBlue(), color.getAlpha());
+		return (Color)intern(key, converted);
 	}
 	
 	/**
@@ -140,6 +193,23 @@ public final class PaintConverter {
 			return null;
 		}
 		
+		PaintKey key = getKey(gradient);
+		synchronized (PAINTS) {
+			Paint paint = PAINTS.get(key);
+			if (paint != null) {
+				return paint;
+			}
+		}
+		
+		return intern(key, createGradient(gradient));
+	}
+	
+	/**
+	 * Creates a new gradient paint for the given gradient.
+	 * @param gradient the gradient
+	 * @return Paint
+	 */
+	private static Paint createGradient(SlideGradient gradient) {
 		if (gradient.getType() == SlideGradientType.RADIAL) {
 			double x1 = gradient.getStartX();
 			double x2 = gradient.getEndX();
@@ -168,4 +238,80 @@ public final class PaintConverter {
 					toJavaFX(gradient.getStops()));
 		}
 	}
+	
+	/**
+	 * Adds the given paint to the cache, returning the cached paint if another
+	 * thread added one first.
+	 * @param key the key
+	 * @param paint the converted paint
+	 * @return Paint
+	 */
+	private static Paint intern(PaintKey key, Paint paint) {
+		synchronized (PAINTS) {
+			Paint existing = PAINTS.putIfAbsent(key, paint);
+			return existing != null ? existing : paint;
+		}
+	}
+	
+	/**
+	 * Returns the key for the given gradient.
+	 * <p>
+	 * The key holds the gradient's values rather than the gradient itself since the
+	 * gradient is mutable.
+	 * @param gradient the gradient
+	 * @return {@link PaintKey}
+	 */
+	private static PaintKey getKey(SlideGradient gradient) {
+		List<SlideGradientStop> stops = gradient.getStops();
+		int n = stops != null ? stops.size() : 0;
+		
+		double[] values = new double[5 + n * 5];
+		values[0] = gradient.getStartX();
+		values[1] = gradient.getStartY();
+		values[2] = gradient.getEndX();
+		values[3] = gradient.getEndY();
+		values[4] = toJavaFX(gradient.getCycleType()).ordinal();
+		
+		int i = 5;
+		for (int j = 0; j < n; j++) {
+			SlideGradientStop stop = stops.get(j);
+			SlideColor color = stop.getColor();
+			values[i++] = stop.getOffset();
+			values[i++] = color != null ? color.getRed() : 0;
+			values[i++] = color != null ? color.getGreen() : 0;
+			values[i++] = color != null ? color.getBlue() : 0;
+			values[i++] = color != null ? color.getAlpha() : 1;
+		}
+		
+		int type = gradient.getType() == SlideGradientType.RADIAL ? KEY_TYPE_RADIAL : KEY_TYPE_LINEAR;
+		return new PaintKey(type, values);
+	}
+	
+	/**
+	 * An immutable copy of the values of a paint used as a cache key.
+	 */
+	private static final class PaintKey {
+		private final int type;
+		private final double[] values;
+		private final int hash;
+		
+		public PaintKey(int type, double[] values) {
+			this.type = type;
+			this.values = values;
+			this.hash = 31 * type + Arrays.hashCode(values);
+		}
+		
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) return true;
+			if (!(obj instanceof PaintKey)) return false;
+			PaintKey other = (PaintKey)obj;
+			return this.type == other.type && Arrays.equals(this.values, other.values);
+		}
+	}
 }
@@ -1,10 +1,15 @@
 package org.praisenter.ui.song;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
 import org.praisenter.Constants;
 import org.praisenter.data.song.Lyrics;
 import org.praisenter.data.song.Section;
 import org.praisenter.ui.BulkEditConverter;
 import org.praisenter.ui.BulkEditParseException;
+import org.praisenter.ui.ObservableLists;
 import org.praisenter.utility.StringManipulator;
 
 final class LyricsBulkEditConverter implements BulkEditConverter<Lyrics> {
@@ -32,30 +37,46 @@ final class LyricsBulkEditConverter implements BulkEditConverter<Lyrics> {
 		
 		if (StringManipulator.isNullOrEmpty(data)) return lyrics;
 		
-		String[] groups = data.split("\\r?\\n{2,}");
-		
-		if (groups.length == 0) return lyrics;
-		
-		lyrics.setTitle(groups[0].trim());
-		
-		for (int i = 1; i < groups.length; i++) {
-			String[] lines = groups[i].split("\\r?\\n");
-			if (lines.length > 0) {
-				Section section = new Section();
-				section.setName(lines[0].trim());
-				StringBuilder sb = new StringBuilder();
-				for (int j = 1; j < lines.length; j++) {
-					if (j != 1) sb.append(Constants.NEW_LINE);
-					sb.append(lines[j].trim());
-				}
-				section.setText(sb.toString());
-				
-				if (!StringManipulator.isNullOrEmpty(section.getName()) || !StringManipulator.isNullOrEmpty(section.getText())) {
-					lyrics.getSections().add(section);
+		// the groups of lines are separated by empty lines (two or more new lines in
+		// a row): the first group is the title and the rest are sections. Lines with
+		// only whitespace don't separate groups, they're kept as empty lines
+		List<String> group = new ArrayList<>();
+		boolean title = true;
+		Iterator<String> lines = data.lines().iterator();
+		while (true) {
+			String line = lines.hasNext() ? lines.next() : null;
+			if (line != null && !line.isEmpty()) {
+				group.add(line.trim());
+				continue;
+			}
+			
+			if (!group.isEmpty()) {
+				if (title) {
+					lyrics.setTitle(String.join(Constants.NEW_LINE, group).trim());
+					title = false;
+				} else {
+					Section section = new Section();
+					section.setName(group.get(0));
+					section.setText(String.join(Constants.NEW_LINE, group.subList(1, group.size())));
+					if (!StringManipulator.isNullOrEmpty(section.getName()) || !StringManipulator.isNullOrEmpty(section.getText())) {
+						lyrics.getSections().add(section);
+					}
 				}
+				group.clear();
 			}
+			
+			if (line == null) break;
 		}
 		
 		return lyrics;
 	}
+	
+	@Override
+	public void apply(Lyrics target, Lyrics edits) {
+		target.setTitle(edits.getTitle());
+		// keep the existing sections (and their ids) when the name matches
+		ObservableLists.merge(target.getSections(), edits.getSections(), Section::getName, (section, edit) -> {
+			section.setText(edit.getText());
+		});
+	}
 }
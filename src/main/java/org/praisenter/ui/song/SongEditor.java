@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
@@ -26,6 +27,7 @@ import org.praisenter.ui.events.ActionStateChangedEvent;
 import org.praisenter.ui.translations.Translations;
 import org.praisenter.ui.undo.UndoManager;
 
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.ListChangeListener;
@@ -191,14 +193,18 @@ public final class SongEditor extends BorderPane implements DocumentEditor<Song>
 		StackPane editorStack = new StackPane(this.treeView, bulkEditor);
 		
 		btnOk.setOnAction(e -> {
-			try {
-				this.processBulkEdit();
-				document.setBulkEdit(false);
-				this.bulkEditModeValue.set(null);
-				this.bulkEditModeError.set(null);
-			} catch (Exception ex) {
-				this.bulkEditModeError.set(ex.getMessage());
-			}
+			btnOk.setDisable(true);
+			this.processBulkEdit().whenCompleteAsync((r, ex) -> {
+				btnOk.setDisable(false);
+				if (ex != null) {
+					Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+					this.bulkEditModeError.set(cause.getMessage());
+				} else {
+					document.setBulkEdit(false);
+					this.bulkEditModeValue.set(null);
+					this.bulkEditModeError.set(null);
+				}
+			}, Platform::runLater);
 		});
 		
 		btnCancel.setOnAction(e -> {
@@ -346,7 +352,7 @@ public final class SongEditor extends BorderPane implements DocumentEditor<Song>
 		return CompletableFuture.completedFuture(null);
 	}
 	
-	private void processBulkEdit() throws BulkEditParseException {
+	private CompletableFuture<Void> processBulkEdit() {
 		DocumentContext<Song> ctx = this.document;
 		final Object selected = ctx.getSelectedItem();
 		Class<?> selectedType = ctx.getSelectedType();
@@ -363,19 +369,35 @@ public final class SongEditor extends BorderPane implements DocumentEditor<Song>
 		}
 		
 		if (lyrics != null) {
-			String result = this.bulkEditModeValue.get();
-			
-			BulkEditConverter<Lyrics> converter = new LyricsBulkEditConverter();
-			Lyrics edits = converter.fromString(result);
+			final Lyrics target = lyrics;
+			final String result = this.bulkEditModeValue.get();
+			final BulkEditConverter<Lyrics> converter = new LyricsBulkEditConverter();
 			
-			UndoManager um = this.document.getUndoManager();
-			um.beginBatch("LyricsBulkEdit");
-			lyrics.setTitle(edits.getTitle());
-			lyrics.getSections().setAll(edits.getSections());
-			um.completeBatch();
+			// parse in the background
+			return CompletableFuture.supplyAsync(() -> {
+				try {
+					return converter.fromString(result);
+				} catch (BulkEditParseException ex) {
+					throw new CompletionException(ex);
+				}
+			}, this.context.getExecutors().getCPUExecutor()).thenAcceptAsync((edits) -> {
+				// then only change what's different
+				UndoManager um = this.document.getUndoManager();
+				um.beginBatch("LyricsBulkEdit");
+				try {
+					converter.apply(target, edits);
+					um.completeBatch();
+				} catch (RuntimeException ex) {
+					LOGGER.error("Failed to apply the bulk edit", ex);
+					um.discardBatch();
+					throw ex;
+				}
+			}, Platform::runLater);
 		} else {
 			LOGGER.error("Bulk edit failed to apply because the selected item wasn't what we expected (an instance of Lyrics)");
 		}
+		
+		return CompletableFuture.completedFuture(null);
 	}
 	
 	private CompletableFuture<Void> delete() {
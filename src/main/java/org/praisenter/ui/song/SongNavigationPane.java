@@ -1,5 +1,9 @@
 package org.praisenter.ui.song;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.praisenter.data.Persistable;
 import org.praisenter.data.TextVariant;
 import org.praisenter.data.song.Lyrics;
@@ -18,6 +22,7 @@ import org.praisenter.ui.translations.Translations;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
@@ -56,6 +61,11 @@ public final class SongNavigationPane extends VBox {
 	// value
 
 	private final ObjectProperty<SongReferenceTextStore> value;
+	private final ObjectProperty<SongReferenceTextStore> previous;
+	private final ObjectProperty<SongReferenceTextStore> next;
+	
+	/** All the sections of the selected lyrics (for checking them all at once) */
+	private final ObjectProperty<List<SongReferenceTextStore>> allSections;
 	
 	private final ObservableList<Node> sectionsToNodesMapping;
 	
@@ -71,6 +81,9 @@ public final class SongNavigationPane extends VBox {
 		this.lyrics = FXCollections.observableArrayList();
 		this.sections = FXCollections.observableArrayList();
 		this.value = new SimpleObjectProperty<SongReferenceTextStore>(new SongReferenceTextStore());
+		this.previous = new SimpleObjectProperty<SongReferenceTextStore>();
+		this.next = new SimpleObjectProperty<SongReferenceTextStore>();
+		this.allSections = new SimpleObjectProperty<List<SongReferenceTextStore>>(Collections.emptyList());
 
 		this.lyricsWithEmptyOption = new EmptyItemList<ReadOnlyLyrics>(this.lyrics, EMPTY_LYRICS);
 		
@@ -109,6 +122,18 @@ public final class SongNavigationPane extends VBox {
 		cmbSecondaryLyrics.setPromptText(Translations.get("song.nav.secondary"));
 		Bindings.bindContent(cmbSecondaryLyrics.getItems(), this.lyricsWithEmptyOption);
 		
+		final Runnable updateAllSections = () -> {
+			List<SongReferenceTextStore> all = new ArrayList<>();
+			if (this.song.get() != null && cmbPrimaryLyrics.getValue() != null) {
+				for (ReadOnlySection section : this.sections) {
+					all.add(this.createTextStore(section, cmbPrimaryLyrics.getValue(), cmbSecondaryLyrics.getValue()));
+				}
+			}
+			this.allSections.set(Collections.unmodifiableList(all));
+		};
+		this.sections.addListener((Change<? extends ReadOnlySection> c) -> updateAllSections.run());
+		cmbSecondaryLyrics.valueProperty().addListener((obs, ov, nv) -> updateAllSections.run());
+		
 		this.sectionsToNodesMapping = new MappedList<>(this.sections, (section) -> {
 			Button btnSection = new Button(section.getName());
 			btnSection.setMaxWidth(Double.MAX_VALUE);
@@ -121,28 +146,7 @@ public final class SongNavigationPane extends VBox {
 			btnSection.setTooltip(tooltip);
 			btnSection.setOnAction((e) -> {
 				this.mutating = true;
-				SongReferenceTextStore text = new SongReferenceTextStore();
-				text.setVariant(TextVariant.PRIMARY, new SongReferenceVerse(
-						this.song.get().getId(), 
-						cmbPrimaryLyrics.getValue().getId(),
-						section.getId(),
-						cmbPrimaryLyrics.getValue().getTitle(),
-						section.getName(),
-						section.getText()));
-				ReadOnlyLyrics secondary = cmbSecondaryLyrics.getValue();
-				if (secondary != null) {
-					// try to find the secondary section based on the first
-					ReadOnlySection secondarySection = secondary.getSectionByName(section.getName());
-					if (secondarySection != null) {
-						text.setVariant(TextVariant.SECONDARY, new SongReferenceVerse(
-								this.song.get().getId(), 
-								secondary.getId(), 
-								secondarySection.getId(),
-								secondary.getTitle(),
-								secondarySection.getName(),
-								secondarySection.getText()));
-					}
-				}
+				SongReferenceTextStore text = this.createTextStore(section, cmbPrimaryLyrics.getValue(), cmbSecondaryLyrics.getValue());
 				this.value.set(text);
 				this.mutating = false;
 			});
@@ -261,6 +265,31 @@ public final class SongNavigationPane extends VBox {
 			}
 		});
 		
+		// keep track of the sections around the current one (so they can be
+		// prepared ahead of time for display)
+		this.value.addListener((obs, ov, nv) -> {
+			SongReferenceTextStore previous = null;
+			SongReferenceTextStore next = null;
+			
+			SongReferenceVerse srv = nv != null ? nv.getVariant(TextVariant.PRIMARY) : null;
+			if (srv != null && this.song.get() != null && cmbPrimaryLyrics.getValue() != null) {
+				for (int i = 0; i < this.sections.size(); i++) {
+					if (this.sections.get(i).getId().equals(srv.getSectionId())) {
+						if (i > 0) {
+							previous = this.createTextStore(this.sections.get(i - 1), cmbPrimaryLyrics.getValue(), cmbSecondaryLyrics.getValue());
+						}
+						if (i < this.sections.size() - 1) {
+							next = this.createTextStore(this.sections.get(i + 1), cmbPrimaryLyrics.getValue(), cmbSecondaryLyrics.getValue());
+						}
+						break;
+					}
+				}
+			}
+			
+			this.previous.set(previous);
+			this.next.set(next);
+		});
+		
 		this.value.addListener((obs, ov, nv) -> {
 			if (this.mutating) return;
 			
@@ -322,6 +351,31 @@ public final class SongNavigationPane extends VBox {
 		VBox.setVgrow(sectionButtons, Priority.ALWAYS);
 	}
 	
+	private SongReferenceTextStore createTextStore(ReadOnlySection section, ReadOnlyLyrics primary, ReadOnlyLyrics secondary) {
+		SongReferenceTextStore text = new SongReferenceTextStore();
+		text.setVariant(TextVariant.PRIMARY, new SongReferenceVerse(
+				this.song.get().getId(), 
+				primary.getId(),
+				section.getId(),
+				primary.getTitle(),
+				section.getName(),
+				section.getText()));
+		if (secondary != null) {
+			// try to find the secondary section based on the first
+			ReadOnlySection secondarySection = secondary.getSectionByName(section.getName());
+			if (secondarySection != null) {
+				text.setVariant(TextVariant.SECONDARY, new SongReferenceVerse(
+						this.song.get().getId(), 
+						secondary.getId(), 
+						secondarySection.getId(),
+						secondary.getTitle(),
+						secondarySection.getName(),
+						secondarySection.getText()));
+			}
+		}
+		return text;
+	}
+	
 	public SongReferenceTextStore getValue() {
 		return this.value.get();
 	}
@@ -333,4 +387,28 @@ public final class SongNavigationPane extends VBox {
 	public ObjectProperty<SongReferenceTextStore> valueProperty() {
 		return this.value;
 	}
+	
+	public SongReferenceTextStore getPrevious() {
+		return this.previous.get();
+	}
+	
+	public ReadOnlyObjectProperty<SongReferenceTextStore> previousProperty() {
+		return this.previous;
+	}
+	
+	public SongReferenceTextStore getNext() {
+		return this.next.get();
+	}
+	
+	public ReadOnlyObjectProperty<SongReferenceTextStore> nextProperty() {
+		return this.next;
+	}
+	
+	public List<SongReferenceTextStore> getAllSections() {
+		return this.allSections.get();
+	}
+	
+	public ReadOnlyObjectProperty<List<SongReferenceTextStore>> allSectionsProperty() {
+		return this.allSections;
+	}
 }
@@ -5,10 +5,17 @@ import java.util.List;
 final class CompositeEdit implements Edit {
 	private final String name;
 	private final List<Edit> edits;
+	private final long size;
 	
 	public CompositeEdit(String name, List<Edit> edits) {
 		this.name = name;
 		this.edits = edits;
+		
+		long size = SizeEstimator.OBJECT;
+		for (Edit edit : edits) {
+			size += SizeEstimator.REFERENCE + edit.getEstimatedSize();
+		}
+		this.size = size;
 	}
 	
 	@Override
@@ -44,4 +51,9 @@ final class CompositeEdit implements Edit {
 	public Edit merge(Edit edit) {
 		return null;
 	}
+	
+	@Override
+	public long getEstimatedSize() {
+		return this.size;
+	}
 }
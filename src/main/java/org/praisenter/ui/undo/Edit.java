@@ -7,6 +7,16 @@ public interface Edit {
 	public boolean isMergeSupported(Edit previous);
 	public Edit merge(Edit previous);
 	
+	/**
+	 * Returns roughly how many bytes of memory this edit keeps alive.
+	 * <p>
+	 * The default is suitable for edits that only hold a few values.
+	 * @return long
+	 */
+	public default long getEstimatedSize() {
+		return SizeEstimator.OBJECT;
+	}
+	
 	public static final Edit MARK = new Edit() {
 		@Override
 		public String toString() {
@@ -31,5 +41,9 @@ public interface Edit {
 		public Edit merge(Edit previous) {
 			return this;
 		}
+		@Override
+		public long getEstimatedSize() {
+			return 0;
+		}
 	};
 }
@@ -1,10 +1,15 @@
 package org.praisenter.ui.undo;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import org.apache.logging.log4j.LogManager;
@@ -15,6 +20,7 @@ import javafx.beans.Observable;
 import javafx.beans.property.Property;
 import javafx.beans.property.ReadOnlyProperty;
 import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.collections.ObservableSet;
@@ -23,6 +29,17 @@ import javafx.collections.SetChangeListener;
 final class EditWatcher implements Watcher {
 	private static final Logger LOGGER = LogManager.getLogger();
 	
+	/** The type all accessors are adapted to so they can be called the same way */
+	private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+	
+	/** The properties to watch for each class; found once per class */
+	private static final ClassValue<List<WatchedProperty>> PROPERTIES = new ClassValue<List<WatchedProperty>>() {
+		@Override
+		protected List<WatchedProperty> computeValue(Class<?> type) {
+			return getPropertiesToWatch(type);
+		}
+	};
+	
 	private final Consumer<Edit> onEdit;
 	private final HashMap<Key, List<Registration>> map;
 	
@@ -59,6 +76,35 @@ final class EditWatcher implements Watcher {
 		this.registerObjectProperties(target);
 	}
 	
+	/**
+	 * Makes sure the given target is watched.
+	 * <p>
+	 * The items of collections marked {@link Watchable#lazy()} aren't watched until they
+	 * are passed to this method. The target should be part of an object that's already
+	 * watched.
+	 * @param target the object to watch
+	 * @param deep true to also watch all the items of its collections (recursively)
+	 */
+	public void watch(Object target, boolean deep) {
+		if (target == null) return;
+		
+		List<Registration> registrations = this.map.get(new Key(target));
+		if (registrations == null) {
+			this.registerObjectProperties(target);
+			registrations = this.map.get(new Key(target));
+		}
+		
+		if (deep && registrations != null) {
+			for (Registration registration : registrations) {
+				// only follow the contents of collections
+				if (registration instanceof PropertyRegistration) continue;
+				for (Object dependent : registration.getDependents()) {
+					this.watch(dependent, true);
+				}
+			}
+		}
+	}
+	
 	private void registerObjectProperties(Object target) {
 		if (target == null) return;
 		
@@ -67,48 +113,91 @@ final class EditWatcher implements Watcher {
 			return;
 		}
 		
-		List<Method> propertyMethods = this.getPropertyMethodsToWatch(clazz);
-		for (Method method : propertyMethods) {
+		for (WatchedProperty property : PROPERTIES.get(clazz)) {
 			try {
-				String name = method.getAnnotation(Watchable.class).name();
-				Object returnValue = method.invoke(target);
+				Object returnValue = (Object)property.accessor.invokeExact(target);
 				if (returnValue != null) {
 					if (returnValue instanceof Property) {
 						Property<?> prop = ((Property<?>)returnValue);
-						this.register(name, target, prop);
+						this.register(property.name, target, prop);
 					} else if (returnValue instanceof ObservableList) {
 						ObservableList<?> list = ((ObservableList<?>)returnValue);
-						this.register(name, target, list);
+						this.register(property.name, target, list, property.lazy);
 					} else if (returnValue instanceof ObservableSet) {
 						ObservableSet<?> set = ((ObservableSet<?>)returnValue);
-						this.register(name, target, set);
+						this.register(property.name, target, set, property.lazy);
 					} else if (returnValue instanceof ReadOnlyProperty) {
 						// ignore this
 					} else {
-						LOGGER.warn("Unknown return value type '" + returnValue.getClass().getName() + "' from '" + method.getName() + "' on '" + clazz.getName() + "'. Skipping.");
+						LOGGER.warn("Unknown return value type '" + returnValue.getClass().getName() + "' from '" + property.methodName + "' on '" + clazz.getName() + "'. Skipping.");
 					}
 				}
-			} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+			} catch (Throwable e) {
 				LOGGER.warn(e.getMessage(), e);
 			}
 		}
 	}
 	
-	private List<Method> getPropertyMethodsToWatch(Class<?> objectClass) {
-		List<Method> propertyMethods = new ArrayList<>();
+	/**
+	 * Returns the current values of the watched properties of the given object.
+	 * <p>
+	 * The values of properties are returned rather than the properties themselves.
+	 * Collections are returned as is.
+	 * @param target the object
+	 * @return List&lt;Object&gt;
+	 */
+	static List<Object> getWatchedValues(Object target) {
+		if (target == null) return Collections.emptyList();
+		
+		Class<?> clazz = target.getClass();
+		if (clazz.isEnum() || clazz.isPrimitive()) {
+			return Collections.emptyList();
+		}
+		
+		List<WatchedProperty> properties = PROPERTIES.get(clazz);
+		List<Object> values = new ArrayList<>(properties.size());
+		for (WatchedProperty property : properties) {
+			try {
+				Object value = (Object)property.accessor.invokeExact(target);
+				if (value instanceof ObservableValue) {
+					value = ((ObservableValue<?>)value).getValue();
+				}
+				if (value != null) {
+					values.add(value);
+				}
+			} catch (Throwable e) {
+				LOGGER.warn(e.getMessage(), e);
+			}
+		}
+		return values;
+	}
+	
+	private static List<WatchedProperty> getPropertiesToWatch(Class<?> objectClass) {
+		List<WatchedProperty> properties = new ArrayList<>();
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
 		
 		// we have to inspect all super classes for all the methods
 		for (Class<?> c = objectClass; c != null; c = c.getSuperclass()) {
             for (Method method : c.getDeclaredMethods()) {
             	// has to have the annotation
-            	if (method.isAnnotationPresent(Watchable.class) &&
+            	// NOTE: bridge methods (for covariant returns like the read only
+            	// interfaces' properties) carry the annotation too; skip them so
+            	// the same property isn't watched twice
+            	Watchable watchable = method.getAnnotation(Watchable.class);
+            	if (watchable != null &&
+            		!method.isBridge() &&
             		Observable.class.isAssignableFrom(method.getReturnType())) {
-            		propertyMethods.add(method);
+            		try {
+            			MethodHandle accessor = lookup.unreflect(method).asType(ACCESSOR_TYPE);
+            			properties.add(new WatchedProperty(watchable.name(), method.getName(), watchable.lazy(), accessor));
+            		} catch (IllegalAccessException e) {
+            			LOGGER.warn("Unable to access '" + method.getName() + "' on '" + c.getName() + "'. Skipping.", e);
+            		}
             	}
             }
         }
 		
-		return propertyMethods;
+		return Collections.unmodifiableList(properties);
 	}
 	
 	/**
@@ -145,10 +234,26 @@ final class EditWatcher implements Watcher {
 	}
 	
 	public <E, T> void register(String name, E target, ObservableList<T> list) {
+		this.register(name, target, list, false);
+	}
+	
+	private <E, T> void register(String name, E target, ObservableList<T> list, boolean lazy) {
 		ListChangeListener<T> listener = (change) -> {
 			Edit edit = new ListEdit<T>(name, list, change);
 			this.onEdit.accept(edit);
 			
+			// items that are removed and added again (a reorder using setAll for example)
+			// keep their registrations, including those of items watched on demand
+			Set<T> moved = Collections.newSetFromMap(new IdentityHashMap<>());
+			Set<T> added = Collections.newSetFromMap(new IdentityHashMap<>());
+			change.reset();
+			while (change.next()) {
+				moved.addAll(change.getRemoved());
+				added.addAll(change.getAddedSubList());
+			}
+			moved.retainAll(added);
+			
+			change.reset();
 			while (change.next()) {
 				// handle permutation first
 				if (change.wasPermutated()) {
@@ -159,11 +264,13 @@ final class EditWatcher implements Watcher {
 					// handling add/removed handles replaced
 					// handle delete
 					for (T item : change.getRemoved()) {
+						if (moved.contains(item)) continue;
 						// deregister the properties
 						this.unregisterObjectRegistrations(item);
 					}
 					// handle add
 					for (T item : change.getAddedSubList()) {
+						if (moved.contains(item)) continue;
 						// register the sub properties
 						this.registerObjectProperties(item);
 					}
@@ -184,12 +291,18 @@ final class EditWatcher implements Watcher {
 		list.addListener(listener);
 		
 		// listen to all dependents
-		for (T item : list) {
-			this.registerObjectProperties(item);
+		if (!lazy) {
+			for (T item : list) {
+				this.registerObjectProperties(item);
+			}
 		}
 	}
 	
 	public <E, T> void register(String name, E target, ObservableSet<T> set) {
+		this.register(name, target, set, false);
+	}
+	
+	private <E, T> void register(String name, E target, ObservableSet<T> set, boolean lazy) {
 		SetChangeListener<T> listener = (change) -> {
 			Edit edit = new SetEdit<T>(name, set, change);
 			this.onEdit.accept(edit);
@@ -216,8 +329,10 @@ final class EditWatcher implements Watcher {
 		set.addListener(listener);
 		
 		// listen to all dependents
-		for (T item : set) {
-			this.registerObjectProperties(item);
+		if (!lazy) {
+			for (T item : set) {
+				this.registerObjectProperties(item);
+			}
 		}
 	}
 	
@@ -252,4 +367,23 @@ final class EditWatcher implements Watcher {
 	public int count() {
 		return this.map.values().stream().map(l -> l.size()).reduce((a, b) -> a + b).orElse(0);
 	}
+	
+	/**
+	 * A {@link Watchable} property of a class.
+	 */
+	private static final class WatchedProperty {
+		private final String name;
+		private final String methodName;
+		private final boolean lazy;
+		
+		/** The property method adapted to (Object)Object */
+		private final MethodHandle accessor;
+		
+		public WatchedProperty(String name, String methodName, boolean lazy, MethodHandle accessor) {
+			this.name = name;
+			this.methodName = methodName;
+			this.lazy = lazy;
+			this.accessor = accessor;
+		}
+	}
 }
@@ -1,159 +1,231 @@
 package org.praisenter.ui.undo;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
+/**
+ * An edit of an {@link ObservableList}.
+ * <p>
+ * Only the part of the list that actually changed is kept. When a range is replaced
+ * (by {@link ObservableList#setAll(java.util.Collection)} for example) the items at
+ * the start and end of the range that are the same before and after are dropped from
+ * the edit, so reordering or replacing a few items of a large list doesn't copy the
+ * whole list.
+ * @author William Bittle
+ * @version 3.0.0
+ * @param <T> the item type
+ */
 final class ListEdit<T> implements Edit {
 	private final String name;
 	private final ObservableList<T> list;
-	private final Changes change;
-	
+	private final List<Change<T>> changes;
+	private final long size;
+
 	public ListEdit(String name, ObservableList<T> list, ListChangeListener.Change<? extends T> change) {
 		this.name = name;
 		this.list = list;
-		this.change = this.process(change);
+		this.changes = this.process(change);
+
+		long size = SizeEstimator.OBJECT;
+		for (Change<T> c : this.changes) {
+			size += c.getEstimatedSize();
+		}
+		this.size = size;
 	}
 
 	@Override
 	public String toString() {
-		return this.name + "[C=" + change.changes.size() + "]";
+		return this.name + "[C=" + this.changes.size() + "]";
 	}
-	
+
 	@Override
 	public String getName() {
 		return this.name;
 	}
-	
+
 	@Override
 	public boolean isMergeSupported(Edit previous) {
 		return false;
 	}
-	
+
 	@Override
 	public Edit merge(Edit previous) {
 		return null;
 	}
-	
+
+	@Override
+	public long getEstimatedSize() {
+		return this.size;
+	}
+
 	@Override
 	public void redo() {
-		for (Change change : this.change.changes) {
-			// handle permutation first
-			for (Moved moved : change.moved) {
-				this.list.set(moved.newIndex, moved.item);
-			}
-			
-			// handle remove
-			for (Removed removed: change.removed) {
-				this.list.remove(removed.item);
-			}
-			
-			// handle add
-			for (Added added : change.added) {
-				this.list.addAll(added.index, added.items);
-			}
+		for (Change<T> change : this.changes) {
+			change.redo(this.list);
 		}
 	}
-	
+
 	@Override
 	public void undo() {
 		// must do the changes in reverse order
-		for (int i = this.change.changes.size() - 1; i >= 0; i--) {
-			Change change = this.change.changes.get(i);
-			
-			// remove adds first
-			for (int j = 0; j < change.added.size(); j++) {
-				this.list.removeAll(change.added.get(i).items);
-			}
-			
-			// add back any removed (in reverse order)
-			// getFrom will always be the correct index
-			// if the removed items were consecutive then getFrom for all of them will be equal
-			// otherwise they will be different items in the change (.next())
-			for (int j = change.removed.size() - 1; j >= 0; j--) {
-				Removed removed = change.removed.get(j);
-				this.list.add(removed.index, removed.item);
-			}
-			
-			// handle permutation
-			for (int j = change.moved.size() - 1; j >= 0; j--) {
-				Moved moved = change.moved.get(j);
-				this.list.set(moved.oldIndex, moved.item);
-			}
+		for (int i = this.changes.size() - 1; i >= 0; i--) {
+			this.changes.get(i).undo(this.list);
 		}
 	}
-	
-	private Changes process(ListChangeListener.Change<? extends T> change) {
-		Changes changes = new Changes();
-		
+
+	private List<Change<T>> process(ListChangeListener.Change<? extends T> change) {
+		List<Change<T>> changes = new ArrayList<>();
+
 		change.reset();
 		while (change.next()) {
-			Change c = new Change();
-			
-			// copy the added items
-			if (change.wasAdded()) {
-				Added a = new Added();
-				a.index = change.getFrom();
-				a.items = new ArrayList<T>(change.getAddedSubList());
-				c.added.add(a);
-				//c.added.addAll(change.getAddedSubList());
-			}
+			if (change.wasPermutated()) {
+				int from = change.getFrom();
+				int n = change.getTo() - from;
+				int[] newIndices = new int[n];
+				for (int i = 0; i < n; i++) {
+					newIndices[i] = change.getPermutation(from + i);
+				}
+				changes.add(new Moved<T>(from, newIndices));
+			} else if (change.wasAdded() || change.wasRemoved()) {
+				List<? extends T> removed = change.getRemoved();
+				List<? extends T> added = change.getAddedSubList();
 
-			// copy the removed items
-			if (change.wasRemoved()) {
-				for (T removed : change.getRemoved()) {
-					Removed r = new Removed();
-					r.index = change.getFrom();
-					r.item = removed;
-					c.removed.add(r);
+				// skip the items that were replaced by themselves
+				int r = removed.size();
+				int a = added.size();
+				int start = 0;
+				while (start < r && start < a && removed.get(start) == added.get(start)) {
+					start++;
 				}
-			}
-			
-			// copy the permutated items
-			if (change.wasPermutated()) {
-				for (int oldIndex = change.getFrom(); oldIndex < change.getTo(); oldIndex++) {
-					int newIndex = change.getPermutation(oldIndex);
-					T item = change.getList().get(newIndex);
-					Moved m = new Moved();
-					m.item = item;
-					m.newIndex = newIndex;
-					m.oldIndex = oldIndex;
-					c.moved.add(m);
+				int end = 0;
+				while (end < r - start && end < a - start && removed.get(r - end - 1) == added.get(a - end - 1)) {
+					end++;
+				}
+
+				if (start == r - end && start == a - end) {
+					// nothing actually changed
+					continue;
 				}
+
+				changes.add(new Replaced<T>(
+						change.getFrom() + start,
+						copy(removed, start, r - end),
+						copy(added, start, a - end)));
 			}
-			
-			changes.changes.add(c);
+			// updates don't change the list
 		}
 		change.reset();
-		
+
 		return changes;
 	}
-	
-	private class Changes {
-		public List<Change> changes = new ArrayList<>();
-	}
-	
-	private class Change {
-		public List<Added> added = new ArrayList<>();
-		public List<Removed> removed = new ArrayList<>();
-		public List<Moved> moved = new ArrayList<>();
+
+	private static <T> List<T> copy(List<? extends T> items, int from, int to) {
+		if (from >= to) {
+			return Collections.emptyList();
+		}
+		return new ArrayList<T>(items.subList(from, to));
 	}
-	
-	private class Added {
-		public int index;
-		public List<T> items;
+
+	private static interface Change<T> {
+		public void redo(ObservableList<T> list);
+		public void undo(ObservableList<T> list);
+		public long getEstimatedSize();
 	}
-	
-	private class Removed {
-		public int index;
-		public T item;
+
+	/**
+	 * A range of items that was replaced by other items (either can be empty).
+	 */
+	private static final class Replaced<T> implements Change<T> {
+		private final int index;
+		private final List<T> removed;
+		private final List<T> added;
+
+		public Replaced(int index, List<T> removed, List<T> added) {
+			this.index = index;
+			this.removed = removed;
+			this.added = added;
+		}
+
+		@Override
+		public void redo(ObservableList<T> list) {
+			replace(list, this.index, this.removed.size(), this.added);
+		}
+
+		@Override
+		public void undo(ObservableList<T> list) {
+			replace(list, this.index, this.added.size(), this.removed);
+		}
+
+		private static <T> void replace(ObservableList<T> list, int index, int count, List<T> items) {
+			if (count == 1 && items.size() == 1) {
+				list.set(index, items.get(0));
+				return;
+			}
+			if (count > 0) {
+				list.remove(index, index + count);
+			}
+			if (!items.isEmpty()) {
+				list.addAll(index, items);
+			}
+		}
+
+		@Override
+		public long getEstimatedSize() {
+			// the added items are part of the list, but the removed
+			// items are only kept alive by this edit
+			long size = SizeEstimator.OBJECT + SizeEstimator.REFERENCE * this.added.size();
+			for (T item : this.removed) {
+				size += SizeEstimator.REFERENCE + SizeEstimator.estimate(item);
+			}
+			return size;
+		}
 	}
-	
-	private class Moved {
-		public int oldIndex;
-		public int newIndex;
-		public T item;
+
+	/**
+	 * A range of items that was reordered.
+	 * <p>
+	 * Only the new index of each item is kept; the items themselves are
+	 * taken from the list when the edit is undone or redone.
+	 */
+	private static final class Moved<T> implements Change<T> {
+		private final int from;
+
+		/** The new index of the item at each index of the range */
+		private final int[] newIndices;
+
+		public Moved(int from, int[] newIndices) {
+			this.from = from;
+			this.newIndices = newIndices;
+		}
+
+		@Override
+		public void redo(ObservableList<T> list) {
+			int n = this.newIndices.length;
+			List<T> items = new ArrayList<>(list.subList(this.from, this.from + n));
+			for (int i = 0; i < n; i++) {
+				list.set(this.newIndices[i], items.get(i));
+			}
+		}
+
+		@Override
+		public void undo(ObservableList<T> list) {
+			int n = this.newIndices.length;
+			List<T> items = new ArrayList<>(n);
+			for (int i = 0; i < n; i++) {
+				items.add(list.get(this.newIndices[i]));
+			}
+			for (int i = 0; i < n; i++) {
+				list.set(this.from + i, items.get(i));
+			}
+		}
+
+		@Override
+		public long getEstimatedSize() {
+			return SizeEstimator.OBJECT + 4 * this.newIndices.length;
+		}
 	}
 }
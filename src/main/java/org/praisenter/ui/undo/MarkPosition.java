@@ -24,4 +24,8 @@ final class MarkPosition implements Edit {
 	public Edit merge(Edit previous) {
 		return this;
 	}
+	@Override
+	public long getEstimatedSize() {
+		return 0;
+	}
 }
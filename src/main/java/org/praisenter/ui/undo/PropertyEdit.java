@@ -16,6 +16,7 @@ class PropertyEdit<T> implements Edit {
 	private final Property<T> property;
 	private final T oldValue;
 	private final T newValue;
+	private final long size;
 	
 	public PropertyEdit(String name, Property<T> property, T oldValue, T newValue) {
 		this.timestamp = Instant.now();
@@ -23,6 +24,9 @@ class PropertyEdit<T> implements Edit {
 		this.property = property;
 		this.oldValue = oldValue;
 		this.newValue = newValue;
+		
+		// the new value is part of the document
+		this.size = SizeEstimator.OBJECT + SizeEstimator.estimate(oldValue);
 	}
 	
 	@Override
@@ -85,4 +89,9 @@ class PropertyEdit<T> implements Edit {
 		}
 		return null;
 	}
+	
+	@Override
+	public long getEstimatedSize() {
+		return this.size;
+	}
 }
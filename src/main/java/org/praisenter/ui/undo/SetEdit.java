@@ -7,11 +7,15 @@ final class SetEdit<T> implements Edit {
 	private final String name;
 	private final ObservableSet<T> set;
 	private final Change change;
+	private final long size;
 	
 	public SetEdit(String name, ObservableSet<T> set, SetChangeListener.Change<? extends T> change) {
 		this.name = name;
 		this.set = set;
 		this.change = this.process(change);
+		
+		// the added item is part of the document
+		this.size = SizeEstimator.OBJECT + SizeEstimator.estimate(this.change.removed);
 	}
 
 	@Override
@@ -34,6 +38,11 @@ final class SetEdit<T> implements Edit {
 		return null;
 	}
 	
+	@Override
+	public long getEstimatedSize() {
+		return this.size;
+	}
+	
 	@Override
 	public void redo() {
 		T added = this.change.added;
@@ -0,0 +1,75 @@
+package org.praisenter.ui.undo;
+
+import java.time.temporal.Temporal;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Estimates how much memory the values held by an {@link Edit} use.
+ * <p>
+ * Objects are measured by their {@link org.praisenter.Watchable} properties so that
+ * removed sub trees (a book with all its chapters and verses for example) are counted
+ * in full. The numbers are rough and only meant for limiting the undo history.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+final class SizeEstimator {
+	/** The size of a reference */
+	static final long REFERENCE = 8;
+	
+	/** The size of an object without its fields */
+	static final long OBJECT = 64;
+	
+	/** The size of a boxed primitive, date or other small value */
+	static final long VALUE = 16;
+	
+	/** How deep to follow objects (in case of cycles) */
+	private static final int MAX_DEPTH = 16;
+	
+	private SizeEstimator() {}
+	
+	/**
+	 * Returns the estimated size of the given value and everything it holds.
+	 * @param value the value; can be null
+	 * @return long
+	 */
+	static long estimate(Object value) {
+		return estimate(value, 0);
+	}
+	
+	private static long estimate(Object value, int depth) {
+		if (value == null) return 0;
+		
+		if (value instanceof CharSequence) {
+			return 40 + 2L * ((CharSequence)value).length();
+		}
+		
+		if (value instanceof Number ||
+			value instanceof Boolean ||
+			value instanceof Character ||
+			value instanceof Enum ||
+			value instanceof Temporal ||
+			value instanceof UUID) {
+			return VALUE;
+		}
+		
+		if (depth >= MAX_DEPTH) {
+			return OBJECT;
+		}
+		
+		if (value instanceof Collection) {
+			Collection<?> items = (Collection<?>)value;
+			long size = OBJECT + REFERENCE * items.size();
+			for (Object item : items) {
+				size += estimate(item, depth + 1);
+			}
+			return size;
+		}
+		
+		long size = OBJECT;
+		for (Object field : EditWatcher.getWatchedValues(value)) {
+			size += REFERENCE + estimate(field, depth + 1);
+		}
+		return size;
+	}
+}
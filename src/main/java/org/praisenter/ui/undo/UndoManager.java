@@ -6,7 +6,6 @@ import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import javafx.beans.binding.Bindings;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
@@ -16,11 +15,18 @@ import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
 public final class UndoManager {
 	private static final Logger LOGGER = LogManager.getLogger();
 	
+	/** The default maximum number of edits to keep */
+	public static final int DEFAULT_MAX_EDITS = 500;
+	
+	/** The default maximum estimated size of the edits to keep in bytes */
+	public static final long DEFAULT_MAX_SIZE = 64L * 1024 * 1024;
+	
 	private final ObservableList<Edit> undos;
 	private final ObservableList<Edit> redos;
 
@@ -34,6 +40,29 @@ public final class UndoManager {
 	private final BooleanProperty topMarked;
 	private final BooleanProperty notTopMarked;
 	
+	// the history limit
+	
+	private int maxEdits;
+	private long maxSize;
+	
+	// maintained as the stacks change so the state
+	// doesn't require a scan of the stacks
+	
+	/** The number of undos that aren't marks */
+	private int undoEdits;
+	
+	/** The number of marks in the undos */
+	private int undoMarks;
+	
+	/** The number of marks in the redos */
+	private int redoMarks;
+	
+	/** The estimated size of the undos */
+	private long undoSize;
+	
+	/** True if old edits have been dropped */
+	private boolean trimmed;
+	
 	private boolean isOperating;
 	private boolean isBatching;
 	private String batchName;
@@ -45,6 +74,21 @@ public final class UndoManager {
 	private final EditWatcher watcher;
 	
 	public UndoManager() {
+		this(DEFAULT_MAX_EDITS, DEFAULT_MAX_SIZE);
+	}
+	
+	/**
+	 * Creates a new undo manager with the given history limit.
+	 * <p>
+	 * The oldest edits are dropped when either limit is exceeded. The newest edit is
+	 * always kept.
+	 * @param maxEdits the maximum number of edits to keep
+	 * @param maxSize the maximum estimated size of the edits to keep in bytes
+	 */
+	public UndoManager(int maxEdits, long maxSize) {
+		this.maxEdits = maxEdits;
+		this.maxSize = maxSize;
+		
 		this.undos = FXCollections.observableArrayList();
 		this.redos = FXCollections.observableArrayList();
 		
@@ -73,51 +117,33 @@ public final class UndoManager {
 			}
 		});
 		
-		this.marked.bind(Bindings.createBooleanBinding(() -> {
-			return this.undos.contains(Edit.MARK);
-		}, this.undos));
-		
-		this.topMarked.bind(Bindings.createBooleanBinding(() -> {
-			int usize = this.undos.size();
-			boolean redoHasMark = this.redos.stream().anyMatch(r -> r == Edit.MARK);
-			// if there's nothing to undo, and the redos do not contain
-			// the MARK, then we are back to the original state
-			if (usize <= 0 && !redoHasMark) return true;
-			// if the MARK is in the redo stack, then that means that the
-			// save has occurred since it was opened and if you undo past
-			// the MARK, it's now considered changed again
-			
-			// or if the top item on the undo stack is MARK
-			if (usize > 0) {
-				Edit edit = this.undos.get(usize - 1);
-				return edit == Edit.MARK;
+		this.undos.addListener((ListChangeListener.Change<? extends Edit> c) -> {
+			while (c.next()) {
+				for (Edit edit : c.getRemoved()) {
+					this.undoSize -= edit.getEstimatedSize();
+					if (edit == Edit.MARK) this.undoMarks--;
+					else if (!(edit instanceof MarkPosition)) this.undoEdits--;
+				}
+				for (Edit edit : c.getAddedSubList()) {
+					this.undoSize += edit.getEstimatedSize();
+					if (edit == Edit.MARK) this.undoMarks++;
+					else if (!(edit instanceof MarkPosition)) this.undoEdits++;
+				}
 			}
-			return false;
-		}, this.undos, this.redos));
-		
-		this.notTopMarked.bind(Bindings.createBooleanBinding(() -> {
-			return !this.topMarked.get();
-		}, this.topMarked));
-
-		// these bindings are after the ones above since we need them updated
-		// before these are updated since its more likely that these will be
-		// listened to
-		
-		this.undoAvailable.bind(Bindings.createBooleanBinding(() -> {
-			return this.undos.stream().filter(u -> u != Edit.MARK && !(u instanceof MarkPosition)).count() > 0;
-		}, this.undos));
-		
-		this.redoAvailable.bind(Bindings.createBooleanBinding(() -> {
-			return !this.redos.isEmpty();
-		}, this.redos));
-		
-		this.undoCount.bind(Bindings.createIntegerBinding(() -> {
-			return this.undos.size();
-		}, this.undos));
+			this.updateState();
+		});
 		
-		this.redoCount.bind(Bindings.createIntegerBinding(() -> {
-			return this.redos.size();
-		}, this.redos));
+		this.redos.addListener((ListChangeListener.Change<? extends Edit> c) -> {
+			while (c.next()) {
+				for (Edit edit : c.getRemoved()) {
+					if (edit == Edit.MARK) this.redoMarks--;
+				}
+				for (Edit edit : c.getAddedSubList()) {
+					if (edit == Edit.MARK) this.redoMarks++;
+				}
+			}
+			this.updateState();
+		});
 		
 		this.target.addListener((obs, ov, nv) -> {
 			if (ov != null) {
@@ -127,8 +153,67 @@ public final class UndoManager {
 				this.watcher.register(nv);
 			}
 		});
+		
+		this.updateState();
 	}
 
+	private void updateState() {
+		int usize = this.undos.size();
+		
+		this.marked.set(this.undoMarks > 0);
+		
+		boolean topMarked = false;
+		// if there's nothing to undo, and the redos do not contain
+		// the MARK, then we are back to the original state (unless
+		// the oldest edits were dropped)
+		if (usize <= 0 && this.redoMarks <= 0 && !this.trimmed) {
+			topMarked = true;
+		}
+		// if the MARK is in the redo stack, then that means that the
+		// save has occurred since it was opened and if you undo past
+		// the MARK, it's now considered changed again
+		
+		// or if the top item on the undo stack is MARK
+		if (usize > 0) {
+			topMarked = this.undos.get(usize - 1) == Edit.MARK;
+		}
+		this.topMarked.set(topMarked);
+		this.notTopMarked.set(!topMarked);
+		
+		// these are after the ones above since we need them updated
+		// before these are updated since its more likely that these will be
+		// listened to
+		
+		this.undoAvailable.set(this.undoEdits > 0);
+		this.redoAvailable.set(!this.redos.isEmpty());
+		this.undoCount.set(usize);
+		this.redoCount.set(this.redos.size());
+	}
+	
+	/**
+	 * Drops the oldest edits until the history is within its limits.
+	 */
+	private void trim() {
+		int size = this.undos.size();
+		int edits = this.undoEdits;
+		long bytes = this.undoSize;
+		
+		// always keep the newest edit
+		int n = 0;
+		while (n < size - 1 && (edits > this.maxEdits || bytes > this.maxSize)) {
+			Edit edit = this.undos.get(n);
+			bytes -= edit.getEstimatedSize();
+			if (edit != Edit.MARK && !(edit instanceof MarkPosition)) edits--;
+			n++;
+		}
+		
+		if (n > 0) {
+			LOGGER.debug("Dropping the oldest {} edit(s) from the undo history", n);
+			this.trimmed = true;
+			this.undos.remove(0, n);
+		}
+	}
+	
 	public void undo() {
 		if (this.isOperating) return;
 		this.isOperating = true;
@@ -207,6 +292,7 @@ public final class UndoManager {
 			}
 			this.undos.add(edit);
 			this.redos.clear();
+			this.trim();
 		}
 	}
 	
@@ -223,15 +309,14 @@ public final class UndoManager {
 	
 	public void mark() {
 		// remove any prior marks
-		this.undos.removeIf(c -> c == Edit.MARK);
-		this.redos.removeIf(c -> c == Edit.MARK);
+		this.unmark();
 		// add a mark at this location
 		this.undos.add(Edit.MARK);
 	}
 	
 	public void unmark() {
-		this.undos.removeIf(c -> c == Edit.MARK);
-		this.redos.removeIf(c -> c == Edit.MARK);
+		if (this.undoMarks > 0) this.undos.removeIf(c -> c == Edit.MARK);
+		if (this.redoMarks > 0) this.redos.removeIf(c -> c == Edit.MARK);
 	}
 	
 	public void reset() {
@@ -242,6 +327,8 @@ public final class UndoManager {
 		this.batch = null;
 		this.isBatching = false;
 		this.isOperating = false;
+		this.trimmed = false;
+		this.updateState();
 	}
 	
 	public void beginBatch(String name) {
@@ -258,6 +345,7 @@ public final class UndoManager {
 		this.batchName = null;
 		this.batch = null;
 		this.redos.clear();
+		this.trim();
 	}
 	
 	public void discardBatch() {
@@ -291,6 +379,45 @@ public final class UndoManager {
 		this.redos.removeIf(r -> r == position);
 	}
 	
+	/**
+	 * Makes sure the given part of the target is watched for edits.
+	 * <p>
+	 * The items of collections marked {@link org.praisenter.Watchable#lazy()} aren't
+	 * watched until they are passed to this method. Call it before the given object
+	 * can be edited, for example when it's shown in an editor.
+	 * @param object the object
+	 * @param deep true to also watch all of its items (recursively)
+	 */
+	public void watch(Object object, boolean deep) {
+		this.watcher.watch(object, deep);
+	}
+	
+	public int getMaxEdits() {
+		return this.maxEdits;
+	}
+	
+	/**
+	 * Sets the maximum number of edits to keep.
+	 * @param maxEdits the maximum
+	 */
+	public void setMaxEdits(int maxEdits) {
+		this.maxEdits = maxEdits;
+		this.trim();
+	}
+	
+	public long getMaxSize() {
+		return this.maxSize;
+	}
+	
+	/**
+	 * Sets the maximum estimated size of the edits to keep in bytes.
+	 * @param maxSize the maximum
+	 */
+	public void setMaxSize(long maxSize) {
+		this.maxSize = maxSize;
+		this.trim();
+	}
+	
 	public Object getTarget() {
 		return this.target.get();
 	}
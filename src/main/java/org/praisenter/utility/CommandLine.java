@@ -4,6 +4,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -24,6 +25,22 @@ public final class CommandLine {
 	 * @throws MediaToolExecutionException if the tool returned an exit code of something other than zero
 	 */
 	public static final String execute(List<String> command) throws IOException, InterruptedException, MediaToolExecutionException {
+		return execute(command, null);
+	}
+	
+	/**
+	 * Executes the given command, waits for it to complete, and returns the console output.
+	 * <p>
+	 * The given consumer is called with the process once it has started so that the caller
+	 * can destroy it to cancel the command.
+	 * @param command the command
+	 * @param started called when the process has started; can be null
+	 * @return String
+	 * @throws IOException if an IO error occurs
+	 * @throws InterruptedException if the waiting is interrupted
+	 * @throws MediaToolExecutionException if the tool returned an exit code of something other than zero
+	 */
+	public static final String execute(List<String> command, Consumer<Process> started) throws IOException, InterruptedException, MediaToolExecutionException {
 		// remove empty list elements because of 
 		// https://bugs.java.com/bugdatabase/view_bug.do?bug_id=JDK-8268939
 		command.removeIf(s -> s == null || s.isBlank() || s.isEmpty());
@@ -36,6 +53,9 @@ public final class CommandLine {
 		try {
 			LOGGER.info("Starting process with command: " + String.join(" ", command));
 			process = pb.start();
+			if (started != null) {
+				started.accept(process);
+			}
 			LOGGER.info("Waiting for process to complete...");
 			
 			// we must read the input streams otherwise they fill up
@@ -0,0 +1,124 @@
+package org.praisenter.data;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.praisenter.data.song.Song;
+
+import javafx.collections.ListChangeListener;
+import junit.framework.TestCase;
+
+/**
+ * Tests the id lookup and bulk changes of the {@link PersistableList}.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public class PersistableListTest extends TestCase {
+	private PersistableList<Song> list;
+	private int changes;
+	
+	@Override
+	protected void setUp() throws Exception {
+		this.list = new PersistableList<>();
+		for (int i = 0; i < 5; i++) {
+			this.list.add(song("Song " + i));
+		}
+		this.changes = 0;
+		this.list.addListener((ListChangeListener.Change<? extends Song> c) -> this.changes++);
+	}
+	
+	private static Song song(String name) {
+		Song song = new Song();
+		song.setName(name);
+		return song;
+	}
+	
+	private static Song copy(Song song, String name) {
+		Song copy = song(name);
+		copy.setId(song.getId());
+		return copy;
+	}
+	
+	public void testLookup() {
+		for (int i = 0; i < this.list.size(); i++) {
+			Song song = this.list.get(i);
+			assertEquals(i, this.list.indexOfId(song.getId()));
+			assertSame(song, this.list.getById(song.getId()));
+		}
+		assertEquals(-1, this.list.indexOfId(UUID.randomUUID()));
+		assertEquals(-1, this.list.indexOfId(null));
+		assertNull(this.list.getById(UUID.randomUUID()));
+	}
+	
+	public void testLookupAfterInsertAndRemove() {
+		Song first = song("First");
+		this.list.add(0, first);
+		Song last = this.list.get(5);
+		assertEquals(0, this.list.indexOfId(first.getId()));
+		assertEquals(5, this.list.indexOfId(last.getId()));
+		
+		Song removed = this.list.remove(2);
+		assertEquals(-1, this.list.indexOfId(removed.getId()));
+		assertEquals(4, this.list.indexOfId(last.getId()));
+		
+		// replacing with a different id drops the old one
+		Song other = song("Other");
+		Song replaced = this.list.set(1, other);
+		assertEquals(-1, this.list.indexOfId(replaced.getId()));
+		assertEquals(1, this.list.indexOfId(other.getId()));
+	}
+	
+	public void testPut() {
+		Song song = this.list.get(3);
+		Song updated = copy(song, "Updated");
+		this.list.put(updated);
+		assertEquals(5, this.list.size());
+		assertSame(updated, this.list.get(3));
+		
+		Song added = song("Added");
+		this.list.put(added);
+		assertEquals(6, this.list.size());
+		assertEquals(5, this.list.indexOfId(added.getId()));
+	}
+	
+	public void testPutAll() {
+		Song updated1 = copy(this.list.get(1), "Updated 1");
+		Song updated4 = copy(this.list.get(4), "Updated 4");
+		Song added1 = song("Added 1");
+		Song added2 = song("Added 2");
+		
+		this.list.putAll(List.of(updated4, added1, updated1, added2));
+		
+		// one change for the whole import
+		assertEquals(1, this.changes);
+		assertEquals(7, this.list.size());
+		assertSame(updated1, this.list.get(1));
+		assertSame(updated4, this.list.get(4));
+		assertSame(added1, this.list.get(5));
+		assertSame(added2, this.list.get(6));
+		assertSame(added2, this.list.getById(added2.getId()));
+		
+		// putting the same item twice only adds it once
+		Song again = song("Again");
+		this.list.putAll(List.of(again, copy(again, "Again 2")));
+		assertEquals(8, this.list.size());
+		assertEquals("Again 2", this.list.get(7).getName());
+		
+		this.list.putAll(List.of());
+		assertEquals(2, this.changes);
+	}
+	
+	public void testRemoveById() {
+		Song song = this.list.get(2);
+		// duplicates can be added directly
+		this.list.add(0, copy(song, "Duplicate"));
+		this.changes = 0;
+		
+		assertTrue(this.list.removeById(song.getId()));
+		assertEquals(1, this.changes);
+		assertEquals(4, this.list.size());
+		assertNull(this.list.getById(song.getId()));
+		
+		assertFalse(this.list.removeById(song.getId()));
+	}
+}
@@ -0,0 +1,135 @@
+package org.praisenter.data.slide;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.praisenter.data.TextItem;
+import org.praisenter.data.TextStore;
+import org.praisenter.data.TextType;
+import org.praisenter.data.TextVariant;
+import org.praisenter.data.slide.text.TextPlaceholderComponent;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the placeholder handling of a slide when advancing from verse to verse.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public class SlideTest extends TestCase {
+	/**
+	 * The placeholder data of a verse; the title is the book and chapter.
+	 */
+	private static final class VerseTextStore implements TextStore {
+		private final Map<TextType, TextItem> items;
+		
+		public VerseTextStore(String title, String text) {
+			this.items = new HashMap<>();
+			this.items.put(TextType.TITLE, new TextItem(title));
+			this.items.put(TextType.TEXT, new TextItem(text));
+		}
+		
+		private VerseTextStore(Map<TextType, TextItem> items) {
+			this.items = new HashMap<>(items);
+		}
+		
+		@Override
+		public TextItem get(TextVariant variant, TextType type) {
+			return this.items.get(type);
+		}
+		
+		@Override
+		public Map<TextType, TextItem> get(TextVariant variant) {
+			return this.items;
+		}
+		
+		@Override
+		public TextStore copy() {
+			return new VerseTextStore(this.items);
+		}
+	}
+	
+	private TextPlaceholderComponent title;
+	private TextPlaceholderComponent text;
+	private Slide slide;
+	
+	@Override
+	protected void setUp() throws Exception {
+		this.title = new TextPlaceholderComponent();
+		this.title.setPlaceholderType(TextType.TITLE);
+		this.text = new TextPlaceholderComponent();
+		this.text.setPlaceholderType(TextType.TEXT);
+		
+		this.slide = new Slide("verse");
+		this.slide.getComponents().add(this.title);
+		this.slide.getComponents().add(this.text);
+		this.slide.setPlaceholderData(new VerseTextStore("Genesis 1", "In the beginning God created the heaven and the earth."));
+	}
+	
+	public void testChangedPlaceholdersNextVerse() {
+		List<TextPlaceholderComponent> changed = this.slide.getChangedPlaceholders(new VerseTextStore("Genesis 1", "And the earth was without form, and void;"));
+		assertEquals(1, changed.size());
+		assertSame(this.text, changed.get(0));
+	}
+	
+	public void testChangedPlaceholdersNextChapter() {
+		List<TextPlaceholderComponent> changed = this.slide.getChangedPlaceholders(new VerseTextStore("Genesis 2", "Thus the heavens and the earth were finished, and all the host of them."));
+		assertEquals(2, changed.size());
+	}
+	
+	public void testChangedPlaceholdersSameVerse() {
+		List<TextPlaceholderComponent> changed = this.slide.getChangedPlaceholders(new VerseTextStore("Genesis 1", "In the beginning God created the heaven and the earth."));
+		assertTrue(changed.isEmpty());
+	}
+	
+	public void testChangedPlaceholdersLocked() {
+		this.text.setTextLocked(true);
+		List<TextPlaceholderComponent> changed = this.slide.getChangedPlaceholders(new VerseTextStore("Genesis 1", "And the earth was without form, and void;"));
+		assertTrue(changed.isEmpty());
+	}
+	
+	/**
+	 * Benchmarks the data side of a verse advance (what SlideView.transitionPlaceholders
+	 * does before building the animations): finding the changed placeholders, copying them 
+	 * and setting the new data.
+	 * <p>
+	 * The animations themselves need a running JavaFX toolkit, see the transition
+	 * benchmark for their frame cost.
+	 */
+	public void testVerseAdvance() {
+		int warmup = 20000;
+		int verses = 20000;
+		
+		List<VerseTextStore> data = new ArrayList<>();
+		for (int i = 0; i <= warmup + verses; i++) {
+			data.add(new VerseTextStore("Psalms 119", "Verse " + i + " of the chapter; blessed are the undefiled in the way, who walk in the law of the LORD."));
+		}
+		
+		this.slide.setPlaceholderData(data.get(0));
+		
+		long start = 0;
+		for (int i = 1; i <= warmup + verses; i++) {
+			if (i == warmup + 1) {
+				start = System.nanoTime();
+			}
+			
+			TextStore next = data.get(i);
+			List<TextPlaceholderComponent> changed = this.slide.getChangedPlaceholders(next);
+			assertEquals(1, changed.size());
+			for (TextPlaceholderComponent tpc : changed) {
+				tpc.copy();
+			}
+			this.slide.setPlaceholderData(next);
+		}
+		long nanos = System.nanoTime() - start;
+		
+		double nanosPerVerse = (double)nanos / verses;
+		System.out.println(String.format("Verse advance: %.0f ns per verse", nanosPerVerse));
+		
+		assertEquals(data.get(data.size() - 1).get(TextVariant.PRIMARY, TextType.TEXT).getText(), this.text.getText());
+		// generous; a frame at 60fps is 16.6ms
+		assertTrue(nanosPerVerse + "ns per verse", nanosPerVerse < 1_000_000);
+	}
+}
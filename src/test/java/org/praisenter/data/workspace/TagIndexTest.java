@@ -0,0 +1,103 @@
+package org.praisenter.data.workspace;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.praisenter.data.Tag;
+import org.praisenter.data.song.Song;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the lookups and the counts of the {@link TagIndex}.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public class TagIndexTest extends TestCase {
+	private static final Tag HYMN = new Tag("hymn");
+	private static final Tag CHRISTMAS = new Tag("christmas");
+	private static final Tag FAST = new Tag("fast");
+	
+	private TagIndex index;
+	private Song song1;
+	private Song song2;
+	private Song song3;
+	
+	@Override
+	protected void setUp() throws Exception {
+		this.index = new TagIndex();
+		this.song1 = song(HYMN, CHRISTMAS);
+		this.song2 = song(HYMN);
+		this.song3 = song(CHRISTMAS, FAST);
+		this.index.putAll(List.of(this.song1, this.song2, this.song3));
+	}
+	
+	private static Song song(Tag... tags) {
+		Song song = new Song();
+		song.getTags().addAll(List.of(tags));
+		return song;
+	}
+	
+	public void testGetItemIds() {
+		assertEquals(Set.of(this.song1.getId(), this.song2.getId()), this.index.getItemIds(List.of(HYMN)));
+		assertEquals(Set.of(this.song1.getId(), this.song3.getId()), this.index.getItemIds(List.of(new Tag("christmas"))));
+		
+		// all the tags have to match
+		assertEquals(Set.of(this.song1.getId()), this.index.getItemIds(List.of(HYMN, CHRISTMAS)));
+		assertTrue(this.index.getItemIds(List.of(HYMN, FAST)).isEmpty());
+		assertTrue(this.index.getItemIds(List.of(HYMN, new Tag("unknown"))).isEmpty());
+		assertTrue(this.index.getItemIds(List.of()).isEmpty());
+		assertTrue(this.index.getItemIds(null).isEmpty());
+	}
+	
+	public void testCounts() {
+		assertEquals(2, this.index.getCount(HYMN));
+		assertEquals(2, this.index.getCount(CHRISTMAS));
+		assertEquals(1, this.index.getCount(FAST));
+		assertEquals(0, this.index.getCount(new Tag("unknown")));
+		assertEquals(Set.of(HYMN, CHRISTMAS, FAST), this.index.getTagsUnmodifiable());
+	}
+	
+	public void testUpdate() {
+		this.song2.getTags().add(FAST);
+		this.song3.getTags().remove(FAST);
+		this.index.put(this.song2);
+		this.index.put(this.song3);
+		
+		assertEquals(Set.of(this.song2.getId()), this.index.getItemIds(List.of(FAST)));
+		assertEquals(1, this.index.getCount(FAST));
+		assertEquals(Set.of(this.song1.getId(), this.song3.getId()), this.index.getItemIds(List.of(CHRISTMAS)));
+		
+		// putting the same tags again changes nothing
+		this.index.put(this.song2);
+		assertEquals(1, this.index.getCount(FAST));
+	}
+	
+	public void testUnusedTagsRemoved() {
+		this.song3.getTags().clear();
+		this.index.put(this.song3);
+		assertFalse(this.index.getTagsUnmodifiable().contains(FAST));
+		assertEquals(1, this.index.getCount(CHRISTMAS));
+		
+		this.index.remove(this.song1.getId());
+		assertEquals(Set.of(HYMN), this.index.getTagsUnmodifiable());
+		assertEquals(Set.of(this.song2.getId()), this.index.getItemIds(List.of(HYMN)));
+		
+		// removing something that isn't indexed is ignored
+		this.index.remove(UUID.randomUUID());
+		this.index.remove(this.song1.getId());
+		assertEquals(1, this.index.getCount(HYMN));
+	}
+	
+	public void testNumbersReused() {
+		// a new item reuses the number of a removed item without mixing up the ids
+		this.index.remove(this.song1.getId());
+		Song song4 = song(FAST);
+		this.index.put(song4);
+		
+		assertEquals(Set.of(this.song3.getId(), song4.getId()), this.index.getItemIds(List.of(FAST)));
+		assertEquals(Set.of(this.song2.getId()), this.index.getItemIds(List.of(HYMN)));
+		assertEquals(Set.of(this.song3.getId()), this.index.getItemIds(List.of(CHRISTMAS)));
+	}
+}
@@ -0,0 +1,128 @@
+package org.praisenter.ui;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the seeded font size search against a search from scratch.
+ * <p>
+ * The text is measured with a simple model of a wrapping paragraph (fixed width 
+ * characters and line height) so that the tests don't need the font libraries.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public class FontSizeSearchTest extends TestCase {
+	/** The box width */
+	private static final double WIDTH = 1800;
+	
+	/** The box height */
+	private static final double HEIGHT = 900;
+	
+	/** The maximum font size */
+	private static final double MAX_FONT_SIZE = 200;
+	
+	/**
+	 * Counts the fit tests (layouts) of a search.
+	 */
+	private static final class Paragraph implements FontSizeSearch.FitTest {
+		private final int length;
+		private int layouts;
+		
+		public Paragraph(int length) {
+			this.length = length;
+		}
+		
+		@Override
+		public boolean fits(double size) {
+			this.layouts++;
+			double charactersPerLine = Math.max(1, Math.floor(WIDTH / (size * 0.5)));
+			double lines = Math.ceil(this.length / charactersPerLine);
+			return lines * size * 1.2 <= HEIGHT;
+		}
+	}
+	
+	/**
+	 * A search from scratch; the same binary search and result as the
+	 * full paragraph search when there's a maximum font size.
+	 * @param test the fit test
+	 * @return double
+	 */
+	private static double fresh(FontSizeSearch.FitTest test) {
+		double lo = 1.0;
+		double hi = MAX_FONT_SIZE;
+		if (test.fits(hi)) {
+			return hi - 1.0;
+		}
+		while (hi - lo > 0.1) {
+			double mid = (lo + hi) * 0.5;
+			if (test.fits(mid)) {
+				lo = mid;
+			} else {
+				hi = mid;
+			}
+		}
+		return Math.max(1.0, lo - 1.0);
+	}
+	
+	/**
+	 * The seeded search should find the same size as a search from scratch
+	 * no matter how far off the seed is.
+	 */
+	public void testSeededSameAsFresh() {
+		int[] lengths = new int[] { 1, 10, 50, 120, 300, 600, 2000 };
+		double[] seeds = new double[] { 1, 5, 20, 60, 120, 199, 250 };
+		for (int length : lengths) {
+			double expected = fresh(new Paragraph(length));
+			for (double seed : seeds) {
+				double actual = FontSizeSearch.fromSeed(new Paragraph(length), seed, MAX_FONT_SIZE);
+				assertEquals("length " + length + " seed " + seed, expected, actual, 0.2);
+				assertTrue("length " + length + " seed " + seed + " doesn't fit", new Paragraph(length).fits(actual));
+			}
+		}
+	}
+	
+	/**
+	 * Simulates advancing through verses of a chapter, where each verse is fit
+	 * in the same box, and compares the layouts needed with and without the seed.
+	 * <p>
+	 * The layouts are counted rather than timed since a layout of real text 
+	 * costs far more than the search itself.
+	 */
+	public void testVerseAdvance() {
+		Random random = new Random(1);
+		int verses = 1000;
+		
+		int seededLayouts = 0;
+		int freshLayouts = 0;
+		
+		int previousLength = 0;
+		double previous = 0;
+		for (int i = 0; i < verses; i++) {
+			// verses are usually between 50 and 400 characters
+			int length = 50 + random.nextInt(350);
+			
+			Paragraph fresh = new Paragraph(length);
+			double expected = fresh(fresh);
+			freshLayouts += fresh.layouts;
+			
+			// seeded the same way the TextMeasurer does
+			Paragraph seeded = new Paragraph(length);
+			double actual = i > 0 && length <= previousLength * 2 && previousLength <= length * 2
+					? FontSizeSearch.fromSeed(seeded, previous, MAX_FONT_SIZE)
+					: fresh(seeded);
+			seededLayouts += seeded.layouts;
+			
+			assertEquals("verse " + i + " length " + length, expected, actual, 0.2);
+			
+			previousLength = length;
+			previous = actual;
+		}
+		
+		double seededAverage = (double)seededLayouts / verses;
+		double freshAverage = (double)freshLayouts / verses;
+		System.out.println(String.format("Verse advance: %.2f layouts seeded, %.2f layouts fresh per verse", seededAverage, freshAverage));
+		
+		assertTrue(seededAverage + " >= " + freshAverage, seededAverage < freshAverage);
+	}
+}
@@ -0,0 +1,90 @@
+package org.praisenter.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import junit.framework.TestCase;
+
+/**
+ * Tests the {@link ObservableLists} helper methods.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public class ObservableListsTest extends TestCase {
+	private ObservableList<String> list;
+	private List<String> removed;
+	private List<String> added;
+	
+	@Override
+	protected void setUp() throws Exception {
+		this.list = FXCollections.observableArrayList("a", "b", "c", "d", "e");
+		this.removed = new ArrayList<>();
+		this.added = new ArrayList<>();
+		this.list.addListener((ListChangeListener.Change<? extends String> c) -> {
+			while (c.next()) {
+				this.removed.addAll(c.getRemoved());
+				this.added.addAll(c.getAddedSubList());
+			}
+		});
+	}
+	
+	public void testReplaceMiddle() {
+		List<String> items = new ArrayList<>(this.list);
+		items.set(2, "x");
+		items.add(3, "y");
+		ObservableLists.replace(this.list, items);
+		
+		assertEquals(items, this.list);
+		// only the changed range is reported
+		assertEquals(List.of("c"), this.removed);
+		assertEquals(List.of("x", "y"), this.added);
+	}
+	
+	public void testReplaceSame() {
+		ObservableLists.replace(this.list, new ArrayList<>(this.list));
+		assertTrue(this.removed.isEmpty());
+		assertTrue(this.added.isEmpty());
+	}
+	
+	public void testReplaceByIdentity() {
+		// equal but not the same instance so it's replaced
+		List<String> items = new ArrayList<>(this.list);
+		items.set(4, new String("e"));
+		ObservableLists.replace(this.list, items);
+		assertEquals(1, this.removed.size());
+		assertSame(items.get(4), this.list.get(4));
+	}
+	
+	public void testReplaceAll() {
+		ObservableLists.replace(this.list, List.of("x"));
+		assertEquals(List.of("x"), this.list);
+		assertEquals(5, this.removed.size());
+		
+		ObservableLists.replace(this.list, List.of());
+		assertTrue(this.list.isEmpty());
+	}
+	
+	public void testMerge() {
+		List<StringBuilder> builders = new ArrayList<>();
+		ObservableList<StringBuilder> list = FXCollections.observableArrayList();
+		for (String s : List.of("a1", "b1", "c1")) {
+			StringBuilder sb = new StringBuilder(s);
+			builders.add(sb);
+			list.add(sb);
+		}
+		
+		// matched by the first letter, updated with the rest
+		List<StringBuilder> items = List.of(new StringBuilder("c2"), new StringBuilder("a2"), new StringBuilder("d2"));
+		ObservableLists.merge(list, items, (sb) -> sb.charAt(0), (sb, edit) -> sb.replace(0, sb.length(), edit.toString()));
+		
+		assertEquals(3, list.size());
+		assertSame(builders.get(2), list.get(0));
+		assertSame(builders.get(0), list.get(1));
+		assertSame(items.get(2), list.get(2));
+		assertEquals("c2", list.get(0).toString());
+		assertEquals("a2", list.get(1).toString());
+	}
+}
@@ -0,0 +1,99 @@
+package org.praisenter.ui.bible;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.praisenter.data.bible.Bible;
+import org.praisenter.data.bible.Book;
+import org.praisenter.data.bible.Chapter;
+import org.praisenter.data.bible.Verse;
+import org.praisenter.ui.undo.UndoManager;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests renumbering and reordering with {@link BibleOrdering}.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public class BibleOrderingTest extends TestCase {
+	private Bible bible;
+	private Chapter chapter;
+	private UndoManager undoManager;
+	
+	@Override
+	protected void setUp() throws Exception {
+		this.bible = new Bible("Test");
+		this.chapter = new Chapter(1);
+		this.chapter.getVerses().add(new Verse(3, "c"));
+		this.chapter.getVerses().add(new Verse(1, "a"));
+		this.chapter.getVerses().add(new Verse(2, "b"));
+		this.chapter.getVerses().add(new Verse(2, "b2"));
+		Book book = new Book(2, "Exodus");
+		book.getChapters().add(this.chapter);
+		this.bible.getBooks().add(book);
+		this.bible.getBooks().add(new Book(1, "Genesis"));
+		
+		this.undoManager = new UndoManager();
+		this.undoManager.setTarget(this.bible);
+		this.undoManager.watch(this.bible, true);
+	}
+	
+	private List<String> getVerseText() {
+		return this.chapter.getVerses().stream().map(Verse::getText).collect(Collectors.toList());
+	}
+	
+	private List<Integer> getVerseNumbers() {
+		return this.chapter.getVerses().stream().map(Verse::getNumber).collect(Collectors.toList());
+	}
+	
+	public void testReorder() {
+		BibleOrdering.reorder(this.bible, this.undoManager, Runnable::run, Runnable::run).join();
+		
+		assertEquals("Genesis", this.bible.getBooks().get(0).getName());
+		// stable, so verses with the same number keep their order
+		assertEquals(List.of("a", "b", "b2", "c"), this.getVerseText());
+		
+		// one edit for the whole reorder
+		assertEquals(1, this.undoManager.getUndoCount());
+		this.undoManager.undo();
+		assertEquals("Exodus", this.bible.getBooks().get(0).getName());
+		assertEquals(List.of("c", "a", "b", "b2"), this.getVerseText());
+		
+		this.undoManager.redo();
+		assertEquals(List.of("a", "b", "b2", "c"), this.getVerseText());
+	}
+	
+	public void testRenumber() {
+		BibleOrdering.renumber(this.chapter, this.undoManager, Runnable::run, Runnable::run).join();
+		
+		assertEquals(List.of(1, 2, 3, 4), this.getVerseNumbers());
+		assertEquals(List.of("c", "a", "b", "b2"), this.getVerseText());
+		// only the selected chapter is renumbered
+		assertEquals(2, this.bible.getBooks().get(0).getNumber());
+		
+		assertEquals(1, this.undoManager.getUndoCount());
+		this.undoManager.undo();
+		assertEquals(List.of(3, 1, 2, 2), this.getVerseNumbers());
+	}
+	
+	public void testNothingToDo() {
+		BibleOrdering.reorder(this.bible, this.undoManager, Runnable::run, Runnable::run).join();
+		BibleOrdering.renumber(this.bible, this.undoManager, Runnable::run, Runnable::run).join();
+		int count = this.undoManager.getUndoCount();
+		
+		BibleOrdering.reorder(this.bible, this.undoManager, Runnable::run, Runnable::run).join();
+		BibleOrdering.renumber(this.bible, this.undoManager, Runnable::run, Runnable::run).join();
+		assertEquals(count, this.undoManager.getUndoCount());
+	}
+	
+	public void testChangedWhileWorking() {
+		// the list is changed after it's copied but before the changes are applied
+		BibleOrdering.reorder(this.chapter, this.undoManager, (r) -> {
+			this.chapter.getVerses().remove(0);
+			r.run();
+		}, Runnable::run).join();
+		
+		assertEquals(List.of("a", "b", "b2"), this.getVerseText());
+	}
+}
@@ -0,0 +1,83 @@
+package org.praisenter.ui.bible;
+
+import org.praisenter.data.bible.Bible;
+import org.praisenter.data.bible.Book;
+import org.praisenter.data.bible.Chapter;
+
+import javafx.scene.control.TreeItem;
+import junit.framework.TestCase;
+
+/**
+ * Tests the lazy creation and paging of {@link BibleTreeItem}s.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public class BibleTreeItemTest extends TestCase {
+	private Bible bible;
+	private Book book;
+	private BibleTreeItem root;
+	
+	@Override
+	protected void setUp() throws Exception {
+		this.bible = new Bible("Test");
+		this.book = new Book(19, "Psalms");
+		for (int i = 1; i <= 150; i++) {
+			this.book.getChapters().add(new Chapter(i));
+		}
+		this.bible.getBooks().add(this.book);
+		
+		this.root = new BibleTreeItem();
+		this.root.setValue(this.bible);
+	}
+	
+	public void testChildrenCreatedOnExpand() {
+		assertTrue(this.root.getChildren().isEmpty());
+		assertFalse(this.root.isLeaf());
+		
+		this.root.setExpanded(true);
+		assertEquals(1, this.root.getChildren().size());
+		assertSame(this.book, this.root.getChildren().get(0).getValue());
+	}
+	
+	public void testPaging() {
+		this.root.setExpanded(true);
+		TreeItem<Object> item = this.root.getChildren().get(0);
+		item.setExpanded(true);
+		
+		assertEquals(2, item.getChildren().size());
+		TreeItem<Object> first = item.getChildren().get(0);
+		TreeItem<Object> second = item.getChildren().get(1);
+		assertEquals(1, ((BibleTreePage)first.getValue()).getStart());
+		assertEquals(BibleTreeItem.PAGE_SIZE, ((BibleTreePage)first.getValue()).getEnd());
+		assertEquals(150, ((BibleTreePage)second.getValue()).getEnd());
+		
+		// the items of a page aren't created until it's expanded
+		assertTrue(second.getChildren().isEmpty());
+		second.setExpanded(true);
+		assertEquals(50, second.getChildren().size());
+		TreeItem<Object> chapter = second.getChildren().get(0);
+		assertSame(this.book.getChapters().get(100), chapter.getValue());
+		assertSame(this.book, BibleTreeItem.getParentValue(chapter));
+	}
+	
+	public void testDataChanges() {
+		this.root.setExpanded(true);
+		TreeItem<Object> item = this.root.getChildren().get(0);
+		item.setExpanded(true);
+		TreeItem<Object> second = item.getChildren().get(1);
+		second.setExpanded(true);
+		TreeItem<Object> chapter = second.getChildren().get(1);
+		
+		// removing from the first page shifts the second page but keeps its items
+		this.book.getChapters().remove(0);
+		assertEquals(149, ((BibleTreePage)second.getValue()).getEnd());
+		assertEquals(49, second.getChildren().size());
+		assertSame(chapter, second.getChildren().get(0));
+		
+		// back to a single page of items
+		this.book.getChapters().remove(0, 49);
+		assertEquals(BibleTreeItem.PAGE_SIZE, item.getChildren().size());
+		assertSame(chapter, item.getChildren().get(51));
+		assertTrue(item.getChildren().get(0).getValue() instanceof Chapter);
+	}
+}
@@ -0,0 +1,103 @@
+package org.praisenter.ui.bible;
+
+import org.praisenter.data.bible.Book;
+import org.praisenter.data.bible.Chapter;
+import org.praisenter.data.bible.Verse;
+import org.praisenter.ui.BulkEditParseException;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests parsing and applying bulk edits with the {@link BookBulkEditConverter}.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public class BookBulkEditConverterTest extends TestCase {
+	private BookBulkEditConverter converter;
+	private Book book;
+	
+	@Override
+	protected void setUp() throws Exception {
+		this.converter = new BookBulkEditConverter();
+		this.book = new Book(1, "Genesis");
+		for (int c = 1; c <= 2; c++) {
+			Chapter chapter = new Chapter(c);
+			for (int v = 1; v <= 3; v++) {
+				chapter.getVerses().add(new Verse(v, "Verse " + c + ":" + v));
+			}
+			this.book.getChapters().add(chapter);
+		}
+	}
+	
+	public void testRoundTrip() throws Exception {
+		Book parsed = this.converter.fromString(this.converter.toString(this.book));
+		assertEquals(this.book.getNumber(), parsed.getNumber());
+		assertEquals(this.book.getName(), parsed.getName());
+		assertEquals(2, parsed.getChapters().size());
+		assertEquals(3, parsed.getChapters().get(1).getVerses().size());
+		assertEquals("Verse 2:3", parsed.getChapters().get(1).getVerses().get(2).getText());
+		
+		Book sample = this.converter.fromString(this.converter.getSample());
+		assertEquals("Genesis", sample.getName());
+		assertEquals(2, sample.getChapters().size());
+	}
+	
+	public void testErrorLines() {
+		String text = "1 Genesis\n1 verse before a chapter\n1\n1 In the beginning\nnot a verse\n2 And the earth\n99999999999 too big";
+		try {
+			this.converter.fromString(text);
+			fail("expected a parse error");
+		} catch (BulkEditParseException ex) {
+			// all the errors are reported, the first one is the line of the exception
+			assertEquals(2, ex.getLine());
+			assertEquals(3, ex.getSuppressed().length);
+			assertEquals(5, ((BulkEditParseException)ex.getSuppressed()[1]).getLine());
+			assertEquals(7, ((BulkEditParseException)ex.getSuppressed()[2]).getLine());
+		}
+	}
+	
+	public void testErrorLimit() {
+		StringBuilder sb = new StringBuilder("1 Genesis\n1\n");
+		for (int i = 0; i < 50; i++) {
+			sb.append("bad\n");
+		}
+		try {
+			this.converter.fromString(sb.toString());
+			fail("expected a parse error");
+		} catch (BulkEditParseException ex) {
+			assertEquals(3, ex.getLine());
+			assertEquals(50, ex.getSuppressed().length);
+		}
+	}
+	
+	public void testBadFirstLine() {
+		try {
+			this.converter.fromString("Genesis\n1\n1 In the beginning");
+			fail("expected a parse error");
+		} catch (BulkEditParseException ex) {
+			assertEquals(1, ex.getLine());
+		}
+	}
+	
+	public void testApplyKeepsExistingItems() throws Exception {
+		Chapter chapter1 = this.book.getChapters().get(0);
+		Verse verse1 = chapter1.getVerses().get(0);
+		Verse verse2 = chapter1.getVerses().get(1);
+		Chapter chapter2 = this.book.getChapters().get(1);
+		
+		// change one verse, remove another and add a chapter
+		String text = "1 Genesis\n1\n1 Verse 1:1\n2 Changed\n2\n1 Verse 2:1\n2 Verse 2:2\n3\n1 New";
+		Book edits = this.converter.fromString(text);
+		this.converter.apply(this.book, edits);
+		
+		assertEquals(3, this.book.getChapters().size());
+		assertSame(chapter1, this.book.getChapters().get(0));
+		assertSame(chapter2, this.book.getChapters().get(1));
+		assertSame(verse1, chapter1.getVerses().get(0));
+		assertSame(verse2, chapter1.getVerses().get(1));
+		assertEquals("Changed", verse2.getText());
+		assertEquals(2, chapter1.getVerses().size());
+		assertEquals(2, chapter2.getVerses().size());
+		assertEquals("New", this.book.getChapters().get(2).getVerses().get(0).getText());
+	}
+}
@@ -0,0 +1,140 @@
+package org.praisenter.ui.controls;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import org.praisenter.ui.events.FlowListViewSelectionEvent;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.layout.Pane;
+import junit.framework.TestCase;
+
+/**
+ * Tests the index based selection of the {@link FlowListSelectionModel}; the
+ * keyboard range selection and the drag selection use these methods.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public class FlowListSelectionModelTest extends TestCase {
+	private ObservableList<String> items;
+	private FlowListSelectionModel<String> selection;
+	private int events;
+	
+	@Override
+	protected void setUp() throws Exception {
+		// NOTE: the view is a control which needs a running toolkit, so a pane stands in for it
+		Pane view = new Pane();
+		this.items = FXCollections.observableArrayList("a", "b", "c", "d", "e", "f", "g", "h");
+		this.selection = new FlowListSelectionModel<String>(this.items, view);
+		this.events = 0;
+		view.addEventHandler(FlowListViewSelectionEvent.CHANGED, (e) -> this.events++);
+	}
+	
+	private static BitSet indices(int... indices) {
+		BitSet set = new BitSet();
+		for (int index : indices) {
+			set.set(index);
+		}
+		return set;
+	}
+	
+	public void testSelectIndex() {
+		this.selection.selectIndexOnly(2);
+		assertEquals("c", this.selection.getSelectedItem());
+		assertTrue(this.selection.isIndexSelected(2));
+		assertFalse(this.selection.isIndexSelected(1));
+		
+		this.selection.selectIndex(4);
+		assertEquals(Arrays.asList("c", "e"), this.selection.getSelectedItems());
+		assertNull(this.selection.getSelectedItem());
+		assertEquals(2, this.events);
+	}
+	
+	public void testSelectRange() {
+		this.selection.selectRangeOnly(5, 2);
+		assertEquals(Arrays.asList("c", "d", "e", "f"), this.selection.getSelectedItems());
+		assertEquals(1, this.events);
+		
+		// shrinking the range replaces the selection
+		this.selection.selectRangeOnly(5, 4);
+		assertEquals(Arrays.asList("e", "f"), this.selection.getSelectedItems());
+		assertEquals(2, this.events);
+		
+		// the range is clamped to the items
+		this.selection.selectRangeOnly(6, 20);
+		assertEquals(Arrays.asList("g", "h"), this.selection.getSelectedItems());
+	}
+	
+	public void testDragSelection() {
+		// a drag fires a selection for each mouse move
+		this.selection.selectIndicesOnly(indices(0, 1));
+		this.selection.selectIndicesOnly(indices(0, 1));
+		this.selection.selectIndicesOnly(indices(0, 1, 4, 5));
+		assertEquals(Arrays.asList("a", "b", "e", "f"), this.selection.getSelectedItems());
+		
+		// the same indices don't change the selection or fire an event
+		assertEquals(2, this.events);
+		
+		// dragging off of all items clears the selection
+		this.selection.selectIndicesOnly(new BitSet());
+		assertTrue(this.selection.getSelectedItems().isEmpty());
+		assertEquals(3, this.events);
+	}
+	
+	public void testDeselect() {
+		this.selection.selectRangeOnly(0, 3);
+		this.selection.deselectIndex(1);
+		assertEquals(Arrays.asList("a", "c", "d"), this.selection.getSelectedItems());
+		
+		// deselecting an item that isn't selected does nothing
+		this.selection.deselectIndex(6);
+		assertEquals(2, this.events);
+	}
+	
+	public void testSingleSelect() {
+		this.selection.multiselectProperty().set(false);
+		this.selection.selectRangeOnly(1, 3);
+		assertEquals(Arrays.asList("b"), this.selection.getSelectedItems());
+		
+		this.selection.selectIndex(5);
+		assertEquals(Arrays.asList("f"), this.selection.getSelectedItems());
+	}
+	
+	public void testSelectByItem() {
+		List<String> items = Arrays.asList("h", "b", "z");
+		this.selection.selectOnly(items);
+		// the selection is in item order and unknown items are ignored
+		assertEquals(Arrays.asList("b", "h"), this.selection.getSelectedItems());
+		
+		this.selection.invert();
+		assertEquals(Arrays.asList("a", "c", "d", "e", "f", "g"), this.selection.getSelectedItems());
+		
+		this.selection.selectAll();
+		assertEquals(8, this.selection.getSelectedItems().size());
+		
+		this.selection.clear();
+		assertTrue(this.selection.getSelectedItems().isEmpty());
+		assertEquals(4, this.events);
+	}
+	
+	public void testItemsChangedWithoutSelection() {
+		this.selection.selectIndexOnly(7);
+		this.selection.clear();
+		
+		// the positions are rebuilt after the items change
+		this.items.setAll("h", "g", "f");
+		this.selection.selectOnly(Arrays.asList("f"));
+		assertTrue(this.selection.isIndexSelected(2));
+		assertEquals(Arrays.asList("f"), this.selection.getSelectedItems());
+	}
+	
+	public void testKeyProvider() {
+		this.selection.setKeyProvider((item) -> item.toUpperCase());
+		this.selection.select(new String("c"));
+		this.selection.select("D");
+		assertEquals(Arrays.asList("c", "d"), this.selection.getSelectedItems());
+		assertTrue(this.selection.isSelected("C"));
+	}
+}
@@ -0,0 +1,133 @@
+package org.praisenter.ui.library;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.praisenter.data.Persistable;
+import org.praisenter.data.slide.Slide;
+import org.praisenter.data.song.Song;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import junit.framework.TestCase;
+
+/**
+ * Tests the filtering and sorting of the {@link LibraryListIndex}.
+ * <p>
+ * The work is done on the calling thread so the results are available right away.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public class LibraryListIndexTest extends TestCase {
+	private ObservableList<Persistable> source;
+	private ObservableList<Persistable> target;
+	private LibraryListIndex index;
+	
+	@Override
+	protected void setUp() throws Exception {
+		this.source = FXCollections.observableArrayList();
+		this.source.add(slide("Amazing Grace", 3));
+		this.source.add(slide("Grace Alone", 1));
+		this.source.add(song("Great Is Thy Faithfulness", 2));
+		this.source.add(song("Amazing Love", 5));
+		this.source.add(slide("Announcements", 4));
+		this.target = FXCollections.observableArrayList();
+		this.index = new LibraryListIndex(this.source, this.target, Runnable::run, Runnable::run);
+	}
+	
+	private static Slide slide(String name, long modified) {
+		Slide slide = new Slide(name);
+		slide.setModifiedDate(Instant.ofEpochSecond(modified));
+		return slide;
+	}
+	
+	private static Song song(String name, long modified) {
+		Song song = new Song();
+		song.setName(name);
+		song.setModifiedDate(Instant.ofEpochSecond(modified));
+		return song;
+	}
+	
+	private List<String> names() {
+		List<String> names = new ArrayList<>();
+		for (Persistable item : this.target) {
+			names.add(item.getName());
+		}
+		return names;
+	}
+	
+	public void testSortByName() {
+		assertEquals(Arrays.asList("Amazing Grace", "Amazing Love", "Announcements", "Grace Alone", "Great Is Thy Faithfulness"), this.names());
+		
+		this.index.sort(LibraryListSortField.NAME, false);
+		assertEquals(Arrays.asList("Great Is Thy Faithfulness", "Grace Alone", "Announcements", "Amazing Love", "Amazing Grace"), this.names());
+	}
+	
+	public void testSortByOther() {
+		this.index.sort(LibraryListSortField.MODIFIED_ON, true);
+		assertEquals(Arrays.asList("Grace Alone", "Great Is Thy Faithfulness", "Amazing Grace", "Announcements", "Amazing Love"), this.names());
+		
+		// songs before slides, then by name
+		this.index.sort(LibraryListSortField.TYPE, true);
+		assertEquals(Arrays.asList("Amazing Love", "Great Is Thy Faithfulness", "Amazing Grace", "Announcements", "Grace Alone"), this.names());
+	}
+	
+	public void testNarrowing() {
+		this.index.filterNow("a", null);
+		assertEquals(5, this.target.size());
+		
+		// each extension of the search only checks the previous matches
+		this.index.filterNow("am", null);
+		assertEquals(Arrays.asList("Amazing Grace", "Amazing Love"), this.names());
+		
+		this.index.filterNow("amazing g", null);
+		assertEquals(Arrays.asList("Amazing Grace"), this.names());
+		
+		// removing text must widen the search again
+		this.index.filterNow("gr", null);
+		assertEquals(Arrays.asList("Amazing Grace", "Grace Alone", "Great Is Thy Faithfulness"), this.names());
+		
+		this.index.filterNow("", null);
+		assertEquals(5, this.target.size());
+	}
+	
+	public void testNarrowingWithSort() {
+		this.index.filterNow("a", null);
+		this.index.sort(LibraryListSortField.NAME, false);
+		
+		// the narrowed result keeps the current sort
+		this.index.filterNow("grace", null);
+		assertEquals(Arrays.asList("Grace Alone", "Amazing Grace"), this.names());
+	}
+	
+	public void testTypeFilter() {
+		this.index.filterNow("amazing", LibraryListType.SONG);
+		assertEquals(Arrays.asList("Amazing Love"), this.names());
+		
+		// changing the type isn't a narrowing
+		this.index.filterNow("amazing", LibraryListType.SLIDE);
+		assertEquals(Arrays.asList("Amazing Grace"), this.names());
+		
+		this.index.filterNow("amazing", null);
+		assertEquals(Arrays.asList("Amazing Grace", "Amazing Love"), this.names());
+	}
+	
+	public void testSourceChanges() {
+		this.index.filterNow("grace", null);
+		assertEquals(Arrays.asList("Amazing Grace", "Grace Alone"), this.names());
+		
+		// renamed items are filtered and sorted by their new name
+		((Slide)this.source.get(1)).setName("Abundant Grace");
+		this.source.set(1, this.source.get(1));
+		assertEquals(Arrays.asList("Abundant Grace", "Amazing Grace"), this.names());
+		
+		this.source.add(slide("Saving Grace", 6));
+		this.source.remove(0);
+		assertEquals(Arrays.asList("Abundant Grace", "Saving Grace"), this.names());
+		
+		this.index.filterNow("saving", null);
+		assertEquals(Arrays.asList("Saving Grace"), this.names());
+	}
+}
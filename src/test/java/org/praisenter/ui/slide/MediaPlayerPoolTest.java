@@ -0,0 +1,71 @@
+package org.praisenter.ui.slide;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.praisenter.data.media.Media;
+import org.praisenter.data.media.MediaType;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests that pre-rolling in the {@link MediaPlayerPool} respects the memory budget.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public class MediaPlayerPoolTest extends TestCase {
+	private static final long MEGABYTE = 1024 * 1024;
+	
+	/** The media that players were created for */
+	private List<Media> created;
+	private MediaPlayerPool pool;
+	
+	@Override
+	protected void setUp() throws Exception {
+		this.created = new ArrayList<>();
+		// players can't be created without real media so only record the requests
+		this.pool = new MediaPlayerPool(3, (media) -> {
+			this.created.add(media);
+			return null;
+		});
+	}
+	
+	private static Media media(MediaType type, int width, int height) {
+		Media media = new Media();
+		media.setName(type.name());
+		media.mediaTypeProperty().set(type);
+		media.widthProperty().set(width);
+		media.heightProperty().set(height);
+		return media;
+	}
+	
+	public void testZeroBudget() {
+		// a budget of zero disables pre-rolling
+		this.pool.preroll(media(MediaType.AUDIO, 0, 0), 0);
+		this.pool.preroll(media(MediaType.VIDEO, 1920, 1080), 0);
+		assertTrue(this.created.isEmpty());
+		assertEquals(0, this.pool.getEstimatedSize());
+	}
+	
+	public void testTooLarge() {
+		// the buffered frames of a 4k video don't fit in 16MB but 1080p does
+		this.pool.preroll(media(MediaType.VIDEO, 3840, 2160), 16 * MEGABYTE);
+		assertTrue(this.created.isEmpty());
+		
+		Media media = media(MediaType.VIDEO, 1920, 1080);
+		this.pool.preroll(media, 64 * MEGABYTE);
+		assertEquals(List.of(media), this.created);
+	}
+	
+	public void testAudio() {
+		Media media = media(MediaType.AUDIO, 0, 0);
+		this.pool.preroll(media, 16 * MEGABYTE);
+		assertEquals(List.of(media), this.created);
+	}
+	
+	public void testNotPlayable() {
+		this.pool.preroll(media(MediaType.IMAGE, 1920, 1080), 1024 * MEGABYTE);
+		this.pool.preroll(null, 1024 * MEGABYTE);
+		assertTrue(this.created.isEmpty());
+	}
+}
@@ -0,0 +1,193 @@
+package org.praisenter.ui.slide;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.praisenter.data.slide.effects.SlideShadow;
+import org.praisenter.data.slide.graphics.SlideColor;
+import org.praisenter.ui.slide.convert.EffectConverter;
+
+import javafx.scene.effect.BlurType;
+import javafx.scene.effect.DropShadow;
+import junit.framework.TestCase;
+
+/**
+ * Benchmarks the CPU time saved by caching text with a shadow and glow as a bitmap while
+ * it's animated (the text effect caching setting, see TextComponentNode).
+ * <p>
+ * Rendering needs a running JavaFX toolkit, so this models what the software pipeline does 
+ * each frame: without the cache the text's coverage is blurred for each effect (three box 
+ * blur passes per axis, the default {@link BlurType#THREE_PASS_BOX}) and composited; with 
+ * the cache the blurs are done once and each frame only copies the cached bitmap. The 
+ * effects are the ones the slide editor's shadow and glow settings produce.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public class TextEffectCachingBenchmarkTest extends TestCase {
+	/** The size of the text node (a full width paragraph on a 1080p slide) */
+	private static final int WIDTH = 1600;
+	private static final int HEIGHT = 400;
+	
+	/** The frames of a one second transition at 60fps */
+	private static final int FRAMES = 60;
+	
+	/** The number of measured transitions */
+	private static final int TRANSITIONS = 3;
+	
+	public void testShadowAndGlow() {
+		SlideShadow shadow = new SlideShadow();
+		shadow.setColor(new SlideColor(0, 0, 0, 0.8));
+		shadow.setOffsetX(4);
+		shadow.setOffsetY(4);
+		shadow.setRadius(10);
+		
+		SlideShadow glow = new SlideShadow();
+		glow.setColor(new SlideColor(1, 1, 1, 0.8));
+		glow.setRadius(20);
+		glow.setSpread(0.2);
+		
+		List<DropShadow> effects = new ArrayList<>();
+		effects.add((DropShadow)EffectConverter.toJavaFX(shadow));
+		effects.add((DropShadow)EffectConverter.toJavaFX(glow));
+		
+		int pad = 0;
+		for (DropShadow effect : effects) {
+			assertEquals(BlurType.THREE_PASS_BOX, effect.getBlurType());
+			pad = Math.max(pad, (int)Math.ceil(effect.getRadius()) + (int)Math.ceil(Math.max(Math.abs(effect.getOffsetX()), Math.abs(effect.getOffsetY()))));
+		}
+		
+		int w = WIDTH + pad * 2;
+		int h = HEIGHT + pad * 2;
+		float[] text = createText(w, h, pad);
+		float[] frame = new float[w * h];
+		float[] cache = new float[w * h];
+		float[] scratch = new float[w * h];
+		float[] blurred = new float[w * h];
+		
+		// warm up
+		for (int i = 0; i < FRAMES; i++) {
+			renderUncached(effects, text, blurred, scratch, frame, w, h);
+			renderCached(cache, frame);
+		}
+		
+		long uncached = 0;
+		long cached = 0;
+		for (int t = 0; t < TRANSITIONS; t++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < FRAMES; i++) {
+				renderUncached(effects, text, blurred, scratch, frame, w, h);
+			}
+			uncached += System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			// the cache is rendered once when the node is shown
+			renderUncached(effects, text, blurred, scratch, cache, w, h);
+			for (int i = 0; i < FRAMES; i++) {
+				renderCached(cache, frame);
+			}
+			cached += System.nanoTime() - start;
+		}
+		
+		double uncachedPerFrame = uncached / 1e6 / (FRAMES * TRANSITIONS);
+		double cachedPerFrame = cached / 1e6 / (FRAMES * TRANSITIONS);
+		System.out.println(String.format("Text effects: %.3f ms/frame uncached, %.3f ms/frame cached (%.1fx)", 
+				uncachedPerFrame, cachedPerFrame, uncachedPerFrame / cachedPerFrame));
+		
+		assertTrue(cachedPerFrame + "ms >= " + uncachedPerFrame + "ms", cachedPerFrame < uncachedPerFrame);
+	}
+	
+	/**
+	 * Returns the coverage of some lines of glyph sized boxes.
+	 * @param w the width
+	 * @param h the height
+	 * @param pad the padding for the effects
+	 * @return float[]
+	 */
+	private static float[] createText(int w, int h, int pad) {
+		Random random = new Random(1);
+		float[] text = new float[w * h];
+		int lineHeight = 80;
+		for (int y = pad; y + lineHeight <= h - pad; y += lineHeight) {
+			for (int x = pad; x + 30 <= w - pad; x += 36) {
+				if (random.nextInt(6) == 0) continue;
+				int gh = 30 + random.nextInt(30);
+				for (int gy = y + lineHeight - gh; gy < y + lineHeight; gy++) {
+					for (int gx = x; gx < x + 30; gx++) {
+						text[gy * w + gx] = 1.0f;
+					}
+				}
+			}
+		}
+		return text;
+	}
+	
+	/**
+	 * Renders a frame the way the effect chain is rendered without a cache.
+	 */
+	private static void renderUncached(List<DropShadow> effects, float[] text, float[] blurred, float[] scratch, float[] frame, int w, int h) {
+		System.arraycopy(text, 0, frame, 0, text.length);
+		for (DropShadow effect : effects) {
+			System.arraycopy(text, 0, blurred, 0, text.length);
+			int size = Math.max(1, (int)Math.round(effect.getRadius() * 2 / 3));
+			for (int pass = 0; pass < 3; pass++) {
+				blurHorizontal(blurred, scratch, w, h, size);
+				blurVertical(scratch, blurred, w, h, size);
+			}
+			// composite the shadow under the text
+			float alpha = (float)effect.getColor().getOpacity();
+			int dx = (int)effect.getOffsetX();
+			int dy = (int)effect.getOffsetY();
+			for (int y = Math.max(0, dy); y < Math.min(h, h + dy); y++) {
+				int row = y * w;
+				int srow = (y - dy) * w;
+				for (int x = Math.max(0, dx); x < Math.min(w, w + dx); x++) {
+					float a = frame[row + x];
+					frame[row + x] = a + blurred[srow + x - dx] * alpha * (1 - a);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Renders a frame from the cached bitmap.
+	 */
+	private static void renderCached(float[] cache, float[] frame) {
+		System.arraycopy(cache, 0, frame, 0, cache.length);
+	}
+	
+	private static void blurHorizontal(float[] src, float[] dst, int w, int h, int size) {
+		int r = size / 2;
+		float scale = 1.0f / (r * 2 + 1);
+		for (int y = 0; y < h; y++) {
+			int row = y * w;
+			float sum = 0;
+			for (int x = -r; x <= r; x++) {
+				sum += x >= 0 && x < w ? src[row + x] : 0;
+			}
+			for (int x = 0; x < w; x++) {
+				dst[row + x] = sum * scale;
+				int in = x + r + 1;
+				int out = x - r;
+				sum += (in < w ? src[row + in] : 0) - (out >= 0 ? src[row + out] : 0);
+			}
+		}
+	}
+	
+	private static void blurVertical(float[] src, float[] dst, int w, int h, int size) {
+		int r = size / 2;
+		float scale = 1.0f / (r * 2 + 1);
+		for (int x = 0; x < w; x++) {
+			float sum = 0;
+			for (int y = -r; y <= r; y++) {
+				sum += y >= 0 && y < h ? src[y * w + x] : 0;
+			}
+			for (int y = 0; y < h; y++) {
+				dst[y * w + x] = sum * scale;
+				int in = y + r + 1;
+				int out = y - r;
+				sum += (in < h ? src[in * w + x] : 0) - (out >= 0 ? src[out * w + x] : 0);
+			}
+		}
+	}
+}
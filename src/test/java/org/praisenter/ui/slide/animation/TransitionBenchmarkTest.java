@@ -0,0 +1,155 @@
+package org.praisenter.ui.slide.animation;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.DoubleConsumer;
+
+import org.praisenter.data.slide.animation.AnimationDirection;
+import org.praisenter.data.slide.animation.AnimationOperation;
+import org.praisenter.data.slide.animation.AnimationOrientation;
+import org.praisenter.data.slide.animation.AnimationShapeType;
+import org.praisenter.data.slide.animation.AnimationType;
+
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.scene.layout.Pane;
+import javafx.scene.shape.Shape;
+import junit.framework.TestCase;
+
+/**
+ * Frame time and allocation benchmark for the clip based transitions.
+ * <p>
+ * Each transition is interpolated over a full animation once per {@link AnimationType}
+ * after a warm up. The clips are reshaped in place each frame, so a frame shouldn't
+ * allocate anything.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public class TransitionBenchmarkTest extends TestCase {
+	/** The bounds of the transitioned node */
+	private static final Bounds BOUNDS = new BoundingBox(0, 0, 1920, 1080);
+	
+	/** The number of frames per warm up/measured run */
+	private static final int FRAMES = 20000;
+	
+	/** The allowed average allocation per frame in bytes (to allow for the odd event or boxed value) */
+	private static final double MAX_BYTES_PER_FRAME = 1.0;
+	
+	/** The allowed average time per frame in nanoseconds; a frame at 60fps is 16.6ms */
+	private static final double MAX_NANOS_PER_FRAME = 100_000.0;
+	
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+	
+	public void testBlinds() {
+		for (AnimationOrientation orientation : AnimationOrientation.values()) {
+			BlindsTransition transition = new BlindsTransition();
+			transition.setBounds(BOUNDS);
+			transition.setOrientation(orientation);
+			transition.setBlindsCount(12);
+			benchmark("Blinds " + orientation, transition, transition::interpolate);
+		}
+	}
+	
+	public void testShaped() {
+		for (AnimationOperation operation : AnimationOperation.values()) {
+			ShapedTransition transition = new ShapedTransition();
+			transition.setBounds(BOUNDS);
+			transition.setShapeType(AnimationShapeType.CIRCLE);
+			transition.setOperation(operation);
+			benchmark("Shaped " + operation, transition, transition::interpolate);
+		}
+	}
+	
+	public void testSplit() {
+		for (AnimationOrientation orientation : AnimationOrientation.values()) {
+			for (AnimationOperation operation : AnimationOperation.values()) {
+				SplitTransition transition = new SplitTransition();
+				transition.setBounds(BOUNDS);
+				transition.setOrientation(orientation);
+				transition.setOperation(operation);
+				benchmark("Split " + orientation + " " + operation, transition, transition::interpolate);
+			}
+		}
+	}
+	
+	public void testSwipe() {
+		for (AnimationDirection direction : AnimationDirection.values()) {
+			SwipeTransition transition = new SwipeTransition();
+			transition.setBounds(BOUNDS);
+			transition.setDirection(direction);
+			benchmark("Swipe " + direction, transition, transition::interpolate);
+		}
+	}
+	
+	/**
+	 * Runs the given transition for each animation type and checks the per frame 
+	 * allocation and time.
+	 * @param name the name to report
+	 * @param transition the transition
+	 * @param frame the transition's interpolate method
+	 */
+	private static void benchmark(String name, CustomTransition transition, DoubleConsumer frame) {
+		for (AnimationType type : AnimationType.values()) {
+			transition.setNode(new Pane());
+			transition.setRate(type == AnimationType.IN ? 1 : -1);
+			
+			// warm up
+			run(frame);
+			
+			long bytes = THREADS.getCurrentThreadAllocatedBytes();
+			long start = System.nanoTime();
+			run(frame);
+			long nanos = System.nanoTime() - start;
+			bytes = THREADS.getCurrentThreadAllocatedBytes() - bytes;
+			
+			double bytesPerFrame = (double)bytes / FRAMES;
+			double nanosPerFrame = (double)nanos / FRAMES;
+			System.out.println(String.format("%-40s %-3s %10.1f ns/frame %8.2f B/frame", name, type, nanosPerFrame, bytesPerFrame));
+			
+			assertNotNull(name + " " + type, transition.getNode().getClip());
+			assertTrue(name + " " + type + " allocated " + bytesPerFrame + " bytes per frame", bytesPerFrame <= MAX_BYTES_PER_FRAME);
+			assertTrue(name + " " + type + " took " + nanosPerFrame + "ns per frame", nanosPerFrame <= MAX_NANOS_PER_FRAME);
+			
+			transition.stop();
+		}
+	}
+	
+	/**
+	 * Interpolates one full animation.
+	 * @param frame the transition's interpolate method
+	 */
+	private static void run(DoubleConsumer frame) {
+		for (int i = 0; i <= FRAMES; i++) {
+			frame.accept((double)i / FRAMES);
+		}
+	}
+	
+	/**
+	 * Makes sure the circle clip never leaves the bounds, even when the
+	 * radius is larger than the bounds.
+	 */
+	public void testCircleClipStaysInBounds() {
+		for (AnimationOperation operation : AnimationOperation.values()) {
+			for (AnimationType type : AnimationType.values()) {
+				ShapedTransition transition = new ShapedTransition();
+				transition.setBounds(BOUNDS);
+				transition.setShapeType(AnimationShapeType.CIRCLE);
+				transition.setOperation(operation);
+				transition.setNode(new Pane());
+				transition.setRate(type == AnimationType.IN ? 1 : -1);
+				
+				for (int i = 0; i <= 100; i++) {
+					transition.interpolate(i / 100.0);
+					Shape clip = (Shape)transition.getNode().getClip();
+					Bounds bounds = clip.getBoundsInLocal();
+					if (bounds.isEmpty()) continue;
+					// allow for the path's float precision
+					assertTrue(operation + " " + type + " " + i + " " + bounds, 
+							bounds.getMinX() >= BOUNDS.getMinX() - 0.01 &&
+							bounds.getMinY() >= BOUNDS.getMinY() - 0.01 &&
+							bounds.getMaxX() <= BOUNDS.getMaxX() + 0.01 &&
+							bounds.getMaxY() <= BOUNDS.getMaxY() + 0.01);
+				}
+			}
+		}
+	}
+}
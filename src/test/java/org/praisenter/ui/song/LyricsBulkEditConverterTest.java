@@ -0,0 +1,60 @@
+package org.praisenter.ui.song;
+
+import org.praisenter.data.song.Lyrics;
+import org.praisenter.data.song.Section;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests parsing and applying bulk edits with the {@link LyricsBulkEditConverter}.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public class LyricsBulkEditConverterTest extends TestCase {
+	private LyricsBulkEditConverter converter;
+	
+	@Override
+	protected void setUp() throws Exception {
+		this.converter = new LyricsBulkEditConverter();
+	}
+	
+	public void testParse() throws Exception {
+		Lyrics lyrics = this.converter.fromString("Title\n\n\nChorus\nline 1\n \nline 2\n\nVerse 1\nverse text\n");
+		assertEquals("Title", lyrics.getTitle());
+		assertEquals(2, lyrics.getSections().size());
+		
+		// lines with only whitespace are kept as empty lines
+		Section chorus = lyrics.getSections().get(0);
+		assertEquals("Chorus", chorus.getName());
+		assertEquals("line 1\n\nline 2", chorus.getText());
+		assertEquals("verse text", lyrics.getSections().get(1).getText());
+	}
+	
+	public void testRoundTrip() throws Exception {
+		Lyrics lyrics = this.converter.fromString(this.converter.getSample());
+		Lyrics parsed = this.converter.fromString(this.converter.toString(lyrics));
+		assertEquals(lyrics.getTitle(), parsed.getTitle());
+		assertEquals(lyrics.getSections().size(), parsed.getSections().size());
+		for (int i = 0; i < lyrics.getSections().size(); i++) {
+			assertEquals(lyrics.getSections().get(i).getName(), parsed.getSections().get(i).getName());
+			assertEquals(lyrics.getSections().get(i).getText(), parsed.getSections().get(i).getText());
+		}
+	}
+	
+	public void testApplyKeepsSections() throws Exception {
+		Lyrics lyrics = this.converter.fromString("Title\n\nVerse 1\none\n\nChorus\nchorus\n\nVerse 2\ntwo");
+		Section verse1 = lyrics.getSections().get(0);
+		Section chorus = lyrics.getSections().get(1);
+		
+		Lyrics edits = this.converter.fromString("New Title\n\nChorus\nchanged\n\nVerse 1\none\n\nBridge\nbridge");
+		this.converter.apply(lyrics, edits);
+		
+		assertEquals("New Title", lyrics.getTitle());
+		assertEquals(3, lyrics.getSections().size());
+		// matched by name so the existing sections (and their ids) are kept
+		assertSame(chorus, lyrics.getSections().get(0));
+		assertEquals("changed", chorus.getText());
+		assertSame(verse1, lyrics.getSections().get(1));
+		assertEquals("Bridge", lyrics.getSections().get(2).getName());
+	}
+}
@@ -0,0 +1,129 @@
+package org.praisenter.ui.undo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.praisenter.data.bible.Bible;
+import org.praisenter.data.bible.Book;
+import org.praisenter.data.bible.Chapter;
+import org.praisenter.data.bible.Verse;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the lazy watching of large collections by the {@link EditWatcher}.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public class EditWatcherTest extends TestCase {
+	private Bible bible;
+	private Book book;
+	private Chapter chapter;
+	private Verse verse;
+	private List<Edit> edits;
+	private EditWatcher watcher;
+	
+	@Override
+	protected void setUp() throws Exception {
+		this.bible = new Bible("Test");
+		this.verse = new Verse(1, "In the beginning");
+		this.chapter = new Chapter(1);
+		this.chapter.getVerses().add(this.verse);
+		this.book = new Book(1, "Genesis");
+		this.book.getChapters().add(this.chapter);
+		this.bible.getBooks().add(this.book);
+		this.bible.getBooks().add(new Book(2, "Exodus"));
+		
+		this.edits = new ArrayList<>();
+		this.watcher = new EditWatcher(this.edits::add);
+		this.watcher.register(this.bible);
+	}
+	
+	public void testLazyItemsNotWatched() {
+		int count = this.watcher.count();
+		
+		// the books are lazy so editing one isn't recorded until it's watched
+		this.book.setName("Gen");
+		this.verse.setText("In the beginning God");
+		assertTrue(this.edits.isEmpty());
+		
+		// the list itself is watched though
+		this.bible.getBooks().remove(1);
+		assertEquals(1, this.edits.size());
+		assertEquals(count, this.watcher.count());
+	}
+	
+	public void testWatch() {
+		this.watcher.watch(this.book, false);
+		this.book.setName("Gen");
+		// one edit, not one for the bridge method of the read only interface too
+		assertEquals(1, this.edits.size());
+		
+		// not deep, so the chapters aren't watched
+		this.verse.setText("In the beginning God");
+		assertEquals(1, this.edits.size());
+		
+		this.watcher.watch(this.book, true);
+		this.verse.setText("In the beginning God created");
+		assertEquals(2, this.edits.size());
+		assertTrue(this.edits.get(1) instanceof PropertyEdit);
+		
+		// watching again doesn't add more listeners
+		int count = this.watcher.count();
+		this.watcher.watch(this.book, true);
+		assertEquals(count, this.watcher.count());
+		this.verse.setText("In the beginning God created the heaven");
+		assertEquals(3, this.edits.size());
+	}
+	
+	public void testAddedItemsWatched() {
+		Book book = new Book(3, "Leviticus");
+		this.bible.getBooks().add(book);
+		assertEquals(1, this.edits.size());
+		
+		// items added after registration are watched
+		book.setName("Lev");
+		assertEquals(2, this.edits.size());
+	}
+	
+	public void testMovedItemsStayWatched() {
+		this.watcher.watch(this.bible, true);
+		int count = this.watcher.count();
+		
+		// reordering with setAll removes and adds the books again
+		this.bible.getBooks().setAll(List.of(this.bible.getBooks().get(1), this.book));
+		assertEquals(1, this.edits.size());
+		assertEquals(count, this.watcher.count());
+		
+		// so the deep watch of the book isn't lost
+		this.verse.setText("In the beginning God");
+		assertEquals(2, this.edits.size());
+		
+		// removed items are still unwatched
+		this.bible.getBooks().remove(this.book);
+		this.verse.setText("In the beginning God created");
+		assertEquals(3, this.edits.size());
+		assertTrue(this.watcher.count() < count);
+	}
+	
+	public void testUnregister() {
+		this.watcher.watch(this.bible, true);
+		assertTrue(this.watcher.count() > 0);
+		
+		this.watcher.unregister();
+		assertEquals(0, this.watcher.count());
+		
+		this.verse.setText("In the beginning God");
+		this.bible.setName("Changed");
+		assertTrue(this.edits.isEmpty());
+	}
+	
+	public void testWatchedValues() {
+		List<Object> values = EditWatcher.getWatchedValues(this.verse);
+		assertTrue(values.contains(1));
+		assertTrue(values.contains("In the beginning"));
+		
+		// the collections are returned as is
+		assertTrue(EditWatcher.getWatchedValues(this.chapter).contains(this.chapter.getVerses()));
+	}
+}
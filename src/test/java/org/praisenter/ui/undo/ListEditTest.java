@@ -0,0 +1,158 @@
+package org.praisenter.ui.undo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import junit.framework.TestCase;
+
+/**
+ * Tests the undo and redo of {@link ListEdit}s, including changes with several ranges.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public class ListEditTest extends TestCase {
+	private ObservableList<String> list;
+	private List<ListEdit<String>> edits;
+	private boolean operating;
+	
+	@Override
+	protected void setUp() throws Exception {
+		this.list = FXCollections.observableArrayList("a", "b", "c", "d", "e", "f", "g", "h", "i", "j");
+		this.edits = new ArrayList<>();
+		this.list.addListener((ListChangeListener.Change<? extends String> c) -> {
+			if (!this.operating) {
+				this.edits.add(new ListEdit<String>("list", this.list, c));
+			}
+		});
+	}
+	
+	private void undo(int index) {
+		this.operating = true;
+		this.edits.get(index).undo();
+		this.operating = false;
+	}
+	
+	private void redo(int index) {
+		this.operating = true;
+		this.edits.get(index).redo();
+		this.operating = false;
+	}
+	
+	/**
+	 * Checks that the items are the same instances, not just equal.
+	 */
+	private static void assertSameItems(List<String> expected, List<String> actual) {
+		assertEquals(expected, actual);
+		for (int i = 0; i < expected.size(); i++) {
+			assertSame(expected.get(i), actual.get(i));
+		}
+	}
+	
+	public void testRemoveSeveralRanges() {
+		List<String> original = new ArrayList<>(this.list);
+		
+		// one change with three ranges
+		this.list.removeAll("b", "e", "f", "i");
+		assertEquals(1, this.edits.size());
+		assertEquals(Arrays.asList("a", "c", "d", "g", "h", "j"), this.list);
+		
+		this.undo(0);
+		assertSameItems(original, this.list);
+		
+		this.redo(0);
+		assertEquals(Arrays.asList("a", "c", "d", "g", "h", "j"), this.list);
+		
+		this.undo(0);
+		assertSameItems(original, this.list);
+	}
+	
+	public void testRetainSeveralRanges() {
+		List<String> original = new ArrayList<>(this.list);
+		
+		this.list.retainAll("a", "d", "j");
+		assertEquals(Arrays.asList("a", "d", "j"), this.list);
+		
+		this.undo(0);
+		assertSameItems(original, this.list);
+	}
+	
+	public void testPermutation() {
+		List<String> original = new ArrayList<>(this.list);
+		
+		FXCollections.sort(this.list, Comparator.reverseOrder());
+		assertEquals(Arrays.asList("j", "i", "h", "g", "f", "e", "d", "c", "b", "a"), this.list);
+		
+		this.undo(0);
+		assertSameItems(original, this.list);
+		
+		this.redo(0);
+		assertEquals(Arrays.asList("j", "i", "h", "g", "f", "e", "d", "c", "b", "a"), this.list);
+	}
+	
+	public void testSetAllKeepsOnlyTheDifference() {
+		List<String> original = new ArrayList<>(this.list);
+		
+		// swap two items in the middle by replacing the whole list
+		List<String> swapped = new ArrayList<>(this.list);
+		swapped.set(4, original.get(5));
+		swapped.set(5, original.get(4));
+		this.list.setAll(swapped);
+		
+		// replace every item of the same list with new instances
+		ObservableList<String> other = FXCollections.observableArrayList(original);
+		List<ListEdit<String>> others = new ArrayList<>();
+		other.addListener((ListChangeListener.Change<? extends String> c) -> others.add(new ListEdit<String>("other", other, c)));
+		List<String> copies = new ArrayList<>();
+		for (String item : original) {
+			copies.add(new String(item));
+		}
+		other.setAll(copies);
+		
+		// only the two swapped items are kept, not the whole list
+		assertTrue(this.edits.get(0).getEstimatedSize() < others.get(0).getEstimatedSize());
+		
+		this.undo(0);
+		assertSameItems(original, this.list);
+		this.redo(0);
+		assertSameItems(swapped, this.list);
+	}
+	
+	public void testNoChange() {
+		this.list.setAll(new ArrayList<>(this.list));
+		
+		// the same instances in the same order
+		assertEquals(1, this.edits.size());
+		assertEquals(SizeEstimator.OBJECT, this.edits.get(0).getEstimatedSize());
+		
+		this.undo(0);
+		assertEquals(10, this.list.size());
+	}
+	
+	public void testSequence() {
+		List<String> original = new ArrayList<>(this.list);
+		
+		this.list.add(3, "x");
+		this.list.remove(0, 2);
+		this.list.addAll(Arrays.asList("y", "z"));
+		FXCollections.sort(this.list);
+		this.list.removeAll("x", "j");
+		List<String> last = new ArrayList<>(this.list);
+		
+		// undo everything in reverse order
+		for (int i = this.edits.size() - 1; i >= 0; i--) {
+			this.undo(i);
+		}
+		assertSameItems(original, this.list);
+		
+		// and redo it all again
+		for (int i = 0; i < this.edits.size(); i++) {
+			this.redo(i);
+		}
+		assertEquals(last, this.list);
+	}
+}
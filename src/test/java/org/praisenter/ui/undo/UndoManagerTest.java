@@ -0,0 +1,133 @@
+package org.praisenter.ui.undo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the bounded history of the {@link UndoManager}.
+ * @author William Bittle
+ * @version 3.0.0
+ */
+public class UndoManagerTest extends TestCase {
+	/** The values the edits set */
+	private List<Integer> values;
+	
+	/**
+	 * An edit that appends a value when redone and removes it when undone.
+	 */
+	private final class AppendEdit implements Edit {
+		private final int value;
+		private final long size;
+		
+		public AppendEdit(int value, long size) {
+			this.value = value;
+			this.size = size;
+			values.add(value);
+		}
+		
+		@Override
+		public String getName() {
+			return "append";
+		}
+		
+		@Override
+		public void undo() {
+			values.remove(values.size() - 1);
+		}
+		
+		@Override
+		public void redo() {
+			values.add(this.value);
+		}
+		
+		@Override
+		public boolean isMergeSupported(Edit previous) {
+			return false;
+		}
+		
+		@Override
+		public Edit merge(Edit previous) {
+			return null;
+		}
+		
+		@Override
+		public long getEstimatedSize() {
+			return this.size;
+		}
+	}
+	
+	@Override
+	protected void setUp() throws Exception {
+		this.values = new ArrayList<>();
+	}
+	
+	public void testMaxEdits() {
+		UndoManager manager = new UndoManager(3, Long.MAX_VALUE);
+		for (int i = 0; i < 5; i++) {
+			manager.addEdit(new AppendEdit(i, 10));
+		}
+		assertEquals(3, manager.getUndoCount());
+		
+		// only the newest three can be undone
+		while (manager.isUndoAvailable()) {
+			manager.undo();
+		}
+		assertEquals(List.of(0, 1), this.values);
+		assertEquals(3, manager.getRedoCount());
+		
+		// the oldest edits were dropped so this isn't the original state
+		assertTrue(manager.isNotTopMarked());
+		
+		manager.redo();
+		manager.redo();
+		assertEquals(List.of(0, 1, 2, 3), this.values);
+	}
+	
+	public void testMaxSize() {
+		UndoManager manager = new UndoManager(100, 1000);
+		for (int i = 0; i < 5; i++) {
+			manager.addEdit(new AppendEdit(i, 300));
+		}
+		assertEquals(3, manager.getUndoCount());
+		
+		// the newest edit is always kept, even if it's too big
+		manager.addEdit(new AppendEdit(5, 5000));
+		assertEquals(1, manager.getUndoCount());
+		manager.undo();
+		assertEquals(List.of(0, 1, 2, 3, 4), this.values);
+	}
+	
+	public void testMarks() {
+		UndoManager manager = new UndoManager(2, Long.MAX_VALUE);
+		assertTrue(manager.isTopMarked());
+		
+		manager.addEdit(new AppendEdit(0, 10));
+		manager.mark();
+		assertTrue(manager.isTopMarked());
+		
+		// marks don't count as edits
+		manager.addEdit(new AppendEdit(1, 10));
+		assertEquals(3, manager.getUndoCount());
+		assertFalse(manager.isTopMarked());
+		
+		manager.undo();
+		assertTrue(manager.isTopMarked());
+		assertEquals(List.of(0), this.values);
+		
+		// a new edit clears the redos
+		manager.addEdit(new AppendEdit(2, 10));
+		assertFalse(manager.isRedoAvailable());
+		assertFalse(manager.isTopMarked());
+	}
+	
+	public void testSetMaxEdits() {
+		UndoManager manager = new UndoManager();
+		for (int i = 0; i < 10; i++) {
+			manager.addEdit(new AppendEdit(i, 10));
+		}
+		manager.setMaxEdits(4);
+		assertEquals(4, manager.getUndoCount());
+	}
+}